@@ -0,0 +1,31 @@
+package tic_tac_toe_mi;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Einstiegspunkt für die JMH Benchmarks.
+ * Aktiviert immer den GC-Profiler, damit neben ops/s auch
+ * gc.alloc.rate.norm (Bytes pro Operation) ausgegeben wird.
+ *
+ * Alle üblichen JMH-Argumente werden durchgereicht, z.B.:
+ *   java -cp benchmarks/target/benchmarks.jar:lib/tic_tac_toe.jar tic_tac_toe_mi.BenchmarkMain QLearning -rf csv
+ *
+ * @author johanneshaick
+ */
+public class BenchmarkMain {
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions kommandozeile = new CommandLineOptions(args);
+
+        Options optionen = new OptionsBuilder()
+            .parent(kommandozeile)
+            .addProfiler(GCProfiler.class)
+            .build();
+
+        new Runner(optionen).run();
+    }
+}
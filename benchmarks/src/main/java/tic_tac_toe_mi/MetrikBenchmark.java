@@ -0,0 +1,89 @@
+package tic_tac_toe_mi;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import tic_tac_toe_mi.metriken.Histogramm;
+import tic_tac_toe_mi.metriken.MetrikRegistry;
+import tic_tac_toe_mi.metriken.Zaehler;
+
+/**
+ * JMH Benchmark: Kosten eines Metrik-Ereignisses im Hot Path.
+ *
+ * Die Metriken liegen im Benchmark-Scope und werden von allen Threads
+ * geteilt - wie die static final Metriken in QLearningAgent und Spieler.
+ * Mit -t 8 zeigt sich, wie LongAdder und die Histogramm-Streifen unter
+ * Konkurrenz skalieren; das Ziel ist deutlich unter 50 ns pro Ereignis:
+ *   java -cp benchmarks/target/benchmarks.jar:lib/tic_tac_toe.jar tic_tac_toe_mi.BenchmarkMain Metrik -t 8
+ *
+ * @author johanneshaick
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetrikBenchmark {
+
+    /**
+     * Geteilte Metriken (eigene Registry, damit die eingebauten unberührt bleiben)
+     */
+    @State(Scope.Benchmark)
+    public static class GeteilteMetriken {
+        Zaehler zaehler;
+        Histogramm histogramm;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            MetrikRegistry registry = new MetrikRegistry();
+            zaehler = registry.zaehler("bench_total", "Benchmark");
+            histogramm = registry.histogramm("bench_sekunden", "Benchmark");
+        }
+    }
+
+    /**
+     * Puffer und Messwert-Folge eines Threads
+     */
+    @State(Scope.Thread)
+    public static class ThreadDaten {
+        Zaehler.Puffer puffer;
+        long nanos;
+
+        @Setup(Level.Trial)
+        public void setup(GeteilteMetriken geteilt) {
+            puffer = geteilt.zaehler.puffer(256);
+        }
+    }
+
+    @Benchmark
+    public void zaehler(GeteilteMetriken m) {
+        m.zaehler.erhoehe();
+    }
+
+    @Benchmark
+    public void zaehlerGepuffert(ThreadDaten t) {
+        t.puffer.erhoehe();
+    }
+
+    @Benchmark
+    public void histogramm(GeteilteMetriken m, ThreadDaten t) {
+        // Wechselnde Dauern, damit verschiedene Buckets getroffen werden
+        m.histogramm.erfasse(t.nanos++ & 0xFFFF);
+    }
+
+    @Benchmark
+    public void histogrammMitZeitmessung(GeteilteMetriken m) {
+        m.histogramm.erfasseSeit(System.nanoTime());
+    }
+}
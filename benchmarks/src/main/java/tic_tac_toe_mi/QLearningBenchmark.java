@@ -0,0 +1,119 @@
+package tic_tac_toe_mi;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import tictactoe.Farbe;
+import tictactoe.Spielfeld;
+import tictactoe.Zug;
+
+/**
+ * JMH Benchmarks für die Q-Learning Hot-Paths:
+ * Zugauswahl, Q-Update, State-Konvertierung, Spielende-Erkennung
+ * und eine komplette Self-Play Partie.
+ *
+ * Liegt im Paket tic_tac_toe_mi, um Selbstspiel (package-private) direkt zu messen.
+ *
+ * @author johanneshaick
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class QLearningBenchmark {
+
+    private QLearningAgent agent;
+    private QLearningAgent trainingsAgent;
+    private SpielzustandKonverter konverter;
+    private SpielzustandAnalyzer analyzer;
+    private BitSpielfeld brett;
+
+    // Mittelspiel-Position: X in der Mitte, O oben links, X oben rechts
+    private Spielfeld spielfeld;
+    private List<Zug> moeglicheZuege;
+    private String state;
+    private String naechsterState;
+    private int stateCode;
+    private int naechsterStateCode;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        konverter = new SpielzustandKonverter();
+        analyzer = new SpielzustandAnalyzer();
+        brett = new BitSpielfeld();
+
+        // Vortrainierter Agent, Exploitation-Pfad (ε = 0)
+        agent = new QLearningAgent(0.1, 0.9, 0.0);
+        trainingsAgent = new QLearningAgent(0.1, 0.9, 0.3);
+        for (int i = 0; i < 20000; i++) {
+            Selbstspiel.spiele(trainingsAgent, brett);
+        }
+        agent.getQTabelle().ausMap(trainingsAgent.getQTabelle().zuMap());
+
+        spielfeld = new Spielfeld();
+        spielfeld.setFarbe(1, 1, Farbe.Kreuz);
+        spielfeld.setFarbe(0, 0, Farbe.Kreis);
+        spielfeld.setFarbe(0, 2, Farbe.Kreuz);
+
+        moeglicheZuege = new ArrayList<>();
+        for (int zeile = 0; zeile < 3; zeile++) {
+            for (int spalte = 0; spalte < 3; spalte++) {
+                if (spielfeld.getFarbe(zeile, spalte) == Farbe.Leer) {
+                    moeglicheZuege.add(new Zug(zeile, spalte));
+                }
+            }
+        }
+
+        state = konverter.zuStringNormalisiert(spielfeld, Farbe.Kreis);
+        stateCode = konverter.zuCodeNormalisiert(spielfeld, Farbe.Kreis);
+        Spielfeld danach = konverter.kopiereSpielfeld(spielfeld);
+        danach.setFarbe(2, 0, Farbe.Kreis);
+        naechsterState = konverter.zuStringNormalisiert(danach, Farbe.Kreis);
+        naechsterStateCode = konverter.zuCodeNormalisiert(danach, Farbe.Kreis);
+    }
+
+    @Benchmark
+    public Zug waehleZug() {
+        return agent.waehleZug(spielfeld, Farbe.Kreis, moeglicheZuege);
+    }
+
+    @Benchmark
+    public void lernenString() {
+        agent.lernen(state, 6, 0.0, naechsterState, false);
+    }
+
+    @Benchmark
+    public void lernenCode() {
+        agent.lernen(stateCode, 6, 0.0, naechsterStateCode, false);
+    }
+
+    @Benchmark
+    public String zuStringNormalisiert() {
+        return konverter.zuStringNormalisiert(spielfeld, Farbe.Kreis);
+    }
+
+    @Benchmark
+    public boolean istSpielBeendet() {
+        return analyzer.istSpielBeendet(spielfeld);
+    }
+
+    @Benchmark
+    public int selbstspielPartie() {
+        return Selbstspiel.spiele(trainingsAgent, brett);
+    }
+}
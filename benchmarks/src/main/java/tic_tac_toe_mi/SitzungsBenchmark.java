@@ -0,0 +1,98 @@
+package tic_tac_toe_mi;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH Benchmark: viele gleichzeitige SpielSitzungen auf einer geteilten EingefrorenePolicy.
+ *
+ * Die Policy liegt im Benchmark-Scope (eine Instanz für alle Threads), jeder
+ * Thread bedient seine eigenen Sitzungen reihum. Die Thread-Anzahl kommt von
+ * JMH, z.B. für 8 Threads:
+ *   java -cp benchmarks/target/benchmarks.jar:lib/tic_tac_toe.jar tic_tac_toe_mi.BenchmarkMain Sitzungs -t 8
+ *
+ * @author johanneshaick
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SitzungsBenchmark {
+
+    /**
+     * Geteilte, eingefrorene Policy
+     */
+    @State(Scope.Benchmark)
+    public static class GeteiltePolicy {
+        EingefrorenePolicy policy;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            QLearningAgent agent = new QLearningAgent(0.1, 0.9, 0.3);
+            BitSpielfeld brett = new BitSpielfeld();
+            for (int i = 0; i < 20000; i++) {
+                Selbstspiel.spiele(agent, brett);
+            }
+            policy = EingefrorenePolicy.aus(agent);
+        }
+    }
+
+    /**
+     * Offene Sitzungen eines Threads
+     */
+    @State(Scope.Thread)
+    public static class Sitzungen {
+        @Param({"1", "1000", "100000"})
+        public int sitzungenProThread;
+
+        SpielSitzung[] offene;
+        int[] gegnerZug;
+        int naechste;
+        Random random;
+
+        @Setup(Level.Trial)
+        public void setup(GeteiltePolicy geteilt) {
+            offene = new SpielSitzung[sitzungenProThread];
+            gegnerZug = new int[sitzungenProThread];
+            for (int i = 0; i < sitzungenProThread; i++) {
+                offene[i] = geteilt.policy.neueSitzung("Sitzung " + i);
+                gegnerZug[i] = SpielSitzung.KEIN_ZUG;
+            }
+            random = new Random(42);
+        }
+    }
+
+    /**
+     * Ein Zug der nächsten Sitzung (Gegner: Zufall). Beendete Partien beginnen neu.
+     */
+    @Benchmark
+    public int zug(Sitzungen s) {
+        int i = s.naechste;
+        s.naechste = i + 1 == s.offene.length ? 0 : i + 1;
+
+        SpielSitzung sitzung = s.offene[i];
+        int aktion = sitzung.ziehe(s.gegnerZug[i]);
+        if (aktion == SpielSitzung.KEIN_ZUG || sitzung.istBeendet()) {
+            sitzung.zuruecksetzen();
+            s.gegnerZug[i] = SpielSitzung.KEIN_ZUG;
+        } else {
+            int[] frei = BitSpielfeld.felder(sitzung.getFreieFelder());
+            s.gegnerZug[i] = frei[s.random.nextInt(frei.length)];
+        }
+        return aktion;
+    }
+}
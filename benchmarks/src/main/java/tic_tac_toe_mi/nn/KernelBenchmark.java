@@ -0,0 +1,113 @@
+package tic_tac_toe_mi.nn;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH Vergleich der Rechenkerne (Scalar vs. Vector API) auf einzelnen Layer-Größen.
+ * Die drei ersten Formen entsprechen dem Default-Netz 9-128-64-9 (Gewichte rows × cols),
+ * 512x512 steht für breitere Layer.
+ *
+ * @author johanneshaick
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+@State(Scope.Thread)
+public class KernelBenchmark {
+
+    @Param({"scalar", "vector"})
+    public String kernel;
+
+    @Param({"128x9", "64x128", "9x64", "512x512"})
+    public String shape;
+
+    @Param({"32"})
+    public int batchSize;
+
+    private MatrixKernels kernels;
+    private int rows;
+    private int cols;
+    private double[] weights;
+    private double[] input;
+    private double[] gradient;
+    private double[] inputBatch;
+    private double[] gradientBatch;
+    private double[] output;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        kernels = kernel.equals("vector") ? new VectorKernels() : new ScalarKernels();
+        String[] teile = shape.split("x");
+        rows = Integer.parseInt(teile[0]);
+        cols = Integer.parseInt(teile[1]);
+
+        Random random = new Random(42);
+        weights = zufall(rows * cols, random);
+        input = zufall(cols, random);
+        gradient = zufall(rows, random);
+        inputBatch = zufall(batchSize * cols, random);
+        gradientBatch = zufall(batchSize * rows, random);
+        output = new double[batchSize * Math.max(rows, cols)];
+    }
+
+    private static double[] zufall(int n, Random random) {
+        double[] werte = new double[n];
+        for (int i = 0; i < n; i++) {
+            werte[i] = random.nextGaussian();
+        }
+        return werte;
+    }
+
+    @Benchmark
+    public double[] matvec() {
+        kernels.multiply(weights, rows, cols, input, output);
+        return output;
+    }
+
+    @Benchmark
+    public double[] matvecTranspose() {
+        kernels.multiplyTranspose(weights, rows, cols, gradient, output);
+        return output;
+    }
+
+    @Benchmark
+    public double[] rank1Update() {
+        // Lernrate 0: misst die Arbeit, ohne die Gewichte über die Iterationen zu verändern
+        kernels.rank1Update(weights, rows, cols, gradient, input, 0.0);
+        return weights;
+    }
+
+    @Benchmark
+    public double[] relu() {
+        kernels.relu(inputBatch, output, inputBatch.length);
+        return output;
+    }
+
+    @Benchmark
+    public double[] batchForward() {
+        kernels.multiplyBatch(weights, rows, cols, inputBatch, batchSize, output);
+        return output;
+    }
+
+    @Benchmark
+    public double[] batchBackward() {
+        kernels.multiplyTransposeBatch(weights, rows, cols, gradientBatch, batchSize, output);
+        return output;
+    }
+}
@@ -0,0 +1,120 @@
+package tic_tac_toe_mi.nn;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH Benchmarks für das Neural Network (9-128-64-9) und den Replay Buffer.
+ *
+ * @author johanneshaick
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+@State(Scope.Thread)
+public class NNBenchmark {
+
+    @Param({"32", "256"})
+    public int batchSize;
+
+    private NeuralNetwork network;
+    private ExperienceReplay replay;
+    private ExperienceReplay.Batch batch;
+    private double[] state;
+    private double[] target;
+    private double[][] batchStates;
+    private double[][] batchTargets;
+    private double[] flatStates;
+    private double[] flatTargets;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        network = new NeuralNetwork(42);
+        state = new double[] {1, 0, -1, 0, 1, 0, -1, 0, 0};
+        target = new double[NeuralNetwork.OUTPUT_SIZE];
+        target[4] = 1.0;
+
+        // Voller Replay Buffer wie im NNDemo-Training
+        Random random = new Random(42);
+        replay = new ExperienceReplay(10000, 42);
+        for (int i = 0; i < 10000; i++) {
+            double[] s = new double[9];
+            double[] next = new double[9];
+            for (int j = 0; j < 9; j++) {
+                s[j] = random.nextInt(3) - 1;
+                next[j] = random.nextInt(3) - 1;
+            }
+            replay.add(s, random.nextInt(9), random.nextDouble() * 2 - 1, next, random.nextBoolean());
+        }
+        
+        batch = new ExperienceReplay.Batch(batchSize);
+        
+        // Mini-Batch in beiden Darstellungen (pro Sample und flach)
+        batchStates = new double[batchSize][9];
+        batchTargets = new double[batchSize][NeuralNetwork.OUTPUT_SIZE];
+        flatStates = new double[batchSize * 9];
+        flatTargets = new double[batchSize * NeuralNetwork.OUTPUT_SIZE];
+        for (int b = 0; b < batchSize; b++) {
+            for (int j = 0; j < 9; j++) {
+                batchStates[b][j] = flatStates[b * 9 + j] = random.nextInt(3) - 1;
+                batchTargets[b][j] = flatTargets[b * 9 + j] = random.nextDouble() * 2 - 1;
+            }
+        }
+    }
+
+    @Benchmark
+    public double[] predict() {
+        return network.predict(state);
+    }
+
+    @Benchmark
+    public double train() {
+        return network.train(state, target, 0.001);
+    }
+
+    /**
+     * Bisheriger Weg: ein SGD-Schritt pro Sample
+     */
+    @Benchmark
+    public double trainPerSample() {
+        double loss = 0;
+        for (int b = 0; b < batchSize; b++) {
+            loss += network.train(batchStates[b], batchTargets[b], 0.001);
+        }
+        return loss;
+    }
+    
+    @Benchmark
+    public double trainBatch() {
+        return network.trainBatch(flatStates, flatTargets, batchSize, 0.001);
+    }
+    
+    /**
+     * Sampling direkt in den wiederverwendeten Batch (keine Allokation)
+     */
+    @Benchmark
+    public ExperienceReplay.Batch sample() {
+        replay.sample(batchSize, batch);
+        return batch;
+    }
+    
+    @Benchmark
+    public ExperienceReplay.Experience[] sampleExperiences() {
+        return replay.sample(batchSize);
+    }
+}
@@ -0,0 +1,108 @@
+package tic_tac_toe_mi.nn;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH Vergleich ganzer Netze mit Scalar- und Vector-Kernels.
+ * Die Kernel-Wahl erfolgt beim Start (MatrixKernels.select), daher läuft jede
+ * Variante in einem eigenen Fork mit -Dnn.kernels.
+ *
+ * @author johanneshaick
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Thread)
+public class NetworkKernelBenchmark {
+
+    private static final String VECTOR_MODUL = "--add-modules=jdk.incubator.vector";
+
+    // Default-Netz 9-128-64-9 und eine breitere Variante
+    @Param({"128,64", "512,512"})
+    public String hidden;
+
+    @Param({"32"})
+    public int batchSize;
+
+    private NeuralNetwork network;
+    private double[] state;
+    private double[] target;
+    private double[] qValues;
+    private double[] states;
+    private double[] targets;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        String[] teile = hidden.split(",");
+        int[] hiddenSizes = new int[teile.length];
+        for (int i = 0; i < teile.length; i++) {
+            hiddenSizes[i] = Integer.parseInt(teile[i].trim());
+        }
+        network = new NeuralNetwork(hiddenSizes, 42);
+
+        Random random = new Random(42);
+        state = new double[] {1, 0, -1, 0, 1, 0, -1, 0, 0};
+        target = new double[NeuralNetwork.OUTPUT_SIZE];
+        target[4] = 1.0;
+        qValues = new double[NeuralNetwork.OUTPUT_SIZE];
+        states = new double[batchSize * NeuralNetwork.INPUT_SIZE];
+        targets = new double[batchSize * NeuralNetwork.OUTPUT_SIZE];
+        for (int i = 0; i < states.length; i++) {
+            states[i] = random.nextInt(3) - 1;
+            targets[i] = random.nextDouble() * 2 - 1;
+        }
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {VECTOR_MODUL, "-Dnn.kernels=scalar"})
+    public double[] predictScalar() {
+        network.predict(state, qValues);
+        return qValues;
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {VECTOR_MODUL, "-Dnn.kernels=vector"})
+    public double[] predictVector() {
+        network.predict(state, qValues);
+        return qValues;
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {VECTOR_MODUL, "-Dnn.kernels=scalar"})
+    public double trainScalar() {
+        return network.train(state, target, 0.0001);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {VECTOR_MODUL, "-Dnn.kernels=vector"})
+    public double trainVector() {
+        return network.train(state, target, 0.0001);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {VECTOR_MODUL, "-Dnn.kernels=scalar"})
+    public double trainBatchScalar() {
+        return network.trainBatch(states, targets, batchSize, 0.0001);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {VECTOR_MODUL, "-Dnn.kernels=vector"})
+    public double trainBatchVector() {
+        return network.trainBatch(states, targets, batchSize, 0.0001);
+    }
+}
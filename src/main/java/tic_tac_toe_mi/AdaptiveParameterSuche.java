@@ -0,0 +1,332 @@
+package tic_tac_toe_mi;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import tictactoe.spieler.AbbruchNachIterationen;
+
+/**
+ * Adaptive Hyperparameter-Suche mit Successive Halving und Hyperband.
+ *
+ * Statt jede Konfiguration mit dem vollen Budget zu trainieren, werden alle
+ * Kandidaten zunächst mit wenigen Spielen trainiert und gegen den
+ * Zufallsspieler getestet. Nur das beste 1/η wird mit η-fachem Budget weiter
+ * trainiert, bis eine Konfiguration das volle Budget erreicht hat.
+ *
+ * Zwischen den Runden wird die Q-Tabelle jedes Kandidaten als .qbin
+ * gesichert; der Header enthält die bisherigen Trainingsspiele. Die nächste
+ * Runde trainiert nur die Differenz nach, und ein abgebrochener Lauf setzt
+ * bei den vorhandenen Checkpoints wieder auf.
+ *
+ * Hyperband führt mehrere Successive-Halving Durchläufe (Brackets) mit
+ * unterschiedlichem Verhältnis von Kandidatenzahl zu Startbudget aus, damit
+ * auch spät startende Konfigurationen eine Chance bekommen.
+ *
+ * @author johanneshaick
+ */
+public class AdaptiveParameterSuche {
+
+    private final int maxBudget;
+    private final int testSpiele;
+    private final int eta;
+    private final int anzahlThreads;
+    private final Path checkpointVerzeichnis;
+
+    /**
+     * Ergebnis einer Suche (Successive Halving oder Hyperband)
+     */
+    public static final class Bericht {
+        private final ParameterSuche.Ergebnis beste;
+        private final long trainingsSpiele;
+        private final long testSpieleGesamt;
+        private final int runden;
+
+        Bericht(ParameterSuche.Ergebnis beste, long trainingsSpiele, long testSpieleGesamt, int runden) {
+            this.beste = beste;
+            this.trainingsSpiele = trainingsSpiele;
+            this.testSpieleGesamt = testSpieleGesamt;
+            this.runden = runden;
+        }
+
+        /**
+         * Siegerkonfiguration mit ihrer Bewertung beim vollen Budget
+         */
+        public ParameterSuche.Ergebnis getBeste() {
+            return beste;
+        }
+
+        public long getTrainingsSpiele() {
+            return trainingsSpiele;
+        }
+
+        public long getTestSpiele() {
+            return testSpieleGesamt;
+        }
+
+        public int getRunden() {
+            return runden;
+        }
+
+        Bericht plus(Bericht andere) {
+            ParameterSuche.Ergebnis besser = andere.beste.getSiegrate() > beste.getSiegrate() ? andere.beste : beste;
+            return new Bericht(besser, trainingsSpiele + andere.trainingsSpiele,
+                               testSpieleGesamt + andere.testSpieleGesamt, runden + andere.runden);
+        }
+    }
+
+    /**
+     * Bewertung eines Kandidaten in einer Runde
+     */
+    private static final class Bewertung {
+        final ParameterSuche.Ergebnis ergebnis;
+        final int neueSpiele;
+
+        Bewertung(ParameterSuche.Ergebnis ergebnis, int neueSpiele) {
+            this.ergebnis = ergebnis;
+            this.neueSpiele = neueSpiele;
+        }
+    }
+
+    /**
+     * @param maxBudget Trainingsspiele, die der Sieger insgesamt erhält (wie im Grid)
+     * @param testSpiele Testspiele gegen den Zufallsspieler pro Bewertung
+     * @param eta Reduktionsfaktor (2 = Halving, 3 = Hyperband-Standard)
+     * @param anzahlThreads Kandidaten, die parallel trainiert werden
+     * @param checkpointVerzeichnis Ablage der Q-Tabellen zwischen den Runden
+     */
+    public AdaptiveParameterSuche(int maxBudget, int testSpiele, int eta, int anzahlThreads,
+                                  Path checkpointVerzeichnis) {
+        if (eta < 2) {
+            throw new IllegalArgumentException("Reduktionsfaktor muss mindestens 2 sein: " + eta);
+        }
+        if (anzahlThreads < 1) {
+            throw new IllegalArgumentException("Mindestens ein Thread erforderlich: " + anzahlThreads);
+        }
+        this.maxBudget = maxBudget;
+        this.testSpiele = testSpiele;
+        this.eta = eta;
+        this.anzahlThreads = anzahlThreads;
+        this.checkpointVerzeichnis = checkpointVerzeichnis;
+    }
+
+    // ========================================================================
+    // Successive Halving
+    // ========================================================================
+
+    /**
+     * Successive Halving über alle Kandidaten. Das Startbudget wird so gewählt,
+     * dass der letzte verbleibende Kandidat genau maxBudget erreicht.
+     */
+    public Bericht successiveHalving(List<ParameterSuche.Konfiguration> kandidaten) throws IOException {
+        int runden = 0;
+        for (long n = 1; n < kandidaten.size(); n *= eta) {
+            runden++;
+        }
+        int startBudget = (int) Math.max(1, Math.round(maxBudget / Math.pow(eta, runden)));
+        return successiveHalving(kandidaten, startBudget, checkpointVerzeichnis.resolve("halving"));
+    }
+
+    /**
+     * Successive Halving mit vorgegebenem Startbudget
+     *
+     * @param kandidaten Konfigurationen der ersten Runde
+     * @param startBudget Trainingsspiele pro Kandidat in der ersten Runde
+     * @param verzeichnis Checkpoint-Verzeichnis dieses Durchlaufs
+     */
+    public Bericht successiveHalving(List<ParameterSuche.Konfiguration> kandidaten, int startBudget,
+                                     Path verzeichnis) throws IOException {
+        Files.createDirectories(verzeichnis);
+        List<ParameterSuche.Konfiguration> ueberlebende = new ArrayList<>(kandidaten);
+        long budget = startBudget;
+        long trainingsSpiele = 0;
+        long testSpieleGesamt = 0;
+        int runde = 0;
+
+        ExecutorService pool = Executors.newFixedThreadPool(anzahlThreads);
+        try {
+            while (true) {
+                runde++;
+                int rundenBudget = (int) Math.min(budget, maxBudget);
+                List<Bewertung> bewertungen = bewerteParallel(pool, ueberlebende, rundenBudget, verzeichnis);
+                bewertungen.sort((a, b) -> Double.compare(b.ergebnis.getSiegrate(), a.ergebnis.getSiegrate()));
+
+                long neueSpiele = 0;
+                for (Bewertung bewertung : bewertungen) {
+                    neueSpiele += bewertung.neueSpiele;
+                }
+                trainingsSpiele += neueSpiele;
+                testSpieleGesamt += (long) bewertungen.size() * testSpiele;
+
+                ParameterSuche.Ergebnis fuehrender = bewertungen.get(0).ergebnis;
+                System.out.printf("  Runde %d: %2d Kandidaten × %,6d Spiele (+%,d trainiert) | bester %s: %.1f%%%n",
+                                  runde, bewertungen.size(), rundenBudget, neueSpiele,
+                                  fuehrender.getKonfiguration(), fuehrender.getSiegrate() * 100);
+
+                // Alle Verbliebenen haben das volle Budget: der Beste gewinnt
+                if (rundenBudget >= maxBudget) {
+                    return new Bericht(fuehrender, trainingsSpiele, testSpieleGesamt, runde);
+                }
+
+                int behalten = Math.max(1, bewertungen.size() / eta);
+                ueberlebende.clear();
+                for (int i = 0; i < behalten; i++) {
+                    ueberlebende.add(bewertungen.get(i).ergebnis.getKonfiguration());
+                }
+                // Der letzte Kandidat bekommt genau das volle Budget (keine Rundungsreste)
+                budget = behalten == 1 ? maxBudget : budget * eta;
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private List<Bewertung> bewerteParallel(ExecutorService pool, List<ParameterSuche.Konfiguration> kandidaten,
+                                            int budget, Path verzeichnis) throws IOException {
+        List<Future<Bewertung>> futures = new ArrayList<>(kandidaten.size());
+        for (ParameterSuche.Konfiguration konfiguration : kandidaten) {
+            futures.add(pool.submit(() -> trainiereBis(konfiguration, budget, verzeichnis)));
+        }
+        List<Bewertung> bewertungen = new ArrayList<>(kandidaten.size());
+        try {
+            for (Future<Bewertung> future : futures) {
+                bewertungen.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Parameter-Suche unterbrochen", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UncheckedIOException io) {
+                throw io.getCause();
+            }
+            throw new IllegalStateException("Konfiguration fehlgeschlagen", e.getCause());
+        }
+        return bewertungen;
+    }
+
+    /**
+     * Setzt beim Checkpoint an, trainiert bis zum Budget, sichert und bewertet
+     */
+    private Bewertung trainiereBis(ParameterSuche.Konfiguration konfiguration, int budget, Path verzeichnis) {
+        Spieler spieler = new Spieler("Test", konfiguration.getAlpha(), konfiguration.getGamma(),
+                                      konfiguration.getEpsilon());
+        spieler.setAusgabe(false);
+        QLearningAgent agent = spieler.getQLearningAgent();
+        Path checkpoint = verzeichnis.resolve(konfiguration.schluessel().replace(',', '_') + ".qbin");
+
+        try {
+            int bisher = 0;
+            if (Files.exists(checkpoint)) {
+                bisher = BinaeresModell.laden(checkpoint.toString(), agent.getQTabelle()).getTrainingSpiele();
+            }
+
+            int neueSpiele = Math.max(0, budget - bisher);
+            long start = System.nanoTime();
+            if (neueSpiele > 0) {
+                spieler.trainieren(new AbbruchNachIterationen(neueSpiele));
+
+                // Erst vollständig schreiben, dann umbenennen: kein halber Checkpoint bei Abbruch
+                Path temp = checkpoint.resolveSibling(checkpoint.getFileName() + ".tmp");
+                agent.speichereBinaer(temp.toString(), bisher + neueSpiele, true);
+                Files.move(temp, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            double dauer = (System.nanoTime() - start) / 1e9;
+
+            int[] bilanz = ParameterSuche.testeGegenZufall(spieler, testSpiele);
+            return new Bewertung(new ParameterSuche.Ergebnis(konfiguration, bilanz[0], bilanz[1], bilanz[2],
+                                                             agent.getAnzahlStates(), dauer), neueSpiele);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // ========================================================================
+    // Hyperband
+    // ========================================================================
+
+    /**
+     * Hyperband: Brackets s = sMax..0 mit n = ⌈(sMax+1)/(s+1) · η^s⌉ zufällig
+     * gewählten Kandidaten und Startbudget maxBudget · η^-s.
+     *
+     * @param grid Suchraum
+     * @param minBudget Kleinstes sinnvolles Startbudget (bestimmt sMax)
+     * @param seed Seed für die Kandidatenauswahl
+     */
+    public Bericht hyperband(List<ParameterSuche.Konfiguration> grid, int minBudget, long seed) throws IOException {
+        int sMax = 0;
+        while ((long) minBudget * eta <= maxBudget / (long) Math.pow(eta, sMax)) {
+            sMax++;
+        }
+
+        Random random = new Random(seed);
+        Bericht gesamt = null;
+        for (int s = sMax; s >= 0; s--) {
+            int n = (int) Math.min(grid.size(), Math.ceil((sMax + 1.0) / (s + 1) * Math.pow(eta, s)));
+            int startBudget = (int) Math.round(maxBudget / Math.pow(eta, s));
+
+            List<ParameterSuche.Konfiguration> kandidaten = new ArrayList<>(grid);
+            Collections.shuffle(kandidaten, random);
+            kandidaten = kandidaten.subList(0, n);
+
+            System.out.printf("Bracket s=%d: %d Kandidaten ab %,d Spielen%n", s, n, startBudget);
+            Bericht bracket = successiveHalving(kandidaten, startBudget,
+                                                checkpointVerzeichnis.resolve("hyperband-s" + s));
+            gesamt = gesamt == null ? bracket : gesamt.plus(bracket);
+        }
+        return gesamt;
+    }
+
+    // ========================================================================
+    // Vergleich mit dem vollständigen Grid
+    // ========================================================================
+
+    /**
+     * Gibt Spiele und Qualität im Vergleich zur vollständigen Grid-Suche aus.
+     * Die Grid-Werte stammen aus der CSV von ParameterTest (falls vorhanden).
+     */
+    public void vergleicheMitGrid(Bericht bericht, int gridGroesse, Path gridCsv) throws IOException {
+        long gridTraining = (long) gridGroesse * maxBudget;
+        long gridTests = (long) gridGroesse * testSpiele;
+        long adaptiv = bericht.trainingsSpiele + bericht.testSpieleGesamt;
+        long grid = gridTraining + gridTests;
+
+        ParameterSuche.Ergebnis beste = bericht.beste;
+        System.out.println();
+        System.out.printf("Gefunden: %s mit %.1f%% Siegrate (%d Runden)%n",
+                          beste.getKonfiguration(), beste.getSiegrate() * 100, bericht.runden);
+        System.out.printf("Spiele adaptiv: %,d Training + %,d Test = %,d%n",
+                          bericht.trainingsSpiele, bericht.testSpieleGesamt, adaptiv);
+        System.out.printf("Spiele Grid:    %,d Training + %,d Test = %,d%n", gridTraining, gridTests, grid);
+        System.out.printf("Aufwand:        %.1f%% des Grids%n", adaptiv * 100.0 / grid);
+
+        List<ParameterSuche.Ergebnis> gridErgebnisse = ParameterSuche.leseCsv(gridCsv);
+        if (gridErgebnisse.isEmpty()) {
+            return;
+        }
+        gridErgebnisse.sort((a, b) -> Double.compare(b.getSiegrate(), a.getSiegrate()));
+        int rang = 0;
+        for (int i = 0; i < gridErgebnisse.size(); i++) {
+            if (gridErgebnisse.get(i).getKonfiguration().schluessel()
+                    .equals(beste.getKonfiguration().schluessel())) {
+                rang = i + 1;
+            }
+        }
+        ParameterSuche.Ergebnis gridBeste = gridErgebnisse.get(0);
+        System.out.printf("Grid bestes:    %s mit %.1f%% (%s)%n", gridBeste.getKonfiguration(),
+                          gridBeste.getSiegrate() * 100, gridCsv);
+        if (rang > 0) {
+            System.out.printf("Gefundene Konfiguration im Grid: Rang %d von %d (%.1f%%)%n", rang,
+                              gridErgebnisse.size(), gridErgebnisse.get(rang - 1).getSiegrate() * 100);
+        }
+    }
+}
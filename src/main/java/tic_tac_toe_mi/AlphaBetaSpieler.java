@@ -0,0 +1,81 @@
+package tic_tac_toe_mi;
+
+import tictactoe.Farbe;
+import tictactoe.IllegalerZugException;
+import tictactoe.Zug;
+import tictactoe.spieler.ISpieler;
+
+/**
+ * Perfekter Referenz-Gegner für den 3x3-Referee auf Basis der AlphaBetaSuche.
+ *
+ * Der gegnerische Zug wird auf einem internen MnkSpielfeld nachgezogen, dann
+ * wird die Stellung bis zum Spielende durchsucht (auf 3x3 wenige tausend
+ * Knoten). Die Transpositionstabelle bleibt über Züge und Partien erhalten.
+ * Der Spieler verliert nie und nutzt jeden Fehler des Gegners aus.
+ *
+ * @author johanneshaick
+ */
+public class AlphaBetaSpieler implements ISpieler {
+
+    private static final MnkSpiel SPIEL = MnkSpiel.TIC_TAC_TOE;
+
+    private final AlphaBetaSuche suche = new AlphaBetaSuche(SPIEL, 16);
+    private final MnkSpielfeld brett = new MnkSpielfeld(SPIEL);
+    private String name;
+    private Farbe farbe;
+
+    public AlphaBetaSpieler(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public void neuesSpiel(Farbe meineFarbe, int bedenkzeitInSekunden) {
+        this.farbe = meineFarbe;
+        brett.reset();
+    }
+
+    @Override
+    public Zug berechneZug(Zug vorherigerZug, long zeitKreis, long zeitKreuz) throws IllegalerZugException {
+        if (vorherigerZug != null) {
+            int gegnerAktion = SPIEL.aktion(vorherigerZug.getZeile(), vorherigerZug.getSpalte());
+            if ((brett.getFreieFelder() & (1L << gegnerAktion)) == 0) {
+                throw new IllegalerZugException();
+            }
+            brett.ziehe(gegnerAktion);
+        }
+
+        int aktion = suche.suche(brett, SPIEL.getAnzahlFelder(), AlphaBetaSuche.UNBEGRENZT);
+        if (aktion < 0) {
+            throw new IllegalerZugException();
+        }
+        brett.ziehe(aktion);
+        return new Zug(SPIEL.zeile(aktion), SPIEL.spalte(aktion));
+    }
+
+    /**
+     * @return Suche mit Knoten- und TT-Statistik aller bisherigen Züge
+     */
+    public AlphaBetaSuche getSuche() {
+        return suche;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public Farbe getFarbe() {
+        return farbe;
+    }
+
+    @Override
+    public void setFarbe(Farbe farbe) {
+        this.farbe = farbe;
+    }
+}
@@ -0,0 +1,394 @@
+package tic_tac_toe_mi;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Negamax-Suche mit Alpha-Beta Pruning für m,n,k-Spiele.
+ *
+ * Bausteine:
+ * - Make/Unmake direkt auf einem MnkSpielfeld (ziehe/zuruecknehmen)
+ * - Zobrist-Schlüssel (ein Zufalls-long pro Feld und Farbe), per XOR
+ *   inkrementell beim Ziehen und Zurücknehmen nachgeführt
+ * - Transpositionstabelle fester Größe (2^bits Einträge) in primitiven
+ *   Arrays, Ersetzung nach Tiefe: ein Eintrag wird nur von einer gleich
+ *   tiefen oder tieferen Suche verdrängt - außer er stammt aus einer
+ *   früheren Suche (Alter), dann immer
+ * - Zugsortierung: TT-Zug zuerst, danach Felder mit vielen Gewinnlinien
+ *   (Mitte vor Rand)
+ * - Iterative Vertiefung mit Zeitlimit; bei Abbruch gilt der Zug der
+ *   letzten vollständigen Iteration
+ *
+ * Werte sind aus Sicht des Spielers am Zug: GEWINN - Züge bis zum Sieg,
+ * 0 für Remis, dazwischen eine Linien-Heuristik, wenn die Tiefe nicht bis
+ * zum Spielende reicht. Auf 3x3 (und 4x4) löst die Suche das Spiel vollständig.
+ *
+ * Nicht thread-sicher: eine Instanz pro Spieler bzw. Thread.
+ *
+ * @author johanneshaick
+ */
+public class AlphaBetaSuche {
+
+    /** Wert eines sofortigen Sieges (minus Anzahl Halbzüge bis dahin) */
+    public static final int GEWINN = 1_000_000;
+
+    /** Ohne Zeitlimit suchen */
+    public static final long UNBEGRENZT = Long.MAX_VALUE;
+
+    // Werte oberhalb davon sind erzwungene Siege (Heuristik bleibt weit darunter)
+    private static final int GEWINN_SCHWELLE = GEWINN - 1000;
+
+    // Eintragstypen der Transpositionstabelle
+    private static final byte LEER = 0;
+    private static final byte EXAKT = 1;
+    private static final byte UNTERE_SCHRANKE = 2;
+    private static final byte OBERE_SCHRANKE = 3;
+
+    private final MnkSpiel spiel;
+
+    // ZOBRIST[feld * 2 + farbe], farbe 0 = Anziehender
+    private final long[] zobrist;
+
+    // Statische Zugreihenfolge: Felder absteigend nach Anzahl Gewinnlinien
+    private final int[] reihenfolge;
+
+    // Zugpuffer pro Suchtiefe (allokationsfrei)
+    private final int[][] zugPuffer;
+
+    // Transpositionstabelle
+    private final int maske;
+    private final long[] ttSchluessel;
+    private final int[] ttWert;
+    private final byte[] ttZug;
+    private final byte[] ttTiefe;
+    private final byte[] ttTyp;
+    private final byte[] ttAlter;
+    private byte alter;
+
+    // Zustand der laufenden Suche
+    private long schluessel;
+    private int wurzelZug;
+    private long deadline;
+    private boolean abgebrochen;
+
+    // Statistik
+    private long knoten;
+    private long ttAbfragen;
+    private long ttTreffer;
+    private long suchzeitNanos;
+    private int letzterWert;
+    private int erreichteTiefe;
+
+    /**
+     * @param spiel Regeln
+     * @param ttBits Größe der Transpositionstabelle als Zweierpotenz (z.B. 20 = 1M Einträge)
+     */
+    public AlphaBetaSuche(MnkSpiel spiel, int ttBits) {
+        this.spiel = spiel;
+        int felder = spiel.getAnzahlFelder();
+
+        Random random = new Random(0x5EED_2B0BL);
+        zobrist = new long[felder * 2];
+        for (int i = 0; i < zobrist.length; i++) {
+            zobrist[i] = random.nextLong();
+        }
+
+        Integer[] sortiert = new Integer[felder];
+        for (int feld = 0; feld < felder; feld++) {
+            sortiert[feld] = feld;
+        }
+        Arrays.sort(sortiert, (a, b) -> spiel.getLinien(b).length - spiel.getLinien(a).length);
+        reihenfolge = new int[felder];
+        for (int i = 0; i < felder; i++) {
+            reihenfolge[i] = sortiert[i];
+        }
+        zugPuffer = new int[felder + 1][felder];
+
+        int groesse = 1 << ttBits;
+        maske = groesse - 1;
+        ttSchluessel = new long[groesse];
+        ttWert = new int[groesse];
+        ttZug = new byte[groesse];
+        ttTiefe = new byte[groesse];
+        ttTyp = new byte[groesse];
+        ttAlter = new byte[groesse];
+    }
+
+    /**
+     * Sucht den besten Zug mit iterativer Vertiefung
+     *
+     * @param brett Stellung (wird durchsucht und unverändert zurückgelassen)
+     * @param maxTiefe Maximale Suchtiefe in Halbzügen
+     * @param zeitlimitNanos Zeitbudget oder UNBEGRENZT
+     * @return Bester Zug (Feld) oder -1, wenn die Partie beendet ist
+     */
+    public int suche(MnkSpielfeld brett, int maxTiefe, long zeitlimitNanos) {
+        if (brett.letzterZugGewinnt() || brett.istVoll()) {
+            return -1;
+        }
+        long start = System.nanoTime();
+        deadline = zeitlimitNanos == UNBEGRENZT ? UNBEGRENZT : start + zeitlimitNanos;
+        abgebrochen = false;
+        alter++;
+        schluessel = berechneSchluessel(brett);
+
+        int freie = spiel.getAnzahlFelder() - brett.getAnzahlZuege();
+        int besterZug = reihenfolge[0];
+        for (int feld : reihenfolge) {
+            if ((brett.getFreieFelder() & (1L << feld)) != 0) {
+                besterZug = feld;
+                break;
+            }
+        }
+        erreichteTiefe = 0;
+        for (int tiefe = 1; tiefe <= Math.min(maxTiefe, freie); tiefe++) {
+            int wert = negamax(brett, tiefe, -GEWINN - 1, GEWINN + 1, 0);
+            if (abgebrochen) {
+                break;
+            }
+            besterZug = wurzelZug;
+            letzterWert = wert;
+            erreichteTiefe = tiefe;
+            // Erzwungener Sieg oder Niederlage: tiefer suchen ändert nichts mehr
+            if (Math.abs(wert) > GEWINN_SCHWELLE) {
+                break;
+            }
+        }
+        suchzeitNanos += System.nanoTime() - start;
+        return besterZug;
+    }
+
+    private int negamax(MnkSpielfeld brett, int tiefe, int alpha, int beta, int ply) {
+        knoten++;
+        if (brett.letzterZugGewinnt()) {
+            return -(GEWINN - ply);
+        }
+        if (brett.istVoll()) {
+            return 0;
+        }
+        if (tiefe == 0) {
+            return brett.bewerteLinien();
+        }
+        if ((knoten & 1023) == 0 && deadline != UNBEGRENZT && System.nanoTime() > deadline) {
+            abgebrochen = true;
+        }
+        if (abgebrochen) {
+            return 0;
+        }
+
+        // Transpositionstabelle
+        int index = (int) schluessel & maske;
+        int ttBesterZug = -1;
+        ttAbfragen++;
+        if (ttTyp[index] != LEER && ttSchluessel[index] == schluessel) {
+            ttTreffer++;
+            ttBesterZug = ttZug[index];
+            // In der Wurzel nur zur Sortierung, dort wird der Zug gebraucht
+            if (ply > 0 && ttTiefe[index] >= tiefe) {
+                int wert = ausTabelle(ttWert[index], ply);
+                byte typ = ttTyp[index];
+                if (typ == EXAKT
+                    || (typ == UNTERE_SCHRANKE && wert >= beta)
+                    || (typ == OBERE_SCHRANKE && wert <= alpha)) {
+                    return wert;
+                }
+            }
+        }
+
+        // Züge: TT-Zug zuerst, dann statische Reihenfolge
+        int[] zuege = zugPuffer[ply];
+        int anzahl = 0;
+        long frei = brett.getFreieFelder();
+        if (ttBesterZug >= 0 && (frei & (1L << ttBesterZug)) != 0) {
+            zuege[anzahl++] = ttBesterZug;
+        }
+        for (int feld : reihenfolge) {
+            if (feld != ttBesterZug && (frei & (1L << feld)) != 0) {
+                zuege[anzahl++] = feld;
+            }
+        }
+
+        int alphaStart = alpha;
+        int besterWert = -GEWINN - 1;
+        int besterZug = zuege[0];
+        for (int i = 0; i < anzahl; i++) {
+            int feld = zuege[i];
+            int farbe = brett.getAnzahlZuege() & 1;
+            schluessel ^= zobrist[feld * 2 + farbe];
+            brett.ziehe(feld);
+
+            int wert = -negamax(brett, tiefe - 1, -beta, -alpha, ply + 1);
+
+            brett.zuruecknehmen();
+            schluessel ^= zobrist[feld * 2 + farbe];
+
+            if (abgebrochen) {
+                return 0;
+            }
+            if (wert > besterWert) {
+                besterWert = wert;
+                besterZug = feld;
+            }
+            if (wert > alpha) {
+                alpha = wert;
+            }
+            if (alpha >= beta) {
+                break;
+            }
+        }
+
+        // Ersetzung nach Tiefe, veraltete Einträge immer
+        if (ttTyp[index] == LEER || ttAlter[index] != alter || tiefe >= ttTiefe[index]) {
+            ttSchluessel[index] = schluessel;
+            ttWert[index] = inTabelle(besterWert, ply);
+            ttZug[index] = (byte) besterZug;
+            ttTiefe[index] = (byte) tiefe;
+            ttTyp[index] = besterWert <= alphaStart ? OBERE_SCHRANKE
+                         : besterWert >= beta ? UNTERE_SCHRANKE : EXAKT;
+            ttAlter[index] = alter;
+        }
+        if (ply == 0) {
+            wurzelZug = besterZug;
+        }
+        return besterWert;
+    }
+
+    /**
+     * Siegwerte relativ zum Knoten speichern (unabhängig vom Weg dorthin)
+     */
+    private static int inTabelle(int wert, int ply) {
+        if (wert > GEWINN_SCHWELLE) {
+            return wert + ply;
+        }
+        if (wert < -GEWINN_SCHWELLE) {
+            return wert - ply;
+        }
+        return wert;
+    }
+
+    private static int ausTabelle(int wert, int ply) {
+        if (wert > GEWINN_SCHWELLE) {
+            return wert - ply;
+        }
+        if (wert < -GEWINN_SCHWELLE) {
+            return wert + ply;
+        }
+        return wert;
+    }
+
+    private long berechneSchluessel(MnkSpielfeld brett) {
+        // Farbe des Spielers am Zug ergibt sich aus der Anzahl der Züge
+        int farbeAmZug = brett.getAnzahlZuege() & 1;
+        long s = 0;
+        for (long m = brett.getEigene(); m != 0; m &= m - 1) {
+            s ^= zobrist[Long.numberOfTrailingZeros(m) * 2 + farbeAmZug];
+        }
+        for (long m = brett.getGegner(); m != 0; m &= m - 1) {
+            s ^= zobrist[Long.numberOfTrailingZeros(m) * 2 + (1 - farbeAmZug)];
+        }
+        return s;
+    }
+
+    /**
+     * Leert die Transpositionstabelle
+     */
+    public void leereTabelle() {
+        Arrays.fill(ttTyp, LEER);
+    }
+
+    // ========================================================================
+    // Statistik
+    // ========================================================================
+
+    /**
+     * Setzt Knotenzähler, TT-Statistik und Suchzeit zurück
+     */
+    public void neueStatistik() {
+        knoten = 0;
+        ttAbfragen = 0;
+        ttTreffer = 0;
+        suchzeitNanos = 0;
+    }
+
+    public long getKnoten() {
+        return knoten;
+    }
+
+    public double getKnotenProSekunde() {
+        return suchzeitNanos == 0 ? 0.0 : knoten / (suchzeitNanos / 1e9);
+    }
+
+    /**
+     * @return Anteil der TT-Abfragen, die einen Eintrag zur Stellung gefunden haben
+     */
+    public double getTrefferQuote() {
+        return ttAbfragen == 0 ? 0.0 : (double) ttTreffer / ttAbfragen;
+    }
+
+    /**
+     * @return Wert der letzten vollständigen Iteration aus Sicht des Spielers am Zug
+     */
+    public int getLetzterWert() {
+        return letzterWert;
+    }
+
+    public int getErreichteTiefe() {
+        return erreichteTiefe;
+    }
+
+    public MnkSpiel getSpiel() {
+        return spiel;
+    }
+
+    /**
+     * Lesbarer Wert: "Sieg in n", "Niederlage in n" oder die Heuristik
+     */
+    public static String beschreibeWert(int wert) {
+        if (wert > GEWINN_SCHWELLE) {
+            return "Sieg in " + (GEWINN - wert + 1) / 2 + " Zügen";
+        }
+        if (wert < -GEWINN_SCHWELLE) {
+            return "Niederlage in " + (GEWINN + wert) / 2 + " Zügen";
+        }
+        return wert == 0 ? "ausgeglichen" : "Heuristik " + wert;
+    }
+
+    // ========================================================================
+    // Benchmark
+    // ========================================================================
+
+    /**
+     * Löst bzw. durchsucht die Anfangsstellung mehrerer Brettgrößen
+     *
+     * Aufruf: AlphaBetaSuche [sekunden] [m,n,k ...]
+     */
+    public static void main(String[] args) {
+        double sekunden = args.length > 0 ? Double.parseDouble(args[0]) : 5.0;
+        String[] varianten = args.length > 1
+            ? Arrays.copyOfRange(args, 1, args.length)
+            : new String[] {"3,3,3", "4,4,3", "4,4,4", "5,5,4"};
+
+        System.out.println();
+        System.out.println("═══════════════════════════════════════════════════════");
+        System.out.println("  Alpha-Beta mit Transpositionstabelle");
+        System.out.println("═══════════════════════════════════════════════════════");
+        System.out.printf("%-7s %6s %5s %14s %14s %8s   %s%n",
+                          "m,n,k", "Tiefe", "Zug", "Knoten", "Knoten/s", "TT-Hits", "Wert");
+
+        for (String variante : varianten) {
+            String[] teile = variante.split(",");
+            MnkSpiel spiel = new MnkSpiel(Integer.parseInt(teile[0]), Integer.parseInt(teile[1]),
+                                          Integer.parseInt(teile[2]));
+            AlphaBetaSuche suche = new AlphaBetaSuche(spiel, 22);
+            MnkSpielfeld brett = new MnkSpielfeld(spiel);
+            brett.reset();
+
+            int zug = suche.suche(brett, spiel.getAnzahlFelder(), (long) (sekunden * 1e9));
+            System.out.printf("%-7s %6d %5s %,14d %,14.0f %7.1f%%   %s%n",
+                              spiel, suche.getErreichteTiefe(),
+                              spiel.zeile(zug) + "/" + spiel.spalte(zug),
+                              suche.getKnoten(), suche.getKnotenProSekunde(),
+                              suche.getTrefferQuote() * 100, beschreibeWert(suche.getLetzterWert()));
+        }
+    }
+}
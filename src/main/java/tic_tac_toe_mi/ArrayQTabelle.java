@@ -0,0 +1,114 @@
+package tic_tac_toe_mi;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Standard-Implementierung der Q-Tabelle.
+ * Alle Q-Werte liegen in einem flachen double[3^9 * 9] Array,
+ * ein Lookup ist damit nur eine Multiplikation plus Addition.
+ *
+ * Speicherbedarf: ~1,4 MB, unabhängig von der Anzahl gelernter States.
+ *
+ * @author johanneshaick
+ */
+public class ArrayQTabelle implements QTabelle {
+
+    // Q-Werte: Index = stateCode * 9 + aktion
+    private final double[] qWerte;
+
+    // Welche States schon einmal angefasst wurden (für getAnzahlStates / Export)
+    private final boolean[] bekannt;
+    private int anzahlStates;
+
+    /**
+     * Erstellt eine leere Q-Tabelle
+     */
+    public ArrayQTabelle() {
+        this.qWerte = new double[ANZAHL_CODES * ANZAHL_AKTIONEN];
+        this.bekannt = new boolean[ANZAHL_CODES];
+        this.anzahlStates = 0;
+    }
+
+    @Override
+    public double getQWert(int stateCode, int aktion) {
+        return qWerte[stateCode * ANZAHL_AKTIONEN + aktion];
+    }
+
+    @Override
+    public void setQWert(int stateCode, int aktion, double wert) {
+        registriere(stateCode);
+        qWerte[stateCode * ANZAHL_AKTIONEN + aktion] = wert;
+    }
+
+    @Override
+    public void aktualisiere(int stateCode, int aktion, double zielWert, double lernrate) {
+        registriere(stateCode);
+        int index = stateCode * ANZAHL_AKTIONEN + aktion;
+        double alterQWert = qWerte[index];
+        qWerte[index] = alterQWert + lernrate * (zielWert - alterQWert);
+    }
+
+    @Override
+    public double getMaxQWert(int stateCode) {
+        int basis = stateCode * ANZAHL_AKTIONEN;
+        double maxQ = qWerte[basis];
+        for (int i = 1; i < ANZAHL_AKTIONEN; i++) {
+            if (qWerte[basis + i] > maxQ) {
+                maxQ = qWerte[basis + i];
+            }
+        }
+        return maxQ;
+    }
+
+    @Override
+    public void registriere(int stateCode) {
+        if (!bekannt[stateCode]) {
+            bekannt[stateCode] = true;
+            anzahlStates++;
+        }
+    }
+
+    @Override
+    public boolean enthaelt(int stateCode) {
+        return bekannt[stateCode];
+    }
+
+    @Override
+    public int getAnzahlStates() {
+        return anzahlStates;
+    }
+
+    @Override
+    public void leeren() {
+        Arrays.fill(qWerte, 0.0);
+        Arrays.fill(bekannt, false);
+        anzahlStates = 0;
+    }
+
+    @Override
+    public Map<String, double[]> zuMap() {
+        Map<String, double[]> map = new LinkedHashMap<>();
+        for (int code = 0; code < ANZAHL_CODES; code++) {
+            if (bekannt[code]) {
+                int basis = code * ANZAHL_AKTIONEN;
+                map.put(SpielzustandKonverter.codeZuString(code),
+                        Arrays.copyOfRange(qWerte, basis, basis + ANZAHL_AKTIONEN));
+            }
+        }
+        return map;
+    }
+
+    @Override
+    public void ausMap(Map<String, double[]> map) {
+        leeren();
+        for (Map.Entry<String, double[]> entry : map.entrySet()) {
+            int code = SpielzustandKonverter.stringZuCode(entry.getKey());
+            double[] werte = entry.getValue();
+            registriere(code);
+            System.arraycopy(werte, 0, qWerte, code * ANZAHL_AKTIONEN,
+                             Math.min(werte.length, ANZAHL_AKTIONEN));
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package tic_tac_toe_mi;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-sichere Q-Tabelle für paralleles Self-Play Training.
+ * Gleiches flaches Layout wie ArrayQTabelle, die double-Werte liegen aber als
+ * long-Bits in einem AtomicLongArray und werden lock-free per CAS aktualisiert.
+ *
+ * Lesezugriffe sind nicht gegen gleichzeitige Updates synchronisiert
+ * (Hogwild-Stil) - für Q-Learning unkritisch, es geht aber kein Update verloren.
+ *
+ * @author johanneshaick
+ */
+public class AtomicQTabelle implements QTabelle {
+
+    // Q-Werte als Double.doubleToRawLongBits, Index = stateCode * 9 + aktion
+    private final AtomicLongArray qWerte;
+
+    // 1 = State bekannt
+    private final AtomicIntegerArray bekannt;
+    private final AtomicInteger anzahlStates;
+
+    /**
+     * Erstellt eine leere Q-Tabelle (alle Werte 0.0)
+     */
+    public AtomicQTabelle() {
+        this.qWerte = new AtomicLongArray(ANZAHL_CODES * ANZAHL_AKTIONEN);
+        this.bekannt = new AtomicIntegerArray(ANZAHL_CODES);
+        this.anzahlStates = new AtomicInteger();
+    }
+
+    @Override
+    public double getQWert(int stateCode, int aktion) {
+        return Double.longBitsToDouble(qWerte.getOpaque(stateCode * ANZAHL_AKTIONEN + aktion));
+    }
+
+    @Override
+    public void setQWert(int stateCode, int aktion, double wert) {
+        registriere(stateCode);
+        qWerte.set(stateCode * ANZAHL_AKTIONEN + aktion, Double.doubleToRawLongBits(wert));
+    }
+
+    @Override
+    public void aktualisiere(int stateCode, int aktion, double zielWert, double lernrate) {
+        registriere(stateCode);
+        int index = stateCode * ANZAHL_AKTIONEN + aktion;
+        long alteBits;
+        long neueBits;
+        do {
+            alteBits = qWerte.get(index);
+            double alterQWert = Double.longBitsToDouble(alteBits);
+            neueBits = Double.doubleToRawLongBits(alterQWert + lernrate * (zielWert - alterQWert));
+        } while (!qWerte.weakCompareAndSetVolatile(index, alteBits, neueBits));
+    }
+
+    @Override
+    public double getMaxQWert(int stateCode) {
+        int basis = stateCode * ANZAHL_AKTIONEN;
+        double maxQ = Double.longBitsToDouble(qWerte.getOpaque(basis));
+        for (int i = 1; i < ANZAHL_AKTIONEN; i++) {
+            double q = Double.longBitsToDouble(qWerte.getOpaque(basis + i));
+            if (q > maxQ) {
+                maxQ = q;
+            }
+        }
+        return maxQ;
+    }
+
+    @Override
+    public void registriere(int stateCode) {
+        if (bekannt.getOpaque(stateCode) == 0 && bekannt.compareAndSet(stateCode, 0, 1)) {
+            anzahlStates.incrementAndGet();
+        }
+    }
+
+    @Override
+    public boolean enthaelt(int stateCode) {
+        return bekannt.get(stateCode) != 0;
+    }
+
+    @Override
+    public int getAnzahlStates() {
+        return anzahlStates.get();
+    }
+
+    /**
+     * Leert die Tabelle. Nicht während eines laufenden Trainings aufrufen.
+     */
+    @Override
+    public void leeren() {
+        for (int i = 0; i < qWerte.length(); i++) {
+            qWerte.set(i, 0L);
+        }
+        for (int i = 0; i < bekannt.length(); i++) {
+            bekannt.set(i, 0);
+        }
+        anzahlStates.set(0);
+    }
+
+    @Override
+    public Map<String, double[]> zuMap() {
+        Map<String, double[]> map = new LinkedHashMap<>();
+        for (int code = 0; code < ANZAHL_CODES; code++) {
+            if (enthaelt(code)) {
+                double[] werte = new double[ANZAHL_AKTIONEN];
+                for (int aktion = 0; aktion < ANZAHL_AKTIONEN; aktion++) {
+                    werte[aktion] = getQWert(code, aktion);
+                }
+                map.put(SpielzustandKonverter.codeZuString(code), werte);
+            }
+        }
+        return map;
+    }
+
+    @Override
+    public void ausMap(Map<String, double[]> map) {
+        leeren();
+        for (Map.Entry<String, double[]> entry : map.entrySet()) {
+            int code = SpielzustandKonverter.stringZuCode(entry.getKey());
+            double[] werte = entry.getValue();
+            registriere(code);
+            for (int aktion = 0; aktion < Math.min(werte.length, ANZAHL_AKTIONEN); aktion++) {
+                qWerte.set(code * ANZAHL_AKTIONEN + aktion, Double.doubleToRawLongBits(werte[aktion]));
+            }
+        }
+    }
+}
@@ -0,0 +1,292 @@
+package tic_tac_toe_mi;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Kompaktes, versioniertes Binärformat für Q-Tabellen (Endung .qbin).
+ *
+ * Aufbau (Big Endian):
+ * <pre>
+ *  0  int    Magic "TTTQ"
+ *  4  short  Version (1)
+ *  6  short  Flags (Bit 0 = kanonische States, Bit 1 = double statt float)
+ *  8  long   Erstellt am (Epoch-Millis)
+ * 16  int    Trainingsspiele
+ * 20  double Lernrate
+ * 28  double Discount-Faktor
+ * 36  double Explorationsrate
+ * 44  int    Anzahl States
+ * 48  Records: short State-Code + 9 Q-Werte (float oder double)
+ * </pre>
+ *
+ * Geladen wird über eine memory-mapped FileChannel direkt in die Q-Tabelle,
+ * ohne Java-Deserialisierung und ohne Zwischen-Map. Gespeichert wird in eine
+ * Temp-Datei, die danach atomar umbenannt wird - eine bestehende Datei ist
+ * also entweder alt oder neu, nie halb geschrieben.
+ *
+ * @author johanneshaick
+ */
+public final class BinaeresModell {
+
+    private static final int MAGIC = 0x54545451; // "TTTQ"
+    private static final short VERSION = 1;
+    private static final int HEADER_GROESSE = 48;
+
+    private static final int FLAG_KANONISCH = 1;
+    private static final int FLAG_DOUBLE = 2;
+
+    private BinaeresModell() {
+    }
+
+    /**
+     * Metadaten aus dem Datei-Header
+     */
+    public static class Kopf {
+        private final int version;
+        private final LocalDateTime erstelltAm;
+        private final int trainingSpiele;
+        private final double lernrate;
+        private final double discountFaktor;
+        private final double explorationRate;
+        private final int anzahlStates;
+        private final boolean kanonisch;
+        private final boolean doppeltePraezision;
+
+        Kopf(int version, LocalDateTime erstelltAm, int trainingSpiele, double lernrate,
+             double discountFaktor, double explorationRate, int anzahlStates,
+             boolean kanonisch, boolean doppeltePraezision) {
+            this.version = version;
+            this.erstelltAm = erstelltAm;
+            this.trainingSpiele = trainingSpiele;
+            this.lernrate = lernrate;
+            this.discountFaktor = discountFaktor;
+            this.explorationRate = explorationRate;
+            this.anzahlStates = anzahlStates;
+            this.kanonisch = kanonisch;
+            this.doppeltePraezision = doppeltePraezision;
+        }
+
+        public int getVersion() {
+            return version;
+        }
+
+        public LocalDateTime getErstelltAm() {
+            return erstelltAm;
+        }
+
+        public int getTrainingSpiele() {
+            return trainingSpiele;
+        }
+
+        public double getLernrate() {
+            return lernrate;
+        }
+
+        public double getDiscountFaktor() {
+            return discountFaktor;
+        }
+
+        public double getExplorationRate() {
+            return explorationRate;
+        }
+
+        public int getAnzahlStates() {
+            return anzahlStates;
+        }
+
+        public boolean istKanonisch() {
+            return kanonisch;
+        }
+
+        public boolean istDoppeltePraezision() {
+            return doppeltePraezision;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                "Q-Learning Modell (binär v%d, %s)\n" +
+                "Erstellt: %s\n" +
+                "Training: %d Spiele\n" +
+                "Parameter: α=%.2f, γ=%.2f, ε=%.2f\n" +
+                "States: %d%s",
+                version, doppeltePraezision ? "double" : "float",
+                erstelltAm,
+                trainingSpiele,
+                lernrate, discountFaktor, explorationRate,
+                anzahlStates, kanonisch ? " (kanonisch)" : ""
+            );
+        }
+    }
+
+    /**
+     * Schreibt eine Q-Tabelle im Binärformat (über &lt;dateiname&gt;.tmp und atomares Umbenennen)
+     *
+     * @param dateiname Zieldatei
+     * @param qTabelle Zu speichernde Tabelle
+     * @param trainingSpiele Anzahl der Trainingsspiele
+     * @param lernrate Alpha
+     * @param discountFaktor Gamma
+     * @param explorationRate Epsilon
+     * @param kanonisch true wenn die Tabelle kanonische States enthält
+     * @param doppeltePraezision true für double-Werte, false für float (halbe Dateigröße)
+     * @throws IOException Bei Schreibfehlern
+     */
+    public static void speichern(String dateiname, QTabelle qTabelle, int trainingSpiele,
+                                 double lernrate, double discountFaktor, double explorationRate,
+                                 boolean kanonisch, boolean doppeltePraezision) throws IOException {
+        int anzahlStates = 0;
+        for (int code = 0; code < QTabelle.ANZAHL_CODES; code++) {
+            if (qTabelle.enthaelt(code)) {
+                anzahlStates++;
+            }
+        }
+
+        int recordGroesse = recordGroesse(doppeltePraezision);
+        ByteBuffer puffer = ByteBuffer.allocate(HEADER_GROESSE + anzahlStates * recordGroesse);
+
+        int flags = (kanonisch ? FLAG_KANONISCH : 0) | (doppeltePraezision ? FLAG_DOUBLE : 0);
+        puffer.putInt(MAGIC);
+        puffer.putShort(VERSION);
+        puffer.putShort((short) flags);
+        puffer.putLong(System.currentTimeMillis());
+        puffer.putInt(trainingSpiele);
+        puffer.putDouble(lernrate);
+        puffer.putDouble(discountFaktor);
+        puffer.putDouble(explorationRate);
+        puffer.putInt(anzahlStates);
+
+        for (int code = 0; code < QTabelle.ANZAHL_CODES; code++) {
+            if (!qTabelle.enthaelt(code)) {
+                continue;
+            }
+            puffer.putShort((short) code);
+            for (int aktion = 0; aktion < QTabelle.ANZAHL_AKTIONEN; aktion++) {
+                double q = qTabelle.getQWert(code, aktion);
+                if (doppeltePraezision) {
+                    puffer.putDouble(q);
+                } else {
+                    puffer.putFloat((float) q);
+                }
+            }
+        }
+        puffer.flip();
+
+        File datei = new File(dateiname);
+        if (datei.getParentFile() != null) {
+            datei.getParentFile().mkdirs();
+        }
+        Path ziel = datei.toPath();
+        Path temp = ziel.resolveSibling(ziel.getFileName() + ".tmp");
+        try (FileChannel kanal = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (puffer.hasRemaining()) {
+                kanal.write(puffer);
+            }
+        }
+        Files.move(temp, ziel, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Lädt eine Binärdatei memory-mapped in die übergebene Q-Tabelle (wird vorher geleert).
+     * Alle State-Codes werden geprüft, bevor die Tabelle angefasst wird; bei einer
+     * beschädigten Datei bleibt sie unverändert.
+     *
+     * @param dateiname Quelldatei
+     * @param qTabelle Ziel-Tabelle
+     * @return Metadaten aus dem Header
+     * @throws IOException Bei Lesefehlern oder ungültigem Format
+     */
+    public static Kopf laden(String dateiname, QTabelle qTabelle) throws IOException {
+        try (FileChannel kanal = FileChannel.open(Path.of(dateiname), StandardOpenOption.READ)) {
+            long groesse = kanal.size();
+            if (groesse < HEADER_GROESSE) {
+                throw new IOException("Keine gültige Modelldatei (zu klein): " + dateiname);
+            }
+            MappedByteBuffer puffer = kanal.map(FileChannel.MapMode.READ_ONLY, 0, groesse);
+
+            if (puffer.getInt() != MAGIC) {
+                throw new IOException("Keine gültige Modelldatei (Magic fehlt): " + dateiname);
+            }
+            int version = puffer.getShort();
+            if (version != VERSION) {
+                throw new IOException("Nicht unterstützte Modell-Version " + version + ": " + dateiname);
+            }
+            int flags = puffer.getShort();
+            boolean kanonisch = (flags & FLAG_KANONISCH) != 0;
+            boolean doppeltePraezision = (flags & FLAG_DOUBLE) != 0;
+            LocalDateTime erstelltAm = LocalDateTime.ofInstant(
+                Instant.ofEpochMilli(puffer.getLong()), ZoneId.systemDefault());
+            int trainingSpiele = puffer.getInt();
+            double lernrate = puffer.getDouble();
+            double discountFaktor = puffer.getDouble();
+            double explorationRate = puffer.getDouble();
+            int anzahlStates = puffer.getInt();
+
+            long erwarteteGroesse = HEADER_GROESSE + (long) anzahlStates * recordGroesse(doppeltePraezision);
+            if (anzahlStates < 0 || groesse != erwarteteGroesse) {
+                throw new IOException("Modelldatei beschädigt (erwartet " + erwarteteGroesse
+                                      + " Bytes, gefunden " + groesse + "): " + dateiname);
+            }
+
+            int recordGroesse = recordGroesse(doppeltePraezision);
+            for (int i = 0; i < anzahlStates; i++) {
+                int code = puffer.getShort(HEADER_GROESSE + i * recordGroesse) & 0xFFFF;
+                if (code >= QTabelle.ANZAHL_CODES) {
+                    throw new IOException("Ungültiger State-Code " + code + " in " + dateiname);
+                }
+            }
+
+            qTabelle.leeren();
+            for (int i = 0; i < anzahlStates; i++) {
+                int code = puffer.getShort() & 0xFFFF;
+                qTabelle.registriere(code);
+                for (int aktion = 0; aktion < QTabelle.ANZAHL_AKTIONEN; aktion++) {
+                    double q = doppeltePraezision ? puffer.getDouble() : puffer.getFloat();
+                    qTabelle.setQWert(code, aktion, q);
+                }
+            }
+
+            return new Kopf(version, erstelltAm, trainingSpiele, lernrate, discountFaktor,
+                            explorationRate, anzahlStates, kanonisch, doppeltePraezision);
+        }
+    }
+
+    private static int recordGroesse(boolean doppeltePraezision) {
+        return 2 + QTabelle.ANZAHL_AKTIONEN * (doppeltePraezision ? 8 : 4);
+    }
+
+    /**
+     * Konvertiert ein serialisiertes .dat-Modell ins Binärformat und vergleicht die Größen
+     *
+     * Aufruf: BinaeresModell &lt;quelle.dat&gt; [ziel.qbin]
+     */
+    public static void main(String[] args) throws Exception {
+        String quelle = args.length > 0 ? args[0] : "models/trained_200k.dat";
+        String ziel = args.length > 1 ? args[1] : quelle.replaceAll("\\.dat$", "") + ".qbin";
+
+        QLearningAgent agent = new QLearningAgent();
+        QLearningModel modell = agent.ladeModell(quelle);
+        agent.speichereBinaer(ziel, modell != null ? modell.getTrainingSpiele() : 0, false);
+
+        long vorher = new File(quelle).length();
+        long nachher = new File(ziel).length();
+        System.out.printf("%s: %,d Bytes → %s: %,d Bytes (%.1f%%)%n",
+                          quelle, vorher, ziel, nachher, nachher * 100.0 / vorher);
+
+        long start = System.nanoTime();
+        new QLearningAgent().ladeBinaer(ziel);
+        System.out.printf("Binär geladen in %.2f ms%n", (System.nanoTime() - start) / 1e6);
+    }
+}
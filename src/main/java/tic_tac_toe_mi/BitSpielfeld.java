@@ -0,0 +1,213 @@
+package tic_tac_toe_mi;
+
+import tictactoe.Farbe;
+import tictactoe.Spielfeld;
+
+/**
+ * Allokationsfreies Bitboard für Tic-Tac-Toe (interne Repräsentation für das Training).
+ *
+ * Zwei 9-Bit Masken halten die Steine des Spielers am Zug ("eigene") und des
+ * Gegners. Nach jedem Zug werden die Rollen getauscht, so dass der State-Code
+ * immer aus Sicht des ziehenden Spielers vorliegt - genau wie bei
+ * SpielzustandKonverter#zuCodeNormalisiert.
+ *
+ * Bit i entspricht Feld i = Zeile*3 + Spalte (gleich dem Aktions-Index).
+ *
+ * Sieg-Erkennung und Zuglisten sind über alle 512 Masken vorberechnet.
+ * Die Klasse ist final: Sie liegt im innersten Trainingspfad, und der
+ * Konstruktor ruft reset() auf.
+ *
+ * @author johanneshaick
+ */
+public final class BitSpielfeld {
+
+    /** Maske mit allen 9 Feldern */
+    public static final int VOLL = 0x1FF;
+
+    /** Die 8 Gewinnlinien (3 Zeilen, 3 Spalten, 2 Diagonalen) */
+    public static final int[] GEWINN_MASKEN = {
+        0b000_000_111, 0b000_111_000, 0b111_000_000,   // Zeilen
+        0b001_001_001, 0b010_010_010, 0b100_100_100,   // Spalten
+        0b100_010_001, 0b001_010_100                   // Diagonalen
+    };
+
+    // Stellenwert von Feld i im Basis-3 Code (Feld 0 = höchste Stelle)
+    private static final int[] GEWICHT = new int[9];
+
+    // SIEG[maske] = true wenn die Maske eine Gewinnlinie enthält
+    private static final boolean[] SIEG = new boolean[VOLL + 1];
+
+    // ZUEGE[freieFelder] = Liste der freien Felder (gemeinsam genutzt, nicht verändern!)
+    private static final int[][] ZUEGE = new int[VOLL + 1][];
+
+    static {
+        int gewicht = 1;
+        for (int feld = 8; feld >= 0; feld--) {
+            GEWICHT[feld] = gewicht;
+            gewicht *= 3;
+        }
+
+        for (int maske = 0; maske <= VOLL; maske++) {
+            for (int linie : GEWINN_MASKEN) {
+                if ((maske & linie) == linie) {
+                    SIEG[maske] = true;
+                    break;
+                }
+            }
+
+            int[] zuege = new int[Integer.bitCount(maske)];
+            int n = 0;
+            for (int feld = 0; feld < 9; feld++) {
+                if ((maske & (1 << feld)) != 0) {
+                    zuege[n++] = feld;
+                }
+            }
+            ZUEGE[maske] = zuege;
+        }
+    }
+
+    // Steine des Spielers am Zug / des Gegners
+    private int eigene;
+    private int gegner;
+
+    // State-Codes aus Sicht des Spielers am Zug / des Gegners (inkrementell gepflegt)
+    private int codeAmZug;
+    private int codeNichtAmZug;
+
+    /**
+     * Erstellt ein leeres Bitboard
+     */
+    public BitSpielfeld() {
+        reset();
+    }
+
+    /**
+     * Setzt das Brett auf die Startposition zurück
+     */
+    public void reset() {
+        eigene = 0;
+        gegner = 0;
+        codeAmZug = 0;
+        codeNichtAmZug = 0;
+    }
+
+    /**
+     * Übernimmt eine Position von einem Spielfeld (Grenze zur Bibliothek)
+     *
+     * @param spielfeld Quell-Spielfeld
+     * @param amZug Farbe des Spielers, der als nächstes zieht
+     */
+    public void ausSpielfeld(Spielfeld spielfeld, Farbe amZug) {
+        reset();
+        Farbe andere = amZug.opposite();
+        for (int feld = 0; feld < 9; feld++) {
+            Farbe farbe = spielfeld.getFarbe(feld / 3, feld % 3);
+            if (farbe == amZug) {
+                eigene |= 1 << feld;
+                codeAmZug += GEWICHT[feld];
+                codeNichtAmZug += 2 * GEWICHT[feld];
+            } else if (farbe == andere) {
+                gegner |= 1 << feld;
+                codeAmZug += 2 * GEWICHT[feld];
+                codeNichtAmZug += GEWICHT[feld];
+            }
+        }
+    }
+
+    /**
+     * Führt einen Zug für den Spieler am Zug aus und übergibt das Zugrecht.
+     * Es wird nicht geprüft, ob das Feld frei ist.
+     *
+     * @param feld Aktion (0-8)
+     */
+    public void ziehe(int feld) {
+        int neuEigene = eigene | (1 << feld);
+        int neuCodeAmZug = codeAmZug + GEWICHT[feld];
+        int neuCodeNichtAmZug = codeNichtAmZug + 2 * GEWICHT[feld];
+
+        // Rollen tauschen: Jetzt ist der Gegner am Zug
+        eigene = gegner;
+        gegner = neuEigene;
+        codeAmZug = neuCodeNichtAmZug;
+        codeNichtAmZug = neuCodeAmZug;
+    }
+
+    /**
+     * @return true wenn der zuletzt ziehende Spieler gewonnen hat
+     */
+    public boolean letzterZugGewinnt() {
+        return SIEG[gegner];
+    }
+
+    /**
+     * @return true wenn alle Felder belegt sind
+     */
+    public boolean istVoll() {
+        return (eigene | gegner) == VOLL;
+    }
+
+    /**
+     * @return Maske der freien Felder
+     */
+    public int getFreieFelder() {
+        return ~(eigene | gegner) & VOLL;
+    }
+
+    /**
+     * Gibt die möglichen Aktionen zurück.
+     * Das Array ist vorberechnet und wird geteilt - es darf nicht verändert werden.
+     *
+     * @return Freie Felder (0-8) in aufsteigender Reihenfolge
+     */
+    public int[] getMoeglicheAktionen() {
+        return ZUEGE[getFreieFelder()];
+    }
+
+    /**
+     * @return Normalisierter State-Code aus Sicht des Spielers am Zug
+     */
+    public int getCodeAmZug() {
+        return codeAmZug;
+    }
+
+    /**
+     * @return Normalisierter State-Code aus Sicht des Spielers, der zuletzt gezogen hat
+     */
+    public int getCodeNichtAmZug() {
+        return codeNichtAmZug;
+    }
+
+    /**
+     * @return Steine des Spielers am Zug
+     */
+    public int getEigene() {
+        return eigene;
+    }
+
+    /**
+     * @return Steine des Gegners
+     */
+    public int getGegner() {
+        return gegner;
+    }
+
+    /**
+     * Prüft ob eine Stein-Maske eine Gewinnlinie enthält
+     *
+     * @param maske 9-Bit Maske
+     * @return true bei Sieg
+     */
+    public static boolean istSieg(int maske) {
+        return SIEG[maske];
+    }
+
+    /**
+     * Liste der Felder einer Maske (vorberechnet, nicht verändern)
+     *
+     * @param maske 9-Bit Maske
+     * @return Felder (0-8) in aufsteigender Reihenfolge
+     */
+    public static int[] felder(int maske) {
+        return ZUEGE[maske];
+    }
+}
@@ -0,0 +1,234 @@
+package tic_tac_toe_mi;
+
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * Unveränderliche, eingefrorene Greedy-Policy für den Spielbetrieb.
+ *
+ * Die Q-Werte werden einmalig aus einem Modell oder einer Q-Tabelle in ein
+ * eigenes, finales Array kopiert und danach nur noch gelesen. Da es keinen
+ * veränderlichen Zustand gibt (final Felder, sichere Veröffentlichung über
+ * den Konstruktor), können beliebig viele Threads und Spiele gleichzeitig
+ * ohne Sperren darauf zugreifen - die Tabelle wächst im Spiel nicht.
+ *
+ * Der Spielzustand einer einzelnen Partie liegt in einer SpielSitzung
+ * (neueSitzung), die nur Bitboard und Farbe hält.
+ *
+ * @author johanneshaick
+ */
+public final class EingefrorenePolicy implements Strategie {
+
+    private final double[] qWerte;
+    private final boolean kanonisch;
+    private final int anzahlStates;
+
+    private EingefrorenePolicy(double[] qWerte, boolean kanonisch, int anzahlStates) {
+        this.qWerte = qWerte;
+        this.kanonisch = kanonisch;
+        this.anzahlStates = anzahlStates;
+    }
+
+    /**
+     * Friert eine Q-Tabelle ein (Kopie, spätere Änderungen an der Tabelle wirken nicht)
+     *
+     * @param qTabelle Quelle
+     * @param kanonisch true wenn die Tabelle nur kanonische States enthält
+     */
+    public static EingefrorenePolicy aus(QTabelle qTabelle, boolean kanonisch) {
+        double[] qWerte = new double[QTabelle.ANZAHL_CODES * QTabelle.ANZAHL_AKTIONEN];
+        for (int code = 0; code < QTabelle.ANZAHL_CODES; code++) {
+            if (!qTabelle.enthaelt(code)) {
+                continue;
+            }
+            for (int aktion = 0; aktion < QTabelle.ANZAHL_AKTIONEN; aktion++) {
+                qWerte[code * QTabelle.ANZAHL_AKTIONEN + aktion] = qTabelle.getQWert(code, aktion);
+            }
+        }
+        return new EingefrorenePolicy(qWerte, kanonisch, qTabelle.getAnzahlStates());
+    }
+
+    /**
+     * Friert die aktuelle Q-Tabelle eines Agents ein
+     */
+    public static EingefrorenePolicy aus(QLearningAgent agent) {
+        return aus(agent.getQTabelle(), agent.istSymmetrieReduktion());
+    }
+
+    /**
+     * Lädt ein Modell (.qbin, .json oder .dat) und friert es ein
+     *
+     * @param dateiname Pfad zur Modelldatei
+     * @throws IOException Bei Lesefehlern oder unbekanntem Format
+     */
+    public static EingefrorenePolicy laden(String dateiname) throws IOException {
+        ArrayQTabelle tabelle = new ArrayQTabelle();
+        if (dateiname.endsWith(".qbin")) {
+            BinaeresModell.Kopf kopf = BinaeresModell.laden(dateiname, tabelle);
+            return aus(tabelle, kopf.istKanonisch());
+        }
+
+        QLearningAgent agent = new QLearningAgent(0.0, 0.0, 0.0, tabelle);
+        if (dateiname.endsWith(".json")) {
+            agent.ladeVonJSON(dateiname);
+        } else {
+            try {
+                agent.ladeModell(dateiname);
+            } catch (ClassNotFoundException e) {
+                throw new IOException("Ungültiges Modell-Format: " + dateiname, e);
+            }
+        }
+        return aus(agent);
+    }
+
+    // ========================================================================
+    // Zugwahl (nur lesend)
+    // ========================================================================
+
+    /**
+     * Q-Wert aus Sicht des Spielers am Zug (Symmetrie wird intern aufgelöst)
+     *
+     * @param stateCode Normalisierter State-Code
+     * @param aktion Feld (0-8) in der Orientierung des States
+     */
+    public double getQWert(int stateCode, int aktion) {
+        if (!kanonisch) {
+            return qWerte[stateCode * QTabelle.ANZAHL_AKTIONEN + aktion];
+        }
+        int transformation = SpielzustandKonverter.kanonischeTransformation(stateCode);
+        return qWerte[SpielzustandKonverter.kanonischerCode(stateCode) * QTabelle.ANZAHL_AKTIONEN
+                      + SpielzustandKonverter.transformiereAktion(transformation, aktion)];
+    }
+
+    /**
+     * Bester Zug unter den freien Feldern (bei Gleichstand das kleinste Feld)
+     *
+     * @param stateCode Normalisierter State-Code
+     * @param freieFelder 9-Bit Maske der freien Felder
+     * @return Feld (0-8)
+     */
+    public int besteAktion(int stateCode, int freieFelder) {
+        int state = kanonisch ? SpielzustandKonverter.kanonischerCode(stateCode) : stateCode;
+        int transformation = kanonisch ? SpielzustandKonverter.kanonischeTransformation(stateCode) : 0;
+        int basis = state * QTabelle.ANZAHL_AKTIONEN;
+
+        int[] zuege = BitSpielfeld.felder(freieFelder);
+        int besteAktion = zuege[0];
+        double maxQ = qWerte[basis + SpielzustandKonverter.transformiereAktion(transformation, besteAktion)];
+        for (int i = 1; i < zuege.length; i++) {
+            double q = qWerte[basis + SpielzustandKonverter.transformiereAktion(transformation, zuege[i])];
+            if (q > maxQ) {
+                maxQ = q;
+                besteAktion = zuege[i];
+            }
+        }
+        return besteAktion;
+    }
+
+    @Override
+    public int waehleAktion(BitSpielfeld brett, Random random) {
+        return besteAktion(brett.getCodeAmZug(), brett.getFreieFelder());
+    }
+
+    /**
+     * Erstellt eine neue, leichtgewichtige Sitzung für eine Partie
+     */
+    public SpielSitzung neueSitzung(String name) {
+        return new SpielSitzung(this, name);
+    }
+
+    public boolean istKanonisch() {
+        return kanonisch;
+    }
+
+    /**
+     * @return Anzahl bekannter States beim Einfrieren
+     */
+    public int getAnzahlStates() {
+        return anzahlStates;
+    }
+
+    // ========================================================================
+    // Durchsatz-Messung
+    // ========================================================================
+
+    /**
+     * Durchsatz von N gleichzeitigen Sitzungen auf einer geteilten Policy.
+     * Jeder Thread betreut sitzungen/threads Partien gegen einen Zufallsgegner
+     * und bedient sie reihum Zug für Zug (wie ein Server mit vielen offenen Spielen).
+     *
+     * Aufruf: EingefrorenePolicy [modell] [sitzungen] [threads] [sekunden]
+     */
+    public static void main(String[] args) throws Exception {
+        String modell = args.length > 0 ? args[0] : "models/trained_200k.dat";
+        int sitzungen = args.length > 1 ? Integer.parseInt(args[1]) : 10000;
+        int anzahlThreads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        double sekunden = args.length > 3 ? Double.parseDouble(args[3]) : 2.0;
+
+        EingefrorenePolicy policy = laden(modell);
+        System.out.println();
+        System.out.println("═══════════════════════════════════════════════════════");
+        System.out.println("  Eingefrorene Policy - gleichzeitige Sitzungen");
+        System.out.println("═══════════════════════════════════════════════════════");
+        System.out.printf("Modell: %s (%d States), Sitzungen: %,d, Threads: %d%n",
+                          modell, policy.getAnzahlStates(), sitzungen, anzahlThreads);
+
+        // Aufwärmen, damit der JIT die Zugwahl kompiliert hat
+        messe(policy, sitzungen, anzahlThreads, 0.5);
+        long[] ergebnis = messe(policy, sitzungen, anzahlThreads, sekunden);
+        System.out.printf("Züge:    %,15.0f / s%n", ergebnis[0] / sekunden);
+        System.out.printf("Partien: %,15.0f / s%n", ergebnis[1] / sekunden);
+    }
+
+    /**
+     * @return {Züge der Policy, beendete Partien}
+     */
+    private static long[] messe(EingefrorenePolicy policy, int sitzungen, int anzahlThreads, double sekunden)
+            throws InterruptedException {
+        long[][] zaehler = new long[anzahlThreads][2];
+        long ende = System.nanoTime() + (long) (sekunden * 1e9);
+        Thread[] threads = new Thread[anzahlThreads];
+
+        for (int t = 0; t < anzahlThreads; t++) {
+            long[] statistik = zaehler[t];
+            int anzahl = Math.max(1, sitzungen / anzahlThreads);
+            Random random = new Random(t);
+            threads[t] = Thread.ofPlatform().name("sitzungen-" + t).start(() -> {
+                SpielSitzung[] offene = new SpielSitzung[anzahl];
+                int[] gegnerZug = new int[anzahl];
+                for (int i = 0; i < anzahl; i++) {
+                    offene[i] = policy.neueSitzung("Sitzung " + i);
+                    gegnerZug[i] = SpielSitzung.KEIN_ZUG;
+                }
+                while (System.nanoTime() < ende) {
+                    for (int i = 0; i < anzahl; i++) {
+                        SpielSitzung sitzung = offene[i];
+                        int aktion = sitzung.ziehe(gegnerZug[i]);
+                        if (aktion != SpielSitzung.KEIN_ZUG) {
+                            statistik[0]++;
+                        }
+                        if (aktion == SpielSitzung.KEIN_ZUG || sitzung.istBeendet()) {
+                            statistik[1]++;
+                            sitzung.zuruecksetzen();
+                            gegnerZug[i] = SpielSitzung.KEIN_ZUG;
+                        } else {
+                            // Zufallsgegner antwortet beim nächsten Durchlauf
+                            int[] frei = BitSpielfeld.felder(sitzung.getFreieFelder());
+                            gegnerZug[i] = frei[random.nextInt(frei.length)];
+                        }
+                    }
+                }
+            });
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        long[] summe = new long[2];
+        for (long[] statistik : zaehler) {
+            summe[0] += statistik[0];
+            summe[1] += statistik[1];
+        }
+        return summe;
+    }
+}
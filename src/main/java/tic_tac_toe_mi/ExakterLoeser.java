@@ -0,0 +1,355 @@
+package tic_tac_toe_mi;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Exakter Löser für Tic-Tac-Toe per Retrograder Analyse.
+ *
+ * Zählt alle erreichbaren Stellungen aus Sicht des Spielers am Zug auf
+ * (normalisierte State-Codes wie im SpielzustandKonverter), sortiert nach
+ * Anzahl gesetzter Steine, und berechnet rückwärts ab dem vollen Brett die
+ * spieltheoretisch exakten Q-Werte:
+ * <pre>
+ * Q(s, a) = 1                 wenn a sofort gewinnt
+ *         = 0                 wenn a das Brett unentschieden füllt
+ *         = -γ · V(s')        sonst (s' aus Sicht des Gegners)
+ * V(s)    = max über legale a von Q(s, a)
+ * </pre>
+ * Ein Sieg nach k eigenen Zügen ist damit γ^(2k-2) wert: schnelle Siege
+ * werden bevorzugt, Niederlagen möglichst hinausgezögert. Besetzte Felder
+ * erhalten -1, damit getMaxQWert nie einen verbotenen Zug bevorzugt.
+ *
+ * Das Ergebnis dient als Warmstart (Q-Tabelle füllen, dann weiter trainieren),
+ * als Orakel für Tests und als Referenz für trainierte Modelle.
+ *
+ * @author johanneshaick
+ */
+public final class ExakterLoeser {
+
+    /** Q-Wert für besetzte Felder */
+    public static final double VERBOTEN = -1.0;
+
+    private final double discountFaktor;
+
+    // Exakte Werte pro State-Code (nur für erreichbare, nicht beendete Stellungen)
+    private final double[] qWerte = new double[QTabelle.ANZAHL_CODES * QTabelle.ANZAHL_AKTIONEN];
+    private final double[] werte = new double[QTabelle.ANZAHL_CODES];
+    private final boolean[] erreichbar = new boolean[QTabelle.ANZAHL_CODES];
+
+    private int anzahlStates;
+    private int anzahlKanonisch;
+    private long dauerNanos;
+
+    /**
+     * Erstellt und löst das Spiel
+     *
+     * @param discountFaktor Gamma (0 < γ ≤ 1), wie beim QLearningAgent
+     */
+    public ExakterLoeser(double discountFaktor) {
+        if (discountFaktor <= 0 || discountFaktor > 1) {
+            throw new IllegalArgumentException("Discount-Faktor muss in (0, 1] liegen: " + discountFaktor);
+        }
+        this.discountFaktor = discountFaktor;
+        loese();
+    }
+
+    // ========================================================================
+    // Retrograde Analyse
+    // ========================================================================
+
+    private void loese() {
+        long start = System.nanoTime();
+
+        // Vorwärts: erreichbare Stellungen schichtweise nach Steinanzahl.
+        // Eintrag = eigene | gegner << 9 (aus Sicht des Spielers am Zug)
+        List<int[]> schichten = new ArrayList<>();
+        int[] schicht = {0};
+        while (schicht.length > 0) {
+            schichten.add(schicht);
+            schicht = naechsteSchicht(schicht);
+        }
+
+        // Rückwärts: vom vollsten Brett zum leeren Brett
+        for (int k = schichten.size() - 1; k >= 0; k--) {
+            for (int stellung : schichten.get(k)) {
+                bewerte(stellung & BitSpielfeld.VOLL, stellung >>> 9);
+            }
+        }
+
+        for (int code = 0; code < QTabelle.ANZAHL_CODES; code++) {
+            if (erreichbar[code]) {
+                anzahlStates++;
+                if (SpielzustandKonverter.istKanonisch(code)) {
+                    anzahlKanonisch++;
+                }
+            }
+        }
+        dauerNanos = System.nanoTime() - start;
+    }
+
+    /**
+     * Alle nicht beendeten Folgestellungen einer Schicht (ohne Duplikate)
+     */
+    private int[] naechsteSchicht(int[] schicht) {
+        boolean[] gesehen = new boolean[1 << 18];
+        int[] naechste = new int[schicht.length * 9];
+        int anzahl = 0;
+        for (int stellung : schicht) {
+            int eigene = stellung & BitSpielfeld.VOLL;
+            int gegner = stellung >>> 9;
+            erreichbar[code(eigene, gegner)] = true;
+
+            int frei = BitSpielfeld.VOLL & ~(eigene | gegner);
+            for (int feld : BitSpielfeld.felder(frei)) {
+                int danach = eigene | (1 << feld);
+                if (BitSpielfeld.istSieg(danach) || (danach | gegner) == BitSpielfeld.VOLL) {
+                    continue; // Spiel beendet
+                }
+                // Gegner ist am Zug: Perspektive tauschen
+                int folge = gegner | (danach << 9);
+                if (!gesehen[folge]) {
+                    gesehen[folge] = true;
+                    naechste[anzahl++] = folge;
+                }
+            }
+        }
+        int[] ergebnis = new int[anzahl];
+        System.arraycopy(naechste, 0, ergebnis, 0, anzahl);
+        return ergebnis;
+    }
+
+    /**
+     * Berechnet Q(s, ·) und V(s); alle Folgestellungen sind bereits bewertet
+     */
+    private void bewerte(int eigene, int gegner) {
+        int code = code(eigene, gegner);
+        int basis = code * QTabelle.ANZAHL_AKTIONEN;
+        double max = Double.NEGATIVE_INFINITY;
+
+        for (int feld = 0; feld < 9; feld++) {
+            int bit = 1 << feld;
+            double q;
+            if (((eigene | gegner) & bit) != 0) {
+                q = VERBOTEN;
+            } else {
+                int danach = eigene | bit;
+                if (BitSpielfeld.istSieg(danach)) {
+                    q = 1.0;
+                } else if ((danach | gegner) == BitSpielfeld.VOLL) {
+                    q = 0.0;
+                } else {
+                    q = -discountFaktor * werte[code(gegner, danach)];
+                }
+                max = Math.max(max, q);
+            }
+            qWerte[basis + feld] = q;
+        }
+        werte[code] = max;
+    }
+
+    /**
+     * Normalisierter Basis-3 Code (1 = eigener Stein, 2 = Gegner, Feld 0 höchste Stelle)
+     */
+    static int code(int eigene, int gegner) {
+        int code = 0;
+        for (int feld = 0; feld < 9; feld++) {
+            int bit = 1 << feld;
+            code = code * 3 + ((eigene & bit) != 0 ? 1 : ((gegner & bit) != 0 ? 2 : 0));
+        }
+        return code;
+    }
+
+    // ========================================================================
+    // Abfragen
+    // ========================================================================
+
+    /**
+     * @param code Normalisierter State-Code (Spieler am Zug)
+     * @return true wenn die Stellung erreichbar und nicht beendet ist
+     */
+    public boolean istErreichbar(int code) {
+        return erreichbar[code];
+    }
+
+    /**
+     * Exakter Q-Wert (VERBOTEN für besetzte Felder)
+     */
+    public double getQWert(int code, int aktion) {
+        pruefeErreichbar(code);
+        return qWerte[code * QTabelle.ANZAHL_AKTIONEN + aktion];
+    }
+
+    /**
+     * Exakter Wert einer Stellung bei beidseitig optimalem Spiel
+     * (&gt; 0 Sieg, 0 Unentschieden, &lt; 0 Niederlage)
+     */
+    public double getWert(int code) {
+        pruefeErreichbar(code);
+        return werte[code];
+    }
+
+    /**
+     * Prüft ob eine Aktion spieltheoretisch optimal ist
+     */
+    public boolean istOptimal(int code, int aktion) {
+        return getQWert(code, aktion) == werte[code];
+    }
+
+    private void pruefeErreichbar(int code) {
+        if (!erreichbar[code]) {
+            throw new IllegalArgumentException("Keine erreichbare Stellung: "
+                                               + SpielzustandKonverter.codeZuString(code));
+        }
+    }
+
+    /**
+     * @return Anzahl erreichbarer, nicht beendeter Stellungen
+     */
+    public int getAnzahlStates() {
+        return anzahlStates;
+    }
+
+    /**
+     * @return Anzahl davon in kanonischer Form (Symmetrie-reduziert)
+     */
+    public int getAnzahlKanonisch() {
+        return anzahlKanonisch;
+    }
+
+    public double getDiscountFaktor() {
+        return discountFaktor;
+    }
+
+    public double getDauerMillis() {
+        return dauerNanos / 1e6;
+    }
+
+    // ========================================================================
+    // Export
+    // ========================================================================
+
+    /**
+     * Schreibt die exakten Werte in eine Q-Tabelle (vorher geleert)
+     *
+     * @param tabelle Ziel-Tabelle
+     * @param kanonisch true: nur kanonische States (für Agents mit Symmetrie-Reduktion)
+     */
+    public void fuelle(QTabelle tabelle, boolean kanonisch) {
+        tabelle.leeren();
+        for (int code = 0; code < QTabelle.ANZAHL_CODES; code++) {
+            if (!erreichbar[code] || kanonisch && !SpielzustandKonverter.istKanonisch(code)) {
+                continue;
+            }
+            tabelle.registriere(code);
+            for (int aktion = 0; aktion < QTabelle.ANZAHL_AKTIONEN; aktion++) {
+                tabelle.setQWert(code, aktion, qWerte[code * QTabelle.ANZAHL_AKTIONEN + aktion]);
+            }
+        }
+    }
+
+    /**
+     * Erstellt einen Agent, dessen Q-Tabelle die exakten Werte enthält (Warmstart)
+     *
+     * @param lernrate Alpha für weiteres Training
+     * @param explorationRate Epsilon für weiteres Training
+     */
+    public QLearningAgent erstelleAgent(double lernrate, double explorationRate) {
+        QLearningAgent agent = new QLearningAgent(lernrate, discountFaktor, explorationRate);
+        fuelle(agent.getQTabelle(), agent.istSymmetrieReduktion());
+        return agent;
+    }
+
+    /**
+     * Exaktes Modell mit kanonischen States (0 Trainingsspiele)
+     */
+    public QLearningModel zuModell() {
+        Map<String, double[]> tabelle = new HashMap<>();
+        for (int code = 0; code < QTabelle.ANZAHL_CODES; code++) {
+            if (erreichbar[code] && SpielzustandKonverter.istKanonisch(code)) {
+                double[] q = new double[QTabelle.ANZAHL_AKTIONEN];
+                System.arraycopy(qWerte, code * QTabelle.ANZAHL_AKTIONEN, q, 0, q.length);
+                tabelle.put(SpielzustandKonverter.codeZuString(code), q);
+            }
+        }
+        return new QLearningModel(tabelle, 0, 0.0, discountFaktor, 0.0, true);
+    }
+
+    // ========================================================================
+    // Vergleich mit trainierten Modellen
+    // ========================================================================
+
+    /**
+     * Anteil der erreichbaren Stellungen, in denen der greedy Zug des Agents optimal ist
+     *
+     * @param agent Trainierter Agent
+     * @return Wert zwischen 0 und 1
+     */
+    public double optimaleZugRate(QLearningAgent agent) {
+        int optimal = 0;
+        List<Integer> aktionen = new ArrayList<>(9);
+        for (int code = 0; code < QTabelle.ANZAHL_CODES; code++) {
+            if (!erreichbar[code]) {
+                continue;
+            }
+            aktionen.clear();
+            for (int aktion = 0; aktion < QTabelle.ANZAHL_AKTIONEN; aktion++) {
+                if (qWerte[code * QTabelle.ANZAHL_AKTIONEN + aktion] != VERBOTEN) {
+                    aktionen.add(aktion);
+                }
+            }
+            int gewaehlt = agent.besteAktion(SpielzustandKonverter.codeZuString(code), aktionen);
+            if (istOptimal(code, gewaehlt)) {
+                optimal++;
+            }
+        }
+        return optimal / (double) anzahlStates;
+    }
+
+    /**
+     * Löst das Spiel, speichert das exakte Modell und vergleicht vorhandene Modelle
+     *
+     * Aufruf: ExakterLoeser [ziel.qbin] [modell ...]
+     */
+    public static void main(String[] args) throws Exception {
+        String ziel = args.length > 0 ? args[0] : "models/exakt.qbin";
+
+        ExakterLoeser loeser = new ExakterLoeser(0.9);
+        System.out.printf("Gelöst in %.2f ms: %,d Stellungen (%,d kanonisch)%n",
+                          loeser.getDauerMillis(), loeser.getAnzahlStates(), loeser.getAnzahlKanonisch());
+        System.out.printf("Wert des leeren Bretts: %.3f (0 = Unentschieden)%n", loeser.getWert(0));
+
+        QLearningAgent exakt = loeser.erstelleAgent(0.1, 0.0);
+        exakt.speichereBinaer(ziel, 0, true);
+        System.out.println("Gespeichert: " + ziel);
+        System.out.println();
+
+        List<String> modelle = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            modelle.add(args[i]);
+        }
+        if (modelle.isEmpty()) {
+            File[] dateien = new File("models").listFiles((d, name) -> name.endsWith(".dat"));
+            if (dateien != null) {
+                for (File datei : dateien) {
+                    modelle.add(datei.getPath());
+                }
+            }
+        }
+        modelle.sort(null);
+
+        System.out.println("Anteil optimaler Züge:");
+        for (String modell : modelle) {
+            QLearningAgent agent = new QLearningAgent();
+            try {
+                agent.ladeModell(modell);
+                System.out.printf("  %-32s %6.1f%%%n", modell, loeser.optimaleZugRate(agent) * 100);
+            } catch (Exception e) {
+                System.out.printf("  %-32s nicht lesbar (%s)%n", modell, e.getMessage());
+            }
+        }
+    }
+}
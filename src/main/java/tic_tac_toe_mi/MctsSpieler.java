@@ -0,0 +1,152 @@
+package tic_tac_toe_mi;
+
+import tictactoe.Farbe;
+import tictactoe.IllegalerZugException;
+import tictactoe.Zug;
+import tictactoe.spieler.ISpieler;
+
+/**
+ * ISpieler auf Basis der parallelen MctsSuche, mit Zeitmanagement.
+ *
+ * Anders als Spieler nutzt er die Bedenkzeit: neuesSpiel liefert das
+ * Gesamtbudget in Sekunden, berechneZug die bereits verbrauchte Zeit beider
+ * Seiten in Millisekunden. Der Referee der Bibliothek meldet dort immer 0,
+ * deshalb misst der Spieler seine Zeit selbst und rechnet mit dem größeren
+ * der beiden Werte. Pro Zug wird die Restzeit (Budget minus Verbrauch)
+ * gleichmäßig auf die noch möglichen eigenen Züge verteilt, zusätzlich
+ * begrenzt durch maxZugzeitMillis.
+ *
+ * Der Suchbaum bleibt zwischen den Zügen erhalten (eigener und gegnerischer
+ * Zug werden auf der Wurzel nachgezogen). Optional dienen die Q-Werte eines
+ * QLearningAgent als Priors.
+ *
+ * Mit mehr als einem Such-Thread hält der Spieler einen Thread-Pool;
+ * close() gibt ihn frei (ungenutzte Threads enden sonst nach einer Leerlaufzeit,
+ * siehe MctsSuche).
+ *
+ * @author johanneshaick
+ */
+public class MctsSpieler implements ISpieler, AutoCloseable {
+
+    private static final MnkSpiel SPIEL = MnkSpiel.TIC_TAC_TOE;
+
+    private final MctsSuche suche;
+    private final long maxZugzeitNanos;
+    private String name;
+    private Farbe farbe;
+    private long bedenkzeitNanos;
+    private long verbrauchtNanos;
+
+    /**
+     * @param name Name
+     * @param anzahlThreads Such-Threads
+     * @param maxZugzeitMillis Obergrenze pro Zug
+     */
+    public MctsSpieler(String name, int anzahlThreads, long maxZugzeitMillis) {
+        this(name, anzahlThreads, maxZugzeitMillis, null);
+    }
+
+    /**
+     * @param name Name
+     * @param anzahlThreads Such-Threads
+     * @param maxZugzeitMillis Obergrenze pro Zug
+     * @param priorAgent Agent, dessen Q-Werte als Priors dienen (oder null für reines UCT)
+     */
+    public MctsSpieler(String name, int anzahlThreads, long maxZugzeitMillis, QLearningAgent priorAgent) {
+        this(name, anzahlThreads, maxZugzeitMillis, priorAgent, MctsSuche.standardKapazitaet(SPIEL));
+    }
+
+    /**
+     * @param name Name
+     * @param anzahlThreads Such-Threads
+     * @param maxZugzeitMillis Obergrenze pro Zug
+     * @param priorAgent Agent, dessen Q-Werte als Priors dienen (oder null für reines UCT)
+     * @param poolGroesse Knoten pro Pool der Suche (für lange Zugzeiten größer als der Standard)
+     */
+    public MctsSpieler(String name, int anzahlThreads, long maxZugzeitMillis, QLearningAgent priorAgent,
+                       int poolGroesse) {
+        this.name = name;
+        this.maxZugzeitNanos = maxZugzeitMillis * 1_000_000L;
+        this.suche = new MctsSuche(SPIEL, anzahlThreads, poolGroesse, System.nanoTime());
+        if (priorAgent != null) {
+            suche.setPriors(EingefrorenePolicy.aus(priorAgent));
+        }
+    }
+
+    @Override
+    public void neuesSpiel(Farbe meineFarbe, int bedenkzeitInSekunden) {
+        this.farbe = meineFarbe;
+        this.bedenkzeitNanos = bedenkzeitInSekunden * 1_000_000_000L;
+        this.verbrauchtNanos = 0;
+        suche.neuesSpiel();
+    }
+
+    @Override
+    public Zug berechneZug(Zug vorherigerZug, long zeitKreis, long zeitKreuz) throws IllegalerZugException {
+        long start = System.nanoTime();
+        MnkSpielfeld brett = suche.getWurzelBrett();
+        if (vorherigerZug != null) {
+            int gegnerAktion = SPIEL.aktion(vorherigerZug.getZeile(), vorherigerZug.getSpalte());
+            if ((brett.getFreieFelder() & (1L << gegnerAktion)) == 0) {
+                throw new IllegalerZugException();
+            }
+            suche.ziehe(gegnerAktion);
+        }
+
+        int aktion = suche.suche(zugBudget(farbe == Farbe.Kreuz ? zeitKreuz : zeitKreis), Long.MAX_VALUE);
+        if (aktion < 0) {
+            throw new IllegalerZugException();
+        }
+        suche.ziehe(aktion);
+        verbrauchtNanos += System.nanoTime() - start;
+        return new Zug(SPIEL.zeile(aktion), SPIEL.spalte(aktion));
+    }
+
+    /**
+     * Zeit für diesen Zug: Restzeit / verbleibende eigene Züge, höchstens maxZugzeit
+     *
+     * @param verbrauchtMillis Verbrauchte Zeit laut Referee (0 = nicht gemeldet)
+     */
+    long zugBudget(long verbrauchtMillis) {
+        long rest = bedenkzeitNanos - Math.max(verbrauchtMillis * 1_000_000L, verbrauchtNanos);
+        int freie = SPIEL.getAnzahlFelder() - suche.getWurzelBrett().getAnzahlZuege();
+        int eigeneZuege = (freie + 1) / 2;
+        // Reserve von einem Zug, damit die Uhr nie ganz abläuft
+        return Math.max(0, Math.min(maxZugzeitNanos, rest / (eigeneZuege + 1)));
+    }
+
+    /**
+     * Beendet die Such-Threads, der Spieler kann danach nicht mehr ziehen
+     */
+    @Override
+    public void close() {
+        suche.beenden();
+    }
+
+    /**
+     * @return Suche mit Playout-Statistik des letzten Zuges
+     */
+    public MctsSuche getSuche() {
+        return suche;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public Farbe getFarbe() {
+        return farbe;
+    }
+
+    @Override
+    public void setFarbe(Farbe farbe) {
+        this.farbe = farbe;
+    }
+}
@@ -0,0 +1,617 @@
+package tic_tac_toe_mi;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Parallele Monte-Carlo-Baumsuche (MCTS) für m,n,k-Spiele.
+ *
+ * Baum-parallel: alle Threads arbeiten auf demselben Baum. Die Knoten liegen
+ * in einem Pool aus primitiven Arrays (Index statt Objekt), Kinder eines
+ * Knotens liegen zusammenhängend. Statistiken sind sperrfrei:
+ * - Besuche und Punkte sind Atomic*Arrays (Punkte in halben Punkten:
+ *   Sieg 2, Remis 1, Niederlage 0 aus Sicht des Spielers, der in den Knoten zieht)
+ * - Virtual Loss: ein Knoten zählt beim Abstieg sofort als besucht, die
+ *   Punkte kommen erst mit dem Playout - andere Threads weichen so auf
+ *   Nachbarn aus, statt alle denselben Pfad zu gehen
+ * - Expansion per CAS: genau ein Thread hängt die Kinder an und
+ *   veröffentlicht sie mit einem volatile Schreibzugriff auf erstesKind
+ *
+ * Auswahl mit UCT, oder mit PUCT, wenn Priors aus einer Q-Tabelle gesetzt
+ * sind (Softmax über die Q-Werte der freien Felder, nur 3x3).
+ *
+ * Baum-Wiederverwendung: ziehe(feld) macht das passende Kind zur neuen
+ * Wurzel, der Teilbaum mit seinen Statistiken bleibt erhalten. Ist der Pool
+ * halb voll, wird der lebende Teilbaum in einen zweiten Pool kompaktiert.
+ *
+ * suche() und ziehe() werden von einem Thread aufgerufen, die Worker-Threads
+ * laufen nur innerhalb von suche(). Es sind Daemon-Threads, die nach
+ * LEERLAUF_SEKUNDEN ohne Suche enden; beenden() bzw. close() gibt sie sofort frei.
+ *
+ * @author johanneshaick
+ */
+public final class MctsSuche implements AutoCloseable {
+
+    private static final int UNEXPANDIERT = -1;
+    private static final int WIRD_EXPANDIERT = -2;
+
+    // Explorationskonstanten für UCT bzw. PUCT
+    private static final double UCT_C = 1.4;
+    private static final double PUCT_C = 1.5;
+
+    // Temperatur der Softmax über Q-Werte (Q liegt in [-1, 1])
+    private static final double PRIOR_TEMPERATUR = 0.25;
+
+    // Leerlauf, nach dem die Worker-Threads enden (werden bei Bedarf neu gestartet)
+    private static final long LEERLAUF_SEKUNDEN = 30;
+
+    // Standardgröße des Knoten-Pools pro Brettfeld; ein Knoten belegt 25 Bytes
+    // je Pool, für 3x3 also rund 3,7 MB für beide Pools zusammen
+    private static final int KNOTEN_PRO_FELD = 1 << 13;
+
+    /**
+     * Knoten-Pool: Knoten i ist der Index in alle Arrays
+     */
+    private static final class Pool {
+        final AtomicIntegerArray erstesKind;
+        final int[] anzahlKinder;
+        final byte[] zug;
+        final float[] prior;
+        final AtomicIntegerArray besuche;
+        final AtomicLongArray punkte;
+        final AtomicInteger belegt = new AtomicInteger();
+
+        Pool(int kapazitaet) {
+            erstesKind = new AtomicIntegerArray(kapazitaet);
+            anzahlKinder = new int[kapazitaet];
+            zug = new byte[kapazitaet];
+            prior = new float[kapazitaet];
+            besuche = new AtomicIntegerArray(kapazitaet);
+            punkte = new AtomicLongArray(kapazitaet);
+        }
+
+        int kapazitaet() {
+            return anzahlKinder.length;
+        }
+
+        /**
+         * Reserviert einen zusammenhängenden Block
+         *
+         * @return Erster Index oder -1, wenn der Pool voll ist
+         */
+        int reserviere(int anzahl) {
+            int start;
+            do {
+                start = belegt.get();
+                if (start + anzahl > kapazitaet()) {
+                    return -1;
+                }
+            } while (!belegt.compareAndSet(start, start + anzahl));
+            for (int i = start; i < start + anzahl; i++) {
+                erstesKind.set(i, UNEXPANDIERT);
+                anzahlKinder[i] = 0;
+                besuche.set(i, 0);
+                punkte.set(i, 0);
+                prior[i] = 0f;
+            }
+            return start;
+        }
+
+        void leeren() {
+            belegt.set(0);
+        }
+    }
+
+    /**
+     * Zustand eines Worker-Threads
+     */
+    private final class Worker {
+        final MnkSpielfeld brett = new MnkSpielfeld(spiel);
+        final int[] pfad = new int[spiel.getAnzahlFelder() + 1];
+        final int[] aktionen = new int[spiel.getAnzahlFelder()];
+        final Random random;
+        long playouts;
+
+        Worker(long seed) {
+            random = new Random(seed);
+        }
+    }
+
+    private final MnkSpiel spiel;
+    private final int anzahlThreads;
+    private final ExecutorService executor;
+    private final Worker[] worker;
+    private final MnkSpielfeld wurzelBrett;
+    private EingefrorenePolicy priors;
+
+    private Pool pool;
+    private Pool reserve;
+    private int wurzel;
+
+    // Statistik der letzten Suche
+    private long letztePlayouts;
+    private long letzteSuchzeitNanos;
+    private int wiederverwendeteBesuche;
+
+    // Gesetzt, wenn der aufrufende Thread während suche() unterbrochen wird
+    private volatile boolean abgebrochen;
+
+    /**
+     * @param spiel Regeln
+     * @param anzahlThreads Worker-Threads (1 = Suche im aufrufenden Thread)
+     * @param kapazitaet Größe des Knoten-Pools (zwei Pools dieser Größe, siehe standardKapazitaet)
+     * @param seed Seed für die Playouts
+     */
+    public MctsSuche(MnkSpiel spiel, int anzahlThreads, int kapazitaet, long seed) {
+        if (anzahlThreads < 1) {
+            throw new IllegalArgumentException("Mindestens ein Thread erforderlich: " + anzahlThreads);
+        }
+        if (kapazitaet <= spiel.getAnzahlFelder()) {
+            throw new IllegalArgumentException("Knoten-Pool zu klein für " + spiel + ": " + kapazitaet);
+        }
+        this.spiel = spiel;
+        this.anzahlThreads = anzahlThreads;
+        if (anzahlThreads > 1) {
+            ThreadPoolExecutor threads = new ThreadPoolExecutor(anzahlThreads, anzahlThreads,
+                    LEERLAUF_SEKUNDEN, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+                Thread thread = new Thread(r, "mcts");
+                thread.setDaemon(true);
+                return thread;
+            });
+            threads.allowCoreThreadTimeOut(true);
+            this.executor = threads;
+        } else {
+            this.executor = null;
+        }
+        this.worker = new Worker[anzahlThreads];
+        for (int t = 0; t < anzahlThreads; t++) {
+            worker[t] = new Worker(seed + t);
+        }
+        this.wurzelBrett = new MnkSpielfeld(spiel);
+        this.pool = new Pool(kapazitaet);
+        this.reserve = new Pool(kapazitaet);
+        neuesSpiel();
+    }
+
+    /**
+     * @return Kleine, mit der Brettgröße wachsende Pool-Größe für Partien mit kurzer Zugzeit
+     */
+    public static int standardKapazitaet(MnkSpiel spiel) {
+        return spiel.getAnzahlFelder() * KNOTEN_PRO_FELD;
+    }
+
+    /**
+     * Priors für PUCT aus einer eingefrorenen Q-Tabelle (nur 3x3), null schaltet auf UCT zurück
+     */
+    public void setPriors(EingefrorenePolicy priors) {
+        if (priors != null && spiel.getAnzahlFelder() != QTabelle.ANZAHL_AKTIONEN) {
+            throw new IllegalArgumentException("Q-Priors gibt es nur für 3x3, nicht für " + spiel);
+        }
+        this.priors = priors;
+    }
+
+    /**
+     * Leeres Brett, leerer Baum
+     */
+    public void neuesSpiel() {
+        wurzelBrett.reset();
+        pool.leeren();
+        wurzel = pool.reserviere(1);
+    }
+
+    /**
+     * Führt einen Zug (eigenen oder gegnerischen) auf der Wurzel aus und
+     * behält den zugehörigen Teilbaum
+     *
+     * @param feld Freies Feld
+     */
+    public void ziehe(int feld) {
+        int neueWurzel = -1;
+        int kind = pool.erstesKind.get(wurzel);
+        for (int i = 0; kind >= 0 && i < pool.anzahlKinder[wurzel]; i++) {
+            if (pool.zug[kind + i] == feld) {
+                neueWurzel = kind + i;
+            }
+        }
+        wurzelBrett.ziehe(feld);
+
+        if (neueWurzel < 0) {
+            pool.leeren();
+            wurzel = pool.reserviere(1);
+        } else {
+            wurzel = neueWurzel;
+            if (pool.belegt.get() > pool.kapazitaet() / 2) {
+                kompaktiere();
+            }
+        }
+    }
+
+    /**
+     * Kopiert den Teilbaum unter der Wurzel in Breitensuche in den Reserve-Pool
+     * (Kinder bleiben zusammenhängend) und tauscht die Pools
+     */
+    private void kompaktiere() {
+        reserve.leeren();
+        int neueWurzel = reserve.reserviere(1);
+        kopiereKnoten(wurzel, neueWurzel);
+
+        int[] warteschlangeAlt = new int[pool.belegt.get()];
+        int[] warteschlangeNeu = new int[warteschlangeAlt.length];
+        int kopf = 0;
+        int ende = 0;
+        warteschlangeAlt[ende] = wurzel;
+        warteschlangeNeu[ende++] = neueWurzel;
+        while (kopf < ende) {
+            int alt = warteschlangeAlt[kopf];
+            int neu = warteschlangeNeu[kopf++];
+            int kinder = pool.erstesKind.get(alt);
+            if (kinder < 0) {
+                continue;
+            }
+            int anzahl = pool.anzahlKinder[alt];
+            int block = reserve.reserviere(anzahl);
+            for (int i = 0; i < anzahl; i++) {
+                kopiereKnoten(kinder + i, block + i);
+                warteschlangeAlt[ende] = kinder + i;
+                warteschlangeNeu[ende++] = block + i;
+            }
+            reserve.anzahlKinder[neu] = anzahl;
+            reserve.erstesKind.set(neu, block);
+        }
+
+        Pool alt = pool;
+        pool = reserve;
+        reserve = alt;
+        wurzel = neueWurzel;
+    }
+
+    private void kopiereKnoten(int alt, int neu) {
+        reserve.zug[neu] = pool.zug[alt];
+        reserve.prior[neu] = pool.prior[alt];
+        reserve.besuche.set(neu, pool.besuche.get(alt));
+        reserve.punkte.set(neu, pool.punkte.get(alt));
+    }
+
+    // ========================================================================
+    // Suche
+    // ========================================================================
+
+    /**
+     * Sucht bis das Zeitbudget oder die Playout-Grenze erreicht ist
+     *
+     * @param zeitNanos Zeitbudget oder AlphaBetaSuche.UNBEGRENZT
+     * @param maxPlayouts Höchstzahl Playouts (Long.MAX_VALUE = nur Zeit)
+     * @return Meistbesuchtes Kind der Wurzel (Feld) oder -1, wenn die Partie beendet ist
+     */
+    public int suche(long zeitNanos, long maxPlayouts) {
+        if (wurzelBrett.letzterZugGewinnt() || wurzelBrett.istVoll()) {
+            return -1;
+        }
+        long start = System.nanoTime();
+        long deadline = zeitNanos == AlphaBetaSuche.UNBEGRENZT ? AlphaBetaSuche.UNBEGRENZT : start + zeitNanos;
+        wiederverwendeteBesuche = pool.besuche.get(wurzel);
+        long playoutsProThread = Math.max(1, maxPlayouts / anzahlThreads);
+
+        for (Worker w : worker) {
+            w.playouts = 0;
+        }
+        abgebrochen = false;
+        if (executor == null) {
+            arbeite(worker[0], deadline, playoutsProThread);
+        } else {
+            List<Future<?>> laufend = new ArrayList<>();
+            for (Worker w : worker) {
+                laufend.add(executor.submit(() -> {
+                    try {
+                        arbeite(w, deadline, playoutsProThread);
+                    } catch (RuntimeException | Error e) {
+                        abgebrochen = true; // übrige Worker sofort stoppen, nicht erst beim Abwarten
+                        throw e;
+                    }
+                }));
+            }
+            // Bei einem Interrupt oder einem fehlgeschlagenen Worker brechen die übrigen
+            // nach höchstens 16 Playouts ab; gewartet wird trotzdem auf alle, damit
+            // keiner mehr am Baum arbeitet (Future#cancel würde laufende Worker nicht abwarten)
+            boolean unterbrochen = false;
+            Throwable fehler = null;
+            for (Future<?> future : laufend) {
+                while (true) {
+                    try {
+                        future.get();
+                        break;
+                    } catch (InterruptedException e) {
+                        unterbrochen = true;
+                        abgebrochen = true;
+                    } catch (ExecutionException e) {
+                        abgebrochen = true;
+                        if (fehler == null) {
+                            fehler = e.getCause();
+                        } else {
+                            fehler.addSuppressed(e.getCause());
+                        }
+                        break;
+                    }
+                }
+            }
+            if (unterbrochen) {
+                Thread.currentThread().interrupt();
+            }
+            if (fehler != null) {
+                throw new IllegalStateException("MCTS-Worker fehlgeschlagen", fehler);
+            }
+        }
+
+        letzteSuchzeitNanos = System.nanoTime() - start;
+        letztePlayouts = 0;
+        for (Worker w : worker) {
+            letztePlayouts += w.playouts;
+        }
+        return besterZug();
+    }
+
+    private void arbeite(Worker w, long deadline, long maxPlayouts) {
+        w.brett.kopiereVon(wurzelBrett);
+        while (w.playouts < maxPlayouts
+               && ((w.playouts & 15) != 0 || !abgebrochen && (deadline == AlphaBetaSuche.UNBEGRENZT
+                                                               || System.nanoTime() < deadline))) {
+            iteration(w);
+            w.playouts++;
+        }
+    }
+
+    /**
+     * Auswahl, Expansion, Playout und Rückpropagierung
+     */
+    private void iteration(Worker w) {
+        MnkSpielfeld brett = w.brett;
+        int wurzelZuege = brett.getAnzahlZuege();
+        int knoten = wurzel;
+        int tiefe = 0;
+        w.pfad[tiefe++] = knoten;
+        pool.besuche.incrementAndGet(knoten);
+
+        while (!brett.letzterZugGewinnt() && !brett.istVoll()) {
+            int kinder = pool.erstesKind.get(knoten);
+            if (kinder == UNEXPANDIERT) {
+                if (!pool.erstesKind.compareAndSet(knoten, UNEXPANDIERT, WIRD_EXPANDIERT)) {
+                    break;
+                }
+                kinder = expandiere(knoten, brett, w.aktionen);
+                if (kinder < 0) {
+                    break;
+                }
+            } else if (kinder == WIRD_EXPANDIERT) {
+                break;
+            }
+            knoten = waehleKind(knoten, kinder);
+            pool.besuche.incrementAndGet(knoten); // Virtual Loss bis zum Playout
+            brett.ziehe(pool.zug[knoten]);
+            w.pfad[tiefe++] = knoten;
+            if (pool.besuche.get(knoten) == 1) {
+                break; // Neues Blatt: ab hier Playout
+            }
+        }
+
+        // Zufälliges Playout bis zum Spielende
+        while (!brett.letzterZugGewinnt() && !brett.istVoll()) {
+            int anzahl = brett.getMoeglicheAktionen(w.aktionen);
+            brett.ziehe(w.aktionen[w.random.nextInt(anzahl)]);
+        }
+        int gewinnerFarbe = brett.letzterZugGewinnt() ? (brett.getAnzahlZuege() - 1) & 1 : -1;
+
+        // Rückpropagierung: Knoten i wurde von der Farbe (wurzelZuege + i - 1) erreicht
+        for (int i = 0; i < tiefe; i++) {
+            int farbe = (wurzelZuege + i - 1) & 1;
+            int punkte = gewinnerFarbe < 0 ? 1 : gewinnerFarbe == farbe ? 2 : 0;
+            pool.punkte.addAndGet(w.pfad[i], punkte);
+        }
+        while (brett.getAnzahlZuege() > wurzelZuege) {
+            brett.zuruecknehmen();
+        }
+    }
+
+    /**
+     * Hängt die Kinder (ein Kind pro freiem Feld) an und veröffentlicht sie
+     *
+     * @return Erstes Kind oder -1, wenn der Pool voll ist (Knoten bleibt Blatt)
+     */
+    private int expandiere(int knoten, MnkSpielfeld brett, int[] aktionen) {
+        int anzahl = brett.getMoeglicheAktionen(aktionen);
+        int block = pool.reserviere(anzahl);
+        if (block < 0) {
+            pool.erstesKind.set(knoten, UNEXPANDIERT);
+            return -1;
+        }
+        for (int i = 0; i < anzahl; i++) {
+            pool.zug[block + i] = (byte) aktionen[i];
+        }
+        if (priors != null) {
+            setzePriors(block, anzahl, (int) brett.getCodeAmZug());
+        }
+        pool.anzahlKinder[knoten] = anzahl;
+        pool.erstesKind.set(knoten, block);
+        return block;
+    }
+
+    private void setzePriors(int block, int anzahl, int stateCode) {
+        double max = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < anzahl; i++) {
+            max = Math.max(max, priors.getQWert(stateCode, pool.zug[block + i]));
+        }
+        double summe = 0;
+        for (int i = 0; i < anzahl; i++) {
+            double p = Math.exp((priors.getQWert(stateCode, pool.zug[block + i]) - max) / PRIOR_TEMPERATUR);
+            pool.prior[block + i] = (float) p;
+            summe += p;
+        }
+        for (int i = 0; i < anzahl; i++) {
+            pool.prior[block + i] /= (float) summe;
+        }
+    }
+
+    private int waehleKind(int knoten, int kinder) {
+        int anzahl = pool.anzahlKinder[knoten];
+        int elternBesuche = Math.max(1, pool.besuche.get(knoten));
+        double logN = Math.log(elternBesuche);
+        double sqrtN = Math.sqrt(elternBesuche);
+
+        int bestes = kinder;
+        double besterScore = Double.NEGATIVE_INFINITY;
+        for (int kind = kinder; kind < kinder + anzahl; kind++) {
+            int n = pool.besuche.get(kind);
+            double score;
+            if (priors != null) {
+                double q = n == 0 ? 0.5 : pool.punkte.get(kind) / (2.0 * n);
+                score = q + PUCT_C * pool.prior[kind] * sqrtN / (1 + n);
+            } else if (n == 0) {
+                score = Double.POSITIVE_INFINITY;
+            } else {
+                score = pool.punkte.get(kind) / (2.0 * n) + UCT_C * Math.sqrt(logN / n);
+            }
+            if (score > besterScore) {
+                besterScore = score;
+                bestes = kind;
+            }
+        }
+        return bestes;
+    }
+
+    private int besterZug() {
+        int kinder = pool.erstesKind.get(wurzel);
+        if (kinder < 0) {
+            wurzelBrett.getMoeglicheAktionen(worker[0].aktionen);
+            return worker[0].aktionen[0];
+        }
+        int bestes = kinder;
+        for (int kind = kinder + 1; kind < kinder + pool.anzahlKinder[wurzel]; kind++) {
+            if (pool.besuche.get(kind) > pool.besuche.get(bestes)) {
+                bestes = kind;
+            }
+        }
+        return pool.zug[bestes];
+    }
+
+    /**
+     * Beendet die Worker-Threads (die Suche ist danach nicht mehr nutzbar)
+     */
+    public void beenden() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    @Override
+    public void close() {
+        beenden();
+    }
+
+    // ========================================================================
+    // Statistik
+    // ========================================================================
+
+    public long getLetztePlayouts() {
+        return letztePlayouts;
+    }
+
+    public double getPlayoutsProSekunde() {
+        return letzteSuchzeitNanos == 0 ? 0.0 : letztePlayouts / (letzteSuchzeitNanos / 1e9);
+    }
+
+    /**
+     * @return Besuche, die die Wurzel zu Beginn der letzten Suche aus früheren Zügen mitbrachte
+     */
+    public int getWiederverwendeteBesuche() {
+        return wiederverwendeteBesuche;
+    }
+
+    /**
+     * @return Besuche der Wurzel (inkl. wiederverwendeter)
+     */
+    public int getWurzelBesuche() {
+        return pool.besuche.get(wurzel);
+    }
+
+    /**
+     * @return Belegte Knoten im Pool
+     */
+    public int getBelegteKnoten() {
+        return pool.belegt.get();
+    }
+
+    /**
+     * @return Gewinnrate des Spielers am Zug nach dem besten Zug (0..1)
+     */
+    public double getWurzelWert() {
+        int kinder = pool.erstesKind.get(wurzel);
+        if (kinder < 0) {
+            return 0.5;
+        }
+        int bestes = kinder;
+        for (int kind = kinder + 1; kind < kinder + pool.anzahlKinder[wurzel]; kind++) {
+            if (pool.besuche.get(kind) > pool.besuche.get(bestes)) {
+                bestes = kind;
+            }
+        }
+        int n = pool.besuche.get(bestes);
+        return n == 0 ? 0.5 : pool.punkte.get(bestes) / (2.0 * n);
+    }
+
+    public MnkSpielfeld getWurzelBrett() {
+        return wurzelBrett;
+    }
+
+    public int getAnzahlThreads() {
+        return anzahlThreads;
+    }
+
+    // ========================================================================
+    // Skalierung
+    // ========================================================================
+
+    /**
+     * Playouts pro Sekunde aus der Anfangsstellung für 1, 2, 4, ... Threads
+     *
+     * Aufruf: MctsSuche [sekunden] [m,n,k] [maxThreads]
+     */
+    public static void main(String[] args) {
+        double sekunden = args.length > 0 ? Double.parseDouble(args[0]) : 2.0;
+        String[] teile = (args.length > 1 ? args[1] : "3,3,3").split(",");
+        MnkSpiel spiel = new MnkSpiel(Integer.parseInt(teile[0]), Integer.parseInt(teile[1]),
+                                      Integer.parseInt(teile[2]));
+        int kerne = Runtime.getRuntime().availableProcessors();
+        int maxThreads = args.length > 2 ? Integer.parseInt(args[2]) : kerne;
+
+        System.out.println();
+        System.out.println("═══════════════════════════════════════════════════════");
+        System.out.println("  Parallele MCTS - Skalierung (" + spiel + ", " + kerne + " Kerne)");
+        System.out.println("═══════════════════════════════════════════════════════");
+        System.out.printf("%7s %14s %10s %12s %8s%n", "Threads", "Playouts/s", "Speedup", "Knoten", "Wert");
+
+        double basis = 0;
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            MctsSuche suche = new MctsSuche(spiel, threads, 4_000_000, 42);
+            suche.suche((long) (0.2 * 1e9), Long.MAX_VALUE); // Aufwärmen
+            suche.neuesSpiel();
+            int zug = suche.suche((long) (sekunden * 1e9), Long.MAX_VALUE);
+            double rate = suche.getPlayoutsProSekunde();
+            if (threads == 1) {
+                basis = rate;
+            }
+            System.out.printf("%7d %,14.0f %9.2fx %,12d %7.1f%%   Zug %d/%d%n",
+                              threads, rate, rate / basis, suche.getBelegteKnoten(),
+                              suche.getWurzelWert() * 100, spiel.zeile(zug), spiel.spalte(zug));
+            suche.beenden();
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package tic_tac_toe_mi;
+
+import java.util.Arrays;
+
+/**
+ * Q-Tabelle für m,n,k-Spiele mit long State-Codes.
+ *
+ * Ab 4x4 passt der Code-Raum (3^16 = 43 Mio.) nicht mehr in ein dichtes
+ * Array wie bei ArrayQTabelle. Die States liegen deshalb in einer offenen
+ * Hash-Tabelle (lineares Sondieren) mit primitiven Arrays: ein long-Array
+ * für die Codes und ein float-Array mit einer Zeile pro State. Die
+ * Zeilenlänge ist die Anzahl der Felder des Bretts. float genügt wie beim
+ * float-Format von BinaeresModell und halbiert den Speicher - bei 5x5 sind
+ * das 100 statt 200 Bytes pro State. Bei 75% Füllung wird die Kapazität
+ * verdoppelt.
+ *
+ * Semantik wie QTabelle: unbekannte States liefern 0.0, Schreiben registriert.
+ * Nicht thread-sicher.
+ *
+ * @author johanneshaick
+ */
+public class MnkQTabelle {
+
+    private static final long FREI = -1L;
+
+    private final int anzahlAktionen;
+    private long[] codes;
+    private float[] qWerte;
+    private int maske;
+    private int anzahlStates;
+
+    /**
+     * @param anzahlAktionen Q-Werte pro State (= Felder des Bretts)
+     */
+    public MnkQTabelle(int anzahlAktionen) {
+        this(anzahlAktionen, 1024);
+    }
+
+    /**
+     * @param anzahlAktionen Q-Werte pro State
+     * @param startKapazitaet Erwartete Anzahl States (wird auf eine Zweierpotenz aufgerundet)
+     */
+    public MnkQTabelle(int anzahlAktionen, int startKapazitaet) {
+        this.anzahlAktionen = anzahlAktionen;
+        // Kapazität ≥ 4/3 × erwartete States (Füllgrad ≤ 75%)
+        allokiere(Integer.highestOneBit(Math.max(8, startKapazitaet) * 8 / 3 - 1));
+    }
+
+    private void allokiere(int kapazitaet) {
+        codes = new long[kapazitaet];
+        Arrays.fill(codes, FREI);
+        qWerte = new float[kapazitaet * anzahlAktionen];
+        maske = kapazitaet - 1;
+    }
+
+    /**
+     * Slot eines Codes: belegt (≥ 0) oder -(freier Slot) - 1
+     */
+    private int suche(long code) {
+        long h = code * 0x9E3779B97F4A7C15L;
+        int slot = (int) (h ^ (h >>> 32)) & maske;
+        while (true) {
+            long vorhanden = codes[slot];
+            if (vorhanden == code) {
+                return slot;
+            }
+            if (vorhanden == FREI) {
+                return -slot - 1;
+            }
+            slot = (slot + 1) & maske;
+        }
+    }
+
+    /**
+     * Registriert einen State (Q-Werte 0, falls neu)
+     *
+     * @return Offset der Q-Werte des States
+     */
+    private int zeile(long code) {
+        int slot = suche(code);
+        if (slot >= 0) {
+            return slot * anzahlAktionen;
+        }
+        if (4L * (anzahlStates + 1) > 3L * codes.length) {
+            vergroessere();
+            slot = suche(code);
+        }
+        slot = -slot - 1;
+        codes[slot] = code;
+        anzahlStates++;
+        return slot * anzahlAktionen;
+    }
+
+    private void vergroessere() {
+        long[] alteCodes = codes;
+        float[] alteWerte = qWerte;
+        allokiere(alteCodes.length * 2);
+        for (int alt = 0; alt < alteCodes.length; alt++) {
+            if (alteCodes[alt] == FREI) {
+                continue;
+            }
+            int neu = -suche(alteCodes[alt]) - 1;
+            codes[neu] = alteCodes[alt];
+            System.arraycopy(alteWerte, alt * anzahlAktionen, qWerte, neu * anzahlAktionen, anzahlAktionen);
+        }
+    }
+
+    public double getQWert(long stateCode, int aktion) {
+        int slot = suche(stateCode);
+        return slot < 0 ? 0.0 : qWerte[slot * anzahlAktionen + aktion];
+    }
+
+    public void setQWert(long stateCode, int aktion, double wert) {
+        qWerte[zeile(stateCode) + aktion] = (float) wert;
+    }
+
+    /**
+     * Q ← Q + α·(ziel - Q)
+     */
+    public void aktualisiere(long stateCode, int aktion, double zielWert, double lernrate) {
+        int index = zeile(stateCode) + aktion;
+        qWerte[index] += (float) (lernrate * (zielWert - qWerte[index]));
+    }
+
+    /**
+     * Maximaler Q-Wert über alle Aktionen (0.0 für unbekannte States)
+     */
+    public double getMaxQWert(long stateCode) {
+        int slot = suche(stateCode);
+        if (slot < 0) {
+            return 0.0;
+        }
+        int basis = slot * anzahlAktionen;
+        float max = qWerte[basis];
+        for (int aktion = 1; aktion < anzahlAktionen; aktion++) {
+            max = Math.max(max, qWerte[basis + aktion]);
+        }
+        return max;
+    }
+
+    public void registriere(long stateCode) {
+        zeile(stateCode);
+    }
+
+    public boolean enthaelt(long stateCode) {
+        return suche(stateCode) >= 0;
+    }
+
+    public int getAnzahlStates() {
+        return anzahlStates;
+    }
+
+    public int getAnzahlAktionen() {
+        return anzahlAktionen;
+    }
+
+    /**
+     * @return Belegter Speicher der beiden Arrays in Bytes
+     */
+    public long getSpeicherBytes() {
+        return (long) codes.length * Long.BYTES + (long) qWerte.length * Float.BYTES;
+    }
+
+    public void leeren() {
+        allokiere(16);
+        anzahlStates = 0;
+    }
+}
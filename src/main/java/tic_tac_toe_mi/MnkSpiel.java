@@ -0,0 +1,186 @@
+package tic_tac_toe_mi;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import tic_tac_toe_mi.nn.NeuralNetwork;
+
+/**
+ * Regeln eines m,n,k-Spiels: Brett mit m Zeilen und n Spalten, gewonnen hat,
+ * wer k Steine in einer Reihe hat (waagrecht, senkrecht oder diagonal).
+ * Tic-Tac-Toe ist das 3,3,3-Spiel, "4 gewinnt ohne Schwerkraft" z.B. 5,5,4.
+ *
+ * Vorberechnet werden alle Gewinnlinien (jedes Fenster aus k Feldern) und
+ * für jedes Feld die Linien, die durch dieses Feld laufen. Ein MnkSpielfeld
+ * führt darauf pro Linie einen Zähler und erkennt Siege inkrementell.
+ *
+ * State-Codes sind wie bei Tic-Tac-Toe Basis-3 (Feld 0 = höchste Stelle),
+ * aber als long - damit sind Bretter bis MAX_FELDER Felder (z.B. 6x6) möglich.
+ * Die Größen von Q-Tabelle und Neural Network werden aus der Feldanzahl abgeleitet.
+ *
+ * Instanzen sind unveränderlich und können von beliebig vielen Spielfeldern
+ * und Threads geteilt werden.
+ *
+ * @author johanneshaick
+ */
+public final class MnkSpiel {
+
+    /** Größtes Brett, dessen Basis-3 Codes noch in ein long passen (3^39 < 2^63) */
+    public static final int MAX_FELDER = 39;
+
+    // Richtungen einer Linie: waagrecht, senkrecht, Diagonale \, Diagonale /
+    private static final int[][] RICHTUNGEN = {{0, 1}, {1, 0}, {1, 1}, {1, -1}};
+
+    /** Klassisches Tic-Tac-Toe */
+    public static final MnkSpiel TIC_TAC_TOE = new MnkSpiel(3, 3, 3);
+
+    private final int zeilen;
+    private final int spalten;
+    private final int k;
+    private final int anzahlFelder;
+
+    // Stellenwert von Feld i im Basis-3 Code
+    private final long[] gewicht;
+
+    // linien[linie] = Felder der Linie, linienProFeld[feld] = Linien durch das Feld
+    private final int[][] linien;
+    private final int[][] linienProFeld;
+
+    /**
+     * @param zeilen m (Anzahl Zeilen)
+     * @param spalten n (Anzahl Spalten)
+     * @param k Steine in einer Reihe für den Sieg
+     * @throws IllegalArgumentException wenn k nicht aufs Brett passt oder das Brett zu groß ist
+     */
+    public MnkSpiel(int zeilen, int spalten, int k) {
+        if (zeilen < 1 || spalten < 1 || k < 1 || k > Math.max(zeilen, spalten)) {
+            throw new IllegalArgumentException("Ungültiges m,n,k-Spiel: " + zeilen + "," + spalten + "," + k);
+        }
+        if (zeilen * spalten > MAX_FELDER) {
+            throw new IllegalArgumentException("Brett zu groß für long-Codes (max. " + MAX_FELDER
+                                               + " Felder): " + zeilen + "x" + spalten);
+        }
+        this.zeilen = zeilen;
+        this.spalten = spalten;
+        this.k = k;
+        this.anzahlFelder = zeilen * spalten;
+
+        gewicht = new long[anzahlFelder];
+        long wert = 1;
+        for (int feld = anzahlFelder - 1; feld >= 0; feld--) {
+            gewicht[feld] = wert;
+            wert *= 3;
+        }
+
+        List<int[]> gefunden = new ArrayList<>();
+        for (int[] richtung : RICHTUNGEN) {
+            for (int zeile = 0; zeile < zeilen; zeile++) {
+                for (int spalte = 0; spalte < spalten; spalte++) {
+                    int endZeile = zeile + (k - 1) * richtung[0];
+                    int endSpalte = spalte + (k - 1) * richtung[1];
+                    if (endZeile >= zeilen || endSpalte < 0 || endSpalte >= spalten) {
+                        continue;
+                    }
+                    int[] linie = new int[k];
+                    for (int i = 0; i < k; i++) {
+                        linie[i] = aktion(zeile + i * richtung[0], spalte + i * richtung[1]);
+                    }
+                    gefunden.add(linie);
+                }
+            }
+        }
+        linien = gefunden.toArray(new int[0][]);
+
+        int[] anzahlProFeld = new int[anzahlFelder];
+        for (int[] linie : linien) {
+            for (int feld : linie) {
+                anzahlProFeld[feld]++;
+            }
+        }
+        linienProFeld = new int[anzahlFelder][];
+        for (int feld = 0; feld < anzahlFelder; feld++) {
+            linienProFeld[feld] = new int[anzahlProFeld[feld]];
+            anzahlProFeld[feld] = 0;
+        }
+        for (int l = 0; l < linien.length; l++) {
+            for (int feld : linien[l]) {
+                linienProFeld[feld][anzahlProFeld[feld]++] = l;
+            }
+        }
+    }
+
+    /**
+     * Aktions-Index eines Feldes (verallgemeinert zeile*3+spalte)
+     */
+    public int aktion(int zeile, int spalte) {
+        return zeile * spalten + spalte;
+    }
+
+    public int zeile(int aktion) {
+        return aktion / spalten;
+    }
+
+    public int spalte(int aktion) {
+        return aktion % spalten;
+    }
+
+    public int getZeilen() {
+        return zeilen;
+    }
+
+    public int getSpalten() {
+        return spalten;
+    }
+
+    public int getK() {
+        return k;
+    }
+
+    /**
+     * @return Anzahl Felder = Anzahl Aktionen = Input/Output-Größe des Networks
+     */
+    public int getAnzahlFelder() {
+        return anzahlFelder;
+    }
+
+    public int getAnzahlLinien() {
+        return linien.length;
+    }
+
+    /**
+     * @return Maske mit allen Feldern
+     */
+    public long getVoll() {
+        return (1L << anzahlFelder) - 1;
+    }
+
+    /**
+     * @return Anzahl möglicher Basis-3 Codes (3^Felder, obere Schranke für die States)
+     */
+    public double getAnzahlCodes() {
+        return Math.pow(3, anzahlFelder);
+    }
+
+    long getGewicht(int feld) {
+        return gewicht[feld];
+    }
+
+    int[] getLinien(int feld) {
+        return linienProFeld[feld];
+    }
+
+    /**
+     * Neural Network mit einem Input und einem Q-Value pro Feld
+     *
+     * @param hiddenSizes Größen der Hidden Layers
+     * @param seed Random Seed
+     */
+    public NeuralNetwork erstelleNetzwerk(int[] hiddenSizes, long seed) {
+        return new NeuralNetwork(anzahlFelder, hiddenSizes, anzahlFelder, seed);
+    }
+
+    @Override
+    public String toString() {
+        return zeilen + "," + spalten + "," + k;
+    }
+}
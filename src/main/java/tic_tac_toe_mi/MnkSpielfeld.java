@@ -0,0 +1,243 @@
+package tic_tac_toe_mi;
+
+import java.util.Arrays;
+
+/**
+ * Spielfeld eines m,n,k-Spiels mit inkrementeller Sieg-Erkennung.
+ *
+ * Für jede Gewinnlinie wird pro Spieler mitgezählt, wie viele eigene Steine
+ * darauf liegen. Ein Zug erhöht nur die Zähler der Linien durch sein Feld;
+ * erreicht einer davon k, hat der Zug gewonnen. Kosten pro Zug sind damit
+ * proportional zur Anzahl Linien durch das Feld (höchstens 4·k), unabhängig
+ * von der Brettgröße.
+ *
+ * Wie beim BitSpielfeld werden nach jedem Zug die Rollen getauscht, so dass
+ * der long State-Code immer aus Sicht des Spielers am Zug vorliegt
+ * (1 = eigener Stein, 2 = gegnerischer Stein). Auf dem 3x3-Brett sind die
+ * Codes identisch mit denen von BitSpielfeld.
+ *
+ * Züge lassen sich mit zuruecknehmen() rückgängig machen (für Suchverfahren).
+ *
+ * @author johanneshaick
+ */
+public class MnkSpielfeld {
+
+    /** Obergrenze von bewerteLinien, deutlich unter den Gewinnwerten der AlphaBetaSuche */
+    static final int MAX_BEWERTUNG = AlphaBetaSuche.GEWINN / 2;
+
+    // Ab so vielen Steinen wächst das Gewicht einer Linie nicht weiter (4^20 · Linien passt in ein long)
+    private static final int MAX_GEWICHT_STEINE = 20;
+
+    private final MnkSpiel spiel;
+
+    // Steine pro Linie für den Spieler am Zug und seinen Gegner
+    private int[] zaehlerAmZug;
+    private int[] zaehlerNichtAmZug;
+
+    private long eigene;
+    private long gegner;
+    private long codeAmZug;
+    private long codeNichtAmZug;
+
+    private final int[] verlauf;
+    private int anzahlZuege;
+    private boolean letzterZugGewinnt;
+
+    public MnkSpielfeld(MnkSpiel spiel) {
+        this.spiel = spiel;
+        this.zaehlerAmZug = new int[spiel.getAnzahlLinien()];
+        this.zaehlerNichtAmZug = new int[spiel.getAnzahlLinien()];
+        this.verlauf = new int[spiel.getAnzahlFelder()];
+    }
+
+    /**
+     * Leeres Brett, der Anziehende ist am Zug
+     */
+    public void reset() {
+        Arrays.fill(zaehlerAmZug, 0);
+        Arrays.fill(zaehlerNichtAmZug, 0);
+        eigene = 0;
+        gegner = 0;
+        codeAmZug = 0;
+        codeNichtAmZug = 0;
+        anzahlZuege = 0;
+        letzterZugGewinnt = false;
+    }
+
+    /**
+     * Übernimmt die Stellung eines anderen Spielfelds desselben Spiels
+     * (z.B. die Wurzelstellung für die Worker einer parallelen Suche)
+     */
+    public void kopiereVon(MnkSpielfeld andere) {
+        System.arraycopy(andere.zaehlerAmZug, 0, zaehlerAmZug, 0, zaehlerAmZug.length);
+        System.arraycopy(andere.zaehlerNichtAmZug, 0, zaehlerNichtAmZug, 0, zaehlerNichtAmZug.length);
+        System.arraycopy(andere.verlauf, 0, verlauf, 0, andere.anzahlZuege);
+        eigene = andere.eigene;
+        gegner = andere.gegner;
+        codeAmZug = andere.codeAmZug;
+        codeNichtAmZug = andere.codeNichtAmZug;
+        anzahlZuege = andere.anzahlZuege;
+        letzterZugGewinnt = andere.letzterZugGewinnt;
+    }
+
+    /**
+     * Setzt einen Stein des Spielers am Zug und tauscht die Rollen
+     *
+     * @param feld Freies Feld
+     */
+    public void ziehe(int feld) {
+        long bit = 1L << feld;
+        long wert = spiel.getGewicht(feld);
+        eigene |= bit;
+        codeAmZug += wert;
+        codeNichtAmZug += 2 * wert;
+
+        boolean gewonnen = false;
+        int k = spiel.getK();
+        for (int linie : spiel.getLinien(feld)) {
+            if (++zaehlerAmZug[linie] == k) {
+                gewonnen = true;
+            }
+        }
+        letzterZugGewinnt = gewonnen;
+        verlauf[anzahlZuege++] = feld;
+
+        tauscheRollen();
+    }
+
+    /**
+     * Nimmt den letzten Zug zurück (der Spieler dieses Zuges ist danach wieder am Zug)
+     *
+     * @return Feld des zurückgenommenen Zuges
+     */
+    public int zuruecknehmen() {
+        int feld = verlauf[--anzahlZuege];
+        tauscheRollen();
+
+        long wert = spiel.getGewicht(feld);
+        eigene &= ~(1L << feld);
+        codeAmZug -= wert;
+        codeNichtAmZug -= 2 * wert;
+        for (int linie : spiel.getLinien(feld)) {
+            zaehlerAmZug[linie]--;
+        }
+        // Nach einem Gewinnzug wird nicht weitergespielt, der vorige Zug hat also nicht gewonnen
+        letzterZugGewinnt = false;
+        return feld;
+    }
+
+    private void tauscheRollen() {
+        long maske = eigene;
+        eigene = gegner;
+        gegner = maske;
+
+        long code = codeAmZug;
+        codeAmZug = codeNichtAmZug;
+        codeNichtAmZug = code;
+
+        int[] zaehler = zaehlerAmZug;
+        zaehlerAmZug = zaehlerNichtAmZug;
+        zaehlerNichtAmZug = zaehler;
+    }
+
+    /**
+     * @return true wenn der zuletzt ausgeführte Zug k in einer Reihe erzeugt hat
+     */
+    public boolean letzterZugGewinnt() {
+        return letzterZugGewinnt;
+    }
+
+    public boolean istVoll() {
+        return anzahlZuege == spiel.getAnzahlFelder();
+    }
+
+    /**
+     * @return Maske der freien Felder
+     */
+    public long getFreieFelder() {
+        return spiel.getVoll() & ~(eigene | gegner);
+    }
+
+    /**
+     * Schreibt die freien Felder aufsteigend in einen Puffer (allokationsfrei)
+     *
+     * @param puffer Mindestens getAnzahlFelder() Einträge
+     * @return Anzahl freier Felder
+     */
+    public int getMoeglicheAktionen(int[] puffer) {
+        int anzahl = 0;
+        for (long frei = getFreieFelder(); frei != 0; frei &= frei - 1) {
+            puffer[anzahl++] = Long.numberOfTrailingZeros(frei);
+        }
+        return anzahl;
+    }
+
+    /**
+     * @return State-Code aus Sicht des Spielers am Zug
+     */
+    public long getCodeAmZug() {
+        return codeAmZug;
+    }
+
+    /**
+     * @return State-Code aus Sicht des Spielers, der zuletzt gezogen hat
+     */
+    public long getCodeNichtAmZug() {
+        return codeNichtAmZug;
+    }
+
+    /**
+     * @return Steine des Spielers am Zug
+     */
+    public long getEigene() {
+        return eigene;
+    }
+
+    /**
+     * @return Steine des Gegners
+     */
+    public long getGegner() {
+        return gegner;
+    }
+
+    public int getAnzahlZuege() {
+        return anzahlZuege;
+    }
+
+    public MnkSpiel getSpiel() {
+        return spiel;
+    }
+
+    /**
+     * Heuristik für Suchverfahren aus Sicht des Spielers am Zug: jede Linie,
+     * auf der nur eine Seite Steine hat, zählt 4^Steine für diese Seite.
+     * Blockierte Linien (beide Seiten) zählen nicht. Das Ergebnis ist auf
+     * ±MAX_BEWERTUNG begrenzt, damit es bei großem k weder überläuft noch
+     * von der Suche als Gewinnwert gelesen wird.
+     */
+    int bewerteLinien() {
+        long wert = 0;
+        for (int linie = 0; linie < zaehlerAmZug.length; linie++) {
+            int eigeneSteine = zaehlerAmZug[linie];
+            int gegnerSteine = zaehlerNichtAmZug[linie];
+            if (gegnerSteine == 0 && eigeneSteine > 0) {
+                wert += 1L << (2 * Math.min(eigeneSteine, MAX_GEWICHT_STEINE));
+            } else if (eigeneSteine == 0 && gegnerSteine > 0) {
+                wert -= 1L << (2 * Math.min(gegnerSteine, MAX_GEWICHT_STEINE));
+            }
+        }
+        return (int) Math.max(-MAX_BEWERTUNG, Math.min(MAX_BEWERTUNG, wert));
+    }
+
+    /**
+     * Network-Input aus Sicht des Spielers am Zug (1 = eigener Stein, -1 = Gegner, 0 = leer)
+     *
+     * @param input Ziel-Puffer mit getAnzahlFelder() Einträgen
+     */
+    public void kodiere(double[] input) {
+        for (int feld = 0; feld < spiel.getAnzahlFelder(); feld++) {
+            long bit = 1L << feld;
+            input[feld] = (eigene & bit) != 0 ? 1.0 : (gegner & bit) != 0 ? -1.0 : 0.0;
+        }
+    }
+}
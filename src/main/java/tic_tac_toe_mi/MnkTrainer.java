@@ -0,0 +1,184 @@
+package tic_tac_toe_mi;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Tabellarisches Q-Learning im Self-Play für beliebige m,n,k-Spiele.
+ *
+ * Update-Regel, Reward und Ablauf einer Partie entsprechen QLearningAgent
+ * und Selbstspiel (beide Seiten teilen eine Tabelle, +1 für den Gewinnzug),
+ * nur auf MnkSpielfeld und MnkQTabelle mit long State-Codes. Eine
+ * Symmetrie-Reduktion gibt es hier nicht - die Tabelle wächst mit dem
+ * vollen Zustandsraum und dient damit als Belastungstest für Training
+ * und Speicher.
+ *
+ * @author johanneshaick
+ */
+public class MnkTrainer {
+
+    private final MnkSpiel spiel;
+    private final MnkQTabelle qTabelle;
+    private final MnkSpielfeld brett;
+    private final int[] aktionen;
+    private final Random random;
+
+    private final double lernrate;
+    private final double discountFaktor;
+    private double explorationRate;
+    private long anzahlZuege;
+
+    /**
+     * @param spiel Regeln (Brettgröße und k)
+     * @param lernrate Alpha
+     * @param discountFaktor Gamma
+     * @param explorationRate Epsilon
+     * @param seed Seed für die Exploration
+     */
+    public MnkTrainer(MnkSpiel spiel, double lernrate, double discountFaktor, double explorationRate, long seed) {
+        this.spiel = spiel;
+        this.qTabelle = new MnkQTabelle(spiel.getAnzahlFelder());
+        this.brett = new MnkSpielfeld(spiel);
+        this.aktionen = new int[spiel.getAnzahlFelder()];
+        this.random = new Random(seed);
+        this.lernrate = lernrate;
+        this.discountFaktor = discountFaktor;
+        this.explorationRate = explorationRate;
+    }
+
+    /**
+     * Epsilon-Greedy Zugwahl (bei Gleichstand das erste Feld)
+     */
+    public int waehleAktion(long stateCode, int[] moeglicheAktionen, int anzahl) {
+        if (random.nextDouble() < explorationRate) {
+            return moeglicheAktionen[random.nextInt(anzahl)];
+        }
+        int besteAktion = moeglicheAktionen[0];
+        double maxQ = qTabelle.getQWert(stateCode, besteAktion);
+        for (int i = 1; i < anzahl; i++) {
+            double q = qTabelle.getQWert(stateCode, moeglicheAktionen[i]);
+            if (q > maxQ) {
+                maxQ = q;
+                besteAktion = moeglicheAktionen[i];
+            }
+        }
+        return besteAktion;
+    }
+
+    /**
+     * Q(s,a) ← Q(s,a) + α[r + γ·max(Q(s',a')) - Q(s,a)]
+     */
+    public void lernen(long stateCode, int aktion, double reward, long naechsterStateCode, boolean istTerminal) {
+        double zielWert;
+        if (istTerminal) {
+            zielWert = reward;
+        } else {
+            qTabelle.registriere(naechsterStateCode);
+            zielWert = reward + discountFaktor * qTabelle.getMaxQWert(naechsterStateCode);
+        }
+        qTabelle.aktualisiere(stateCode, aktion, zielWert, lernrate);
+    }
+
+    /**
+     * Eine Self-Play Partie mit Lernen nach jedem Zug
+     *
+     * @return Selbstspiel.UNENTSCHIEDEN, ANZIEHENDER_GEWINNT oder NACHZIEHENDER_GEWINNT
+     */
+    public int spiele() {
+        brett.reset();
+        boolean anziehenderAmZug = true;
+
+        while (!brett.istVoll()) {
+            long state = brett.getCodeAmZug();
+            int anzahl = brett.getMoeglicheAktionen(aktionen);
+            int aktion = waehleAktion(state, aktionen, anzahl);
+
+            brett.ziehe(aktion);
+            anzahlZuege++;
+
+            boolean hatGewonnen = brett.letzterZugGewinnt();
+            boolean istTerminal = hatGewonnen || brett.istVoll();
+            lernen(state, aktion, hatGewonnen ? 1.0 : 0.0, brett.getCodeNichtAmZug(), istTerminal);
+
+            if (hatGewonnen) {
+                return anziehenderAmZug ? Selbstspiel.ANZIEHENDER_GEWINNT : Selbstspiel.NACHZIEHENDER_GEWINNT;
+            }
+            anziehenderAmZug = !anziehenderAmZug;
+        }
+        return Selbstspiel.UNENTSCHIEDEN;
+    }
+
+    /**
+     * Trainiert eine Anzahl Partien
+     *
+     * @return Ausgänge {Unentschieden, Anziehender gewinnt, Nachziehender gewinnt}
+     */
+    public int[] trainieren(int anzahlSpiele) {
+        int[] ergebnisse = new int[3];
+        for (int i = 0; i < anzahlSpiele; i++) {
+            ergebnisse[spiele()]++;
+        }
+        return ergebnisse;
+    }
+
+    /**
+     * @return Anzahl aller bisher gespielten Züge
+     */
+    public long getAnzahlZuege() {
+        return anzahlZuege;
+    }
+
+    public MnkQTabelle getQTabelle() {
+        return qTabelle;
+    }
+
+    public MnkSpiel getSpiel() {
+        return spiel;
+    }
+
+    public void setExplorationRate(double explorationRate) {
+        this.explorationRate = explorationRate;
+    }
+
+    // ========================================================================
+    // Belastungstest
+    // ========================================================================
+
+    /**
+     * Trainiert mehrere Brettgrößen und zeigt Wachstum von Tabelle und Speicher
+     *
+     * Aufruf: MnkTrainer [spiele] [m,n,k ...]
+     */
+    public static void main(String[] args) {
+        int anzahlSpiele = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        String[] varianten = args.length > 1
+            ? Arrays.copyOfRange(args, 1, args.length)
+            : new String[] {"3,3,3", "4,4,3", "4,4,4", "5,5,4"};
+
+        System.out.println();
+        System.out.println("═══════════════════════════════════════════════════════");
+        System.out.println("  m,n,k Q-Learning - Self-Play Belastungstest");
+        System.out.println("═══════════════════════════════════════════════════════");
+        System.out.printf("%-7s %6s %12s %12s %10s %12s   %s%n",
+                          "m,n,k", "Linien", "States", "Speicher", "Spiele/s", "Züge/s", "Remis/1./2.");
+
+        for (String variante : varianten) {
+            String[] teile = variante.split(",");
+            MnkSpiel spiel = new MnkSpiel(Integer.parseInt(teile[0]), Integer.parseInt(teile[1]),
+                                          Integer.parseInt(teile[2]));
+            MnkTrainer trainer = new MnkTrainer(spiel, 0.1, 0.9, 0.3, 42);
+
+            long start = System.nanoTime();
+            int[] ergebnisse = trainer.trainieren(anzahlSpiele);
+            double sekunden = (System.nanoTime() - start) / 1e9;
+
+            MnkQTabelle tabelle = trainer.getQTabelle();
+            System.out.printf("%-7s %6d %,12d %,9.1f MB %,10.0f %,12.0f   %.1f%%/%.1f%%/%.1f%%%n",
+                              spiel, spiel.getAnzahlLinien(), tabelle.getAnzahlStates(),
+                              tabelle.getSpeicherBytes() / 1e6, anzahlSpiele / sekunden,
+                              trainer.getAnzahlZuege() / sekunden,
+                              ergebnisse[0] * 100.0 / anzahlSpiele, ergebnisse[1] * 100.0 / anzahlSpiele,
+                              ergebnisse[2] * 100.0 / anzahlSpiele);
+        }
+    }
+}
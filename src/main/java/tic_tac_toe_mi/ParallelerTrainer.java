@@ -0,0 +1,243 @@
+package tic_tac_toe_mi;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import tictactoe.spieler.AbbruchNachIterationen;
+import tictactoe.spieler.IAbbruchbedingung;
+
+/**
+ * Paralleles Self-Play Training mit N Workern auf einer geteilten Q-Tabelle.
+ *
+ * Jeder Worker hat einen eigenen QLearningAgent (eigener Zufallsgenerator,
+ * gleiche Parameter inkl. Symmetrie-Reduktion) und ein eigenes BitSpielfeld. Die Q-Tabelle wird geteilt
+ * und muss thread-sicher sein (AtomicQTabelle).
+ *
+ * Die IAbbruchbedingung ist i.d.R. nicht thread-sicher (z.B. zählt
+ * AbbruchNachIterationen intern mit). Worker reservieren deshalb unter einer
+ * Sperre Blöcke von Spielen, indem sie abbruch() bis zu BLOCK_GROESSE mal aufrufen.
+ *
+ * @author johanneshaick
+ */
+public class ParallelerTrainer {
+
+    // Anzahl Spiele, die ein Worker pro Zugriff auf die Abbruchbedingung reserviert
+    private static final int BLOCK_GROESSE = 64;
+
+    private final QTabelle qTabelle;
+    private final double lernrate;
+    private final double discountFaktor;
+    private final double explorationRate;
+    private final int anzahlThreads;
+    private final boolean virtuelleThreads;
+    private final boolean symmetrieReduktion;
+
+    // Koordination der Abbruchbedingung
+    private final Object sperre = new Object();
+    private boolean gestoppt;
+
+    /**
+     * Ergebnis eines parallelen Trainingslaufs (aufsummiert über alle Worker)
+     */
+    public static class Ergebnis {
+        private final long spiele;
+        private final long siegeAnziehender;
+        private final long siegeNachziehender;
+        private final long unentschieden;
+        private final long dauerNanos;
+
+        Ergebnis(long siegeAnziehender, long siegeNachziehender, long unentschieden, long dauerNanos) {
+            this.spiele = siegeAnziehender + siegeNachziehender + unentschieden;
+            this.siegeAnziehender = siegeAnziehender;
+            this.siegeNachziehender = siegeNachziehender;
+            this.unentschieden = unentschieden;
+            this.dauerNanos = dauerNanos;
+        }
+
+        public long getSpiele() {
+            return spiele;
+        }
+
+        public long getSiegeAnziehender() {
+            return siegeAnziehender;
+        }
+
+        public long getSiegeNachziehender() {
+            return siegeNachziehender;
+        }
+
+        public long getUnentschieden() {
+            return unentschieden;
+        }
+
+        public double getDauerSekunden() {
+            return dauerNanos / 1e9;
+        }
+
+        public double getSpieleProSekunde() {
+            return dauerNanos > 0 ? spiele / (dauerNanos / 1e9) : 0.0;
+        }
+    }
+
+    /**
+     * Erstellt einen parallelen Trainer
+     *
+     * @param qTabelle Geteilte, thread-sichere Q-Tabelle
+     * @param lernrate Alpha
+     * @param discountFaktor Gamma
+     * @param explorationRate Epsilon
+     * @param anzahlThreads Anzahl der Worker
+     * @param virtuelleThreads true für virtuelle Threads statt Plattform-Threads
+     * @param symmetrieReduktion true wenn die Worker auf kanonischen State-Codes lernen
+     *        (muss zum Inhalt der Tabelle passen, siehe QLearningAgent#setSymmetrieReduktion)
+     */
+    public ParallelerTrainer(QTabelle qTabelle, double lernrate, double discountFaktor,
+                             double explorationRate, int anzahlThreads, boolean virtuelleThreads,
+                             boolean symmetrieReduktion) {
+        if (anzahlThreads < 1) {
+            throw new IllegalArgumentException("Mindestens ein Thread erforderlich: " + anzahlThreads);
+        }
+        this.qTabelle = qTabelle;
+        this.lernrate = lernrate;
+        this.discountFaktor = discountFaktor;
+        this.explorationRate = explorationRate;
+        this.anzahlThreads = anzahlThreads;
+        this.virtuelleThreads = virtuelleThreads;
+        this.symmetrieReduktion = symmetrieReduktion;
+    }
+
+    /**
+     * Trainiert bis die Abbruchbedingung erfüllt ist. Wird der aufrufende
+     * Thread unterbrochen, spielen die Worker nur noch ihren aktuellen Block
+     * zu Ende; das Interrupt-Flag ist danach wieder gesetzt.
+     *
+     * @param abbruch Abbruchbedingung (wird von allen Workern gemeinsam konsumiert)
+     * @return Aufsummierte Statistik
+     */
+    public Ergebnis trainieren(IAbbruchbedingung abbruch) {
+        gestoppt = false;
+        long[][] statistiken = new long[anzahlThreads][3];
+        List<Thread> threads = new ArrayList<>(anzahlThreads);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < anzahlThreads; i++) {
+            long[] statistik = statistiken[i];
+            Runnable worker = () -> arbeite(abbruch, statistik);
+            Thread thread = virtuelleThreads
+                ? Thread.ofVirtual().name("selbstspiel-" + i).unstarted(worker)
+                : Thread.ofPlatform().name("selbstspiel-" + i).unstarted(worker);
+            threads.add(thread);
+            thread.start();
+        }
+
+        // Bei einem Interrupt keine weiteren Blöcke vergeben, aber auf alle Worker
+        // warten - sonst würden die Statistiken noch beschrieben, während sie
+        // schon summiert werden
+        boolean unterbrochen = false;
+        for (Thread thread : threads) {
+            while (true) {
+                try {
+                    thread.join();
+                    break;
+                } catch (InterruptedException e) {
+                    unterbrochen = true;
+                    synchronized (sperre) {
+                        gestoppt = true;
+                    }
+                }
+            }
+        }
+        if (unterbrochen) {
+            Thread.currentThread().interrupt();
+        }
+        long dauer = System.nanoTime() - start;
+
+        long anziehender = 0;
+        long nachziehender = 0;
+        long unentschieden = 0;
+        for (long[] statistik : statistiken) {
+            unentschieden += statistik[Selbstspiel.UNENTSCHIEDEN];
+            anziehender += statistik[Selbstspiel.ANZIEHENDER_GEWINNT];
+            nachziehender += statistik[Selbstspiel.NACHZIEHENDER_GEWINNT];
+        }
+        return new Ergebnis(anziehender, nachziehender, unentschieden, dauer);
+    }
+
+    /**
+     * Worker-Schleife: Reserviert Spiele-Blöcke und spielt sie lokal
+     */
+    private void arbeite(IAbbruchbedingung abbruch, long[] statistik) {
+        QLearningAgent agent = new QLearningAgent(lernrate, discountFaktor, explorationRate, qTabelle);
+        agent.setSymmetrieReduktion(symmetrieReduktion);
+        BitSpielfeld brett = new BitSpielfeld();
+
+        int kontingent;
+        while ((kontingent = reserviere(abbruch)) > 0) {
+            for (int i = 0; i < kontingent; i++) {
+                statistik[Selbstspiel.spiele(agent, brett)]++;
+            }
+        }
+        agent.leereMetriken();
+    }
+
+    /**
+     * Reserviert bis zu BLOCK_GROESSE Spiele bei der Abbruchbedingung
+     *
+     * @return Anzahl reservierter Spiele (0 = Training beendet)
+     */
+    private int reserviere(IAbbruchbedingung abbruch) {
+        synchronized (sperre) {
+            if (gestoppt) {
+                return 0;
+            }
+            int anzahl = 0;
+            while (anzahl < BLOCK_GROESSE && !abbruch.abbruch()) {
+                anzahl++;
+            }
+            if (anzahl < BLOCK_GROESSE) {
+                gestoppt = true;
+            }
+            return anzahl;
+        }
+    }
+
+    /**
+     * Skalierungs-Messung: Spiele/Sekunde von 1 bis N Threads
+     */
+    public static void main(String[] args) {
+        int spiele = args.length > 0 ? Integer.parseInt(args[0]) : 200000;
+        int maxThreads = Runtime.getRuntime().availableProcessors();
+
+        System.out.println("═══════════════════════════════════════════════════════");
+        System.out.println("  Paralleles Training - Skalierung");
+        System.out.println("═══════════════════════════════════════════════════════");
+        System.out.println("Spiele pro Lauf: " + spiele + ", Kerne: " + maxThreads);
+        System.out.println();
+
+        // Aufwärmen, damit der JIT den Spiel-Loop kompiliert hat
+        new ParallelerTrainer(new AtomicQTabelle(), 0.1, 0.9, 0.3, 1, false, true)
+            .trainieren(new AbbruchNachIterationen(spiele));
+
+        // 1, 2, 4, ... bis zur Anzahl der Kerne
+        List<Integer> threadAnzahlen = new ArrayList<>();
+        for (int threads = 1; threads < maxThreads; threads *= 2) {
+            threadAnzahlen.add(threads);
+        }
+        threadAnzahlen.add(maxThreads);
+
+        double basis = 0.0;
+        for (int threads : threadAnzahlen) {
+            AtomicQTabelle tabelle = new AtomicQTabelle();
+            ParallelerTrainer trainer = new ParallelerTrainer(tabelle, 0.1, 0.9, 0.3, threads, false, true);
+            Ergebnis ergebnis = trainer.trainieren(new AbbruchNachIterationen(spiele));
+
+            if (threads == 1) {
+                basis = ergebnis.getSpieleProSekunde();
+            }
+            System.out.printf("Threads: %2d | %,12.0f Spiele/s | Speedup: %5.2fx | Unent: %5.1f%% | States: %d%n",
+                              threads, ergebnis.getSpieleProSekunde(), ergebnis.getSpieleProSekunde() / basis,
+                              ergebnis.getUnentschieden() * 100.0 / ergebnis.getSpiele(),
+                              tabelle.getAnzahlStates());
+        }
+    }
+}
@@ -0,0 +1,345 @@
+package tic_tac_toe_mi;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import tictactoe.spieler.AbbruchNachIterationen;
+
+/**
+ * Parallele Grid-Suche über (α, γ, ε) Konfigurationen.
+ *
+ * Jede Konfiguration läuft als eigene Aufgabe auf einem Thread-Pool fester
+ * Größe: eigener Spieler, eigene SchnellBewertung gegen den Zufallsspieler.
+ * Die Aufgaben teilen keinen veränderlichen Zustand.
+ *
+ * Ergebnisse werden in Fertigstellungs-Reihenfolge sofort an die CSV-Datei
+ * angehängt (nur der aufrufende Thread schreibt). Beim Start werden bereits
+ * vorhandene Zeilen eingelesen und die zugehörigen Konfigurationen
+ * übersprungen, so dass eine abgebrochene Suche fortgesetzt werden kann.
+ *
+ * @author johanneshaick
+ */
+public class ParameterSuche {
+
+    // Fester Seed für die Testspiele (reproduzierbare Siegraten)
+    private static final long TEST_SEED = 42;
+
+    static final String CSV_HEADER =
+        "alpha,gamma,epsilon,siegrate,siege,niederlagen,unentschieden,states,training_dauer_sekunden";
+
+    private final int trainingSpiele;
+    private final int testSpiele;
+    private final int anzahlThreads;
+    private final Path csvDatei;
+
+    /**
+     * Eine (α, γ, ε) Kombination
+     */
+    public static final class Konfiguration {
+        private final double alpha;
+        private final double gamma;
+        private final double epsilon;
+
+        public Konfiguration(double alpha, double gamma, double epsilon) {
+            this.alpha = alpha;
+            this.gamma = gamma;
+            this.epsilon = epsilon;
+        }
+
+        public double getAlpha() {
+            return alpha;
+        }
+
+        public double getGamma() {
+            return gamma;
+        }
+
+        public double getEpsilon() {
+            return epsilon;
+        }
+
+        /**
+         * Schlüssel wie in der CSV (zwei Nachkommastellen)
+         */
+        String schluessel() {
+            return String.format(Locale.US, "%.2f,%.2f,%.2f", alpha, gamma, epsilon);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("α=%.2f, γ=%.2f, ε=%.2f", alpha, gamma, epsilon);
+        }
+    }
+
+    /**
+     * Ergebnis einer Konfiguration
+     */
+    public static final class Ergebnis {
+        private final Konfiguration konfiguration;
+        private final int siege;
+        private final int niederlagen;
+        private final int unentschieden;
+        private final int anzahlStates;
+        private final double trainingDauer;
+
+        Ergebnis(Konfiguration konfiguration, int siege, int niederlagen, int unentschieden,
+                 int anzahlStates, double trainingDauer) {
+            this.konfiguration = konfiguration;
+            this.siege = siege;
+            this.niederlagen = niederlagen;
+            this.unentschieden = unentschieden;
+            this.anzahlStates = anzahlStates;
+            this.trainingDauer = trainingDauer;
+        }
+
+        public Konfiguration getKonfiguration() {
+            return konfiguration;
+        }
+
+        public double getSiegrate() {
+            int spiele = siege + niederlagen + unentschieden;
+            return spiele > 0 ? (double) siege / spiele : 0.0;
+        }
+
+        public int getSiege() {
+            return siege;
+        }
+
+        public int getNiederlagen() {
+            return niederlagen;
+        }
+
+        public int getUnentschieden() {
+            return unentschieden;
+        }
+
+        public int getAnzahlStates() {
+            return anzahlStates;
+        }
+
+        public double getTrainingDauer() {
+            return trainingDauer;
+        }
+
+        String zuCsv() {
+            return String.format(Locale.US, "%s,%.4f,%d,%d,%d,%d,%.3f",
+                konfiguration.schluessel(), getSiegrate(),
+                siege, niederlagen, unentschieden, anzahlStates, trainingDauer);
+        }
+
+        /**
+         * Liest eine CSV-Zeile; null bei unvollständigen oder fehlerhaften Zeilen
+         */
+        static Ergebnis ausCsv(String zeile) {
+            String[] teile = zeile.split(",");
+            if (teile.length != 9) {
+                return null;
+            }
+            try {
+                Konfiguration konfiguration = new Konfiguration(Double.parseDouble(teile[0]),
+                    Double.parseDouble(teile[1]), Double.parseDouble(teile[2]));
+                return new Ergebnis(konfiguration, Integer.parseInt(teile[4]),
+                    Integer.parseInt(teile[5]), Integer.parseInt(teile[6]),
+                    Integer.parseInt(teile[7]), Double.parseDouble(teile[8]));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * @param trainingSpiele Self-Play Spiele pro Konfiguration
+     * @param testSpiele Testspiele gegen den Zufallsspieler
+     * @param anzahlThreads Größe des Thread-Pools
+     * @param csvDatei Ergebnisdatei (wird fortgesetzt, falls vorhanden)
+     */
+    public ParameterSuche(int trainingSpiele, int testSpiele, int anzahlThreads, Path csvDatei) {
+        if (anzahlThreads < 1) {
+            throw new IllegalArgumentException("Mindestens ein Thread erforderlich: " + anzahlThreads);
+        }
+        this.trainingSpiele = trainingSpiele;
+        this.testSpiele = testSpiele;
+        this.anzahlThreads = anzahlThreads;
+        this.csvDatei = csvDatei;
+    }
+
+    /**
+     * Kartesisches Produkt der Parameterwerte
+     */
+    public static List<Konfiguration> grid(double[] lernraten, double[] discounts, double[] explorations) {
+        List<Konfiguration> grid = new ArrayList<>();
+        for (double alpha : lernraten) {
+            for (double gamma : discounts) {
+                for (double epsilon : explorations) {
+                    grid.add(new Konfiguration(alpha, gamma, epsilon));
+                }
+            }
+        }
+        return grid;
+    }
+
+    /**
+     * Führt alle noch nicht in der CSV enthaltenen Konfigurationen parallel aus
+     *
+     * @param grid Zu testende Konfigurationen
+     * @return Ergebnisse aller Konfigurationen des Grids (vorhandene und neue)
+     * @throws IOException Bei Fehlern beim Lesen oder Schreiben der CSV
+     */
+    public List<Ergebnis> ausfuehren(List<Konfiguration> grid) throws IOException {
+        Map<String, Ergebnis> vorhanden = ladeVorhandene();
+
+        List<Ergebnis> ergebnisse = new ArrayList<>();
+        List<Konfiguration> offen = new ArrayList<>();
+        for (Konfiguration konfiguration : grid) {
+            Ergebnis ergebnis = vorhanden.get(konfiguration.schluessel());
+            if (ergebnis != null) {
+                ergebnisse.add(ergebnis);
+            } else {
+                offen.add(konfiguration);
+            }
+        }
+        if (!ergebnisse.isEmpty()) {
+            System.out.printf("Fortsetzung: %d von %d Konfigurationen bereits in %s%n",
+                              ergebnisse.size(), grid.size(), csvDatei);
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(anzahlThreads, Math.max(1, offen.size())));
+        try (BufferedWriter writer = Files.newBufferedWriter(csvDatei, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            CompletionService<Ergebnis> fertig = new ExecutorCompletionService<>(pool);
+            for (Konfiguration konfiguration : offen) {
+                fertig.submit(() -> teste(konfiguration));
+            }
+
+            for (int i = 1; i <= offen.size(); i++) {
+                Ergebnis ergebnis = warte(fertig.take());
+                writer.write(ergebnis.zuCsv());
+                writer.newLine();
+                writer.flush();
+                ergebnisse.add(ergebnis);
+
+                System.out.printf("[%3d/%3d] %s ... Siegrate: %.1f%% | States: %d | Zeit: %.2fs%n",
+                    grid.size() - offen.size() + i, grid.size(), ergebnis.konfiguration,
+                    ergebnis.getSiegrate() * 100, ergebnis.anzahlStates, ergebnis.trainingDauer);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Parameter-Suche unterbrochen", e);
+        } finally {
+            pool.shutdownNow();
+        }
+        return ergebnisse;
+    }
+
+    private static Ergebnis warte(Future<Ergebnis> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Konfiguration fehlgeschlagen", e.getCause());
+        }
+    }
+
+    /**
+     * Liest alle vollständigen Zeilen einer Ergebnis-CSV (leer, falls nicht vorhanden)
+     *
+     * @throws IOException Bei Lesefehlern oder fremdem Header
+     */
+    static List<Ergebnis> leseCsv(Path csvDatei) throws IOException {
+        List<Ergebnis> ergebnisse = new ArrayList<>();
+        if (!Files.exists(csvDatei)) {
+            return ergebnisse;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(csvDatei, StandardCharsets.UTF_8)) {
+            String zeile = reader.readLine();
+            if (zeile != null && !CSV_HEADER.equals(zeile)) {
+                throw new IOException("Unbekanntes CSV-Format (Header passt nicht): " + csvDatei);
+            }
+            while ((zeile = reader.readLine()) != null) {
+                Ergebnis ergebnis = Ergebnis.ausCsv(zeile);
+                if (ergebnis != null) {
+                    ergebnisse.add(ergebnis);
+                }
+            }
+        }
+        return ergebnisse;
+    }
+
+    /**
+     * Liest vorhandene Ergebnisse und schreibt die Datei bereinigt neu
+     * (Header plus vollständige Zeilen), damit eine beim Abbruch halb
+     * geschriebene Zeile nicht stehen bleibt. Geschrieben wird in eine
+     * temporäre Datei daneben, die dann atomar umbenannt wird - ein Abbruch
+     * währenddessen lässt die alten Ergebnisse unversehrt.
+     */
+    private Map<String, Ergebnis> ladeVorhandene() throws IOException {
+        Map<String, Ergebnis> vorhanden = new LinkedHashMap<>();
+        for (Ergebnis ergebnis : leseCsv(csvDatei)) {
+            vorhanden.put(ergebnis.konfiguration.schluessel(), ergebnis);
+        }
+
+        if (csvDatei.getParent() != null) {
+            Files.createDirectories(csvDatei.getParent());
+        }
+        Path temp = csvDatei.resolveSibling(csvDatei.getFileName() + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            writer.write(CSV_HEADER);
+            writer.newLine();
+            for (Ergebnis ergebnis : vorhanden.values()) {
+                writer.write(ergebnis.zuCsv());
+                writer.newLine();
+            }
+        }
+        Files.move(temp, csvDatei, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return vorhanden;
+    }
+
+    /**
+     * Trainiert und testet eine Konfiguration (läuft auf einem Pool-Thread)
+     */
+    private Ergebnis teste(Konfiguration konfiguration) {
+        Spieler spieler = new Spieler("Test", konfiguration.alpha, konfiguration.gamma, konfiguration.epsilon);
+        spieler.setAusgabe(false);
+
+        long trainStart = System.nanoTime();
+        spieler.trainieren(new AbbruchNachIterationen(trainingSpiele));
+        double trainingDauer = (System.nanoTime() - trainStart) / 1e9;
+
+        int[] bilanz = testeGegenZufall(spieler, testSpiele);
+        return new Ergebnis(konfiguration, bilanz[0], bilanz[1], bilanz[2],
+                            spieler.getQLearningAgent().getAnzahlStates(), trainingDauer);
+    }
+
+    /**
+     * Testet einen trainierten Spieler gegen den Zufallsspieler (Spieler beginnt).
+     * Training wird dafür deaktiviert und ε auf 0.1 gesetzt. Gespielt wird auf
+     * dem Bitboard (SchnellBewertung) statt über TicTacToe#neuesSpiel.
+     *
+     * @return {siege, niederlagen, unentschieden}
+     */
+    static int[] testeGegenZufall(Spieler spieler, int testSpiele) {
+        spieler.setTrainingsmodus(false);
+        spieler.setExplorationRate(0.1); // Weniger Exploration im Test
+
+        Strategie gelernt = Strategie.greedy(spieler.getQLearningAgent(), 0.1);
+        SchnellBewertung.Bilanz bilanz = new SchnellBewertung(1)
+            .bewerte(gelernt, Strategie.zufall(), testSpiele, false, TEST_SEED);
+        return new int[] {(int) bilanz.getSiege(), (int) bilanz.getNiederlagen(), (int) bilanz.getUnentschieden()};
+    }
+}
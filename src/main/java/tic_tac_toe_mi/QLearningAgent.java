@@ -1,8 +1,11 @@
 package tic_tac_toe_mi;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
+import tic_tac_toe_mi.metriken.MetrikRegistry;
+import tic_tac_toe_mi.metriken.Zaehler;
 import tictactoe.Farbe;
 import tictactoe.Spielfeld;
 import tictactoe.Zug;
@@ -17,14 +20,31 @@ import tictactoe.Zug;
  */
 public class QLearningAgent {
     
-    // Q-Tabelle: State → Q-Werte für alle 9 Aktionen (Zeile*3 + Spalte)
-    private Map<String, double[]> qTabelle;
+    // Metriken über alle Agenten (LongAdder, lock-frei). Ein Agent wird nur von einem
+    // Thread benutzt, daher puffert er seine Ereignisse und meldet sie blockweise.
+    private static final int METRIK_PUFFER = 256;
+    private static final Zaehler Q_UPDATES = MetrikRegistry.STANDARD.zaehler(
+        "ttt_q_updates_total", "Q-Learning Updates (lernen)");
+    private static final Zaehler ZUEGE_EXPLORATION = MetrikRegistry.STANDARD.zaehler(
+        "ttt_zugwahl_total", "art=\"exploration\"", "Zugwahlen der Agenten nach Epsilon-Greedy Zweig");
+    private static final Zaehler ZUEGE_EXPLOITATION = MetrikRegistry.STANDARD.zaehler(
+        "ttt_zugwahl_total", "art=\"exploitation\"", "Zugwahlen der Agenten nach Epsilon-Greedy Zweig");
+    
+    // Q-Tabelle: State-Code → Q-Werte für alle 9 Aktionen (Zeile*3 + Spalte)
+    private QTabelle qTabelle;
     
     // Reinforcement Learning Parameter
     private double lernrate;           // Alpha: Wie schnell wird gelernt
     private double discountFaktor;     // Gamma: Bedeutung zukünftiger Belohnungen
     private double explorationRate;    // Epsilon: Exploration vs. Exploitation
     
+    // Symmetrie-Reduktion: Q-Tabelle speichert nur kanonische States (8 Symmetrien teilen einen Eintrag)
+    private boolean symmetrieReduktion = true;
+    
+    private final Zaehler.Puffer qUpdates = Q_UPDATES.puffer(METRIK_PUFFER);
+    private final Zaehler.Puffer zuegeExploration = ZUEGE_EXPLORATION.puffer(METRIK_PUFFER);
+    private final Zaehler.Puffer zuegeExploitation = ZUEGE_EXPLOITATION.puffer(METRIK_PUFFER);
+    
     // Hilfsobjekte
     private Random random;
     private SpielzustandKonverter konverter;
@@ -45,7 +65,19 @@ public class QLearningAgent {
      * @param explorationRate Epsilon-Wert (typisch: 0.3)
      */
     public QLearningAgent(double lernrate, double discountFaktor, double explorationRate) {
-        this.qTabelle = new HashMap<>();
+        this(lernrate, discountFaktor, explorationRate, new ArrayQTabelle());
+    }
+    
+    /**
+     * Erstellt einen neuen Q-Learning Agent mit eigener Q-Tabellen-Implementierung
+     * 
+     * @param lernrate Alpha-Wert (typisch: 0.1)
+     * @param discountFaktor Gamma-Wert (typisch: 0.9)
+     * @param explorationRate Epsilon-Wert (typisch: 0.3)
+     * @param qTabelle Zu verwendende Q-Tabelle
+     */
+    public QLearningAgent(double lernrate, double discountFaktor, double explorationRate, QTabelle qTabelle) {
+        this.qTabelle = qTabelle;
         this.lernrate = lernrate;
         this.discountFaktor = discountFaktor;
         this.explorationRate = explorationRate;
@@ -70,20 +102,26 @@ public class QLearningAgent {
         // Epsilon-Greedy: Mit Wahrscheinlichkeit epsilon explorieren
         if (random.nextDouble() < explorationRate) {
             // EXPLORATION: Zufälliger Zug
+            zuegeExploration.erhoehe();
             return moeglicheZuege.get(random.nextInt(moeglicheZuege.size()));
         } else {
             // EXPLOITATION: Bester Zug basierend auf Q-Werten
-            String state = konverter.zuStringNormalisiert(spielfeld, meineFarbe);
-            double[] qWerte = getQWerte(state);
+            zuegeExploitation.erhoehe();
+            int code = konverter.zuCodeNormalisiert(spielfeld, meineFarbe);
+            int state = tabellenCode(code);
+            int transformation = transformation(code);
+            qTabelle.registriere(state);
             
             // Finde besten Zug aus möglichen Zügen
             Zug besterZug = moeglicheZuege.get(0);
-            double maxQ = qWerte[zugZuAktion(besterZug)];
+            double maxQ = qTabelle.getQWert(state,
+                    SpielzustandKonverter.transformiereAktion(transformation, zugZuAktion(besterZug)));
             
             for (Zug zug : moeglicheZuege) {
-                int aktion = zugZuAktion(zug);
-                if (qWerte[aktion] > maxQ) {
-                    maxQ = qWerte[aktion];
+                double q = qTabelle.getQWert(state,
+                        SpielzustandKonverter.transformiereAktion(transformation, zugZuAktion(zug)));
+                if (q > maxQ) {
+                    maxQ = q;
                     besterZug = zug;
                 }
             }
@@ -92,6 +130,42 @@ public class QLearningAgent {
         }
     }
     
+    /**
+     * Wählt eine Aktion basierend auf Q-Werten (Epsilon-Greedy) ohne Objekt-Allokation.
+     * Variante von waehleZug für die Trainingsschleife.
+     * 
+     * @param stateCode Normalisierter State-Code
+     * @param moeglicheAktionen Puffer mit gültigen Aktionen (0-8)
+     * @param anzahl Anzahl gültiger Einträge im Puffer
+     * @return Die gewählte Aktion
+     */
+    public int waehleAktion(int stateCode, int[] moeglicheAktionen, int anzahl) {
+        if (anzahl == 0) {
+            throw new IllegalArgumentException("Keine möglichen Züge vorhanden!");
+        }
+        
+        if (random.nextDouble() < explorationRate) {
+            zuegeExploration.erhoehe();
+            return moeglicheAktionen[random.nextInt(anzahl)];
+        }
+        zuegeExploitation.erhoehe();
+        
+        int state = tabellenCode(stateCode);
+        int transformation = transformation(stateCode);
+        qTabelle.registriere(state);
+        int besteAktion = moeglicheAktionen[0];
+        double maxQ = qTabelle.getQWert(state, SpielzustandKonverter.transformiereAktion(transformation, besteAktion));
+        for (int i = 1; i < anzahl; i++) {
+            int aktion = moeglicheAktionen[i];
+            double q = qTabelle.getQWert(state, SpielzustandKonverter.transformiereAktion(transformation, aktion));
+            if (q > maxQ) {
+                maxQ = q;
+                besteAktion = aktion;
+            }
+        }
+        return besteAktion;
+    }
+    
     /**
      * Aktualisiert Q-Werte basierend auf dem erhaltenen Reward
      * Q-Learning Update-Regel: Q(s,a) ← Q(s,a) + α[r + γ·max(Q(s',a')) - Q(s,a)]
@@ -103,48 +177,81 @@ public class QLearningAgent {
      * @param istTerminal Ob der nächste Zustand ein End-Zustand ist
      */
     public void lernen(String state, int aktion, double reward, String naechsterState, boolean istTerminal) {
-        double[] qWerte = getQWerte(state);
-        double alterQWert = qWerte[aktion];
-        
-        double neuerQWert;
+        int naechsterCode = istTerminal ? -1 : SpielzustandKonverter.stringZuCode(naechsterState);
+        lernen(SpielzustandKonverter.stringZuCode(state), aktion, reward, naechsterCode, istTerminal);
+    }
+    
+    /**
+     * Q-Learning Update auf State-Codes (ohne String-Allokation)
+     * 
+     * @param stateCode Aktueller Zustand als Basis-3 Code
+     * @param aktion Durchgeführte Aktion (0-8)
+     * @param reward Erhaltene Belohnung
+     * @param naechsterStateCode Nächster Zustand (ignoriert bei Spielende)
+     * @param istTerminal Ob der nächste Zustand ein End-Zustand ist
+     */
+    public void lernen(int stateCode, int aktion, double reward, int naechsterStateCode, boolean istTerminal) {
+        double zielWert;
         if (istTerminal) {
             // Terminal State: Nur immediate reward
-            neuerQWert = alterQWert + lernrate * (reward - alterQWert);
+            zielWert = reward;
         } else {
             // Non-Terminal: Berücksichtige zukünftige Rewards
-            double maxNaechsterQ = getMaxQWert(naechsterState);
-            neuerQWert = alterQWert + lernrate * (reward + discountFaktor * maxNaechsterQ - alterQWert);
+            // (max über alle Aktionen ist invariant unter Symmetrien)
+            int naechsterState = tabellenCode(naechsterStateCode);
+            qTabelle.registriere(naechsterState);
+            zielWert = reward + discountFaktor * qTabelle.getMaxQWert(naechsterState);
         }
         
-        qWerte[aktion] = neuerQWert;
+        // Q(s,a) ← Q(s,a) + α[ziel - Q(s,a)] (atomar bei geteilter Tabelle)
+        int tabellenAktion = SpielzustandKonverter.transformiereAktion(transformation(stateCode), aktion);
+        qTabelle.aktualisiere(tabellenCode(stateCode), tabellenAktion, zielWert, lernrate);
+        qUpdates.erhoehe();
     }
     
     /**
-     * Findet den maximalen Q-Wert für einen gegebenen Zustand
-     * 
-     * @param state Der Spielzustand
-     * @return Maximaler Q-Wert
+     * Meldet gepufferte Metrik-Ereignisse (Updates, Zugwahlen) sofort an die
+     * Registry, z.B. am Ende eines Trainingslaufs
      */
-    private double getMaxQWert(String state) {
-        double[] qWerte = getQWerte(state);
-        double maxQ = qWerte[0];
-        for (int i = 1; i < qWerte.length; i++) {
-            if (qWerte[i] > maxQ) {
-                maxQ = qWerte[i];
-            }
-        }
-        return maxQ;
+    public void leereMetriken() {
+        qUpdates.leeren();
+        zuegeExploration.leeren();
+        zuegeExploitation.leeren();
     }
     
     /**
-     * Gibt Q-Werte für einen Zustand zurück
-     * Initialisiert mit 0, falls Zustand noch nicht bekannt
+     * Code unter dem ein State in der Q-Tabelle steht (kanonisch bei Symmetrie-Reduktion)
+     */
+    private int tabellenCode(int stateCode) {
+        return symmetrieReduktion ? SpielzustandKonverter.kanonischerCode(stateCode) : stateCode;
+    }
+    
+    /**
+     * Transformation von Aktionen des States in die Tabellen-Orientierung (0 = Identität)
+     */
+    private int transformation(int stateCode) {
+        return symmetrieReduktion ? SpielzustandKonverter.kanonischeTransformation(stateCode) : 0;
+    }
+    
+    /**
+     * Gibt Q-Werte für einen Zustand zurück (0 für unbekannte Zustände)
+     * Die Tabelle wird dabei nicht verändert, unbekannte States werden nicht registriert.
+     * 
+     * Hinweis: Liefert eine Kopie, Änderungen am Array wirken nicht auf die Tabelle.
      * 
      * @param state Der Spielzustand als String
      * @return Array mit 9 Q-Werten (ein Wert pro Feld)
      */
     public double[] getQWerte(String state) {
-        return qTabelle.computeIfAbsent(state, k -> new double[9]);
+        int code = SpielzustandKonverter.stringZuCode(state);
+        int tabellenCode = tabellenCode(code);
+        int transformation = transformation(code);
+        double[] qWerte = new double[QTabelle.ANZAHL_AKTIONEN];
+        for (int aktion = 0; aktion < qWerte.length; aktion++) {
+            qWerte[aktion] = qTabelle.getQWert(tabellenCode,
+                    SpielzustandKonverter.transformiereAktion(transformation, aktion));
+        }
+        return qWerte;
     }
     
     /**
@@ -191,7 +298,7 @@ public class QLearningAgent {
      */
     public void speichern(String dateiname) throws IOException {
         try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(dateiname))) {
-            oos.writeObject(qTabelle);
+            oos.writeObject(qTabelle.zuMap());
         }
     }
     
@@ -204,15 +311,21 @@ public class QLearningAgent {
      */
     public void speichereModell(String dateiname, int trainingSpiele) throws IOException {
         QLearningModel modell = new QLearningModel(
-            qTabelle,
+            qTabelle.zuMap(),
             trainingSpiele,
             lernrate,
             discountFaktor,
-            explorationRate
+            explorationRate,
+            symmetrieReduktion
         );
         
+        TrainingsEvents.ModellIO io = TrainingsEvents.beginneModellIO("speichern", "serialisiert", dateiname);
+        boolean erfolgreich = false;
         try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(dateiname))) {
             oos.writeObject(modell);
+            erfolgreich = true;
+        } finally {
+            TrainingsEvents.modellIOEnde(io, qTabelle.getAnzahlStates(), erfolgreich);
         }
         
         System.out.println("Modell gespeichert:");
@@ -229,7 +342,9 @@ public class QLearningAgent {
     @SuppressWarnings("unchecked")
     public void laden(String dateiname) throws IOException, ClassNotFoundException {
         try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(dateiname))) {
-            qTabelle = (Map<String, double[]>) ois.readObject();
+            Map<String, double[]> tabelle = (Map<String, double[]>) ois.readObject();
+            qTabelle.ausMap(tabelle);
+            symmetrieReduktion = nurKanonischeStates(tabelle);
         }
     }
     
@@ -242,13 +357,17 @@ public class QLearningAgent {
      * @throws ClassNotFoundException Bei Deserializierungs-Fehlern
      */
     public QLearningModel ladeModell(String dateiname) throws IOException, ClassNotFoundException {
+        TrainingsEvents.ModellIO io = TrainingsEvents.beginneModellIO("laden", "serialisiert", dateiname);
+        boolean erfolgreich = false;
         try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(dateiname))) {
             Object obj = ois.readObject();
+            erfolgreich = true;
             
             // Versuche als Modell zu laden
             if (obj instanceof QLearningModel) {
                 QLearningModel modell = (QLearningModel) obj;
-                this.qTabelle = modell.getQTabelle();
+                this.qTabelle.ausMap(modell.getQTabelle());
+                this.symmetrieReduktion = modell.istKanonisch();
                 
                 // Optio Parameter übernehmen
                 this.lernrate = modell.getLernrate();
@@ -263,11 +382,14 @@ public class QLearningAgent {
                 // Legacy-Format: Nur Q-Tabelle
                 @SuppressWarnings("unchecked")
                 Map<String, double[]> legacyTabelle = (Map<String, double[]>) obj;
-                this.qTabelle = legacyTabelle;
+                this.qTabelle.ausMap(legacyTabelle);
+                this.symmetrieReduktion = nurKanonischeStates(legacyTabelle);
                 
-                System.out.println("Legacy Q-Tabelle geladen: " + qTabelle.size() + " States");
+                System.out.println("Legacy Q-Tabelle geladen: " + qTabelle.getAnzahlStates() + " States");
                 return null;
             }
+        } finally {
+            TrainingsEvents.modellIOEnde(io, qTabelle.getAnzahlStates(), erfolgreich);
         }
     }
     
@@ -281,17 +403,22 @@ public class QLearningAgent {
      */
     public void speichereAlsJSON(String dateiname, int trainingSpiele, boolean compact) throws IOException {
         QLearningModel modell = new QLearningModel(
-            qTabelle, 
+            qTabelle.zuMap(), 
             trainingSpiele,
             lernrate,
             discountFaktor,
-            explorationRate
+            explorationRate,
+            symmetrieReduktion
         );
         
-        String json = modell.toJSON(compact);
-        
-        try (FileWriter writer = new FileWriter(dateiname)) {
-            writer.write(json);
+        TrainingsEvents.ModellIO io = TrainingsEvents.beginneModellIO("speichern", "json", dateiname);
+        boolean erfolgreich = false;
+        try (Writer writer = new BufferedWriter(
+                new OutputStreamWriter(new FileOutputStream(dateiname), StandardCharsets.UTF_8), 1 << 16)) {
+            modell.schreibeJSON(writer, compact);
+            erfolgreich = true;
+        } finally {
+            TrainingsEvents.modellIOEnde(io, qTabelle.getAnzahlStates(), erfolgreich);
         }
     }
     
@@ -303,17 +430,17 @@ public class QLearningAgent {
      * @throws IOException Bei Lesefehlern
      */
     public QLearningModel ladeVonJSON(String dateiname) throws IOException {
-        StringBuilder json = new StringBuilder();
-        
-        try (BufferedReader reader = new BufferedReader(new FileReader(dateiname))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                json.append(line).append("\n");
-            }
+        TrainingsEvents.ModellIO io = TrainingsEvents.beginneModellIO("laden", "json", dateiname);
+        boolean erfolgreich = false;
+        QLearningModel modell;
+        try (Reader reader = new InputStreamReader(new FileInputStream(dateiname), StandardCharsets.UTF_8)) {
+            modell = QLearningModel.leseJSON(reader);
+            this.qTabelle.ausMap(modell.getQTabelle());
+            erfolgreich = true;
+        } finally {
+            TrainingsEvents.modellIOEnde(io, qTabelle.getAnzahlStates(), erfolgreich);
         }
-        
-        QLearningModel modell = QLearningModel.fromJSON(json.toString());
-        this.qTabelle = modell.getQTabelle();
+        this.symmetrieReduktion = modell.istKanonisch();
         this.lernrate = modell.getLernrate();
         this.discountFaktor = modell.getDiscountFaktor();
         this.explorationRate = modell.getExplorationRate();
@@ -324,6 +451,67 @@ public class QLearningAgent {
         return modell;
     }
     
+    /**
+     * Speichert die Q-Tabelle im kompakten Binärformat (.qbin)
+     * 
+     * @param dateiname Pfad zur Binärdatei
+     * @param trainingSpiele Anzahl der Trainingsspiele
+     * @param doppeltePraezision true für double-Werte, false für float
+     * @throws IOException Bei Schreibfehlern
+     */
+    public void speichereBinaer(String dateiname, int trainingSpiele, boolean doppeltePraezision) throws IOException {
+        TrainingsEvents.ModellIO io = TrainingsEvents.beginneModellIO("speichern", "binär", dateiname);
+        boolean erfolgreich = false;
+        try {
+            BinaeresModell.speichern(dateiname, qTabelle, trainingSpiele, lernrate, discountFaktor,
+                                     explorationRate, symmetrieReduktion, doppeltePraezision);
+            erfolgreich = true;
+        } finally {
+            TrainingsEvents.modellIOEnde(io, qTabelle.getAnzahlStates(), erfolgreich);
+        }
+    }
+    
+    /**
+     * Lädt ein Modell im Binärformat (memory-mapped, ohne Deserialisierung)
+     * 
+     * @param dateiname Pfad zur Binärdatei
+     * @return Metadaten des Modells
+     * @throws IOException Bei Lesefehlern oder ungültigem Format
+     */
+    public BinaeresModell.Kopf ladeBinaer(String dateiname) throws IOException {
+        TrainingsEvents.ModellIO io = TrainingsEvents.beginneModellIO("laden", "binär", dateiname);
+        boolean erfolgreich = false;
+        BinaeresModell.Kopf kopf;
+        try {
+            kopf = BinaeresModell.laden(dateiname, qTabelle);
+            erfolgreich = true;
+        } finally {
+            TrainingsEvents.modellIOEnde(io, qTabelle.getAnzahlStates(), erfolgreich);
+        }
+        this.symmetrieReduktion = kopf.istKanonisch();
+        this.lernrate = kopf.getLernrate();
+        this.discountFaktor = kopf.getDiscountFaktor();
+        this.explorationRate = kopf.getExplorationRate();
+        
+        System.out.println("Binäres Modell geladen:");
+        System.out.println(kopf);
+        
+        return kopf;
+    }
+    
+    /**
+     * Legacy-Tabellen haben keine Metadaten: Sie gelten als kanonisch,
+     * wenn kein einziger Key eine nicht-kanonische Stellung ist.
+     */
+    private static boolean nurKanonischeStates(Map<String, double[]> tabelle) {
+        for (String state : tabelle.keySet()) {
+            if (!SpielzustandKonverter.istKanonisch(SpielzustandKonverter.stringZuCode(state))) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
     // ========================================================================
     // Getter und Setter
     // ========================================================================
@@ -352,7 +540,26 @@ public class QLearningAgent {
         this.explorationRate = explorationRate;
     }
     
+    public boolean istSymmetrieReduktion() {
+        return symmetrieReduktion;
+    }
+    
+    /**
+     * Schaltet die Symmetrie-Reduktion ein/aus.
+     * Nur bei leerer Q-Tabelle sinnvoll, da vorhandene Einträge nicht umgerechnet werden.
+     */
+    public void setSymmetrieReduktion(boolean symmetrieReduktion) {
+        this.symmetrieReduktion = symmetrieReduktion;
+    }
+    
     public int getAnzahlStates() {
-        return qTabelle.size();
+        return qTabelle.getAnzahlStates();
+    }
+    
+    /**
+     * Gibt direkten Zugriff auf die Q-Tabelle
+     */
+    public QTabelle getQTabelle() {
+        return qTabelle;
     }
 }
@@ -1,9 +1,17 @@
 package tic_tac_toe_mi;
 
+import java.io.IOException;
+import java.io.Reader;
 import java.io.Serializable;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
 
 /**
@@ -26,20 +34,36 @@ public class QLearningModel implements Serializable {
     private double discountFaktor;
     private double explorationRate;
     private int anzahlStates;
+    private boolean kanonisch;        // States in kanonischer Form (Symmetrie-Reduktion)
     
     // Optionale Statistiken
     private double durchschnittlicherQWert;
     private int maxQWerteProState;
     
     /**
-     * Konstruktor für neues Modell
+     * Konstruktor für neues Modell (ohne Symmetrie-Reduktion)
      */
     public QLearningModel(Map<String, double[]> qTabelle, 
                           int trainingSpiele,
                           double lernrate,
                           double discountFaktor,
                           double explorationRate) {
+        this(qTabelle, trainingSpiele, lernrate, discountFaktor, explorationRate, false);
+    }
+    
+    /**
+     * Konstruktor für neues Modell
+     * 
+     * @param kanonisch true wenn die Keys kanonische States sind (Symmetrie-Reduktion)
+     */
+    public QLearningModel(Map<String, double[]> qTabelle, 
+                          int trainingSpiele,
+                          double lernrate,
+                          double discountFaktor,
+                          double explorationRate,
+                          boolean kanonisch) {
         this.qTabelle = qTabelle;
+        this.kanonisch = kanonisch;
         this.erstelltAm = LocalDateTime.now();
         this.trainingSpiele = trainingSpiele;
         this.lernrate = lernrate;
@@ -113,6 +137,10 @@ public class QLearningModel implements Serializable {
         return anzahlStates;
     }
     
+    public boolean istKanonisch() {
+        return kanonisch;
+    }
+    
     public double getDurchschnittlicherQWert() {
         return durchschnittlicherQWert;
     }
@@ -142,6 +170,7 @@ public class QLearningModel implements Serializable {
         );
     }
     
+    
     // ========================================================================
     // JSON Export/Import
     // ========================================================================
@@ -154,135 +183,496 @@ public class QLearningModel implements Serializable {
      * @return JSON-String des Modells
      */
     public String toJSON(boolean compact) {
-        StringBuilder json = new StringBuilder();
+        StringWriter writer = new StringWriter(512 + anzahlStates * (20 + maxQWerteProState * 10));
+        try {
+            schreibeJSON(writer, compact);
+        } catch (IOException e) {
+            // Kann bei StringWriter nicht auftreten
+            throw new UncheckedIOException(e);
+        }
+        return writer.toString();
+    }
+    
+    /**
+     * Schreibt das Modell als JSON direkt in einen Writer, ohne das Dokument
+     * im Speicher aufzubauen. Für Dateien einen BufferedWriter übergeben.
+     * 
+     * @param writer Ziel
+     * @param compact true für kompakte Ausgabe, false für pretty-printed
+     * @throws IOException Bei Schreibfehlern
+     */
+    public void schreibeJSON(Writer writer, boolean compact) throws IOException {
         String indent = compact ? "" : "  ";
         String newline = compact ? "" : "\n";
         
-        json.append("{").append(newline);
-        
-        // Metadaten
-        json.append(indent).append("\"metadata\": {").append(newline);
-        json.append(indent).append(indent).append("\"version\": \"").append(version).append("\",").append(newline);
-        json.append(indent).append(indent).append("\"created\": \"").append(erstelltAm).append("\",").append(newline);
-        json.append(indent).append(indent).append("\"trainingGames\": ").append(trainingSpiele).append(",").append(newline);
-        json.append(indent).append(indent).append("\"learningRate\": ").append(lernrate).append(",").append(newline);
-        json.append(indent).append(indent).append("\"discountFactor\": ").append(discountFaktor).append(",").append(newline);
-        json.append(indent).append(indent).append("\"explorationRate\": ").append(explorationRate).append(",").append(newline);
-        json.append(indent).append(indent).append("\"stateCount\": ").append(anzahlStates).append(",").append(newline);
-        json.append(indent).append(indent).append("\"avgQValue\": ").append(durchschnittlicherQWert).append(",").append(newline);
-        json.append(indent).append(indent).append("\"maxActionsPerState\": ").append(maxQWerteProState).append(newline);
-        json.append(indent).append("},").append(newline);
-        
-        // Q-Tabelle
-        json.append(indent).append("\"qTable\": {").append(newline);
+        // Metadaten (konstante Größe)
+        StringBuilder kopf = new StringBuilder(512);
+        kopf.append("{").append(newline);
+        kopf.append(indent).append("\"metadata\": {").append(newline);
+        kopf.append(indent).append(indent).append("\"version\": \"").append(version).append("\",").append(newline);
+        kopf.append(indent).append(indent).append("\"created\": \"").append(erstelltAm).append("\",").append(newline);
+        kopf.append(indent).append(indent).append("\"trainingGames\": ").append(trainingSpiele).append(",").append(newline);
+        kopf.append(indent).append(indent).append("\"learningRate\": ").append(lernrate).append(",").append(newline);
+        kopf.append(indent).append(indent).append("\"discountFactor\": ").append(discountFaktor).append(",").append(newline);
+        kopf.append(indent).append(indent).append("\"explorationRate\": ").append(explorationRate).append(",").append(newline);
+        kopf.append(indent).append(indent).append("\"stateCount\": ").append(anzahlStates).append(",").append(newline);
+        kopf.append(indent).append(indent).append("\"canonicalStates\": ").append(kanonisch).append(",").append(newline);
+        kopf.append(indent).append(indent).append("\"avgQValue\": ").append(durchschnittlicherQWert).append(",").append(newline);
+        kopf.append(indent).append(indent).append("\"maxActionsPerState\": ").append(maxQWerteProState).append(newline);
+        kopf.append(indent).append("},").append(newline);
+        kopf.append(indent).append("\"qTable\": {").append(newline);
+        writer.write(kopf.toString());
         
+        // Q-Tabelle: ein State pro Zeile, Zahlen ohne String.format
+        String zeilenAnfang = indent + indent + "\"";
+        char[] zahl = new char[32];
         int stateIndex = 0;
         for (Map.Entry<String, double[]> entry : qTabelle.entrySet()) {
-            json.append(indent).append(indent).append("\"").append(entry.getKey()).append("\": [");
+            writer.write(zeilenAnfang);
+            schreibeEscaped(writer, entry.getKey());
+            writer.write("\": [");
             
             double[] qValues = entry.getValue();
             for (int i = 0; i < qValues.length; i++) {
-                // Verwende Punkt als Dezimaltrennzeichen (JSON-Standard)
-                json.append(String.format(java.util.Locale.US, "%.6f", qValues[i]));
+                schreibeZahl(writer, qValues[i], zahl);
                 if (i < qValues.length - 1) {
-                    json.append(", ");
+                    writer.write(", ");
                 }
             }
             
-            json.append("]");
+            writer.write("]");
             if (stateIndex < qTabelle.size() - 1) {
-                json.append(",");
+                writer.write(",");
             }
-            json.append(newline);
+            writer.write(newline);
             stateIndex++;
         }
         
-        json.append(indent).append("}").append(newline);
-        json.append("}");
-        
-        return json.toString();
+        writer.write(indent);
+        writer.write("}");
+        writer.write(newline);
+        writer.write("}");
     }
     
     /**
      * Erstellt QLearningModel aus JSON-String
      * 
-     * @param json JSON-String
+     * @param json JSON-String (kompakt oder pretty-printed)
      * @return QLearningModel Instanz
+     * @throws IllegalArgumentException bei ungültigem JSON
      */
     public static QLearningModel fromJSON(String json) {
-        // Einfacher manueller JSON Parser (funktioniert für unser Format)
+        try {
+            return leseJSON(new StringReader(json));
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Liest ein Modell in einem Durchlauf aus einem Reader.
+     * Whitespace und Zeilenumbrüche sind beliebig, unbekannte Felder werden übersprungen.
+     * 
+     * @param reader Quelle (wird nicht geschlossen)
+     * @return QLearningModel Instanz
+     * @throws IOException Bei Lesefehlern oder ungültigem JSON
+     */
+    public static QLearningModel leseJSON(Reader reader) throws IOException {
+        JSONLeser leser = new JSONLeser(reader);
         Map<String, double[]> qTabelle = new HashMap<>();
         
-        // Extrahiere Metadaten
-        int trainingSpiele = extractInt(json, "\"trainingGames\":");
-        double lernrate = extractDouble(json, "\"learningRate\":");
-        double discountFaktor = extractDouble(json, "\"discountFactor\":");
-        double explorationRate = extractDouble(json, "\"explorationRate\":");
-        
-        // Extrahiere Q-Tabelle
-        int qTableStart = json.indexOf("\"qTable\": {") + "\"qTable\": {".length();
-        int qTableEnd = json.lastIndexOf("}");
-        String qTableSection = json.substring(qTableStart, qTableEnd);
+        int trainingSpiele = 0;
+        double lernrate = 0.0;
+        double discountFaktor = 0.0;
+        double explorationRate = 0.0;
+        boolean kanonisch = false;
+        LocalDateTime erstelltAm = null;
         
-        // Parse jede State-Action Zeile
-        String[] lines = qTableSection.split("\n");
-        for (String line : lines) {
-            line = line.trim();
-            if (line.isEmpty() || line.equals("{") || line.equals("}")) {
-                continue;
-            }
-            
-            // Format: "state": [q1, q2, ..., q9],
-            int colonIndex = line.indexOf("\":");
-            if (colonIndex > 0) {
-                String state = line.substring(1, colonIndex);
-                
-                int bracketStart = line.indexOf("[");
-                int bracketEnd = line.indexOf("]");
-                if (bracketStart > 0 && bracketEnd > bracketStart) {
-                    String valuesStr = line.substring(bracketStart + 1, bracketEnd);
-                    String[] valueStrs = valuesStr.split(",");
-                    
-                    double[] qValues = new double[valueStrs.length];
-                    for (int i = 0; i < valueStrs.length; i++) {
-                        qValues[i] = Double.parseDouble(valueStrs[i].trim());
+        leser.erwarte('{');
+        if (!leser.pruefe('}')) {
+            do {
+                String feld = leser.leseString();
+                leser.erwarte(':');
+                if (feld.equals("metadata")) {
+                    leser.erwarte('{');
+                    if (!leser.pruefe('}')) {
+                        do {
+                            String key = leser.leseString();
+                            leser.erwarte(':');
+                            switch (key) {
+                                case "trainingGames":   trainingSpiele = (int) leser.leseZahl(); break;
+                                case "learningRate":    lernrate = leser.leseZahl(); break;
+                                case "discountFactor":  discountFaktor = leser.leseZahl(); break;
+                                case "explorationRate": explorationRate = leser.leseZahl(); break;
+                                case "canonicalStates": kanonisch = leser.leseBoolean(); break;
+                                case "created":         erstelltAm = parseDatum(leser.leseString()); break;
+                                default:                leser.ueberspringeWert(); break;
+                            }
+                        } while (leser.pruefe(','));
+                        leser.erwarte('}');
                     }
-                    
-                    qTabelle.put(state, qValues);
+                } else if (feld.equals("qTable")) {
+                    leseQTabelle(leser, qTabelle);
+                } else {
+                    leser.ueberspringeWert();
                 }
-            }
+            } while (leser.pruefe(','));
+            leser.erwarte('}');
         }
         
-        return new QLearningModel(qTabelle, trainingSpiele, lernrate, discountFaktor, explorationRate);
+        QLearningModel modell = new QLearningModel(qTabelle, trainingSpiele, lernrate,
+                                                   discountFaktor, explorationRate, kanonisch);
+        if (erstelltAm != null) {
+            modell.erstelltAm = erstelltAm;
+        }
+        return modell;
     }
     
     /**
-     * Hilfsmethode: Extrahiert Integer-Wert aus JSON
+     * Liest das qTable-Objekt: "state": [q1, ..., qn]
      */
-    private static int extractInt(String json, String key) {
-        int keyIndex = json.indexOf(key);
-        if (keyIndex < 0) return 0;
-        
-        int start = keyIndex + key.length();
-        int end = json.indexOf(",", start);
-        if (end < 0) end = json.indexOf("}", start);
-        
-        String value = json.substring(start, end).trim();
-        return Integer.parseInt(value);
+    private static void leseQTabelle(JSONLeser leser, Map<String, double[]> qTabelle) throws IOException {
+        double[] werte = new double[9];
+        leser.erwarte('{');
+        if (leser.pruefe('}')) {
+            return;
+        }
+        do {
+            String state = leser.leseString();
+            leser.erwarte(':');
+            leser.erwarte('[');
+            int anzahl = 0;
+            if (!leser.pruefe(']')) {
+                do {
+                    if (anzahl == werte.length) {
+                        werte = Arrays.copyOf(werte, anzahl * 2);
+                    }
+                    werte[anzahl++] = leser.leseZahl();
+                } while (leser.pruefe(','));
+                leser.erwarte(']');
+            }
+            qTabelle.put(state, Arrays.copyOf(werte, anzahl));
+        } while (leser.pruefe(','));
+        leser.erwarte('}');
+    }
+    
+    /**
+     * Hilfsmethode: Parst das Erstellungsdatum (null falls unlesbar)
+     */
+    private static LocalDateTime parseDatum(String text) {
+        try {
+            return LocalDateTime.parse(text);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+    
+    /**
+     * Hilfsmethode: Schreibt einen String mit JSON-Escaping
+     */
+    private static void schreibeEscaped(Writer writer, String text) throws IOException {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"' || c == '\\') {
+                writer.write('\\');
+                writer.write(c);
+            } else if (c < 0x20) {
+                writer.write(String.format("\\u%04x", (int) c));
+            } else {
+                writer.write(c);
+            }
+        }
     }
     
     /**
-     * Hilfsmethode: Extrahiert Double-Wert aus JSON
+     * Hilfsmethode: Schreibt eine Zahl mit 6 Nachkommastellen (wie "%.6f"),
+     * aber ohne Formatter und ohne String-Allokation
      */
-    private static double extractDouble(String json, String key) {
-        int keyIndex = json.indexOf(key);
-        if (keyIndex < 0) return 0.0;
+    static void schreibeZahl(Writer writer, double wert, char[] puffer) throws IOException {
+        if (!(Math.abs(wert) < 1e12)) {
+            // Sehr große Werte, NaN, Infinity: Standard-Formatierung
+            writer.write(String.format(Locale.US, "%.6f", wert));
+            return;
+        }
+        long skaliert = Math.round(wert * 1e6);
+        int ende = puffer.length;
+        int pos = ende;
+        boolean negativ = skaliert < 0;
+        if (negativ) {
+            skaliert = -skaliert;
+        }
+        for (int i = 0; i < 6; i++) {
+            puffer[--pos] = (char) ('0' + skaliert % 10);
+            skaliert /= 10;
+        }
+        puffer[--pos] = '.';
+        do {
+            puffer[--pos] = (char) ('0' + skaliert % 10);
+            skaliert /= 10;
+        } while (skaliert > 0);
+        if (negativ) {
+            puffer[--pos] = '-';
+        }
+        writer.write(puffer, pos, ende - pos);
+    }
+    
+    // ========================================================================
+    // JSON Tokenizer
+    // ========================================================================
+    
+    /**
+     * Minimaler Ein-Pass JSON-Tokenizer mit eigenem Lesepuffer.
+     * Unterstützt genau das, was für Modell-Dateien gebraucht wird:
+     * Objekte, Arrays, Strings, Zahlen, true/false/null.
+     */
+    private static final class JSONLeser {
+        
+        // 10^0 bis 10^22 sind als double exakt darstellbar
+        private static final double[] ZEHNERPOTENZEN = new double[23];
+        static {
+            ZEHNERPOTENZEN[0] = 1.0;
+            for (int i = 1; i < ZEHNERPOTENZEN.length; i++) {
+                ZEHNERPOTENZEN[i] = ZEHNERPOTENZEN[i - 1] * 10.0;
+            }
+        }
+        
+        private final Reader reader;
+        private final char[] puffer = new char[8192];
+        private final StringBuilder text = new StringBuilder(32);
+        private int pos;
+        private int ende;
+        private long verarbeitet;   // Zeichen vor dem aktuellen Puffer (für Fehlermeldungen)
+        
+        JSONLeser(Reader reader) {
+            this.reader = reader;
+        }
+        
+        /**
+         * Nächstes Zeichen ohne es zu verbrauchen (-1 am Ende)
+         */
+        private int zeichen() throws IOException {
+            if (pos == ende) {
+                verarbeitet += ende;
+                ende = reader.read(puffer, 0, puffer.length);
+                pos = 0;
+                if (ende <= 0) {
+                    ende = 0;
+                    return -1;
+                }
+            }
+            return puffer[pos];
+        }
         
-        int start = keyIndex + key.length();
-        int end = json.indexOf(",", start);
-        if (end < 0) end = json.indexOf("}", start);
+        /**
+         * Nächstes Nicht-Whitespace-Zeichen ohne es zu verbrauchen
+         */
+        private int naechstes() throws IOException {
+            int c = zeichen();
+            while (c == ' ' || c == '\n' || c == '\r' || c == '\t') {
+                pos++;
+                c = zeichen();
+            }
+            return c;
+        }
+        
+        /**
+         * Verbraucht das erwartete Zeichen oder wirft einen Fehler
+         */
+        void erwarte(char erwartet) throws IOException {
+            int c = naechstes();
+            if (c != erwartet) {
+                throw fehler("'" + erwartet + "' erwartet, gefunden " + beschreibe(c));
+            }
+            pos++;
+        }
+        
+        /**
+         * Verbraucht das Zeichen, falls es als nächstes kommt
+         */
+        boolean pruefe(char c) throws IOException {
+            if (naechstes() == c) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+        
+        String leseString() throws IOException {
+            erwarte('"');
+            text.setLength(0);
+            while (true) {
+                int c = zeichen();
+                if (c < 0) {
+                    throw fehler("Unerwartetes Ende in String");
+                }
+                pos++;
+                if (c == '"') {
+                    return text.toString();
+                }
+                if (c == '\\') {
+                    int escape = zeichen();
+                    pos++;
+                    switch (escape) {
+                        case '"': case '\\': case '/': text.append((char) escape); break;
+                        case 'b': text.append('\b'); break;
+                        case 'f': text.append('\f'); break;
+                        case 'n': text.append('\n'); break;
+                        case 'r': text.append('\r'); break;
+                        case 't': text.append('\t'); break;
+                        case 'u': text.append((char) leseHex()); break;
+                        default: throw fehler("Ungültige Escape-Sequenz " + beschreibe(escape));
+                    }
+                } else {
+                    text.append((char) c);
+                }
+            }
+        }
         
-        String value = json.substring(start, end).trim();
-        return Double.parseDouble(value);
+        private int leseHex() throws IOException {
+            int wert = 0;
+            for (int i = 0; i < 4; i++) {
+                int c = zeichen();
+                int ziffer = c < 0 ? -1 : Character.digit(c, 16);
+                if (ziffer < 0) {
+                    throw fehler("Ungültige Unicode-Escape-Sequenz");
+                }
+                pos++;
+                wert = wert * 16 + ziffer;
+            }
+            return wert;
+        }
+        
+        /**
+         * Liest eine Zahl. Einfache Dezimalzahlen (≤ 15 signifikante Stellen, ohne Exponent)
+         * werden exakt über Mantisse / 10^k berechnet, alles andere über Double.parseDouble.
+         */
+        double leseZahl() throws IOException {
+            int c = naechstes();
+            text.setLength(0);
+            boolean negativ = false;
+            if (c == '-') {
+                negativ = true;
+                text.append('-');
+                pos++;
+                c = zeichen();
+            }
+            long mantisse = 0;
+            int stellen = 0;
+            int nachkomma = 0;
+            boolean ziffernGesehen = false;
+            boolean einfach = true;
+            boolean imBruch = false;
+            while (true) {
+                if (c >= '0' && c <= '9') {
+                    ziffernGesehen = true;
+                    if (stellen < 15) {
+                        mantisse = mantisse * 10 + (c - '0');
+                        if (mantisse != 0) {
+                            stellen++;
+                        }
+                        if (imBruch) {
+                            nachkomma++;
+                        }
+                    } else {
+                        einfach = false;
+                    }
+                } else if (c == '.' && !imBruch) {
+                    imBruch = true;
+                } else if (c == 'e' || c == 'E' || c == '+' || c == '-') {
+                    einfach = false;
+                } else {
+                    break;
+                }
+                text.append((char) c);
+                pos++;
+                c = zeichen();
+            }
+            if (!ziffernGesehen) {
+                throw fehler("Zahl erwartet, gefunden " + beschreibe(c));
+            }
+            if (einfach && nachkomma < ZEHNERPOTENZEN.length) {
+                double wert = mantisse / ZEHNERPOTENZEN[nachkomma];
+                return negativ ? -wert : wert;
+            }
+            try {
+                return Double.parseDouble(text.toString());
+            } catch (NumberFormatException e) {
+                throw fehler("Ungültige Zahl '" + text + "'");
+            }
+        }
+        
+        boolean leseBoolean() throws IOException {
+            int c = naechstes();
+            if (c == 't') {
+                leseLiteral("true");
+                return true;
+            }
+            if (c == 'f') {
+                leseLiteral("false");
+                return false;
+            }
+            throw fehler("true/false erwartet, gefunden " + beschreibe(c));
+        }
+        
+        private void leseLiteral(String literal) throws IOException {
+            for (int i = 0; i < literal.length(); i++) {
+                if (zeichen() != literal.charAt(i)) {
+                    throw fehler("'" + literal + "' erwartet");
+                }
+                pos++;
+            }
+        }
+        
+        /**
+         * Überspringt einen beliebigen JSON-Wert (für unbekannte Felder)
+         */
+        void ueberspringeWert() throws IOException {
+            int c = naechstes();
+            switch (c) {
+                case '"':
+                    leseString();
+                    break;
+                case '{':
+                    pos++;
+                    if (!pruefe('}')) {
+                        do {
+                            leseString();
+                            erwarte(':');
+                            ueberspringeWert();
+                        } while (pruefe(','));
+                        erwarte('}');
+                    }
+                    break;
+                case '[':
+                    pos++;
+                    if (!pruefe(']')) {
+                        do {
+                            ueberspringeWert();
+                        } while (pruefe(','));
+                        erwarte(']');
+                    }
+                    break;
+                case 't':
+                    leseLiteral("true");
+                    break;
+                case 'f':
+                    leseLiteral("false");
+                    break;
+                case 'n':
+                    leseLiteral("null");
+                    break;
+                default:
+                    leseZahl();
+                    break;
+            }
+        }
+        
+        private String beschreibe(int c) {
+            return c < 0 ? "Dateiende" : "'" + (char) c + "'";
+        }
+        
+        private IOException fehler(String meldung) {
+            return new IOException("Ungültiges JSON bei Zeichen " + (verarbeitet + pos) + ": " + meldung);
+        }
     }
 }
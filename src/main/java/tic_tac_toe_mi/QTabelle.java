@@ -0,0 +1,97 @@
+package tic_tac_toe_mi;
+
+import java.util.Map;
+
+/**
+ * Abstraktion der Q-Tabelle für den QLearningAgent.
+ * Zustände werden über ihren Basis-3 State-Code adressiert
+ * (siehe SpielzustandKonverter#zuCodeNormalisiert), Aktionen über 0-8.
+ *
+ * Die String-basierte Map-Darstellung bleibt nur noch für Persistenz
+ * (QLearningModel, JSON-Export) erhalten.
+ *
+ * @author johanneshaick
+ */
+public interface QTabelle {
+
+    /** Anzahl der Aktionen pro Zustand (ein Wert pro Feld) */
+    int ANZAHL_AKTIONEN = 9;
+
+    /** Anzahl möglicher State-Codes (3^9) */
+    int ANZAHL_CODES = 19683;
+
+    /**
+     * Gibt einen einzelnen Q-Wert zurück (0.0 für unbekannte Zustände)
+     *
+     * @param stateCode Basis-3 State-Code
+     * @param aktion Aktion (0-8)
+     * @return Q-Wert
+     */
+    double getQWert(int stateCode, int aktion);
+
+    /**
+     * Setzt einen einzelnen Q-Wert und registriert den Zustand
+     *
+     * @param stateCode Basis-3 State-Code
+     * @param aktion Aktion (0-8)
+     * @param wert Neuer Q-Wert
+     */
+    void setQWert(int stateCode, int aktion, double wert);
+
+    /**
+     * Zieht einen Q-Wert in Richtung eines Zielwerts: Q ← Q + α·(ziel - Q).
+     * Implementierungen für paralleles Training führen das atomar aus.
+     *
+     * @param stateCode Basis-3 State-Code
+     * @param aktion Aktion (0-8)
+     * @param zielWert TD-Ziel (Reward + γ·max Q')
+     * @param lernrate Alpha
+     */
+    void aktualisiere(int stateCode, int aktion, double zielWert, double lernrate);
+
+    /**
+     * Maximaler Q-Wert über alle 9 Aktionen eines Zustands
+     *
+     * @param stateCode Basis-3 State-Code
+     * @return Maximaler Q-Wert
+     */
+    double getMaxQWert(int stateCode);
+
+    /**
+     * Markiert einen Zustand als bekannt (Q-Werte bleiben 0, falls neu).
+     * Entspricht dem früheren computeIfAbsent auf der HashMap.
+     *
+     * @param stateCode Basis-3 State-Code
+     */
+    void registriere(int stateCode);
+
+    /**
+     * @param stateCode Basis-3 State-Code
+     * @return true wenn der Zustand bereits bekannt ist
+     */
+    boolean enthaelt(int stateCode);
+
+    /**
+     * @return Anzahl bekannter Zustände
+     */
+    int getAnzahlStates();
+
+    /**
+     * Entfernt alle Zustände
+     */
+    void leeren();
+
+    /**
+     * Exportiert die Tabelle als String-Map (für QLearningModel und JSON)
+     *
+     * @return Neue Map: State-String → Kopie der 9 Q-Werte
+     */
+    Map<String, double[]> zuMap();
+
+    /**
+     * Ersetzt den Inhalt der Tabelle durch eine String-Map
+     *
+     * @param map State-String → Q-Werte
+     */
+    void ausMap(Map<String, double[]> map);
+}
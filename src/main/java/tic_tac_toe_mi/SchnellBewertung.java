@@ -0,0 +1,410 @@
+package tic_tac_toe_mi;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import tictactoe.Farbe;
+import tictactoe.IllegalerZugException;
+import tictactoe.Spielfeld;
+import tictactoe.TicTacToe;
+import tictactoe.Zug;
+import tictactoe.spieler.AbbruchNachIterationen;
+import tictactoe.spieler.ISpieler;
+
+/**
+ * Schnelle Auswertung zweier Strategien auf dem BitSpielfeld.
+ *
+ * TicTacToe#neuesSpiel ruft pro Zug die ISpieler-Callbacks auf, pflegt zwei
+ * Spielfelder und prüft Zeitbudgets. Für Siegraten über viele Spiele reicht
+ * das interne Bitboard: Die Spiele werden gleichmäßig auf N Threads
+ * verteilt, jeder Thread hat ein eigenes Brett und einen eigenen
+ * Zufallsgenerator (Seed + Thread-Index), die Strategien werden geteilt.
+ *
+ * Das Ergebnis enthält 95%-Konfidenzintervalle (Wilson) für Sieg-,
+ * Niederlagen- und Unentschieden-Rate.
+ *
+ * Mit pruefeGegenReferee werden Stichproben zusätzlich über den
+ * Schiedsrichter der Bibliothek gespielt, um die Regeln des Bitboards
+ * gegen die Referenz abzugleichen.
+ *
+ * @author johanneshaick
+ */
+public class SchnellBewertung {
+
+    // z-Wert für 95% Konfidenz
+    private static final double Z_95 = 1.959964;
+
+    private final int anzahlThreads;
+
+    /**
+     * Ergebnis aus Sicht der ersten Strategie
+     */
+    public static final class Bilanz {
+        private final long siege;
+        private final long niederlagen;
+        private final long unentschieden;
+        private final long dauerNanos;
+
+        Bilanz(long siege, long niederlagen, long unentschieden, long dauerNanos) {
+            this.siege = siege;
+            this.niederlagen = niederlagen;
+            this.unentschieden = unentschieden;
+            this.dauerNanos = dauerNanos;
+        }
+
+        public long getSpiele() {
+            return siege + niederlagen + unentschieden;
+        }
+
+        public long getSiege() {
+            return siege;
+        }
+
+        public long getNiederlagen() {
+            return niederlagen;
+        }
+
+        public long getUnentschieden() {
+            return unentschieden;
+        }
+
+        public double getSiegrate() {
+            return anteil(siege);
+        }
+
+        public double getNiederlagenrate() {
+            return anteil(niederlagen);
+        }
+
+        public double getUnentschiedenrate() {
+            return anteil(unentschieden);
+        }
+
+        /**
+         * @return 95%-Intervall {untere, obere} der Siegrate
+         */
+        public double[] getSiegrateIntervall() {
+            return wilson(siege, getSpiele());
+        }
+
+        /**
+         * @return 95%-Intervall {untere, obere} der Niederlagenrate
+         */
+        public double[] getNiederlagenrateIntervall() {
+            return wilson(niederlagen, getSpiele());
+        }
+
+        /**
+         * @return 95%-Intervall {untere, obere} der Unentschieden-Rate
+         */
+        public double[] getUnentschiedenrateIntervall() {
+            return wilson(unentschieden, getSpiele());
+        }
+
+        public double getDauerSekunden() {
+            return dauerNanos / 1e9;
+        }
+
+        public double getSpieleProSekunde() {
+            return dauerNanos > 0 ? getSpiele() / (dauerNanos / 1e9) : 0.0;
+        }
+
+        private double anteil(long anzahl) {
+            long spiele = getSpiele();
+            return spiele > 0 ? (double) anzahl / spiele : 0.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("S %s | N %s | U %s (%,d Spiele)",
+                                 formatiere(getSiegrate(), getSiegrateIntervall()),
+                                 formatiere(getNiederlagenrate(), getNiederlagenrateIntervall()),
+                                 formatiere(getUnentschiedenrate(), getUnentschiedenrateIntervall()),
+                                 getSpiele());
+        }
+
+        private static String formatiere(double rate, double[] intervall) {
+            return String.format("%5.1f%% [%.1f-%.1f]", rate * 100, intervall[0] * 100, intervall[1] * 100);
+        }
+    }
+
+    /**
+     * @param anzahlThreads Anzahl paralleler Worker
+     */
+    public SchnellBewertung(int anzahlThreads) {
+        if (anzahlThreads < 1) {
+            throw new IllegalArgumentException("Mindestens ein Thread erforderlich: " + anzahlThreads);
+        }
+        this.anzahlThreads = anzahlThreads;
+    }
+
+    // ========================================================================
+    // Auswertung auf dem Bitboard
+    // ========================================================================
+
+    /**
+     * Spielt a gegen b und zählt aus Sicht von a
+     *
+     * @param a Erste Strategie
+     * @param b Zweite Strategie
+     * @param spiele Anzahl Spiele
+     * @param abwechselnd true: a beginnt jedes zweite Spiel, false: a beginnt immer
+     * @param seed Seed (gleiche Seeds und Thread-Anzahl ergeben gleiche Ergebnisse)
+     * @return Bilanz von a
+     */
+    public Bilanz bewerte(Strategie a, Strategie b, long spiele, boolean abwechselnd, long seed) {
+        long[][] statistiken = new long[anzahlThreads][3];
+        List<Thread> threads = new ArrayList<>(anzahlThreads);
+
+        long start = System.nanoTime();
+        if (anzahlThreads == 1) {
+            // Direkt im aufrufenden Thread (z.B. als Aufgabe in einem Thread-Pool)
+            spieleBereich(a, b, 0, spiele, abwechselnd, new Random(seed), statistiken[0]);
+            long[] statistik = statistiken[0];
+            return new Bilanz(statistik[0], statistik[1], statistik[2], System.nanoTime() - start);
+        }
+        for (int i = 0; i < anzahlThreads; i++) {
+            long von = spiele * i / anzahlThreads;
+            long bis = spiele * (i + 1) / anzahlThreads;
+            long[] statistik = statistiken[i];
+            Random random = new Random(seed + i);
+            Runnable worker = () -> spieleBereich(a, b, von, bis, abwechselnd, random, statistik);
+            Thread thread = Thread.ofPlatform().name("bewertung-" + i).unstarted(worker);
+            threads.add(thread);
+            thread.start();
+        }
+
+        try {
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Auswertung unterbrochen", e);
+        }
+        long dauer = System.nanoTime() - start;
+
+        long siege = 0;
+        long niederlagen = 0;
+        long unentschieden = 0;
+        for (long[] statistik : statistiken) {
+            siege += statistik[0];
+            niederlagen += statistik[1];
+            unentschieden += statistik[2];
+        }
+        return new Bilanz(siege, niederlagen, unentschieden, dauer);
+    }
+
+    /**
+     * Worker: Spiele [von, bis) - gerade Indizes beginnt a (bei abwechselnd)
+     */
+    private static void spieleBereich(Strategie a, Strategie b, long von, long bis, boolean abwechselnd,
+                                      Random random, long[] statistik) {
+        BitSpielfeld brett = new BitSpielfeld();
+        for (long spiel = von; spiel < bis; spiel++) {
+            boolean aBeginnt = !abwechselnd || (spiel & 1) == 0;
+            int ergebnis = spiele(aBeginnt ? a : b, aBeginnt ? b : a, brett, random, null);
+            if (ergebnis == Selbstspiel.UNENTSCHIEDEN) {
+                statistik[2]++;
+            } else if ((ergebnis == Selbstspiel.ANZIEHENDER_GEWINNT) == aBeginnt) {
+                statistik[0]++;
+            } else {
+                statistik[1]++;
+            }
+        }
+    }
+
+    /**
+     * Eine Partie auf dem Bitboard
+     *
+     * @param zuege Optional: nimmt die gespielten Felder auf (mind. 9 Plätze)
+     * @return UNENTSCHIEDEN, ANZIEHENDER_GEWINNT oder NACHZIEHENDER_GEWINNT (wie Selbstspiel)
+     */
+    private static int spiele(Strategie anziehender, Strategie nachziehender, BitSpielfeld brett,
+                              Random random, int[] zuege) {
+        brett.reset();
+        boolean anziehenderAmZug = true;
+        int zug = 0;
+        while (!brett.istVoll()) {
+            int aktion = (anziehenderAmZug ? anziehender : nachziehender).waehleAktion(brett, random);
+            if (zuege != null) {
+                zuege[zug] = aktion;
+            }
+            zug++;
+            brett.ziehe(aktion);
+            if (brett.letzterZugGewinnt()) {
+                return anziehenderAmZug ? Selbstspiel.ANZIEHENDER_GEWINNT : Selbstspiel.NACHZIEHENDER_GEWINNT;
+            }
+            anziehenderAmZug = !anziehenderAmZug;
+        }
+        return Selbstspiel.UNENTSCHIEDEN;
+    }
+
+    // ========================================================================
+    // Abgleich mit dem Schiedsrichter der Bibliothek
+    // ========================================================================
+
+    /**
+     * Spielt Stichproben einmal auf dem Bitboard und einmal über TicTacToe#neuesSpiel.
+     * Beide Läufe nutzen denselben Seed, die Strategien sehen also dieselben
+     * Zufallszahlen. Im Referee-Lauf bauen die Adapter ihr Bitboard aus dem
+     * eigenen Spielfeld neu auf (BitSpielfeld#ausSpielfeld), so dass Zugfolge,
+     * Sieg- und Remis-Erkennung unabhängig geprüft werden.
+     *
+     * @param a Erste Strategie (beginnt in geraden Stichproben)
+     * @param b Zweite Strategie
+     * @param spiele Anzahl Stichproben
+     * @param seed Seed
+     * @return Anzahl Partien mit abweichendem Ausgang (0 = Bitboard und Referee stimmen überein)
+     */
+    public static int pruefeGegenReferee(Strategie a, Strategie b, int spiele, long seed) {
+        TicTacToe referee = new TicTacToe();
+        BitSpielfeld brett = new BitSpielfeld();
+        int[] zuege = new int[9];
+        int abweichungen = 0;
+
+        for (int i = 0; i < spiele; i++) {
+            boolean aBeginnt = (i & 1) == 0;
+            Strategie anziehend = aBeginnt ? a : b;
+            Strategie nachziehend = aBeginnt ? b : a;
+
+            int schnell = spiele(anziehend, nachziehend, brett, new Random(seed + i), zuege);
+
+            Random random = new Random(seed + i);
+            ISpieler x = new RefereeAdapter("X", anziehend, random);
+            ISpieler o = new RefereeAdapter("O", nachziehend, random);
+            ISpieler gewinner = referee.neuesSpiel(x, o, 150, false);
+            int referenz = gewinner == x ? Selbstspiel.ANZIEHENDER_GEWINNT
+                         : gewinner == o ? Selbstspiel.NACHZIEHENDER_GEWINNT
+                         : Selbstspiel.UNENTSCHIEDEN;
+
+            if (schnell != referenz) {
+                abweichungen++;
+            }
+        }
+        return abweichungen;
+    }
+
+    /**
+     * ISpieler, der eine Strategie über ein eigenes Spielfeld anbindet
+     */
+    private static final class RefereeAdapter implements ISpieler {
+        private final Strategie strategie;
+        private final Random random;
+        private final BitSpielfeld brett = new BitSpielfeld();
+        private Spielfeld spielfeld;
+        private String name;
+        private Farbe farbe;
+
+        RefereeAdapter(String name, Strategie strategie, Random random) {
+            this.name = name;
+            this.strategie = strategie;
+            this.random = random;
+        }
+
+        @Override
+        public void neuesSpiel(Farbe meineFarbe, int bedenkzeitInSekunden) {
+            this.farbe = meineFarbe;
+            this.spielfeld = new Spielfeld();
+        }
+
+        @Override
+        public Zug berechneZug(Zug vorherigerZug, long zeitKreis, long zeitKreuz) throws IllegalerZugException {
+            if (vorherigerZug != null) {
+                spielfeld.setFarbe(vorherigerZug.getZeile(), vorherigerZug.getSpalte(), farbe.opposite());
+            }
+            brett.ausSpielfeld(spielfeld, farbe);
+            int aktion = strategie.waehleAktion(brett, random);
+            spielfeld.setFarbe(aktion / 3, aktion % 3, farbe);
+            return new Zug(aktion / 3, aktion % 3);
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Farbe getFarbe() {
+            return farbe;
+        }
+
+        @Override
+        public void setFarbe(Farbe farbe) {
+            this.farbe = farbe;
+        }
+    }
+
+    // ========================================================================
+    // Konfidenzintervall
+    // ========================================================================
+
+    /**
+     * Wilson-Score-Intervall (95%) für einen Anteil k/n.
+     * Bleibt im Gegensatz zur Normalapproximation auch bei Raten nahe 0 oder 1 in [0, 1].
+     *
+     * @return {untere, obere} Grenze
+     */
+    static double[] wilson(long k, long n) {
+        if (n == 0) {
+            return new double[] {0.0, 1.0};
+        }
+        double p = (double) k / n;
+        double z2 = Z_95 * Z_95;
+        double nenner = 1 + z2 / n;
+        double mitte = (p + z2 / (2 * n)) / nenner;
+        double breite = Z_95 * Math.sqrt(p * (1 - p) / n + z2 / (4.0 * n * n)) / nenner;
+        return new double[] {Math.max(0.0, mitte - breite), Math.min(1.0, mitte + breite)};
+    }
+
+    // ========================================================================
+    // Demo
+    // ========================================================================
+
+    /**
+     * Trainiert einen Spieler und wertet 1.000.000 Spiele gegen den Zufallsspieler aus
+     */
+    public static void main(String[] args) {
+        long spiele = args.length > 0 ? Long.parseLong(args[0]) : 1_000_000;
+        int anzahlThreads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+
+        System.out.println("═══════════════════════════════════════════════════════");
+        System.out.println("  Schnelle Auswertung auf dem Bitboard");
+        System.out.println("═══════════════════════════════════════════════════════");
+        System.out.println("Spiele: " + String.format("%,d", spiele) + ", Threads: " + anzahlThreads);
+        System.out.println();
+
+        Spieler spieler = new Spieler("Lernender Spieler", 0.1, 0.9, 0.3);
+        spieler.setAusgabe(false);
+        spieler.trainieren(new AbbruchNachIterationen(200000));
+
+        Strategie gelernt = Strategie.greedy(spieler.getQLearningAgent(), 0.0);
+        Strategie perfekt = Strategie.perfekt(new ExakterLoeser(0.9));
+        Strategie zufall = Strategie.zufall();
+        SchnellBewertung bewertung = new SchnellBewertung(anzahlThreads);
+
+        // Aufwärmen, damit der JIT die Spielschleife kompiliert hat
+        bewertung.bewerte(gelernt, zufall, 100000, true, 1);
+
+        zeige("Gelernt vs Zufall", bewertung.bewerte(gelernt, zufall, spiele, true, 42));
+        zeige("Perfekt vs Zufall", bewertung.bewerte(perfekt, zufall, spiele, true, 42));
+        zeige("Gelernt vs Perfekt", bewertung.bewerte(gelernt, perfekt, spiele, true, 42));
+
+        int stichproben = 1000;
+        int abweichungen = pruefeGegenReferee(gelernt, zufall, stichproben, 42)
+                         + pruefeGegenReferee(perfekt, zufall, stichproben, 42);
+        System.out.println();
+        System.out.println("Abgleich mit TicTacToe#neuesSpiel: " + abweichungen + " Abweichungen in "
+                           + (2 * stichproben) + " Stichproben");
+    }
+
+    private static void zeige(String titel, Bilanz bilanz) {
+        System.out.printf("%-20s %s | %,.0f Spiele/s%n", titel, bilanz, bilanz.getSpieleProSekunde());
+    }
+}
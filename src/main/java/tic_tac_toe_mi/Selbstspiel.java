@@ -0,0 +1,65 @@
+package tic_tac_toe_mi;
+
+/**
+ * Eine Self-Play Partie auf dem BitSpielfeld.
+ * Beide Seiten nutzen denselben QLearningAgent und lernen nach jedem Zug.
+ *
+ * Gemeinsam genutzt von Spieler (sequentiell) und ParallelerTrainer (pro Worker).
+ *
+ * @author johanneshaick
+ */
+final class Selbstspiel {
+
+    static final int UNENTSCHIEDEN = 0;
+    static final int ANZIEHENDER_GEWINNT = 1;
+    static final int NACHZIEHENDER_GEWINNT = 2;
+
+    private Selbstspiel() {
+    }
+
+    /**
+     * Spielt eine Partie und aktualisiert dabei die Q-Tabelle des Agents
+     *
+     * @param agent Lernender Agent (für beide Seiten)
+     * @param brett Wiederverwendetes Bitboard (wird zurückgesetzt)
+     * @return UNENTSCHIEDEN, ANZIEHENDER_GEWINNT oder NACHZIEHENDER_GEWINNT
+     */
+    static int spiele(QLearningAgent agent, BitSpielfeld brett) {
+        brett.reset();
+        boolean anziehenderAmZug = true;
+
+        // Spiel-Loop (Tic-Tac-Toe hat maximal 9 Züge)
+        while (!brett.istVoll()) {
+            // State vor dem Zug
+            int state = brett.getCodeAmZug();
+
+            // Wähle Zug mit Q-Learning
+            int[] moeglicheAktionen = brett.getMoeglicheAktionen();
+            int aktion = agent.waehleAktion(state, moeglicheAktionen, moeglicheAktionen.length);
+
+            // Führe Zug aus (danach ist der Gegner am Zug)
+            brett.ziehe(aktion);
+
+            // State nach dem Zug aus Sicht des ziehenden Spielers
+            int naechsterState = brett.getCodeNichtAmZug();
+
+            // Prüfe auf Spielende
+            boolean hatGewonnen = brett.letzterZugGewinnt();
+            boolean istTerminal = hatGewonnen || brett.istVoll();
+
+            // Reward: +1 für Sieg, sonst 0 (der Ziehende kann nicht verlieren)
+            double reward = hatGewonnen ? 1.0 : 0.0;
+
+            // Q-Learning Update
+            agent.lernen(state, aktion, reward, naechsterState, istTerminal);
+
+            if (hatGewonnen) {
+                return anziehenderAmZug ? ANZIEHENDER_GEWINNT : NACHZIEHENDER_GEWINNT;
+            }
+
+            anziehenderAmZug = !anziehenderAmZug;
+        }
+
+        return UNENTSCHIEDEN;
+    }
+}
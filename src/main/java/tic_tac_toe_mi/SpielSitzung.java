@@ -0,0 +1,136 @@
+package tic_tac_toe_mi;
+
+import tictactoe.Farbe;
+import tictactoe.IllegalerZugException;
+import tictactoe.Zug;
+import tictactoe.spieler.ISpieler;
+
+/**
+ * Eine Partie gegen eine EingefrorenePolicy.
+ *
+ * Hält nur den Zustand dieser Partie (Bitboard, Farbe, Name); die Policy
+ * wird geteilt und nie verändert. Eine Sitzung gehört zu genau einem Spiel
+ * und darf nicht von mehreren Threads gleichzeitig benutzt werden - viele
+ * Sitzungen auf vielen Threads teilen sich dagegen dieselbe Policy.
+ *
+ * Implementiert ISpieler, damit eine Sitzung direkt in TicTacToe#neuesSpiel
+ * eingesetzt werden kann. Für Server-Schleifen gibt es mit ziehe(int) eine
+ * allokationsfreie Variante auf Feld-Indizes.
+ *
+ * @author johanneshaick
+ */
+public final class SpielSitzung implements ISpieler {
+
+    /** Kein vorheriger Zug (die Sitzung beginnt) */
+    public static final int KEIN_ZUG = -1;
+
+    private final EingefrorenePolicy policy;
+    private final BitSpielfeld brett = new BitSpielfeld();
+    private String name;
+    private Farbe farbe;
+
+    SpielSitzung(EingefrorenePolicy policy, String name) {
+        this.policy = policy;
+        this.name = name;
+    }
+
+    /**
+     * Vermerkt den gegnerischen Zug und antwortet mit dem Zug der Policy
+     *
+     * @param gegnerAktion Feld des Gegners (0-8) oder KEIN_ZUG, wenn die Sitzung eröffnet
+     * @return Eigenes Feld (0-8) oder KEIN_ZUG, wenn die Partie nach dem gegnerischen Zug beendet ist
+     * @throws IllegalStateException wenn die Partie schon entschieden ist, das Feld des Gegners
+     *         nicht frei ist oder KEIN_ZUG nach dem ersten Zug kommt
+     */
+    public int ziehe(int gegnerAktion) {
+        if (istBeendet()) {
+            throw new IllegalStateException("Partie ist bereits beendet");
+        }
+        if (gegnerAktion == KEIN_ZUG) {
+            if (brett.getFreieFelder() != BitSpielfeld.VOLL) {
+                throw new IllegalStateException("KEIN_ZUG nur als Eröffnung auf dem leeren Brett");
+            }
+        } else {
+            pruefeFrei(gegnerAktion);
+            brett.ziehe(gegnerAktion);
+        }
+        if (istBeendet()) {
+            return KEIN_ZUG;
+        }
+        int aktion = policy.besteAktion(brett.getCodeAmZug(), brett.getFreieFelder());
+        brett.ziehe(aktion);
+        return aktion;
+    }
+
+    /**
+     * Setzt die Sitzung für eine neue Partie zurück (Objekt kann wiederverwendet werden)
+     */
+    public void zuruecksetzen() {
+        brett.reset();
+    }
+
+    /**
+     * @return true wenn der letzte Zug gewonnen hat oder das Brett voll ist
+     */
+    public boolean istBeendet() {
+        return brett.letzterZugGewinnt() || brett.istVoll();
+    }
+
+    /**
+     * @return Maske der freien Felder
+     */
+    public int getFreieFelder() {
+        return brett.getFreieFelder();
+    }
+
+    private void pruefeFrei(int feld) {
+        if (feld < 0 || feld > 8 || (brett.getFreieFelder() & (1 << feld)) == 0) {
+            throw new IllegalStateException("Feld nicht frei: " + feld);
+        }
+    }
+
+    // ========================================================================
+    // ISpieler
+    // ========================================================================
+
+    @Override
+    public void neuesSpiel(Farbe meineFarbe, int bedenkzeitInSekunden) {
+        this.farbe = meineFarbe;
+        zuruecksetzen();
+    }
+
+    @Override
+    public Zug berechneZug(Zug vorherigerZug, long zeitKreis, long zeitKreuz) throws IllegalerZugException {
+        int gegnerAktion = vorherigerZug == null ? KEIN_ZUG : vorherigerZug.getZeile() * 3 + vorherigerZug.getSpalte();
+        int aktion;
+        try {
+            aktion = ziehe(gegnerAktion);
+        } catch (IllegalStateException e) {
+            throw new IllegalerZugException();
+        }
+        if (aktion == KEIN_ZUG) {
+            throw new IllegalerZugException();
+        }
+        return new Zug(aktion / 3, aktion % 3);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public Farbe getFarbe() {
+        return farbe;
+    }
+
+    @Override
+    public void setFarbe(Farbe farbe) {
+        this.farbe = farbe;
+    }
+}
@@ -3,7 +3,15 @@ package tic_tac_toe_mi;
 import java.io.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.DoubleSupplier;
 
+import tic_tac_toe_mi.metriken.Histogramm;
+import tic_tac_toe_mi.metriken.Messwert;
+import tic_tac_toe_mi.metriken.Metrik;
+import tic_tac_toe_mi.metriken.MetrikExport;
+import tic_tac_toe_mi.metriken.MetrikRegistry;
+import tic_tac_toe_mi.metriken.Zaehler;
 import tictactoe.Farbe;
 import tictactoe.IllegalerZugException;
 import tictactoe.Spielfeld;
@@ -42,6 +50,37 @@ public class Spieler implements ILernenderSpieler {
     private boolean trainingsmodus = false;
     private List<Episode> episodenHistory;
     
+    // Konsolenausgabe beim Training (aus für parallele Parameter-Suche)
+    private boolean ausgabe = true;
+    
+    // Fortschrittsausgabe höchstens einmal pro Sekunde (printf würde sonst das Training dominieren)
+    private static final long FORTSCHRITT_INTERVALL_NS = 1_000_000_000L;
+    
+    // Wiederverwendetes Bitboard für Self-Play (keine Allokation pro Spiel oder Zug)
+    private final BitSpielfeld trainingsBrett = new BitSpielfeld();
+    
+    // Fortlaufende Nummer der berechneZug-Aufrufe für die JFR-Stichprobe
+    private int zugZaehler;
+    
+    // Messwerte (States, Epsilon) nur während eines Trainings registriert; die Instanznummer
+    // trennt gleichnamige Spieler, die parallel trainieren (z.B. in der Parameter-Suche)
+    private static final AtomicInteger INSTANZEN = new AtomicInteger();
+    private final int instanz = INSTANZEN.incrementAndGet();
+    private Messwert messwertStates;
+    private Messwert messwertExploration;
+    
+    // Metriken des Self-Play Trainings; die Spieldauer wird nur für jedes 16. Spiel gemessen,
+    // damit nanoTime nicht in jedem Spiel anfällt (ein Spiel dauert unter einer Mikrosekunde)
+    private static final int SPIELDAUER_ABTASTUNG = 16;
+    private static final Zaehler SPIELE_SPIELER1 = MetrikRegistry.STANDARD.zaehler(
+        "ttt_training_spiele_total", "ergebnis=\"spieler1\"", "Self-Play Trainingsspiele nach Ergebnis");
+    private static final Zaehler SPIELE_SPIELER2 = MetrikRegistry.STANDARD.zaehler(
+        "ttt_training_spiele_total", "ergebnis=\"spieler2\"", "Self-Play Trainingsspiele nach Ergebnis");
+    private static final Zaehler SPIELE_UNENTSCHIEDEN = MetrikRegistry.STANDARD.zaehler(
+        "ttt_training_spiele_total", "ergebnis=\"unentschieden\"", "Self-Play Trainingsspiele nach Ergebnis");
+    private static final Histogramm SPIELDAUER = MetrikRegistry.STANDARD.histogramm(
+        "ttt_training_spiel_sekunden", "Dauer eines Self-Play Spiels inkl. Lernen (Stichprobe)");
+    
     /**
      * Interne Klasse zum Speichern von Spiel-Episoden für Q-Learning
      */
@@ -103,9 +142,13 @@ public class Spieler implements ILernenderSpieler {
         this.konverter = new SpielzustandKonverter();
         this.episodenHistory = new ArrayList<>();
         
-        // Lade Modell
+        // Lade Modell (.qbin = Binärformat, sonst serialisiertes QLearningModel)
         try {
-            qAgent.ladeModell(modellPfad);
+            if (modellPfad.endsWith(".qbin")) {
+                qAgent.ladeBinaer(modellPfad);
+            } else {
+                qAgent.ladeModell(modellPfad);
+            }
             System.out.println("✅ Spieler '" + name + "' mit vortrainiertem Modell erstellt");
         } catch (IOException | ClassNotFoundException e) {
             System.err.println("⚠️ Konnte Modell nicht laden: " + e.getMessage());
@@ -149,6 +192,8 @@ public class Spieler implements ILernenderSpieler {
      */
     @Override
     public Zug berechneZug(Zug vorherigerZug, long zeitKreis, long zeitKreuz) throws IllegalerZugException {
+        TrainingsEvents.ZugBerechnung messung = TrainingsEvents.abtastenZug(++zugZaehler);
+        
         // 1. Gegnerischen Zug im eigenen Spielfeld vermerken
         if (vorherigerZug != null) {
             spielfeld.setFarbe(vorherigerZug.getZeile(), 
@@ -159,8 +204,9 @@ public class Spieler implements ILernenderSpieler {
         // 2. Aktuellen State erfassen (BEVOR eigener Zug)
         String aktuellerState = konverter.zuStringNormalisiert(spielfeld, meineFarbe);
         
-        // 3. Eigenen Zug berechnen (mit Q-Learning)
-        Zug neuerZug = waehleZug();
+        // 3. Eigenen Zug berechnen (mit Q-Learning); die Liste liefert auch die freien Felder für JFR
+        List<Zug> moeglicheZuege = getMoeglicheZuege();
+        Zug neuerZug = waehleZug(moeglicheZuege);
         int aktion = qAgent.zugZuAktion(neuerZug);
         
         // 4. Eigenen Zug im Spielfeld vermerken
@@ -181,17 +227,19 @@ public class Spieler implements ILernenderSpieler {
         // 7. Episode speichern für spätere Analyse
         episodenHistory.add(new Episode(aktuellerState, aktion, reward, neuerState, istTerminal));
         
+        if (messung != null) {
+            TrainingsEvents.zugEnde(messung, name, moeglicheZuege.size());
+        }
         return neuerZug;
     }
     
     /**
      * Wählt einen Zug basierend auf Q-Learning Strategie
      * Delegiert an QLearningAgent
+     * @param moeglicheZuege Alle freien Felder vor dem Zug
      * @return Der gewählte Zug
      */
-    private Zug waehleZug() {
-        List<Zug> moeglicheZuege = getMoeglicheZuege();
-        
+    private Zug waehleZug(List<Zug> moeglicheZuege) {
         if (moeglicheZuege.isEmpty()) {
             throw new IllegalStateException("Keine möglichen Züge verfügbar!");
         }
@@ -223,13 +271,19 @@ public class Spieler implements ILernenderSpieler {
      */
     @Override
     public boolean trainieren(IAbbruchbedingung abbruch) {
-        System.out.println("╔══════════════════════════════════════════════════╗");
-        System.out.println("║  Training gestartet - Self-Play Modus           ║");
-        System.out.println("╚══════════════════════════════════════════════════╝");
-        System.out.println("Lernrate (α):      " + getLernrate());
-        System.out.println("Discount (γ):      " + getDiscountFaktor());
-        System.out.println("Exploration (ε):   " + getExplorationRate());
-        System.out.println();
+        if (ausgabe) {
+            System.out.println("╔══════════════════════════════════════════════════╗");
+            System.out.println("║  Training gestartet - Self-Play Modus           ║");
+            System.out.println("╚══════════════════════════════════════════════════╝");
+            System.out.println("Lernrate (α):      " + getLernrate());
+            System.out.println("Discount (γ):      " + getDiscountFaktor());
+            System.out.println("Exploration (ε):   " + getExplorationRate());
+            System.out.println();
+        }
+        
+        TrainingsEvents.trainingStart(name, "seriell", 1, qAgent);
+        TrainingsEvents.TrainingEnde trainingEvent = TrainingsEvents.beginneTraining();
+        registriereMesswerte(qAgent::getAnzahlStates);
         
         // Aktiviere Trainingsmodus
         boolean alterTrainingsmodus = trainingsmodus;
@@ -241,31 +295,62 @@ public class Spieler implements ILernenderSpieler {
         int siegeSpieler2 = 0;
         int unentschieden = 0;
         long startZeit = System.currentTimeMillis();
+        long letzterFortschritt = System.nanoTime();
+        int spieleBeimLetztenFortschritt = 0;
         
-        // Training Loop
-        while (!abbruch.abbruch()) {
-            spieleGesamt++;
-            
-            // Self-Play: Spiele gegen eine Kopie von sich selbst
-            ISpielerErgebnis ergebnis = spieleSelbst();
-            
-            // Statistik aktualisieren
-            if (ergebnis == ISpielerErgebnis.SPIELER1_GEWINNT) {
-                siegeSpieler1++;
-            } else if (ergebnis == ISpielerErgebnis.SPIELER2_GEWINNT) {
-                siegeSpieler2++;
-            } else {
-                unentschieden++;
-            }
-            
-            // Progress-Report alle 100 Spiele
-            if (spieleGesamt % 100 == 0) {
-                zeigeTrainingsfortschritt(spieleGesamt, siegeSpieler1, siegeSpieler2, unentschieden);
+        try {
+            // Training Loop
+            while (!abbruch.abbruch()) {
+                spieleGesamt++;
+                
+                // Self-Play: Spiele gegen eine Kopie von sich selbst
+                boolean messen = spieleGesamt % SPIELDAUER_ABTASTUNG == 0;
+                long spielStart = messen ? System.nanoTime() : 0;
+                ISpielerErgebnis ergebnis = spieleSelbst();
+                if (messen) {
+                    SPIELDAUER.erfasseSeit(spielStart);
+                }
+                
+                // Statistik aktualisieren
+                if (ergebnis == ISpielerErgebnis.SPIELER1_GEWINNT) {
+                    siegeSpieler1++;
+                    SPIELE_SPIELER1.erhoehe();
+                } else if (ergebnis == ISpielerErgebnis.SPIELER2_GEWINNT) {
+                    siegeSpieler2++;
+                    SPIELE_SPIELER2.erhoehe();
+                } else {
+                    unentschieden++;
+                    SPIELE_UNENTSCHIEDEN.erhoehe();
+                }
+                
+                // Progress-Report und JFR-Snapshot (alle 100 Spiele geprüft, zeitlich gedrosselt)
+                if (spieleGesamt % 100 == 0) {
+                    long jetzt = System.nanoTime();
+                    if (jetzt - letzterFortschritt >= FORTSCHRITT_INTERVALL_NS) {
+                        if (ausgabe) {
+                            zeigeTrainingsfortschritt(spieleGesamt, siegeSpieler1, siegeSpieler2, unentschieden);
+                        }
+                        TrainingsEvents.trainingSnapshot(name, spieleGesamt, siegeSpieler1, siegeSpieler2, unentschieden,
+                                                         qAgent, spieleGesamt - spieleBeimLetztenFortschritt,
+                                                         jetzt - letzterFortschritt);
+                        spieleBeimLetztenFortschritt = spieleGesamt;
+                        letzterFortschritt = System.nanoTime();
+                    }
+                }
             }
+        } finally {
+            // Trainingsmodus zurücksetzen
+            setTrainingsmodus(alterTrainingsmodus);
+            entferneMesswerte();
         }
+        qAgent.leereMetriken();
         
-        // Trainingsmodus zurücksetzen
-        setTrainingsmodus(alterTrainingsmodus);
+        TrainingsEvents.trainingEnde(trainingEvent, name, "seriell", 1,
+                                     new long[] {unentschieden, siegeSpieler1, siegeSpieler2}, qAgent.getAnzahlStates());
+        
+        if (!ausgabe) {
+            return true;
+        }
         
         // Abschluss-Statistik
         long dauer = System.currentTimeMillis() - startZeit;
@@ -285,6 +370,98 @@ public class Spieler implements ILernenderSpieler {
         return true;
     }
     
+    /**
+     * Trainiert den Spieler durch paralleles Self-Play auf mehreren Threads.
+     * Die Q-Tabelle wird dafür in eine thread-sichere AtomicQTabelle kopiert
+     * und nach dem Training zurückübernommen.
+     * 
+     * @param abbruch Bedingung wann das Training beendet werden soll (von allen Threads geteilt)
+     * @param anzahlThreads Anzahl paralleler Self-Play Worker
+     * @return true wenn Training erfolgreich
+     */
+    public boolean trainierenParallel(IAbbruchbedingung abbruch, int anzahlThreads) {
+        if (ausgabe) {
+            System.out.println("╔══════════════════════════════════════════════════╗");
+            System.out.println("║  Training gestartet - Paralleles Self-Play       ║");
+            System.out.println("╚══════════════════════════════════════════════════╝");
+            System.out.println("Threads:           " + anzahlThreads);
+            System.out.println("Lernrate (α):      " + getLernrate());
+            System.out.println("Discount (γ):      " + getDiscountFaktor());
+            System.out.println("Exploration (ε):   " + getExplorationRate());
+            System.out.println();
+        }
+        
+        TrainingsEvents.trainingStart(name, "parallel", anzahlThreads, qAgent);
+        TrainingsEvents.TrainingEnde trainingEvent = TrainingsEvents.beginneTraining();
+        
+        AtomicQTabelle geteilteTabelle = new AtomicQTabelle();
+        geteilteTabelle.ausMap(qAgent.getQTabelle().zuMap());
+        registriereMesswerte(geteilteTabelle::getAnzahlStates);
+        
+        ParallelerTrainer.Ergebnis ergebnis;
+        try {
+            ParallelerTrainer trainer = new ParallelerTrainer(geteilteTabelle, getLernrate(),
+                    getDiscountFaktor(), getExplorationRate(), anzahlThreads, false, qAgent.istSymmetrieReduktion());
+            ergebnis = trainer.trainieren(abbruch);
+        } finally {
+            entferneMesswerte();
+        }
+        
+        qAgent.getQTabelle().ausMap(geteilteTabelle.zuMap());
+        SPIELE_SPIELER1.erhoehe(ergebnis.getSiegeAnziehender());
+        SPIELE_SPIELER2.erhoehe(ergebnis.getSiegeNachziehender());
+        SPIELE_UNENTSCHIEDEN.erhoehe(ergebnis.getUnentschieden());
+        TrainingsEvents.trainingEnde(trainingEvent, name, "parallel", anzahlThreads,
+                                     new long[] {ergebnis.getUnentschieden(), ergebnis.getSiegeAnziehender(),
+                                                 ergebnis.getSiegeNachziehender()}, qAgent.getAnzahlStates());
+        
+        if (!ausgabe) {
+            return true;
+        }
+        
+        long spiele = Math.max(1, ergebnis.getSpiele());
+        System.out.println("╔══════════════════════════════════════════════════╗");
+        System.out.println("║  Training abgeschlossen                          ║");
+        System.out.println("╚══════════════════════════════════════════════════╝");
+        System.out.println("Gespielte Spiele:    " + ergebnis.getSpiele());
+        System.out.println("Dauer:               " + ergebnis.getDauerSekunden() + " Sekunden");
+        System.out.println("Spiele/Sekunde:      " + ergebnis.getSpieleProSekunde());
+        System.out.println("Q-Tabelle States:    " + qAgent.getAnzahlStates());
+        System.out.println("Siege Anziehender:   " + ergebnis.getSiegeAnziehender() + " (" + (ergebnis.getSiegeAnziehender() * 100.0 / spiele) + "%)");
+        System.out.println("Siege Nachziehender: " + ergebnis.getSiegeNachziehender() + " (" + (ergebnis.getSiegeNachziehender() * 100.0 / spiele) + "%)");
+        System.out.println("Unentschieden:       " + ergebnis.getUnentschieden() + " (" + (ergebnis.getUnentschieden() * 100.0 / spiele) + "%)");
+        System.out.println();
+        
+        return true;
+    }
+    
+    /**
+     * Startet bei Bedarf Endpunkt/CSV-Export (siehe MetrikExport) und meldet
+     * die Messwerte dieses Spielers an, gekennzeichnet mit den Labels spieler
+     * und instanz
+     * @param states Quelle für die Anzahl States (im parallelen Training die geteilte Tabelle)
+     */
+    private void registriereMesswerte(DoubleSupplier states) {
+        MetrikExport.ausSystemProperties();
+        String labels = Metrik.label("spieler", name) + "," + Metrik.label("instanz", Integer.toString(instanz));
+        messwertStates = MetrikRegistry.STANDARD.messwert("ttt_qtabelle_states", labels,
+                                                          "States in der Q-Tabelle des trainierenden Spielers", states);
+        messwertExploration = MetrikRegistry.STANDARD.messwert("ttt_exploration_rate", labels,
+                                                               "Epsilon des trainierenden Spielers",
+                                                               qAgent::getExplorationRate);
+    }
+    
+    /**
+     * Meldet die Messwerte nach dem Training wieder ab, damit die Registry
+     * weder veraltete Werte liefert noch die Q-Tabelle erreichbar hält
+     */
+    private void entferneMesswerte() {
+        MetrikRegistry.STANDARD.entferne(messwertStates);
+        MetrikRegistry.STANDARD.entferne(messwertExploration);
+        messwertStates = null;
+        messwertExploration = null;
+    }
+    
     /**
      * Interne Enum für Spiel-Ergebnisse
      */
@@ -297,83 +474,23 @@ public class Spieler implements ILernenderSpieler {
     /**
      * Spielt ein Spiel gegen sich selbst (Self-Play)
      * Beide Spieler nutzen dieselbe Q-Tabelle und lernen daraus
+     * 
+     * Läuft komplett auf dem internen BitSpielfeld statt auf tictactoe.Spielfeld,
+     * State-Codes werden inkrementell mitgeführt.
      * @return Das Ergebnis des Spiels
      */
     private ISpielerErgebnis spieleSelbst() {
-        // Neues Spielfeld erstellen
-        Spielfeld feld = new Spielfeld();
-        
         // Zufällig entscheiden wer anfängt
-        boolean spieler1AmZug = Math.random() < 0.5;
-        Farbe spieler1Farbe = spieler1AmZug ? Farbe.Kreuz : Farbe.Kreis;
-        Farbe spieler2Farbe = spieler1Farbe.opposite();
-        
-        int zuege = 0;
-        final int MAX_ZUEGE = 9; // Tic-Tac-Toe hat maximal 9 Züge
+        boolean spieler1Beginnt = Math.random() < 0.5;
         
-        // Spiel-Loop
-        while (zuege < MAX_ZUEGE) {
-            Farbe aktuelleFarbe = spieler1AmZug ? spieler1Farbe : spieler2Farbe;
-            
-            // State vor dem Zug
-            String state = konverter.zuStringNormalisiert(feld, aktuelleFarbe);
-            
-            // Finde mögliche Züge
-            List<Zug> moeglicheZuege = getMoeglicheZuegeAufFeld(feld);
-            if (moeglicheZuege.isEmpty()) {
-                break; // Sollte nicht passieren
-            }
-            
-            // Wähle Zug mit Q-Learning
-            Zug gewaehlterZug = qAgent.waehleZug(feld, aktuelleFarbe, moeglicheZuege);
-            int aktion = qAgent.zugZuAktion(gewaehlterZug);
-            
-            // Führe Zug aus
-            feld.setFarbe(gewaehlterZug.getZeile(), gewaehlterZug.getSpalte(), aktuelleFarbe);
-            zuege++;
-            
-            // State nach dem Zug
-            String naechsterState = konverter.zuStringNormalisiert(feld, aktuelleFarbe);
-            
-            // Prüfe auf Spielende
-            boolean hatGewonnen = analyzer.istSieg(feld, aktuelleFarbe);
-            boolean istVoll = analyzer.istUnentschieden(feld);
-            boolean istTerminal = hatGewonnen || istVoll;
-            
-            // Berechne Reward
-            double reward = analyzer.bewertePosition(feld, aktuelleFarbe);
-            
-            // Q-Learning Update
-            qAgent.lernen(state, aktion, reward, naechsterState, istTerminal);
-            
-            // Spielende-Prüfung
-            if (hatGewonnen) {
-                return spieler1AmZug ? ISpielerErgebnis.SPIELER1_GEWINNT : ISpielerErgebnis.SPIELER2_GEWINNT;
-            }
-            if (istVoll) {
-                return ISpielerErgebnis.UNENTSCHIEDEN;
-            }
-            
-            // Spieler wechseln
-            spieler1AmZug = !spieler1AmZug;
-        }
-        
-        return ISpielerErgebnis.UNENTSCHIEDEN;
-    }
-    
-    /**
-     * Hilfsmethode: Findet alle möglichen Züge auf einem gegebenen Spielfeld
-     */
-    private List<Zug> getMoeglicheZuegeAufFeld(Spielfeld feld) {
-        List<Zug> zuege = new ArrayList<>();
-        for (int zeile = 0; zeile < 3; zeile++) {
-            for (int spalte = 0; spalte < 3; spalte++) {
-                if (feld.getFarbe(zeile, spalte) == Farbe.Leer) {
-                    zuege.add(new Zug(zeile, spalte));
-                }
-            }
+        int ergebnis = Selbstspiel.spiele(qAgent, trainingsBrett);
+        if (ergebnis == Selbstspiel.UNENTSCHIEDEN) {
+            return ISpielerErgebnis.UNENTSCHIEDEN;
         }
-        return zuege;
+        boolean anziehenderGewinnt = ergebnis == Selbstspiel.ANZIEHENDER_GEWINNT;
+        return anziehenderGewinnt == spieler1Beginnt
+            ? ISpielerErgebnis.SPIELER1_GEWINNT
+            : ISpielerErgebnis.SPIELER2_GEWINNT;
     }
     
     /**
@@ -504,6 +621,13 @@ public class Spieler implements ILernenderSpieler {
         this.trainingsmodus = trainingsmodus;
     }
     
+    /**
+     * Schaltet die Konsolenausgabe von trainieren() und trainierenParallel() ein oder aus
+     */
+    public void setAusgabe(boolean ausgabe) {
+        this.ausgabe = ausgabe;
+    }
+    
     /**
      * Gibt zurück ob Trainingsmodus aktiv ist
      */
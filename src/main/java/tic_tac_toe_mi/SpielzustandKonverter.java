@@ -13,6 +13,64 @@ import tictactoe.Spielfeld;
  */
 public class SpielzustandKonverter {
     
+    /** Anzahl der Brett-Symmetrien (4 Rotationen × 2 Spiegelungen) */
+    public static final int ANZAHL_SYMMETRIEN = 8;
+    
+    // SYMMETRIE[t][feld] = Zielfeld von feld unter Transformation t
+    private static final int[][] SYMMETRIE = new int[ANZAHL_SYMMETRIEN][9];
+    
+    // INVERS[t][zielfeld] = Ursprungsfeld (Umkehrung von SYMMETRIE[t])
+    private static final int[][] INVERS = new int[ANZAHL_SYMMETRIEN][9];
+    
+    // Kanonische Form und zugehörige Transformation für jeden der 3^9 Codes
+    private static final int[] KANONISCH = new int[19683];
+    private static final byte[] KANONISCHE_TRANSFORMATION = new byte[19683];
+    
+    static {
+        for (int feld = 0; feld < 9; feld++) {
+            int z = feld / 3;
+            int s = feld % 3;
+            int[][] ziele = {
+                {z, s},             // Identität
+                {s, 2 - z},         // Rotation 90°
+                {2 - z, 2 - s},     // Rotation 180°
+                {2 - s, z},         // Rotation 270°
+                {z, 2 - s},         // Spiegelung an der Vertikalen
+                {2 - z, s},         // Spiegelung an der Horizontalen
+                {s, z},             // Spiegelung an der Hauptdiagonalen
+                {2 - s, 2 - z}      // Spiegelung an der Nebendiagonalen
+            };
+            for (int t = 0; t < ANZAHL_SYMMETRIEN; t++) {
+                int ziel = ziele[t][0] * 3 + ziele[t][1];
+                SYMMETRIE[t][feld] = ziel;
+                INVERS[t][ziel] = feld;
+            }
+        }
+        
+        int[] ziffern = new int[9];
+        for (int code = 0; code < KANONISCH.length; code++) {
+            int rest = code;
+            for (int feld = 8; feld >= 0; feld--) {
+                ziffern[feld] = rest % 3;
+                rest /= 3;
+            }
+            int minCode = Integer.MAX_VALUE;
+            int minTransformation = 0;
+            for (int t = 0; t < ANZAHL_SYMMETRIEN; t++) {
+                int transformiert = 0;
+                for (int ziel = 0; ziel < 9; ziel++) {
+                    transformiert = transformiert * 3 + ziffern[INVERS[t][ziel]];
+                }
+                if (transformiert < minCode) {
+                    minCode = transformiert;
+                    minTransformation = t;
+                }
+            }
+            KANONISCH[code] = minCode;
+            KANONISCHE_TRANSFORMATION[code] = (byte) minTransformation;
+        }
+    }
+    
     /**
      * Konvertiert das Spielfeld in einen eindeutigen String.
      * Dieser String dient als Schlüssel für die Q-Tabelle.
@@ -56,6 +114,127 @@ public class SpielzustandKonverter {
         }
         return sb.toString();
     }
+
+    /**
+     * Normalisierter State als Basis-3 Code (0 bis 3^9-1).
+     * Gleiche Kodierung wie zuStringNormalisiert, aber ohne String-Allokation:
+     * Ziffer 0 = Leer, 1 = eigener Stein, 2 = Gegner; Feld 0 ist die höchste Stelle.
+     *
+     * @param spielfeld Das zu konvertierende Spielfeld
+     * @param perspektive Die Farbe des Spielers
+     * @return State-Code für die Q-Tabelle
+     */
+    public int zuCodeNormalisiert(Spielfeld spielfeld, Farbe perspektive) {
+        Farbe gegner = perspektive.opposite();
+        int code = 0;
+        for (int zeile = 0; zeile < 3; zeile++) {
+            for (int spalte = 0; spalte < 3; spalte++) {
+                Farbe farbe = spielfeld.getFarbe(zeile, spalte);
+                int ziffer = farbe == perspektive ? 1 : (farbe == gegner ? 2 : 0);
+                code = code * 3 + ziffer;
+            }
+        }
+        return code;
+    }
+
+    /**
+     * Wandelt einen normalisierten State-String ("X_O______") in seinen Basis-3 Code um
+     *
+     * @param state Normalisierter State-String mit 9 Zeichen
+     * @return State-Code
+     * @throws IllegalArgumentException bei ungültigem String
+     */
+    public static int stringZuCode(String state) {
+        if (state == null || state.length() != 9) {
+            throw new IllegalArgumentException("Ungültiger State: " + state);
+        }
+        int code = 0;
+        for (int i = 0; i < 9; i++) {
+            char c = state.charAt(i);
+            int ziffer;
+            if (c == '_') {
+                ziffer = 0;
+            } else if (c == 'X') {
+                ziffer = 1;
+            } else if (c == 'O') {
+                ziffer = 2;
+            } else {
+                throw new IllegalArgumentException("Ungültiges Zeichen '" + c + "' in State: " + state);
+            }
+            code = code * 3 + ziffer;
+        }
+        return code;
+    }
+
+    /**
+     * Wandelt einen Basis-3 State-Code zurück in den normalisierten String
+     *
+     * @param code State-Code (0 bis 3^9-1)
+     * @return Normalisierter State-String
+     */
+    public static String codeZuString(int code) {
+        char[] zeichen = new char[9];
+        for (int i = 8; i >= 0; i--) {
+            int ziffer = code % 3;
+            zeichen[i] = ziffer == 0 ? '_' : (ziffer == 1 ? 'X' : 'O');
+            code /= 3;
+        }
+        return new String(zeichen);
+    }
+
+    /**
+     * Kanonische Form eines State-Codes: der kleinste Code über alle
+     * 8 Symmetrien des Bretts. Symmetrische Stellungen teilen sich so
+     * einen Eintrag in der Q-Tabelle.
+     *
+     * @param code State-Code
+     * @return Kanonischer State-Code
+     */
+    public static int kanonischerCode(int code) {
+        return KANONISCH[code];
+    }
+    
+    /**
+     * Transformation (0-7), die einen State-Code in seine kanonische Form überführt
+     *
+     * @param code State-Code
+     * @return Index der Transformation für transformiereAktion/ruecktransformiereAktion
+     */
+    public static int kanonischeTransformation(int code) {
+        return KANONISCHE_TRANSFORMATION[code];
+    }
+    
+    /**
+     * Bildet eine Aktion des Original-Bretts auf das transformierte Brett ab
+     *
+     * @param transformation Index der Transformation (0-7)
+     * @param aktion Aktion im Original (0-8)
+     * @return Aktion im transformierten Brett
+     */
+    public static int transformiereAktion(int transformation, int aktion) {
+        return SYMMETRIE[transformation][aktion];
+    }
+    
+    /**
+     * Bildet eine Aktion des transformierten Bretts zurück auf das Original ab
+     *
+     * @param transformation Index der Transformation (0-7)
+     * @param aktion Aktion im transformierten Brett (0-8)
+     * @return Aktion im Original
+     */
+    public static int ruecktransformiereAktion(int transformation, int aktion) {
+        return INVERS[transformation][aktion];
+    }
+    
+    /**
+     * Prüft ob ein State-Code bereits in kanonischer Form vorliegt
+     *
+     * @param code State-Code
+     * @return true wenn kanonisch
+     */
+    public static boolean istKanonisch(int code) {
+        return KANONISCH[code] == code;
+    }
     
     /**
      * Erstellt eine Kopie des Spielfelds.
@@ -0,0 +1,95 @@
+package tic_tac_toe_mi;
+
+import java.util.Random;
+
+/**
+ * Zugwahl auf dem BitSpielfeld ohne ISpieler-Callbacks (für schnelle Auswertungen).
+ *
+ * Implementierungen dürfen keinen veränderlichen Zustand haben: Zufall kommt
+ * ausschließlich über den übergebenen Generator, Tabellen werden nur gelesen.
+ * Damit kann eine Instanz von beliebig vielen Threads gleichzeitig genutzt werden.
+ *
+ * @author johanneshaick
+ */
+@FunctionalInterface
+public interface Strategie {
+
+    /**
+     * Wählt einen Zug für den Spieler am Zug
+     *
+     * @param brett Aktuelle Stellung (nicht verändern)
+     * @param random Zufallsgenerator des aufrufenden Threads
+     * @return Freies Feld (0-8)
+     */
+    int waehleAktion(BitSpielfeld brett, Random random);
+
+    /**
+     * Gleichverteilt zufälliges freies Feld (wie der Zufallsspieler der Bibliothek)
+     */
+    static Strategie zufall() {
+        return (brett, random) -> {
+            int[] zuege = brett.getMoeglicheAktionen();
+            return zuege[random.nextInt(zuege.length)];
+        };
+    }
+
+    /**
+     * Epsilon-Greedy über eine Q-Tabelle, ohne die Tabelle zu verändern
+     * (im Gegensatz zu QLearningAgent#waehleAktion wird nichts registriert).
+     *
+     * @param qTabelle Q-Tabelle (wird nur gelesen)
+     * @param symmetrieReduktion true wenn die Tabelle kanonische States enthält
+     * @param explorationRate Anteil zufälliger Züge
+     */
+    static Strategie greedy(QTabelle qTabelle, boolean symmetrieReduktion, double explorationRate) {
+        return (brett, random) -> {
+            int[] zuege = brett.getMoeglicheAktionen();
+            if (explorationRate > 0 && random.nextDouble() < explorationRate) {
+                return zuege[random.nextInt(zuege.length)];
+            }
+
+            int code = brett.getCodeAmZug();
+            int state = symmetrieReduktion ? SpielzustandKonverter.kanonischerCode(code) : code;
+            int transformation = symmetrieReduktion ? SpielzustandKonverter.kanonischeTransformation(code) : 0;
+
+            int besteAktion = zuege[0];
+            double maxQ = qTabelle.getQWert(state, SpielzustandKonverter.transformiereAktion(transformation, besteAktion));
+            for (int i = 1; i < zuege.length; i++) {
+                double q = qTabelle.getQWert(state, SpielzustandKonverter.transformiereAktion(transformation, zuege[i]));
+                if (q > maxQ) {
+                    maxQ = q;
+                    besteAktion = zuege[i];
+                }
+            }
+            return besteAktion;
+        };
+    }
+
+    /**
+     * Epsilon-Greedy über die Q-Tabelle eines Agents (Parameter des Agents bleiben unverändert)
+     */
+    static Strategie greedy(QLearningAgent agent, double explorationRate) {
+        return greedy(agent.getQTabelle(), agent.istSymmetrieReduktion(), explorationRate);
+    }
+
+    /**
+     * Perfekter Spieler: zufällig unter den spieltheoretisch optimalen Zügen
+     */
+    static Strategie perfekt(ExakterLoeser loeser) {
+        return (brett, random) -> {
+            int code = brett.getCodeAmZug();
+            int[] zuege = brett.getMoeglicheAktionen();
+            double wert = loeser.getWert(code);
+
+            // Reservoir-Sampling über die optimalen Züge (keine Liste nötig)
+            int gewaehlt = -1;
+            int anzahl = 0;
+            for (int aktion : zuege) {
+                if (loeser.getQWert(code, aktion) == wert && random.nextInt(++anzahl) == 0) {
+                    gewaehlt = aktion;
+                }
+            }
+            return gewaehlt;
+        };
+    }
+}
@@ -0,0 +1,84 @@
+package tic_tac_toe_mi;
+
+import tictactoe.Farbe;
+import tictactoe.IllegalerZugException;
+import tictactoe.Zug;
+import tictactoe.spieler.ISpieler;
+
+/**
+ * Inferenz-Spieler auf einer vorberechneten ZugTabelle.
+ *
+ * berechneZug vermerkt den gegnerischen Zug im Bitboard (der State-Code wird
+ * dabei inkrementell mitgeführt) und liest den eigenen Zug mit einem einzigen
+ * Array-Zugriff aus der Tabelle. Die Zug-Objekte sind vorab angelegt, im Spiel
+ * wird nichts allokiert.
+ *
+ * Die Tabelle ist unveränderlich und kann von beliebig vielen Spielern geteilt
+ * werden; ein Spieler selbst gehört zu genau einer laufenden Partie.
+ *
+ * @author johanneshaick
+ */
+public class TabellenSpieler implements ISpieler {
+
+    private static final Zug[] ZUEGE = new Zug[QTabelle.ANZAHL_AKTIONEN];
+
+    static {
+        for (int feld = 0; feld < ZUEGE.length; feld++) {
+            ZUEGE[feld] = new Zug(feld / 3, feld % 3);
+        }
+    }
+
+    private final ZugTabelle tabelle;
+    private final BitSpielfeld brett = new BitSpielfeld();
+    private String name;
+    private Farbe farbe;
+
+    public TabellenSpieler(String name, ZugTabelle tabelle) {
+        this.name = name;
+        this.tabelle = tabelle;
+    }
+
+    @Override
+    public void neuesSpiel(Farbe meineFarbe, int bedenkzeitInSekunden) {
+        this.farbe = meineFarbe;
+        brett.reset();
+    }
+
+    @Override
+    public Zug berechneZug(Zug vorherigerZug, long zeitKreis, long zeitKreuz) throws IllegalerZugException {
+        if (vorherigerZug != null) {
+            int gegnerAktion = vorherigerZug.getZeile() * 3 + vorherigerZug.getSpalte();
+            if ((brett.getFreieFelder() & (1 << gegnerAktion)) == 0) {
+                throw new IllegalerZugException();
+            }
+            brett.ziehe(gegnerAktion);
+        }
+
+        int aktion = tabelle.getZug(brett.getCodeAmZug());
+        if (aktion == ZugTabelle.KEIN_ZUG) {
+            throw new IllegalerZugException();
+        }
+        brett.ziehe(aktion);
+        return ZUEGE[aktion];
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public Farbe getFarbe() {
+        return farbe;
+    }
+
+    @Override
+    public void setFarbe(Farbe farbe) {
+        this.farbe = farbe;
+    }
+}
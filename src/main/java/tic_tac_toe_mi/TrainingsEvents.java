@@ -0,0 +1,375 @@
+package tic_tac_toe_mi;
+
+import java.io.File;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Frequency;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Percentage;
+import jdk.jfr.StackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import tictactoe.spieler.IAbbruchbedingung;
+
+/**
+ * Eigene JDK Flight Recorder Events für Training, Zugwahl und Modell-I/O.
+ *
+ * Die Events erscheinen in jeder JFR-Aufnahme unter "Tic-Tac-Toe" und können
+ * per RecordingStream live mitgelesen werden (siehe main). Alle Events sind
+ * standardmäßig aktiv und so billig, dass sie im Betrieb eingeschaltet
+ * bleiben können:
+ * <ul>
+ *   <li>Start/Ende und Modell-I/O fallen nur einmal pro Lauf bzw. Datei an.</li>
+ *   <li>Snapshots werden höchstens einmal pro Sekunde geschrieben (derselbe
+ *       Takt wie die Fortschrittsausgabe von Spieler.trainieren).</li>
+ *   <li>Von berechneZug wird nur jeder ZUG_ABTASTRATE-te Aufruf gemessen.</li>
+ *   <li>Stacktraces sind abgeschaltet; ist ein Event in der Aufnahme
+ *       deaktiviert, werden auch Felder und Dateigrößen nicht ermittelt.</li>
+ * </ul>
+ *
+ * Aufnahme z.B. mit:
+ * <pre>
+ * java -XX:StartFlightRecording=filename=training.jfr,settings=profile ...
+ * jfr print --categories Tic-Tac-Toe training.jfr
+ * </pre>
+ *
+ * @author johanneshaick
+ */
+public final class TrainingsEvents {
+
+    /** Jeder wievielte berechneZug-Aufruf gemessen wird (Zweierpotenz) */
+    public static final int ZUG_ABTASTRATE = 16;
+
+    private TrainingsEvents() {
+    }
+
+    // ========================================================================
+    // Events
+    // ========================================================================
+
+    @Name("tic_tac_toe_mi.TrainingStart")
+    @Label("Training gestartet")
+    @Category({"Tic-Tac-Toe", "Training"})
+    @StackTrace(false)
+    public static final class TrainingStart extends Event {
+        @Label("Spieler")
+        String spieler;
+
+        @Label("Modus")
+        @Description("seriell oder parallel")
+        String modus;
+
+        @Label("Threads")
+        int threads;
+
+        @Label("Lernrate")
+        double lernrate;
+
+        @Label("Discount")
+        double discountFaktor;
+
+        @Label("Exploration")
+        double explorationRate;
+
+        @Label("States zu Beginn")
+        int states;
+    }
+
+    @Name("tic_tac_toe_mi.TrainingEnde")
+    @Label("Training beendet")
+    @Description("Dauer ist die gesamte Laufzeit des Trainings")
+    @Category({"Tic-Tac-Toe", "Training"})
+    @StackTrace(false)
+    public static final class TrainingEnde extends Event {
+        @Label("Spieler")
+        String spieler;
+
+        @Label("Modus")
+        String modus;
+
+        @Label("Threads")
+        int threads;
+
+        @Label("Spiele")
+        long spiele;
+
+        @Label("Spiele pro Sekunde")
+        @Frequency
+        double spieleProSekunde;
+
+        @Label("States")
+        int states;
+
+        @Label("Siege Spieler 1")
+        @Description("Im parallelen Training der Anziehende")
+        @Percentage
+        double siegeSpieler1;
+
+        @Label("Siege Spieler 2")
+        @Description("Im parallelen Training der Nachziehende")
+        @Percentage
+        double siegeSpieler2;
+
+        @Label("Unentschieden")
+        @Percentage
+        double unentschieden;
+
+        // Für Spiele/s; transient, damit es nicht mit aufgezeichnet wird
+        transient long startNanos;
+    }
+
+    @Name("tic_tac_toe_mi.TrainingSnapshot")
+    @Label("Trainings-Snapshot")
+    @Description("Zwischenstand, höchstens einmal pro Sekunde")
+    @Category({"Tic-Tac-Toe", "Training"})
+    @StackTrace(false)
+    public static final class TrainingSnapshot extends Event {
+        @Label("Spieler")
+        String spieler;
+
+        @Label("Spiele")
+        long spiele;
+
+        @Label("States")
+        int states;
+
+        @Label("Siege Spieler 1")
+        @Percentage
+        double siegeSpieler1;
+
+        @Label("Siege Spieler 2")
+        @Percentage
+        double siegeSpieler2;
+
+        @Label("Unentschieden")
+        @Percentage
+        double unentschieden;
+
+        @Label("Exploration")
+        double explorationRate;
+
+        @Label("Spiele pro Sekunde")
+        @Description("Seit dem letzten Snapshot")
+        @Frequency
+        double spieleProSekunde;
+    }
+
+    @Name("tic_tac_toe_mi.ModellIO")
+    @Label("Modell-I/O")
+    @Category({"Tic-Tac-Toe", "Modell"})
+    @StackTrace(false)
+    public static final class ModellIO extends Event {
+        @Label("Operation")
+        String operation;
+
+        @Label("Format")
+        String format;
+
+        @Label("Datei")
+        String datei;
+
+        @Label("Größe")
+        @DataAmount
+        long bytes;
+
+        @Label("States")
+        int states;
+
+        @Label("Erfolgreich")
+        boolean erfolgreich;
+    }
+
+    @Name("tic_tac_toe_mi.ZugBerechnung")
+    @Label("Zugberechnung")
+    @Description("Latenz von berechneZug, nur jeder ZUG_ABTASTRATE-te Aufruf")
+    @Category({"Tic-Tac-Toe", "Spiel"})
+    @StackTrace(false)
+    public static final class ZugBerechnung extends Event {
+        @Label("Spieler")
+        String spieler;
+
+        @Label("Freie Felder")
+        int freieFelder;
+
+        @Label("Abtastrate")
+        int abtastrate;
+    }
+
+    // ========================================================================
+    // Aufrufe aus Training, Spiel und Modell-I/O
+    // ========================================================================
+
+    static void trainingStart(String spieler, String modus, int threads, QLearningAgent agent) {
+        TrainingStart event = new TrainingStart();
+        if (!event.isEnabled()) {
+            return;
+        }
+        event.spieler = spieler;
+        event.modus = modus;
+        event.threads = threads;
+        event.lernrate = agent.getLernrate();
+        event.discountFaktor = agent.getDiscountFaktor();
+        event.explorationRate = agent.getExplorationRate();
+        event.states = agent.getAnzahlStates();
+        event.commit();
+    }
+
+    /**
+     * Beginnt die Messung eines Trainingslaufs (Ende mit trainingEnde)
+     */
+    static TrainingEnde beginneTraining() {
+        TrainingEnde event = new TrainingEnde();
+        event.startNanos = System.nanoTime();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * @param ergebnisse Ausgänge {Unentschieden, Spieler 1 gewinnt, Spieler 2 gewinnt}
+     */
+    static void trainingEnde(TrainingEnde event, String spieler, String modus, int threads,
+                             long[] ergebnisse, int states) {
+        event.end();
+        if (!event.shouldCommit()) {
+            return;
+        }
+        long spiele = ergebnisse[0] + ergebnisse[1] + ergebnisse[2];
+        double sekunden = (System.nanoTime() - event.startNanos) / 1e9;
+        event.spieler = spieler;
+        event.modus = modus;
+        event.threads = threads;
+        event.spiele = spiele;
+        event.spieleProSekunde = sekunden > 0 ? spiele / sekunden : 0.0;
+        event.states = states;
+        event.unentschieden = anteil(ergebnisse[0], spiele);
+        event.siegeSpieler1 = anteil(ergebnisse[1], spiele);
+        event.siegeSpieler2 = anteil(ergebnisse[2], spiele);
+        event.commit();
+    }
+
+    static void trainingSnapshot(String spieler, int spiele, int siege1, int siege2, int unentschieden,
+                                 QLearningAgent agent, int spieleSeitLetztem, long nanosSeitLetztem) {
+        TrainingSnapshot event = new TrainingSnapshot();
+        if (!event.isEnabled()) {
+            return;
+        }
+        event.spieler = spieler;
+        event.spiele = spiele;
+        event.states = agent.getAnzahlStates();
+        event.siegeSpieler1 = anteil(siege1, spiele);
+        event.siegeSpieler2 = anteil(siege2, spiele);
+        event.unentschieden = anteil(unentschieden, spiele);
+        event.explorationRate = agent.getExplorationRate();
+        event.spieleProSekunde = spieleSeitLetztem / (nanosSeitLetztem / 1e9);
+        event.commit();
+    }
+
+    /**
+     * Beginnt die Messung einer Lade- oder Speicheroperation (Ende mit modellIOEnde)
+     */
+    static ModellIO beginneModellIO(String operation, String format, String datei) {
+        ModellIO event = new ModellIO();
+        event.operation = operation;
+        event.format = format;
+        event.datei = datei;
+        event.begin();
+        return event;
+    }
+
+    static void modellIOEnde(ModellIO event, int states, boolean erfolgreich) {
+        event.end();
+        if (!event.shouldCommit()) {
+            return;
+        }
+        event.bytes = new File(event.datei).length();
+        event.states = states;
+        event.erfolgreich = erfolgreich;
+        event.commit();
+    }
+
+    /**
+     * Startet für jeden ZUG_ABTASTRATE-ten Zug eine Messung
+     *
+     * @param zugZaehler fortlaufende Nummer des Aufrufs
+     * @return laufendes Event oder null, wenn dieser Zug nicht gemessen wird
+     */
+    static ZugBerechnung abtastenZug(int zugZaehler) {
+        if ((zugZaehler & (ZUG_ABTASTRATE - 1)) != 0) {
+            return null;
+        }
+        ZugBerechnung event = new ZugBerechnung();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    static void zugEnde(ZugBerechnung event, String spieler, int freieFelder) {
+        event.end();
+        if (!event.shouldCommit()) {
+            return;
+        }
+        event.spieler = spieler;
+        event.freieFelder = freieFelder;
+        event.abtastrate = ZUG_ABTASTRATE;
+        event.commit();
+    }
+
+    private static double anteil(long anzahl, long gesamt) {
+        return gesamt == 0 ? 0.0 : (double) anzahl / gesamt;
+    }
+
+    // ========================================================================
+    // Live-Ansicht per JFR Streaming
+    // ========================================================================
+
+    /**
+     * Trainiert einen Spieler und gibt die eigenen Events live aus -
+     * dieselbe Schleife wie für ein Dashboard, nur mit Konsole als Ziel.
+     *
+     * Aufruf: TrainingsEvents [spiele]
+     */
+    public static void main(String[] args) throws Exception {
+        int anzahlSpiele = args.length > 0 ? Integer.parseInt(args[0]) : 3_000_000;
+
+        try (RecordingStream stream = new RecordingStream()) {
+            stream.enable(TrainingStart.class);
+            stream.enable(TrainingEnde.class);
+            stream.enable(TrainingSnapshot.class);
+            stream.enable(ModellIO.class);
+            stream.onEvent("tic_tac_toe_mi.TrainingStart", e -> System.out.printf(
+                "[JFR] Start    %s (%s, %d Threads, ε=%.2f)%n",
+                e.getString("spieler"), e.getString("modus"), e.getInt("threads"), e.getDouble("explorationRate")));
+            stream.onEvent("tic_tac_toe_mi.TrainingSnapshot", e -> System.out.printf(
+                "[JFR] Snapshot %,9d Spiele | %,8.0f Spiele/s | States=%d | Remis=%.1f%%%n",
+                e.getLong("spiele"), e.getDouble("spieleProSekunde"), e.getInt("states"),
+                e.getDouble("unentschieden") * 100));
+            stream.onEvent("tic_tac_toe_mi.TrainingEnde", e -> System.out.printf(
+                "[JFR] Ende     %,d Spiele in %.2f s (%,.0f Spiele/s)%n",
+                e.getLong("spiele"), e.getDuration().toNanos() / 1e9, e.getDouble("spieleProSekunde")));
+            stream.onEvent("tic_tac_toe_mi.ModellIO", e -> System.out.printf(
+                "[JFR] %-9s %s: %,d Bytes in %.1f ms%n",
+                e.getString("operation"), e.getString("format"), e.getLong("bytes"),
+                e.getDuration().toNanos() / 1e6));
+            stream.startAsync();
+
+            Spieler spieler = new Spieler("JFR-Demo");
+            spieler.setAusgabe(false);
+            int[] gespielt = {0};
+            IAbbruchbedingung abbruch = () -> gespielt[0]++ >= anzahlSpiele;
+            spieler.trainieren(abbruch);
+
+            File modell = File.createTempFile("jfr_demo", ".bin");
+            modell.deleteOnExit();
+            spieler.speichereModell(modell.getPath(), anzahlSpiele);
+            spieler.getQLearningAgent().ladeModell(modell.getPath());
+
+            // Flush abwarten, damit die letzten Events noch ausgegeben werden
+            Thread.sleep(1500);
+        }
+    }
+}
@@ -0,0 +1,506 @@
+package tic_tac_toe_mi;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import tic_tac_toe_mi.nn.NNDemo;
+import tic_tac_toe_mi.nn.NetworkStrategy;
+import tic_tac_toe_mi.nn.NeuralNetwork;
+
+/**
+ * Rundenturnier (jeder gegen jeden) mit Elo- und Glicko-Rangliste.
+ *
+ * Teilnehmer sind Strategien auf dem BitSpielfeld: gespeicherte Q-Modelle
+ * (.dat, .json, .qbin), Neural Networks (.nn), der Zufallsspieler und ein
+ * perfekter Spieler aus dem ExaktenLoeser. Jedes Modell wird genau einmal in
+ * eine Q-Tabelle geladen; alle Worker lesen dieselbe Tabelle (Strategie ist
+ * zustandslos), der Speicherbedarf wächst also nicht mit der Thread-Anzahl.
+ *
+ * Das Turnier läuft in Runden. Pro Runde spielt jede Paarung
+ * spieleProRunde Partien mit abwechselnder Farbe; die Paarungen laufen
+ * parallel auf einem Thread-Pool fester Größe. Jede Runde ist eine
+ * Glicko-Bewertungsperiode. Die Elo-Zahlen werden am Ende aus allen Partien
+ * per Maximum-Likelihood (Bradley-Terry) bestimmt und hängen damit nicht von
+ * der Reihenfolge der Partien ab.
+ *
+ * @author johanneshaick
+ */
+public class Turnier {
+
+    /** Startwert beider Ratings */
+    static final double START_RATING = 1500.0;
+
+    /** Start-RD (maximale Unsicherheit) bei Glicko */
+    static final double START_RD = 350.0;
+
+    // Glicko-Konstante q = ln(10) / 400
+    private static final double Q = Math.log(10) / 400.0;
+
+    static final String CSV_HEADER = "rang,name,elo,glicko,glicko_rd,spiele,siege,niederlagen,unentschieden,punkte";
+
+    private final int runden;
+    private final int spieleProRunde;
+    private final int anzahlThreads;
+    private final long seed;
+
+    /**
+     * Teilnehmer: Name und (geteilte, zustandslose) Strategie
+     */
+    public static final class Teilnehmer {
+        private final String name;
+        private final Strategie strategie;
+
+        public Teilnehmer(String name, Strategie strategie) {
+            this.name = name;
+            this.strategie = strategie;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Strategie getStrategie() {
+            return strategie;
+        }
+    }
+
+    /**
+     * Platz in der Rangliste
+     */
+    public static final class Platzierung {
+        private final Teilnehmer teilnehmer;
+        private final double elo;
+        private final double glicko;
+        private final double glickoRd;
+        private final long siege;
+        private final long niederlagen;
+        private final long unentschieden;
+
+        Platzierung(Teilnehmer teilnehmer, double elo, double glicko, double glickoRd,
+                    long siege, long niederlagen, long unentschieden) {
+            this.teilnehmer = teilnehmer;
+            this.elo = elo;
+            this.glicko = glicko;
+            this.glickoRd = glickoRd;
+            this.siege = siege;
+            this.niederlagen = niederlagen;
+            this.unentschieden = unentschieden;
+        }
+
+        public Teilnehmer getTeilnehmer() {
+            return teilnehmer;
+        }
+
+        public double getElo() {
+            return elo;
+        }
+
+        public double getGlicko() {
+            return glicko;
+        }
+
+        public double getGlickoRd() {
+            return glickoRd;
+        }
+
+        public long getSpiele() {
+            return siege + niederlagen + unentschieden;
+        }
+
+        public long getSiege() {
+            return siege;
+        }
+
+        public long getNiederlagen() {
+            return niederlagen;
+        }
+
+        public long getUnentschieden() {
+            return unentschieden;
+        }
+
+        /**
+         * @return Punkte (Sieg 1, Remis 0.5)
+         */
+        public double getPunkte() {
+            return siege + 0.5 * unentschieden;
+        }
+
+        String zuCsv(int rang) {
+            return String.format(Locale.US, "%d,%s,%.1f,%.1f,%.1f,%d,%d,%d,%d,%.1f", rang,
+                                 teilnehmer.name.replace(',', '_'), elo, glicko, glickoRd,
+                                 getSpiele(), siege, niederlagen, unentschieden, getPunkte());
+        }
+    }
+
+    /**
+     * @param runden Anzahl Runden (= Glicko-Bewertungsperioden)
+     * @param spieleProRunde Partien pro Paarung und Runde (Farben abwechselnd)
+     * @param anzahlThreads Paarungen, die parallel gespielt werden
+     * @param seed Seed (gleicher Seed, gleiche Ergebnisse)
+     */
+    public Turnier(int runden, int spieleProRunde, int anzahlThreads, long seed) {
+        if (runden < 1 || spieleProRunde < 1) {
+            throw new IllegalArgumentException("Mindestens eine Runde mit einem Spiel erforderlich");
+        }
+        if (anzahlThreads < 1) {
+            throw new IllegalArgumentException("Mindestens ein Thread erforderlich: " + anzahlThreads);
+        }
+        this.runden = runden;
+        this.spieleProRunde = spieleProRunde;
+        this.anzahlThreads = anzahlThreads;
+        this.seed = seed;
+    }
+
+    // ========================================================================
+    // Turnier
+    // ========================================================================
+
+    /**
+     * Spielt alle Paarungen aus beiden Farben und erstellt die Rangliste
+     *
+     * @param teilnehmer Mindestens zwei Teilnehmer
+     * @return Rangliste, nach Elo absteigend sortiert
+     */
+    public List<Platzierung> spielen(List<Teilnehmer> teilnehmer) {
+        int n = teilnehmer.size();
+        if (n < 2) {
+            throw new IllegalArgumentException("Mindestens zwei Teilnehmer erforderlich: " + n);
+        }
+
+        // punkte[i][j] = Punkte von i gegen j, spiele[i][j] = Partien zwischen i und j
+        double[][] punkte = new double[n][n];
+        long[][] spiele = new long[n][n];
+        long[][] bilanz = new long[n][3];
+        double[] glicko = new double[n];
+        double[] glickoRd = new double[n];
+        Arrays.fill(glicko, START_RATING);
+        Arrays.fill(glickoRd, START_RD);
+
+        ExecutorService pool = Executors.newFixedThreadPool(anzahlThreads);
+        try {
+            for (int runde = 0; runde < runden; runde++) {
+                double[][] rundenPunkte = new double[n][n];
+                long[][] rundenSpiele = new long[n][n];
+
+                List<int[]> paarungen = new ArrayList<>();
+                List<Future<SchnellBewertung.Bilanz>> futures = new ArrayList<>();
+                for (int i = 0; i < n; i++) {
+                    for (int j = i + 1; j < n; j++) {
+                        Strategie a = teilnehmer.get(i).strategie;
+                        Strategie b = teilnehmer.get(j).strategie;
+                        long paarungsSeed = seed + (long) runde * n * n + (long) i * n + j;
+                        paarungen.add(new int[] {i, j});
+                        futures.add(pool.submit(() -> new SchnellBewertung(1)
+                            .bewerte(a, b, spieleProRunde, true, paarungsSeed)));
+                    }
+                }
+
+                for (int p = 0; p < paarungen.size(); p++) {
+                    int i = paarungen.get(p)[0];
+                    int j = paarungen.get(p)[1];
+                    SchnellBewertung.Bilanz ergebnis = warte(futures.get(p));
+                    double punkteI = ergebnis.getSiege() + 0.5 * ergebnis.getUnentschieden();
+                    rundenPunkte[i][j] = punkteI;
+                    rundenPunkte[j][i] = ergebnis.getSpiele() - punkteI;
+                    rundenSpiele[i][j] = rundenSpiele[j][i] = ergebnis.getSpiele();
+
+                    bilanz[i][0] += ergebnis.getSiege();
+                    bilanz[i][1] += ergebnis.getNiederlagen();
+                    bilanz[j][0] += ergebnis.getNiederlagen();
+                    bilanz[j][1] += ergebnis.getSiege();
+                    bilanz[i][2] += ergebnis.getUnentschieden();
+                    bilanz[j][2] += ergebnis.getUnentschieden();
+                }
+
+                glickoPeriode(glicko, glickoRd, rundenPunkte, rundenSpiele);
+                for (int i = 0; i < n; i++) {
+                    for (int j = 0; j < n; j++) {
+                        punkte[i][j] += rundenPunkte[i][j];
+                        spiele[i][j] += rundenSpiele[i][j];
+                    }
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        double[] elo = elo(punkte, spiele);
+        List<Platzierung> rangliste = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            rangliste.add(new Platzierung(teilnehmer.get(i), elo[i], glicko[i], glickoRd[i],
+                                          bilanz[i][0], bilanz[i][1], bilanz[i][2]));
+        }
+        rangliste.sort((x, y) -> Double.compare(y.elo, x.elo));
+        return rangliste;
+    }
+
+    private static SchnellBewertung.Bilanz warte(Future<SchnellBewertung.Bilanz> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Turnier unterbrochen", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Paarung fehlgeschlagen", e.getCause());
+        }
+    }
+
+    // ========================================================================
+    // Ratings
+    // ========================================================================
+
+    /**
+     * Elo per Maximum-Likelihood im Bradley-Terry Modell (MM-Iteration nach Hunter).
+     * Jede Paarung bekommt ein virtuelles Remis als Prior, damit ungeschlagene
+     * Teilnehmer (perfekter Spieler) eine endliche Zahl erhalten.
+     * Der Mittelwert aller Teilnehmer liegt bei START_RATING.
+     *
+     * @param punkte punkte[i][j] = Punkte von i gegen j
+     * @param spiele spiele[i][j] = Partien zwischen i und j
+     * @return Elo-Zahl pro Teilnehmer
+     */
+    static double[] elo(double[][] punkte, long[][] spiele) {
+        int n = punkte.length;
+        double[] staerke = new double[n];
+        Arrays.fill(staerke, 1.0);
+
+        for (int iteration = 0; iteration < 10000; iteration++) {
+            double maxAenderung = 0.0;
+            for (int i = 0; i < n; i++) {
+                double gewonnen = 0.0;
+                double nenner = 0.0;
+                for (int j = 0; j < n; j++) {
+                    if (i == j || spiele[i][j] == 0) {
+                        continue;
+                    }
+                    gewonnen += punkte[i][j] + 0.5;
+                    nenner += (spiele[i][j] + 1) / (staerke[i] + staerke[j]);
+                }
+                double neu = nenner > 0 ? gewonnen / nenner : staerke[i];
+                maxAenderung = Math.max(maxAenderung, Math.abs(Math.log(neu / staerke[i])));
+                staerke[i] = neu;
+            }
+
+            // Geometrisches Mittel auf 1 normieren
+            double logSumme = 0.0;
+            for (double s : staerke) {
+                logSumme += Math.log(s);
+            }
+            double mittel = Math.exp(logSumme / n);
+            for (int i = 0; i < n; i++) {
+                staerke[i] /= mittel;
+            }
+            if (maxAenderung < 1e-10) {
+                break;
+            }
+        }
+
+        double[] elo = new double[n];
+        for (int i = 0; i < n; i++) {
+            elo[i] = START_RATING + 400.0 * Math.log10(staerke[i]);
+        }
+        return elo;
+    }
+
+    /**
+     * Eine Glicko-1 Bewertungsperiode. Alle Partien der Periode gehen mit den
+     * Ratings vom Periodenbeginn ein. Die Spielstärke der Teilnehmer ändert
+     * sich zwischen den Runden nicht, daher wächst die RD nicht (c = 0).
+     */
+    static void glickoPeriode(double[] rating, double[] rd, double[][] punkte, long[][] spiele) {
+        int n = rating.length;
+        double[] neuRating = new double[n];
+        double[] neuRd = new double[n];
+
+        for (int i = 0; i < n; i++) {
+            double dKehrwert = 0.0;
+            double summe = 0.0;
+            for (int j = 0; j < n; j++) {
+                if (i == j || spiele[i][j] == 0) {
+                    continue;
+                }
+                double g = 1.0 / Math.sqrt(1.0 + 3.0 * Q * Q * rd[j] * rd[j] / (Math.PI * Math.PI));
+                double erwartet = 1.0 / (1.0 + Math.pow(10, -g * (rating[i] - rating[j]) / 400.0));
+                dKehrwert += spiele[i][j] * Q * Q * g * g * erwartet * (1.0 - erwartet);
+                summe += g * (punkte[i][j] - spiele[i][j] * erwartet);
+            }
+            double varianz = 1.0 / (1.0 / (rd[i] * rd[i]) + dKehrwert);
+            neuRating[i] = rating[i] + Q * varianz * summe;
+            neuRd[i] = Math.sqrt(varianz);
+        }
+
+        System.arraycopy(neuRating, 0, rating, 0, n);
+        System.arraycopy(neuRd, 0, rd, 0, n);
+    }
+
+    // ========================================================================
+    // Teilnehmer laden
+    // ========================================================================
+
+    /**
+     * Lädt ein gespeichertes Modell als Teilnehmer (greedy, ε = 0).
+     * Unterstützt .dat (QLearningModel/Legacy), .json, .qbin und .nn (NeuralNetwork).
+     */
+    public static Teilnehmer ladeModell(Path datei) throws IOException {
+        String dateiname = datei.getFileName().toString();
+
+        if (dateiname.endsWith(".nn")) {
+            try {
+                NeuralNetwork network = NeuralNetwork.load(datei.toString(), 42);
+                return new Teilnehmer(dateiname, new NetworkStrategy(network));
+            } catch (ClassNotFoundException e) {
+                throw new IOException("Ungültiges Network-Format: " + datei, e);
+            }
+        }
+
+        QLearningAgent agent = new QLearningAgent();
+        if (dateiname.endsWith(".qbin")) {
+            agent.ladeBinaer(datei.toString());
+        } else if (dateiname.endsWith(".json")) {
+            agent.ladeVonJSON(datei.toString());
+        } else if (dateiname.endsWith(".dat")) {
+            try {
+                agent.ladeModell(datei.toString());
+            } catch (ClassNotFoundException e) {
+                throw new IOException("Ungültiges Modell-Format: " + datei, e);
+            }
+        } else {
+            throw new IOException("Unbekanntes Modell-Format: " + datei);
+        }
+        return new Teilnehmer(dateiname, Strategie.greedy(agent, 0.0));
+    }
+
+    /**
+     * Sammelt Modelldateien. Bei Verzeichnissen werden .json-Dateien
+     * übersprungen, wenn es dasselbe Modell auch als .dat oder .qbin gibt.
+     */
+    static List<Path> sammleModelle(Path pfad) throws IOException {
+        if (!Files.isDirectory(pfad)) {
+            return List.of(pfad);
+        }
+        List<Path> modelle = new ArrayList<>();
+        try (Stream<Path> dateien = Files.list(pfad)) {
+            for (Path datei : dateien.sorted().toList()) {
+                String name = datei.getFileName().toString();
+                if (name.endsWith(".dat") || name.endsWith(".qbin") || name.endsWith(".nn")) {
+                    modelle.add(datei);
+                } else if (name.endsWith(".json")) {
+                    String basis = name.substring(0, name.length() - ".json".length());
+                    if (!Files.exists(pfad.resolve(basis + ".dat")) && !Files.exists(pfad.resolve(basis + ".qbin"))) {
+                        modelle.add(datei);
+                    }
+                }
+            }
+        }
+        return modelle;
+    }
+
+    /**
+     * Schreibt die Rangliste als CSV
+     */
+    public static void exportiereCSV(List<Platzierung> rangliste, Path csvDatei) throws IOException {
+        if (csvDatei.getParent() != null) {
+            Files.createDirectories(csvDatei.getParent());
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(csvDatei, StandardCharsets.UTF_8)) {
+            writer.write(CSV_HEADER);
+            writer.newLine();
+            for (int i = 0; i < rangliste.size(); i++) {
+                writer.write(rangliste.get(i).zuCsv(i + 1));
+                writer.newLine();
+            }
+        }
+    }
+
+    // ========================================================================
+    // Kommandozeile
+    // ========================================================================
+
+    /**
+     * Aufruf: Turnier [modelle...] [--spiele N] [--runden N] [--threads N] [--nn-episoden N] [--csv datei]
+     *   modelle        Modelldateien oder Verzeichnisse (Standard: models)
+     *   --spiele       Partien pro Paarung und Runde (Standard: 1000)
+     *   --runden       Runden bzw. Glicko-Perioden (Standard: 10)
+     *   --threads      Parallele Paarungen (Standard: alle Kerne)
+     *   --nn-episoden  Trainiert zusätzlich ein NN per Self-Play (Standard: 10000, 0 = ohne)
+     *   --csv          Ziel der Rangliste (Standard: results/turnier.csv)
+     */
+    public static void main(String[] args) throws IOException {
+        List<Path> pfade = new ArrayList<>();
+        int spiele = 1000;
+        int runden = 10;
+        int anzahlThreads = Runtime.getRuntime().availableProcessors();
+        int nnEpisoden = 10000;
+        Path csvDatei = Path.of("results/turnier.csv");
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--spiele" -> spiele = Integer.parseInt(args[++i]);
+                case "--runden" -> runden = Integer.parseInt(args[++i]);
+                case "--threads" -> anzahlThreads = Integer.parseInt(args[++i]);
+                case "--nn-episoden" -> nnEpisoden = Integer.parseInt(args[++i]);
+                case "--csv" -> csvDatei = Path.of(args[++i]);
+                default -> pfade.add(Path.of(args[i]));
+            }
+        }
+        if (pfade.isEmpty()) {
+            pfade.add(Path.of("models"));
+        }
+
+        System.out.println("═══════════════════════════════════════════════════════");
+        System.out.println("  Rundenturnier (Elo / Glicko)");
+        System.out.println("═══════════════════════════════════════════════════════");
+        System.out.println();
+
+        List<Teilnehmer> teilnehmer = new ArrayList<>();
+        teilnehmer.add(new Teilnehmer("Zufall", Strategie.zufall()));
+        teilnehmer.add(new Teilnehmer("Perfekt", Strategie.perfekt(new ExakterLoeser(0.9))));
+        for (Path pfad : pfade) {
+            for (Path datei : sammleModelle(pfad)) {
+                teilnehmer.add(ladeModell(datei));
+            }
+        }
+        if (nnEpisoden > 0) {
+            NNDemo.SimpleNNTrainer trainer = new NNDemo.SimpleNNTrainer();
+            trainer.trainSelfPlay(nnEpisoden);
+            teilnehmer.add(new Teilnehmer("NN-" + nnEpisoden, new NetworkStrategy(trainer.getNetwork())));
+        }
+
+        int paarungen = teilnehmer.size() * (teilnehmer.size() - 1) / 2;
+        System.out.println();
+        System.out.printf("%d Teilnehmer, %d Paarungen × %d Runden × %,d Partien = %,d Partien (%d Threads)%n",
+                          teilnehmer.size(), paarungen, runden, spiele, (long) paarungen * runden * spiele,
+                          anzahlThreads);
+
+        long start = System.nanoTime();
+        List<Platzierung> rangliste = new Turnier(runden, spiele, anzahlThreads, 42).spielen(teilnehmer);
+        double dauer = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Dauer: %.2f Sekunden%n", dauer);
+        System.out.println();
+
+        System.out.println("Rang | Teilnehmer                | Elo    | Glicko ± 2RD   | Siege   | Niederl. | Remis");
+        System.out.println("-----|---------------------------|--------|----------------|---------|----------|--------");
+        for (int i = 0; i < rangliste.size(); i++) {
+            Platzierung p = rangliste.get(i);
+            System.out.printf("%4d | %-25s | %6.0f | %6.0f ± %5.1f | %7d | %8d | %7d%n", i + 1,
+                              p.teilnehmer.name, p.elo, p.glicko, 2 * p.glickoRd,
+                              p.siege, p.niederlagen, p.unentschieden);
+        }
+
+        exportiereCSV(rangliste, csvDatei);
+        System.out.println();
+        System.out.println("📊 Rangliste gespeichert in: " + csvDatei);
+    }
+}
@@ -0,0 +1,278 @@
+package tic_tac_toe_mi;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+import java.util.zip.CRC32;
+
+/**
+ * Vorberechnete Zugtabelle: ein Byte pro State-Code mit dem besten Zug.
+ *
+ * Beim Kompilieren wird für jeden der 3^9 normalisierten Codes einmal die
+ * Greedy-Wahl der EingefrorenePolicy ausgeführt (inklusive Symmetrie-Auflösung
+ * und Gleichstandsregel "kleinstes Feld"). Im Spiel ist ein Zug danach nur
+ * noch ein einziger Array-Zugriff - ohne Q-Werte, ohne Transformationen.
+ *
+ * Codes, die keine Stellung mit einem Zug sind (ungültige Steinzahl,
+ * bereits gewonnen, volles Brett), erhalten KEIN_ZUG.
+ *
+ * Dateiformat (Endung .zuege, Big Endian):
+ * <pre>
+ *  0  int    Magic "TTTZ"
+ *  4  short  Version (1)
+ *  6  short  Flags (reserviert, 0)
+ *  8  int    Anzahl Codes (19683)
+ * 12  int    CRC32 über die Tabelle
+ * 16  byte[] Bester Zug je Code (0-8 oder -1)
+ * </pre>
+ *
+ * @author johanneshaick
+ */
+public final class ZugTabelle implements Strategie {
+
+    /** Eintrag für Codes ohne Zug */
+    public static final byte KEIN_ZUG = -1;
+
+    /** Dateiendung neben dem Modell */
+    public static final String ENDUNG = ".zuege";
+
+    private static final int MAGIC = 0x5454545A; // "TTTZ"
+    private static final short VERSION = 1;
+    private static final int HEADER_GROESSE = 16;
+
+    private final byte[] zuege;
+
+    private ZugTabelle(byte[] zuege) {
+        this.zuege = zuege;
+    }
+
+    /**
+     * Kompiliert die Greedy-Wahl einer eingefrorenen Policy für alle Codes
+     */
+    public static ZugTabelle kompiliere(EingefrorenePolicy policy) {
+        byte[] zuege = new byte[QTabelle.ANZAHL_CODES];
+        for (int code = 0; code < QTabelle.ANZAHL_CODES; code++) {
+            int freieFelder = freieFelderFuerZug(code);
+            zuege[code] = freieFelder == 0 ? KEIN_ZUG : (byte) policy.besteAktion(code, freieFelder);
+        }
+        return new ZugTabelle(zuege);
+    }
+
+    /**
+     * Kompiliert die aktuelle Q-Tabelle eines Agents
+     */
+    public static ZugTabelle kompiliere(QLearningAgent agent) {
+        return kompiliere(EingefrorenePolicy.aus(agent));
+    }
+
+    /**
+     * Zerlegt einen Code in Bitmasken und prüft, ob in dieser Stellung gezogen werden kann
+     *
+     * @return Maske der freien Felder, 0 wenn kein Zug möglich ist
+     */
+    static int freieFelderFuerZug(int code) {
+        int eigene = 0;
+        int gegner = 0;
+        for (int feld = 8; feld >= 0; feld--) {
+            int ziffer = code % 3;
+            code /= 3;
+            if (ziffer == 1) {
+                eigene |= 1 << feld;
+            } else if (ziffer == 2) {
+                gegner |= 1 << feld;
+            }
+        }
+        // Am Zug ist entweder der Beginner (gleich viele Steine) oder der Nachziehende (einer weniger)
+        int differenz = Integer.bitCount(gegner) - Integer.bitCount(eigene);
+        if (differenz < 0 || differenz > 1 || BitSpielfeld.istSieg(eigene) || BitSpielfeld.istSieg(gegner)) {
+            return 0;
+        }
+        return BitSpielfeld.VOLL & ~(eigene | gegner);
+    }
+
+    // ========================================================================
+    // Zugwahl
+    // ========================================================================
+
+    /**
+     * @param stateCode Normalisierter State-Code
+     * @return Bester Zug (0-8) oder KEIN_ZUG
+     */
+    public int getZug(int stateCode) {
+        return zuege[stateCode];
+    }
+
+    @Override
+    public int waehleAktion(BitSpielfeld brett, Random random) {
+        return zuege[brett.getCodeAmZug()];
+    }
+
+    /**
+     * @return Anzahl der Codes mit einem Zug
+     */
+    public int getAnzahlZuege() {
+        int anzahl = 0;
+        for (byte zug : zuege) {
+            if (zug != KEIN_ZUG) {
+                anzahl++;
+            }
+        }
+        return anzahl;
+    }
+
+    // ========================================================================
+    // Persistenz
+    // ========================================================================
+
+    /**
+     * @return Pfad der Zugtabelle neben einer Modelldatei (Endung ersetzt)
+     */
+    public static String dateinameFuer(String modellDatei) {
+        int punkt = modellDatei.lastIndexOf('.');
+        int trenner = Math.max(modellDatei.lastIndexOf('/'), modellDatei.lastIndexOf(File.separatorChar));
+        String basis = punkt > trenner ? modellDatei.substring(0, punkt) : modellDatei;
+        return basis + ENDUNG;
+    }
+
+    /**
+     * Schreibt die Tabelle im .zuege-Format
+     *
+     * @throws IOException Bei Schreibfehlern
+     */
+    public void speichern(String dateiname) throws IOException {
+        ByteBuffer puffer = ByteBuffer.allocate(HEADER_GROESSE + zuege.length);
+        puffer.putInt(MAGIC);
+        puffer.putShort(VERSION);
+        puffer.putShort((short) 0);
+        puffer.putInt(zuege.length);
+        puffer.putInt(pruefsumme(zuege));
+        puffer.put(zuege);
+        puffer.flip();
+
+        File datei = new File(dateiname);
+        if (datei.getParentFile() != null) {
+            datei.getParentFile().mkdirs();
+        }
+        try (FileChannel kanal = FileChannel.open(datei.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (puffer.hasRemaining()) {
+                kanal.write(puffer);
+            }
+        }
+    }
+
+    /**
+     * Lädt eine .zuege-Datei
+     *
+     * @throws IOException Bei Lesefehlern, ungültigem Format oder falscher Prüfsumme
+     */
+    public static ZugTabelle laden(String dateiname) throws IOException {
+        ByteBuffer puffer = ByteBuffer.wrap(Files.readAllBytes(Path.of(dateiname)));
+        if (puffer.remaining() != HEADER_GROESSE + QTabelle.ANZAHL_CODES) {
+            throw new IOException("Keine gültige Zugtabelle (Größe " + puffer.remaining() + "): " + dateiname);
+        }
+        if (puffer.getInt() != MAGIC) {
+            throw new IOException("Keine gültige Zugtabelle (Magic fehlt): " + dateiname);
+        }
+        int version = puffer.getShort();
+        if (version != VERSION) {
+            throw new IOException("Nicht unterstützte Zugtabellen-Version " + version + ": " + dateiname);
+        }
+        puffer.getShort();
+        if (puffer.getInt() != QTabelle.ANZAHL_CODES) {
+            throw new IOException("Zugtabelle passt nicht zum 3x3-Brett: " + dateiname);
+        }
+        int erwartet = puffer.getInt();
+
+        byte[] zuege = new byte[QTabelle.ANZAHL_CODES];
+        puffer.get(zuege);
+        if (pruefsumme(zuege) != erwartet) {
+            throw new IOException("Zugtabelle beschädigt (CRC32): " + dateiname);
+        }
+        for (byte zug : zuege) {
+            if (zug < KEIN_ZUG || zug >= QTabelle.ANZAHL_AKTIONEN) {
+                throw new IOException("Ungültiger Zug " + zug + " in " + dateiname);
+            }
+        }
+        return new ZugTabelle(zuege);
+    }
+
+    /**
+     * Zugtabelle zu einem Modell: liegt neben dem Modell eine aktuelle .zuege-Datei,
+     * wird sie geladen, sonst wird das Modell kompiliert und die Tabelle daneben gespeichert.
+     *
+     * @param modellDatei Pfad zum Modell (.qbin, .json oder .dat)
+     * @throws IOException Bei Lese- oder Schreibfehlern
+     */
+    public static ZugTabelle fuerModell(String modellDatei) throws IOException {
+        File modell = new File(modellDatei);
+        File tabelle = new File(dateinameFuer(modellDatei));
+        if (tabelle.isFile() && tabelle.lastModified() >= modell.lastModified()) {
+            return laden(tabelle.getPath());
+        }
+        ZugTabelle zugTabelle = kompiliere(EingefrorenePolicy.laden(modellDatei));
+        zugTabelle.speichern(tabelle.getPath());
+        return zugTabelle;
+    }
+
+    private static int pruefsumme(byte[] zuege) {
+        CRC32 crc = new CRC32();
+        crc.update(zuege);
+        return (int) crc.getValue();
+    }
+
+    // ========================================================================
+    // Kompilieren über die Kommandozeile
+    // ========================================================================
+
+    /**
+     * Kompiliert ein Modell in eine .zuege-Datei daneben und misst die Zugwahl
+     *
+     * Aufruf: ZugTabelle [modell]
+     */
+    public static void main(String[] args) throws Exception {
+        String modell = args.length > 0 ? args[0] : "models/trained_200k.dat";
+        String ziel = dateinameFuer(modell);
+
+        long start = System.nanoTime();
+        EingefrorenePolicy policy = EingefrorenePolicy.laden(modell);
+        ZugTabelle tabelle = kompiliere(policy);
+        tabelle.speichern(ziel);
+        System.out.printf("%s → %s: %,d Stellungen mit Zug, %,d Bytes (%.1f ms)%n",
+                          modell, ziel, tabelle.getAnzahlZuege(), new File(ziel).length(),
+                          (System.nanoTime() - start) / 1e6);
+
+        BitSpielfeld brett = new BitSpielfeld();
+        for (int runde = 0; runde < 2; runde++) {
+            System.out.printf("Policy:  %,15.0f Züge / s%n", messe(policy, brett));
+            System.out.printf("Tabelle: %,15.0f Züge / s%n", messe(tabelle, brett));
+        }
+    }
+
+    /**
+     * Züge pro Sekunde einer Strategie in Selbstpartien (gleiche Stellungen für beide Varianten)
+     */
+    private static double messe(Strategie strategie, BitSpielfeld brett) {
+        long zuege = 0;
+        long start = System.nanoTime();
+        long ende = start + 1_000_000_000L;
+        while (System.nanoTime() < ende) {
+            for (int i = 0; i < 10_000; i++) {
+                brett.reset();
+                while (true) {
+                    brett.ziehe(strategie.waehleAktion(brett, null));
+                    zuege++;
+                    if (brett.letzterZugGewinnt() || brett.istVoll()) {
+                        break;
+                    }
+                }
+            }
+        }
+        return zuege / ((System.nanoTime() - start) / 1e9);
+    }
+}
@@ -0,0 +1,157 @@
+package tic_tac_toe_mi.metriken;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.BiConsumer;
+
+/**
+ * Latenz-Histogramm (Prometheus histogram) mit Zweierpotenz-Buckets.
+ *
+ * Bucket i zählt Messungen bis 2^i Nanosekunden (1 ns bis ~275 s), der letzte
+ * Bucket alles darüber. Der Bucket-Index ist ein einziges numberOfLeadingZeros,
+ * die relative Auflösung damit Faktor 2 - für Dashboards (p50/p99, Ausreißer)
+ * reicht das und das Erfassen bleibt unter 20 ns.
+ *
+ * Lock-frei und gestreift: jeder Thread schreibt per getAndAdd in den Streifen
+ * seiner Thread-ID. Die Streifen liegen in einem AtomicLongArray mit Abstand
+ * STREIFEN_BREITE, so dass sich verschiedene Streifen keine Cache-Line teilen.
+ * Erst beim Auslesen wird über die Streifen summiert.
+ *
+ * @author johanneshaick
+ */
+public final class Histogramm extends Metrik {
+
+    /** Anzahl Buckets inklusive Überlauf (+Inf) */
+    public static final int ANZAHL_BUCKETS = 40;
+
+    // Buckets + Summe, aufgerundet auf ganze Cache-Lines (8 longs = 64 Bytes)
+    private static final int SUMME = ANZAHL_BUCKETS;
+    private static final int STREIFEN_BREITE = (ANZAHL_BUCKETS + 1 + 7) & ~7;
+
+    private final int streifenMaske;
+    private final AtomicLongArray zellen;
+
+    Histogramm(String name, String labels, String hilfe) {
+        super(name, labels, hilfe);
+        // Zweierpotenz ≥ 2 × Kerne, damit sich selten zwei aktive Threads einen Streifen teilen
+        int streifen = Math.min(64, Integer.highestOneBit(2 * Runtime.getRuntime().availableProcessors() - 1) << 1);
+        this.streifenMaske = streifen - 1;
+        this.zellen = new AtomicLongArray(streifen * STREIFEN_BREITE);
+    }
+
+    /**
+     * Erfasst eine Dauer
+     *
+     * @param nanos Dauer in Nanosekunden
+     */
+    public void erfasse(long nanos) {
+        int basis = ((int) Thread.currentThread().threadId() & streifenMaske) * STREIFEN_BREITE;
+        zellen.getAndIncrement(basis + bucket(nanos));
+        zellen.getAndAdd(basis + SUMME, nanos);
+    }
+
+    /**
+     * Erfasst die Zeit seit einem System.nanoTime()-Startwert
+     */
+    public void erfasseSeit(long startNanos) {
+        erfasse(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Bucket für eine Dauer: kleinstes i mit nanos ≤ 2^i
+     */
+    static int bucket(long nanos) {
+        if (nanos <= 1) {
+            return 0;
+        }
+        return Math.min(ANZAHL_BUCKETS - 1, 64 - Long.numberOfLeadingZeros(nanos - 1));
+    }
+
+    /**
+     * Obergrenze von Bucket i in Sekunden (+Inf für den Überlauf-Bucket)
+     */
+    public static double obergrenzeSekunden(int bucket) {
+        return bucket == ANZAHL_BUCKETS - 1 ? Double.POSITIVE_INFINITY : (1L << bucket) / 1e9;
+    }
+
+    /**
+     * @return Anzahl Messungen pro Bucket über alle Streifen
+     */
+    public long[] getBuckets() {
+        long[] summe = new long[ANZAHL_BUCKETS];
+        for (int basis = 0; basis < zellen.length(); basis += STREIFEN_BREITE) {
+            for (int i = 0; i < ANZAHL_BUCKETS; i++) {
+                summe[i] += zellen.get(basis + i);
+            }
+        }
+        return summe;
+    }
+
+    public long getAnzahl() {
+        long anzahl = 0;
+        for (long n : getBuckets()) {
+            anzahl += n;
+        }
+        return anzahl;
+    }
+
+    public long getSummeNanos() {
+        long summe = 0;
+        for (int basis = 0; basis < zellen.length(); basis += STREIFEN_BREITE) {
+            summe += zellen.get(basis + SUMME);
+        }
+        return summe;
+    }
+
+    /**
+     * Quantil als Obergrenze des Buckets, in dem es liegt (auf Faktor 2 genau)
+     *
+     * @param q Quantil zwischen 0 und 1, z.B. 0.99
+     * @return Sekunden, 0 ohne Messungen
+     */
+    public double quantil(double q) {
+        long[] buckets = getBuckets();
+        long anzahl = 0;
+        for (long n : buckets) {
+            anzahl += n;
+        }
+        if (anzahl == 0) {
+            return 0.0;
+        }
+        long rang = (long) Math.ceil(q * anzahl);
+        long kumuliert = 0;
+        for (int i = 0; i < ANZAHL_BUCKETS; i++) {
+            kumuliert += buckets[i];
+            if (kumuliert >= rang) {
+                return obergrenzeSekunden(i);
+            }
+        }
+        return obergrenzeSekunden(ANZAHL_BUCKETS - 1);
+    }
+
+    @Override
+    public Typ getTyp() {
+        return Typ.HISTOGRAM;
+    }
+
+    @Override
+    void schreibePrometheus(StringBuilder ausgabe) {
+        long[] buckets = getBuckets();
+        long kumuliert = 0;
+        for (int i = 0; i < ANZAHL_BUCKETS - 1; i++) {
+            kumuliert += buckets[i];
+            zeile(ausgabe, "_bucket", "le=\"" + obergrenzeSekunden(i) + "\"", Long.toString(kumuliert));
+        }
+        kumuliert += buckets[ANZAHL_BUCKETS - 1];
+        zeile(ausgabe, "_bucket", "le=\"+Inf\"", Long.toString(kumuliert));
+        zeile(ausgabe, "_sum", null, Double.toString(getSummeNanos() / 1e9));
+        zeile(ausgabe, "_count", null, Long.toString(kumuliert));
+    }
+
+    @Override
+    void werte(BiConsumer<String, Double> ziel) {
+        String schluessel = getSchluessel();
+        ziel.accept(schluessel + ":anzahl", (double) getAnzahl());
+        ziel.accept(schluessel + ":p50_sekunden", quantil(0.5));
+        ziel.accept(schluessel + ":p99_sekunden", quantil(0.99));
+    }
+}
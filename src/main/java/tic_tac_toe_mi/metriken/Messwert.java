@@ -0,0 +1,46 @@
+package tic_tac_toe_mi.metriken;
+
+import java.util.function.BiConsumer;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Momentaufnahme eines Wertes (Prometheus gauge), z.B. Anzahl States.
+ *
+ * Der Wert wird erst beim Auslesen über die Quelle abgefragt, im Hot Path
+ * entstehen also keine Kosten. Die Quelle kann ausgetauscht werden, etwa
+ * wenn ein neuer Trainingslauf mit einem anderen Agenten startet.
+ *
+ * @author johanneshaick
+ */
+public final class Messwert extends Metrik {
+
+    private volatile DoubleSupplier quelle;
+
+    Messwert(String name, String labels, String hilfe, DoubleSupplier quelle) {
+        super(name, labels, hilfe);
+        this.quelle = quelle;
+    }
+
+    public void setQuelle(DoubleSupplier quelle) {
+        this.quelle = quelle;
+    }
+
+    public double getWert() {
+        return quelle.getAsDouble();
+    }
+
+    @Override
+    public Typ getTyp() {
+        return Typ.GAUGE;
+    }
+
+    @Override
+    void schreibePrometheus(StringBuilder ausgabe) {
+        zeile(ausgabe, "", null, zahl(getWert()));
+    }
+
+    @Override
+    void werte(BiConsumer<String, Double> ziel) {
+        ziel.accept(getSchluessel(), getWert());
+    }
+}
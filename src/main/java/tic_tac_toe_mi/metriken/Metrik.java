@@ -0,0 +1,107 @@
+package tic_tac_toe_mi.metriken;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Gemeinsame Basis aller Metriken: Name, optionale Labels und Hilfetext.
+ *
+ * Der Schlüssel in der Registry ist der Name samt Labels im Prometheus-Format,
+ * z.B. ttt_zugwahl_total{art="exploration"}. Metriken mit gleichem Namen und
+ * verschiedenen Labels bilden eine Familie mit gemeinsamem HELP/TYPE.
+ *
+ * @author johanneshaick
+ */
+public abstract class Metrik {
+
+    /** Prometheus-Typ einer Metrik */
+    public enum Typ {
+        COUNTER("counter"),
+        GAUGE("gauge"),
+        HISTOGRAM("histogram");
+
+        private final String bezeichnung;
+
+        Typ(String bezeichnung) {
+            this.bezeichnung = bezeichnung;
+        }
+
+        public String getBezeichnung() {
+            return bezeichnung;
+        }
+    }
+
+    private final String name;
+    private final String labels;
+    private final String hilfe;
+
+    /**
+     * @param name Metrikname ([a-zA-Z_:][a-zA-Z0-9_:]*)
+     * @param labels Labels ohne Klammern (z.B. art="exploration") oder ""
+     * @param hilfe Hilfetext für # HELP
+     */
+    protected Metrik(String name, String labels, String hilfe) {
+        this.name = name;
+        this.labels = labels;
+        this.hilfe = hilfe;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getLabels() {
+        return labels;
+    }
+
+    public String getHilfe() {
+        return hilfe;
+    }
+
+    /**
+     * @return Name mit Labels, z.B. ttt_zugwahl_total{art="exploration"}
+     */
+    public String getSchluessel() {
+        return labels.isEmpty() ? name : name + "{" + labels + "}";
+    }
+
+    public abstract Typ getTyp();
+
+    /**
+     * Hängt die Samples dieser Metrik im Prometheus-Textformat an (ohne HELP/TYPE)
+     */
+    abstract void schreibePrometheus(StringBuilder ausgabe);
+
+    /**
+     * Liefert die aktuellen Werte als Paare (Spaltenname, Wert) für den CSV-Export
+     */
+    abstract void werte(BiConsumer<String, Double> ziel);
+
+    /**
+     * Sample-Zeile "name{labels,zusatz} wert"
+     */
+    void zeile(StringBuilder ausgabe, String suffix, String zusatzLabel, String wert) {
+        ausgabe.append(name).append(suffix);
+        if (!labels.isEmpty() || zusatzLabel != null) {
+            ausgabe.append('{').append(labels);
+            if (zusatzLabel != null) {
+                ausgabe.append(labels.isEmpty() ? "" : ",").append(zusatzLabel);
+            }
+            ausgabe.append('}');
+        }
+        ausgabe.append(' ').append(wert).append('\n');
+    }
+
+    /**
+     * Label im Prometheus-Format mit maskiertem Wert, z.B. spieler="RL \"1\""
+     */
+    public static String label(String name, String wert) {
+        return name + "=\"" + wert.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n") + '"';
+    }
+
+    static String zahl(double wert) {
+        if (wert == Math.rint(wert) && Math.abs(wert) < 1e15) {
+            return Long.toString((long) wert);
+        }
+        return Double.toString(wert);
+    }
+}
@@ -0,0 +1,113 @@
+package tic_tac_toe_mi.metriken;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Schreibt die Metriken periodisch als CSV, z.B. nach results/metriken.csv.
+ *
+ * Langes Format mit einer Zeile pro Metrik und Zeitpunkt
+ * (zeitstempel,metrik,wert) - so bleibt die Datei gültig, wenn während
+ * des Laufs neue Metriken registriert werden, und lässt sich direkt
+ * pivotieren. Histogramme erscheinen als :anzahl, :p50_sekunden und
+ * :p99_sekunden. Beim Schließen wird ein letzter Stand geschrieben.
+ *
+ * @author johanneshaick
+ */
+public final class MetrikCsvExport implements AutoCloseable {
+
+    private static final String HEADER = "zeitstempel,metrik,wert";
+
+    private final MetrikRegistry registry;
+    private final Path datei;
+    private final ScheduledExecutorService zeitgeber;
+
+    private MetrikCsvExport(MetrikRegistry registry, Path datei) {
+        this.registry = registry;
+        this.datei = datei;
+        this.zeitgeber = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "metriken-csv");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Startet den periodischen Export (Verzeichnis wird bei Bedarf angelegt)
+     *
+     * @param registry zu exportierende Metriken
+     * @param datei Ziel-CSV, wird fortgeschrieben
+     * @param intervallMillis Abstand zwischen zwei Ständen
+     * @throws IOException wenn die Datei nicht angelegt werden kann
+     */
+    public static MetrikCsvExport starte(MetrikRegistry registry, Path datei, long intervallMillis)
+            throws IOException {
+        MetrikCsvExport export = new MetrikCsvExport(registry, datei);
+        Path verzeichnis = datei.toAbsolutePath().getParent();
+        if (verzeichnis != null) {
+            Files.createDirectories(verzeichnis);
+        }
+        if (!Files.exists(datei) || Files.size(datei) == 0) {
+            Files.writeString(datei, HEADER + "\n", StandardCharsets.UTF_8);
+        }
+        export.zeitgeber.scheduleAtFixedRate(() -> {
+            try {
+                export.schreibe();
+            } catch (IOException e) {
+                // Ein fehlgeschlagener Stand soll das Training nicht beenden
+                System.err.println("Metriken-CSV: " + e.getMessage());
+            }
+        }, intervallMillis, intervallMillis, TimeUnit.MILLISECONDS);
+        return export;
+    }
+
+    /**
+     * Hängt den aktuellen Stand aller Metriken an
+     */
+    public synchronized void schreibe() throws IOException {
+        String zeitstempel = Instant.now().toString();
+        try (BufferedWriter writer = Files.newBufferedWriter(datei, StandardCharsets.UTF_8,
+                                                             StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            registry.werte((metrik, wert) -> {
+                try {
+                    writer.write(zeitstempel);
+                    writer.write(',');
+                    writer.write(csvFeld(metrik));
+                    writer.write(',');
+                    writer.write(Metrik.zahl(wert));
+                    writer.newLine();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static String csvFeld(String text) {
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+
+    public Path getDatei() {
+        return datei;
+    }
+
+    @Override
+    public void close() throws IOException {
+        zeitgeber.shutdownNow();
+        schreibe();
+    }
+}
@@ -0,0 +1,92 @@
+package tic_tac_toe_mi.metriken;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Schaltet Endpunkt und CSV-Export über System Properties ein, damit jeder
+ * Trainingslauf ohne Codeänderung beobachtbar ist:
+ * <pre>
+ * java -Dmetriken.port=9400 -Dmetriken.csv=results/metriken.csv -Dmetriken.intervall=10 ...
+ * curl localhost:9400/metrics
+ * </pre>
+ *
+ * Spieler.trainieren ruft ausSystemProperties bei jedem Start auf, gestartet
+ * wird aber nur einmal pro JVM. Ohne gesetzte Properties passiert nichts.
+ * Endpunkt und CSV-Export laufen auf Daemon-Threads, die JVM endet also mit
+ * dem Training; ein Shutdown-Hook schließt beide (letzter CSV-Stand).
+ *
+ * @author johanneshaick
+ */
+public final class MetrikExport {
+
+    /** Standard-Intervall des CSV-Exports in Sekunden */
+    public static final int STANDARD_INTERVALL_SEKUNDEN = 10;
+
+    private static MetrikServer server;
+    private static MetrikCsvExport csvExport;
+    private static boolean gestartet;
+
+    private MetrikExport() {
+    }
+
+    /**
+     * Startet Endpunkt (metriken.port) und CSV-Export (metriken.csv,
+     * metriken.intervall) für die Standard-Registry, falls konfiguriert
+     */
+    public static synchronized void ausSystemProperties() {
+        if (gestartet) {
+            return;
+        }
+        gestartet = true;
+
+        String port = System.getProperty("metriken.port");
+        String csv = System.getProperty("metriken.csv");
+        int intervall = Integer.getInteger("metriken.intervall", STANDARD_INTERVALL_SEKUNDEN);
+        try {
+            if (port != null) {
+                server = MetrikServer.starte(MetrikRegistry.STANDARD, Integer.parseInt(port));
+                System.out.println("Metriken: http://localhost:" + server.getPort() + "/metrics");
+            }
+            if (csv != null) {
+                csvExport = MetrikCsvExport.starte(MetrikRegistry.STANDARD, Path.of(csv), intervall * 1000L);
+                System.out.println("Metriken: " + csv + " alle " + intervall + " s");
+            }
+        } catch (IOException | NumberFormatException e) {
+            System.err.println("Metriken-Export nicht gestartet: " + e.getMessage());
+        }
+        if (server != null || csvExport != null) {
+            Runtime.getRuntime().addShutdownHook(new Thread(MetrikExport::beenden, "metriken-ende"));
+        }
+    }
+
+    /**
+     * Schließt den Endpunkt und schreibt den letzten CSV-Stand
+     */
+    private static synchronized void beenden() {
+        if (server != null) {
+            server.close();
+        }
+        if (csvExport != null) {
+            try {
+                csvExport.close();
+            } catch (IOException e) {
+                System.err.println("Metriken-CSV: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * @return laufender Endpunkt oder null
+     */
+    public static synchronized MetrikServer getServer() {
+        return server;
+    }
+
+    /**
+     * @return laufender CSV-Export oder null
+     */
+    public static synchronized MetrikCsvExport getCsvExport() {
+        return csvExport;
+    }
+}
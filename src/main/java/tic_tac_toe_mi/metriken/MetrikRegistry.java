@@ -0,0 +1,178 @@
+package tic_tac_toe_mi.metriken;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.BiConsumer;
+import java.util.function.DoubleSupplier;
+import java.util.function.IntConsumer;
+
+/**
+ * Sammlung aller Metriken eines Prozesses.
+ *
+ * Metriken werden einmal registriert (typischerweise als static final Feld
+ * in der instrumentierten Klasse) und danach direkt erhöht bzw. erfasst -
+ * die Registry selbst liegt nie im Hot Path. Erneutes Registrieren mit
+ * gleichem Schlüssel liefert die bestehende Metrik (bei Messwerten wird die
+ * Quelle ersetzt).
+ *
+ * Die Metriken sind nach Schlüssel sortiert, Familien (gleicher Name,
+ * verschiedene Labels) stehen dadurch in der Prometheus-Ausgabe beieinander.
+ *
+ * @author johanneshaick
+ */
+public final class MetrikRegistry {
+
+    /** Registry für alle eingebauten Metriken */
+    public static final MetrikRegistry STANDARD = new MetrikRegistry();
+
+    private final Map<String, Metrik> metriken = new ConcurrentSkipListMap<>();
+
+    public Zaehler zaehler(String name, String hilfe) {
+        return zaehler(name, "", hilfe);
+    }
+
+    /**
+     * @param labels Labels ohne Klammern, z.B. art="exploration"
+     */
+    public Zaehler zaehler(String name, String labels, String hilfe) {
+        return registriere(new Zaehler(name, labels, hilfe), Zaehler.class);
+    }
+
+    public Histogramm histogramm(String name, String hilfe) {
+        return histogramm(name, "", hilfe);
+    }
+
+    public Histogramm histogramm(String name, String labels, String hilfe) {
+        return registriere(new Histogramm(name, labels, hilfe), Histogramm.class);
+    }
+
+    /**
+     * Registriert einen Messwert oder ersetzt die Quelle eines bestehenden
+     */
+    public Messwert messwert(String name, String hilfe, DoubleSupplier quelle) {
+        return messwert(name, "", hilfe, quelle);
+    }
+
+    public Messwert messwert(String name, String labels, String hilfe, DoubleSupplier quelle) {
+        Messwert messwert = registriere(new Messwert(name, labels, hilfe, quelle), Messwert.class);
+        messwert.setQuelle(quelle);
+        return messwert;
+    }
+
+    /**
+     * Entfernt eine Metrik, sofern unter ihrem Schlüssel noch genau diese
+     * Instanz registriert ist (für Messwerte, die an ein kurzlebiges Objekt
+     * gebunden sind und es sonst über die Quelle erreichbar halten)
+     */
+    public boolean entferne(Metrik metrik) {
+        return metriken.remove(metrik.getSchluessel(), metrik);
+    }
+
+    private <T extends Metrik> T registriere(T neu, Class<T> typ) {
+        Metrik vorhanden = metriken.putIfAbsent(neu.getSchluessel(), neu);
+        if (vorhanden == null) {
+            return neu;
+        }
+        if (!typ.isInstance(vorhanden)) {
+            throw new IllegalArgumentException("Metrik " + neu.getSchluessel() + " ist bereits als "
+                                               + vorhanden.getTyp().getBezeichnung() + " registriert");
+        }
+        return typ.cast(vorhanden);
+    }
+
+    /**
+     * @return Metrik zu einem Schlüssel (Name mit Labels) oder null
+     */
+    public Metrik get(String schluessel) {
+        return metriken.get(schluessel);
+    }
+
+    public List<Metrik> getMetriken() {
+        return new ArrayList<>(metriken.values());
+    }
+
+    /**
+     * Alle Metriken im Prometheus-Textformat (Version 0.0.4)
+     */
+    public String alsPrometheus() {
+        StringBuilder ausgabe = new StringBuilder(4096);
+        String familie = null;
+        for (Metrik metrik : metriken.values()) {
+            if (!metrik.getName().equals(familie)) {
+                familie = metrik.getName();
+                ausgabe.append("# HELP ").append(familie).append(' ')
+                       .append(metrik.getHilfe().replace("\\", "\\\\").replace("\n", "\\n")).append('\n');
+                ausgabe.append("# TYPE ").append(familie).append(' ')
+                       .append(metrik.getTyp().getBezeichnung()).append('\n');
+            }
+            metrik.schreibePrometheus(ausgabe);
+        }
+        return ausgabe.toString();
+    }
+
+    /**
+     * Liefert alle aktuellen Werte als Paare (Spalte, Wert), Histogramme als
+     * Anzahl, p50 und p99
+     */
+    public void werte(BiConsumer<String, Double> ziel) {
+        for (Metrik metrik : metriken.values()) {
+            metrik.werte(ziel);
+        }
+    }
+
+    // ========================================================================
+    // Kosten pro Ereignis
+    // ========================================================================
+
+    /**
+     * Misst die Kosten von Zaehler.erhoehe und Histogramm.erfasse im Hot Path
+     * (für reproduzierbare Zahlen siehe MetrikBenchmark im benchmarks-Modul)
+     *
+     * Aufruf: MetrikRegistry [threads]
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        MetrikRegistry registry = new MetrikRegistry();
+        Zaehler zaehler = registry.zaehler("bench_total", "Benchmark");
+        Histogramm histogramm = registry.histogramm("bench_sekunden", "Benchmark");
+        int operationen = 50_000_000;
+
+        System.out.println();
+        System.out.println("═══════════════════════════════════════════════════════");
+        System.out.println("  Metriken - Kosten pro Ereignis");
+        System.out.println("═══════════════════════════════════════════════════════");
+        System.out.printf("%-8s %16s %16s%n", "Threads", "Zähler ns/op", "Histogramm ns/op");
+
+        for (int runde = 0; runde < 2; runde++) {
+            for (int threads = 1; threads <= maxThreads; threads *= 2) {
+                double zaehlerNs = messe(threads, operationen, i -> zaehler.erhoehe());
+                double histogrammNs = messe(threads, operationen, i -> histogramm.erfasse(i & 0xFFFF));
+                if (runde == 1) {
+                    System.out.printf("%-8d %16.1f %16.1f%n", threads, zaehlerNs, histogrammNs);
+                }
+            }
+        }
+    }
+
+    private static double messe(int threads, int operationen, IntConsumer ereignis) throws InterruptedException {
+        Thread[] worker = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            worker[t] = new Thread(() -> {
+                for (int i = 0; i < operationen; i++) {
+                    ereignis.accept(i);
+                }
+            });
+        }
+        long start = System.nanoTime();
+        for (Thread w : worker) {
+            w.start();
+        }
+        for (Thread w : worker) {
+            w.join();
+        }
+        // Pro Thread gemessen: Wandzeit / Operationen eines Threads
+        return (System.nanoTime() - start) / (double) operationen;
+    }
+}
@@ -0,0 +1,110 @@
+package tic_tac_toe_mi.metriken;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * HTTP-Endpunkt /metrics im Prometheus-Textformat (JDK HttpServer, ohne
+ * externe Abhängigkeiten).
+ *
+ * Anfragen laufen auf einem einzelnen Daemon-Thread und kosten zwischen zwei
+ * Scrapes nichts. Den Dispatcher-Thread legt HttpServer#start selbst an; er
+ * erbt den Daemon-Status vom startenden Thread. starte() ruft start() deshalb
+ * aus einem kurzlebigen Daemon-Thread auf - sonst hielte der Endpunkt die JVM
+ * nach dem Training am Leben.
+ *
+ * @author johanneshaick
+ */
+public final class MetrikServer implements AutoCloseable {
+
+    /** Content-Type des Prometheus-Textformats */
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    private MetrikServer(HttpServer server, ExecutorService executor) {
+        this.server = server;
+        this.executor = executor;
+    }
+
+    /**
+     * Startet den Endpunkt
+     *
+     * @param registry auszuliefernde Metriken
+     * @param port TCP-Port (0 = freien Port wählen, siehe getPort)
+     * @throws IOException wenn der Port nicht gebunden werden kann
+     */
+    public static MetrikServer starte(MetrikRegistry registry, int port) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.createContext("/metrics", exchange -> beantworte(exchange, registry));
+        ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "metriken-http");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        starteAlsDaemon(server);
+        return new MetrikServer(server, executor);
+    }
+
+    /**
+     * Startet den Server aus einem Daemon-Thread, damit auch der Dispatcher-Thread einer ist
+     */
+    private static void starteAlsDaemon(HttpServer server) {
+        Thread starter = new Thread(server::start, "metriken-http-start");
+        starter.setDaemon(true);
+        starter.start();
+        boolean unterbrochen = false;
+        while (true) {
+            try {
+                starter.join();
+                break;
+            } catch (InterruptedException e) {
+                unterbrochen = true;
+            }
+        }
+        if (unterbrochen) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void beantworte(HttpExchange exchange, MetrikRegistry registry) throws IOException {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod()) && !"HEAD".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] antwort = registry.alsPrometheus().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            if ("HEAD".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+            exchange.sendResponseHeaders(200, antwort.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(antwort);
+            }
+        }
+    }
+
+    /**
+     * @return tatsächlich gebundener Port
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
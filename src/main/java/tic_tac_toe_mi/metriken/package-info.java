@@ -0,0 +1,21 @@
+/**
+ * Eingebaute Metriken für lange Trainings- und Spielläufe.
+ *
+ * Komponenten:
+ * - MetrikRegistry: Sammlung aller Metriken, Ausgabe als Prometheus-Text
+ * - Zaehler: Counter auf LongAdder-Basis
+ * - Messwert: Gauge, wird erst beim Auslesen abgefragt
+ * - Histogramm: Latenzen in Zweierpotenz-Buckets, gestreift pro Thread
+ * - MetrikServer: /metrics Endpunkt mit dem JDK HttpServer
+ * - MetrikCsvExport: periodischer CSV-Export (z.B. nach results/)
+ * - MetrikExport: Aktivierung über -Dmetriken.port / -Dmetriken.csv
+ *
+ * Erfassen ist lock-frei und allokiert nichts; Zähler kosten wenige, Histogramme
+ * rund 10-20 Nanosekunden pro Ereignis. Teuer sind nur Auslesen und Export.
+ *
+ * Instrumentiert sind Spieler.trainieren, QLearningAgent.lernen/waehleZug/waehleAktion
+ * und NeuralNetwork.train/trainBatch.
+ *
+ * @author johanneshaick
+ */
+package tic_tac_toe_mi.metriken;
@@ -20,6 +20,16 @@ public enum ActivationFunction {
         public double derivative(double x) {
             return x > 0 ? 1.0 : 0.0;
         }
+        
+        @Override
+        public void activate(double[] inputs, double[] outputs, int length) {
+            Matrix.KERNELS.relu(inputs, outputs, length);
+        }
+        
+        @Override
+        public void multiplyDerivative(double[] inputs, double[] gradient, int length) {
+            Matrix.KERNELS.reluDerivative(inputs, gradient, length);
+        }
     },
     
     /**
@@ -71,6 +81,18 @@ public enum ActivationFunction {
         public double derivative(double x) {
             return 1.0;
         }
+        
+        @Override
+        public void activate(double[] inputs, double[] outputs, int length) {
+            if (inputs != outputs) {
+                System.arraycopy(inputs, 0, outputs, 0, length);
+            }
+        }
+        
+        @Override
+        public void multiplyDerivative(double[] inputs, double[] gradient, int length) {
+            // f'(x) = 1: Gradient bleibt unverändert
+        }
     };
     
     /**
@@ -104,4 +126,24 @@ public enum ActivationFunction {
         }
         return derivatives;
     }
+    
+    /**
+     * Aktiviert die ersten length Werte in einen vorhandenen Puffer (ohne Allokation).
+     * outputs darf dasselbe Array wie inputs sein.
+     */
+    public void activate(double[] inputs, double[] outputs, int length) {
+        for (int i = 0; i < length; i++) {
+            outputs[i] = activate(inputs[i]);
+        }
+    }
+    
+    /**
+     * Multipliziert den Gradienten in-place mit der Ableitung: gradient[i] *= f'(inputs[i]).
+     * inputs sind die Werte vor der Aktivierung (z).
+     */
+    public void multiplyDerivative(double[] inputs, double[] gradient, int length) {
+        for (int i = 0; i < length; i++) {
+            gradient[i] *= derivative(inputs[i]);
+        }
+    }
 }
@@ -0,0 +1,198 @@
+package tic_tac_toe_mi.nn;
+
+/**
+ * Wiederverwendbarer DQN-Trainingsschritt (Deep Q-Network).
+ * 
+ * Trainiert ein Online-Network auf Mini-Batches aus einem ExperienceReplay.
+ * Die Bootstrap-Targets r + γ · Q(s', a') kommen aus einem separaten
+ * Target Network, das entweder alle n Schritte hart synchronisiert oder
+ * per Polyak-Averaging (tau) weich nachgeführt wird. Das verhindert, dass
+ * das Network seinem eigenen, sich ständig verschiebenden Ziel hinterherläuft.
+ * 
+ * Double-DQN: a' wird vom Online-Network gewählt, bewertet wird mit dem
+ * Target Network. Das reduziert die Überschätzung durch max über
+ * verrauschte Q-Values.
+ * 
+ * Legal-Move Masking: im Folge-State kommen nur leere Felder (Wert 0)
+ * als a' in Frage, besetzte Felder werden beim max ignoriert.
+ * 
+ * Alle Forward Passes laufen gebatcht und in wiederverwendeten Puffern:
+ * Online-Network einmal über States und Folge-States (2 × Batch),
+ * Target Network einmal über die Folge-States.
+ */
+public class DQNTrainer {
+    
+    private final NeuralNetwork online;
+    private final NeuralNetwork target;
+    private final ExperienceReplay replay;
+    private final int batchSize;
+    private final double learningRate;
+    private final double gamma;
+    
+    private int targetUpdateInterval = 1000; // Harte Synchronisation alle n Schritte
+    private double tau = 0.0;                // > 0: Polyak-Averaging statt harter Sync
+    private boolean doubleDqn = true;
+    private int steps = 0;
+    
+    // Wiederverwendete Puffer
+    private final ExperienceReplay.Batch batch;
+    private final double[] onlineInputs;
+    private final double[] onlineQValues;
+    private final double[] targetQValues;
+    private final double[] targets;
+    private final double[] tdErrors;
+    
+    /**
+     * @param online Zu trainierendes Network (Target Network wird als Kopie angelegt)
+     * @param replay Replay Buffer (uniform oder priorisiert)
+     * @param batchSize Samples pro Trainingsschritt
+     * @param learningRate Learning Rate (gemittelter Batch-Gradient)
+     * @param gamma Discount-Faktor
+     */
+    public DQNTrainer(NeuralNetwork online, ExperienceReplay replay, int batchSize,
+                      double learningRate, double gamma) {
+        this.online = online;
+        this.target = online.copy();
+        this.replay = replay;
+        this.batchSize = batchSize;
+        this.learningRate = learningRate;
+        this.gamma = gamma;
+        
+        int stateSize = online.getInputSize();
+        int actions = online.getOutputSize();
+        this.batch = new ExperienceReplay.Batch(batchSize, stateSize);
+        this.onlineInputs = new double[2 * batchSize * stateSize];
+        this.onlineQValues = new double[2 * batchSize * actions];
+        this.targetQValues = new double[batchSize * actions];
+        this.targets = new double[batchSize * actions];
+        this.tdErrors = new double[batchSize];
+    }
+    
+    /**
+     * Ein Trainingsschritt: Batch sampeln, Targets berechnen, Online-Network
+     * updaten, Prioritäten zurückmelden und Target Network nachführen.
+     * 
+     * @return Durchschnittlicher Loss oder NaN, wenn der Buffer noch zu klein ist
+     */
+    public double trainStep() {
+        if (!replay.canSample(batchSize)) {
+            return Double.NaN;
+        }
+        replay.sample(batchSize, batch);
+        
+        int stateSize = online.getInputSize();
+        int actions = online.getOutputSize();
+        int n = batchSize;
+        
+        // Online: States (Zeilen 0..n-1), bei Double-DQN zusätzlich Folge-States (n..2n-1)
+        if (doubleDqn) {
+            System.arraycopy(batch.states, 0, onlineInputs, 0, n * stateSize);
+            System.arraycopy(batch.nextStates, 0, onlineInputs, n * stateSize, n * stateSize);
+            online.predictBatch(onlineInputs, 2 * n, onlineQValues);
+        } else {
+            online.predictBatch(batch.states, n, onlineQValues);
+        }
+        target.predictBatch(batch.nextStates, n, targetQValues);
+        
+        System.arraycopy(onlineQValues, 0, targets, 0, n * actions);
+        for (int b = 0; b < n; b++) {
+            int action = batch.actions[b];
+            double y = batch.rewards[b];
+            if (!batch.terminals[b]) {
+                y += gamma * nextStateValue(b);
+            }
+            tdErrors[b] = y - onlineQValues[b * actions + action];
+            targets[b * actions + action] = y;
+        }
+        
+        double loss = online.trainBatch(batch.states, targets, batch.weights, n, learningRate);
+        replay.updatePriorities(batch, tdErrors);
+        
+        steps++;
+        if (tau > 0) {
+            target.blendWeightsFrom(online, tau);
+        } else if (steps % targetUpdateInterval == 0) {
+            target.copyWeightsFrom(online);
+        }
+        return loss;
+    }
+    
+    /**
+     * Wert des Folge-States über legale Aktionen (leere Felder).
+     * Double-DQN: argmax Online, Wert aus Target. Sonst: max über Target.
+     */
+    private double nextStateValue(int b) {
+        int actions = online.getOutputSize();
+        int stateOffset = b * online.getInputSize();
+        int selectOffset = doubleDqn ? (batchSize + b) * actions : b * actions;
+        double[] selectQ = doubleDqn ? onlineQValues : targetQValues;
+        
+        int best = -1;
+        for (int a = 0; a < actions; a++) {
+            if (batch.nextStates[stateOffset + a] != 0) continue; // Feld besetzt
+            if (best < 0 || selectQ[selectOffset + a] > selectQ[selectOffset + best]) {
+                best = a;
+            }
+        }
+        return best < 0 ? 0.0 : targetQValues[b * actions + best];
+    }
+    
+    /**
+     * Kopiert das Online-Network sofort ins Target Network.
+     */
+    public void syncTarget() {
+        target.copyWeightsFrom(online);
+    }
+    
+    /**
+     * Harte Synchronisation alle n Trainingsschritte (deaktiviert Polyak-Averaging).
+     */
+    public void setTargetUpdateInterval(int steps) {
+        if (steps <= 0) {
+            throw new IllegalArgumentException("Interval must be positive");
+        }
+        this.targetUpdateInterval = steps;
+        this.tau = 0.0;
+    }
+    
+    /**
+     * Polyak-Averaging: Target Network wird nach jedem Schritt um tau nachgeführt.
+     */
+    public void setPolyakTau(double tau) {
+        if (tau <= 0 || tau > 1) {
+            throw new IllegalArgumentException("Tau must be in (0, 1]");
+        }
+        this.tau = tau;
+    }
+    
+    public void setDoubleDqn(boolean doubleDqn) {
+        this.doubleDqn = doubleDqn;
+    }
+    
+    public boolean isDoubleDqn() {
+        return doubleDqn;
+    }
+    
+    public int getSteps() {
+        return steps;
+    }
+    
+    public NeuralNetwork getOnlineNetwork() {
+        return online;
+    }
+    
+    public NeuralNetwork getTargetNetwork() {
+        return target;
+    }
+    
+    public ExperienceReplay getReplay() {
+        return replay;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("DQNTrainer [%d steps, %s, target %s]",
+                           steps, doubleDqn ? "Double-DQN" : "DQN",
+                           tau > 0 ? "τ=" + tau : "sync/" + targetUpdateInterval);
+    }
+}
@@ -1,7 +1,5 @@
 package tic_tac_toe_mi.nn;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Random;
 
 /**
@@ -13,6 +11,10 @@ import java.util.Random;
  * - Bricht Korrelation zwischen aufeinanderfolgenden Samples
  * - Nutzt Daten effizienter (jede Experience mehrfach verwendet)
  * - Stabilisiert Training (verhindert catastrophic forgetting)
+ * 
+ * Umsetzung als Ringpuffer fester Kapazität mit flachen primitiven Arrays
+ * (Struct-of-Arrays): keine Objekte pro Experience, echtes FIFO-Überschreiben
+ * und Sampling in O(batchSize) direkt in einen wiederverwendbaren Batch.
  */
 public class ExperienceReplay {
     
@@ -36,86 +38,239 @@ public class ExperienceReplay {
         }
     }
     
-    private final List<Experience> buffer;
+    /**
+     * Wiederverwendbarer Mini-Batch: flache Arrays, die sample() befüllt.
+     * States liegen Row-Major (Sample b ab Index b * stateSize) und können
+     * direkt an NeuralNetwork.predictBatch/trainBatch übergeben werden.
+     */
+    public static class Batch {
+        public final double[] states;
+        public final int[] actions;
+        public final double[] rewards;
+        public final double[] nextStates;
+        public final boolean[] terminals;
+        public final int[] indices;     // Positionen im Buffer (z.B. für Prioritäten)
+        public final double[] weights;  // Importance-Sampling Gewichte (uniform: 1.0)
+        private final int capacity;
+        int size;
+        
+        /**
+         * Batch für States mit 9 Feldern.
+         */
+        public Batch(int capacity) {
+            this(capacity, NeuralNetwork.INPUT_SIZE);
+        }
+        
+        public Batch(int capacity, int stateSize) {
+            this.capacity = capacity;
+            this.states = new double[capacity * stateSize];
+            this.actions = new int[capacity];
+            this.rewards = new double[capacity];
+            this.nextStates = new double[capacity * stateSize];
+            this.terminals = new boolean[capacity];
+            this.indices = new int[capacity];
+            this.weights = new double[capacity];
+        }
+        
+        /**
+         * Anzahl gültiger Samples nach dem letzten sample()
+         */
+        public int size() {
+            return size;
+        }
+        
+        public int capacity() {
+            return capacity;
+        }
+    }
+    
     private final int maxSize;
-    private final Random random;
+    private final int stateSize;
+    final Random random;
+    
+    // Struct-of-Arrays Speicher (Slot i: states[i * stateSize ...])
+    private final float[] states;
+    private final float[] nextStates;
+    private final int[] actions;
+    private final float[] rewards;
+    private final boolean[] terminals;
+    
+    private int next;   // Nächster Schreib-Slot (ältester Eintrag, sobald voll)
+    private int size;
+    
+    // Permutation der belegten Slots für Sampling ohne Zurücklegen (partieller Fisher-Yates)
+    private final int[] permutation;
     
     /**
-     * Erstellt Experience Replay Buffer.
+     * Erstellt Experience Replay Buffer für States mit 9 Feldern.
      * 
      * @param maxSize Maximale Anzahl gespeicherter Experiences
      * @param seed Random Seed für Sampling
      */
     public ExperienceReplay(int maxSize, long seed) {
+        this(maxSize, NeuralNetwork.INPUT_SIZE, seed);
+    }
+    
+    /**
+     * Erstellt Experience Replay Buffer.
+     * 
+     * @param maxSize Maximale Anzahl gespeicherter Experiences
+     * @param stateSize Anzahl Werte pro State
+     * @param seed Random Seed für Sampling
+     */
+    public ExperienceReplay(int maxSize, int stateSize, long seed) {
         this.maxSize = maxSize;
-        this.buffer = new ArrayList<>(maxSize);
+        this.stateSize = stateSize;
         this.random = new Random(seed);
+        this.states = new float[maxSize * stateSize];
+        this.nextStates = new float[maxSize * stateSize];
+        this.actions = new int[maxSize];
+        this.rewards = new float[maxSize];
+        this.terminals = new boolean[maxSize];
+        this.permutation = new int[maxSize];
     }
     
     /**
-     * Fügt neue Experience hinzu.
+     * Fügt neue Experience hinzu (Werte werden kopiert).
      * Wenn Buffer voll: Überschreibe älteste Experience (FIFO).
+     * 
+     * @return Slot, in dem die Experience gespeichert wurde
      */
-    public void add(double[] state, int action, double reward, 
+    public int add(double[] state, int action, double reward, 
                    double[] nextState, boolean terminal) {
-        Experience exp = new Experience(state, action, reward, nextState, terminal);
+        if (state.length != stateSize || nextState.length != stateSize) {
+            throw new IllegalArgumentException("State must have " + stateSize + " elements");
+        }
+        
+        int slot = next;
+        int offset = slot * stateSize;
+        for (int i = 0; i < stateSize; i++) {
+            states[offset + i] = (float) state[i];
+            nextStates[offset + i] = (float) nextState[i];
+        }
+        actions[slot] = action;
+        rewards[slot] = (float) reward;
+        terminals[slot] = terminal;
         
-        if (buffer.size() < maxSize) {
-            buffer.add(exp);
-        } else {
-            // FIFO: Ersetze älteste Experience
-            int randomIdx = random.nextInt(maxSize);
-            buffer.set(randomIdx, exp);
+        if (size < maxSize) {
+            // Neuer Slot wird Teil der Permutation
+            permutation[size] = slot;
+            size++;
         }
+        next = (slot + 1) % maxSize;
+        return slot;
+    }
+    
+    /**
+     * Sampelt zufälligen Mini-Batch ohne Zurücklegen in einen vorhandenen Batch.
+     * Aufwand O(batchSize), keine Allokation.
+     * 
+     * @param batchSize Gewünschte Anzahl Samples (höchstens batch.capacity())
+     * @param batch Ziel-Batch
+     * @return Anzahl tatsächlich gezogener Samples (kleiner, falls Buffer kleiner)
+     */
+    public int sample(int batchSize, Batch batch) {
+        checkBatch(batchSize, batch);
+        int n = Math.min(batchSize, size);
+        
+        // Partieller Fisher-Yates: die ersten n Einträge der Permutation werden neu gezogen
+        for (int b = 0; b < n; b++) {
+            int j = b + random.nextInt(size - b);
+            int slot = permutation[j];
+            permutation[j] = permutation[b];
+            permutation[b] = slot;
+            copyInto(slot, batch, b);
+            batch.weights[b] = 1.0;
+        }
+        batch.size = n;
+        return n;
+    }
+    
+    /**
+     * Meldet die TD-Fehler des zuletzt gesampelten Batches zurück.
+     * Uniformes Replay ignoriert sie; PrioritizedExperienceReplay leitet daraus
+     * die neuen Prioritäten ab.
+     * 
+     * @param batch Batch aus dem letzten sample()
+     * @param tdErrors TD-Fehler pro Sample (target - Q(s,a))
+     */
+    public void updatePriorities(Batch batch, double[] tdErrors) {
+        // Uniformes Sampling: keine Prioritäten
+    }
+    
+    void checkBatch(int batchSize, Batch batch) {
+        if (batchSize > batch.capacity) {
+            throw new IllegalArgumentException("Batch capacity " + batch.capacity + " < " + batchSize);
+        }
+    }
+    
+    /**
+     * Kopiert Slot in Position b des Batches.
+     */
+    void copyInto(int slot, Batch batch, int b) {
+        int from = slot * stateSize;
+        int to = b * stateSize;
+        for (int i = 0; i < stateSize; i++) {
+            batch.states[to + i] = states[from + i];
+            batch.nextStates[to + i] = nextStates[from + i];
+        }
+        batch.actions[b] = actions[slot];
+        batch.rewards[b] = rewards[slot];
+        batch.terminals[b] = terminals[slot];
+        batch.indices[b] = slot;
     }
     
     /**
      * Sampelt zufällige Mini-Batch aus Buffer.
+     * Komfort-Variante mit neuen Objekten; für Training sample(int, Batch) verwenden.
      * 
      * @param batchSize Anzahl Samples im Batch
      * @return Array von zufälligen Experiences
      */
     public Experience[] sample(int batchSize) {
-        if (buffer.size() < batchSize) {
-            batchSize = buffer.size();
-        }
-        
-        Experience[] batch = new Experience[batchSize];
+        Batch batch = new Batch(batchSize, stateSize);
+        int n = sample(batchSize, batch);
         
-        // Random Sampling ohne Replacement innerhalb eines Batches
-        List<Integer> indices = new ArrayList<>();
-        for (int i = 0; i < buffer.size(); i++) {
-            indices.add(i);
+        Experience[] result = new Experience[n];
+        for (int b = 0; b < n; b++) {
+            double[] state = new double[stateSize];
+            double[] nextState = new double[stateSize];
+            System.arraycopy(batch.states, b * stateSize, state, 0, stateSize);
+            System.arraycopy(batch.nextStates, b * stateSize, nextState, 0, stateSize);
+            result[b] = new Experience(state, batch.actions[b], batch.rewards[b],
+                                       nextState, batch.terminals[b]);
         }
-        
-        for (int i = 0; i < batchSize; i++) {
-            int randomIdx = random.nextInt(indices.size());
-            int bufferIdx = indices.remove(randomIdx);
-            batch[i] = buffer.get(bufferIdx);
-        }
-        
-        return batch;
+        return result;
     }
     
     /**
      * Gibt aktuelle Anzahl gespeicherter Experiences zurück.
      */
     public int size() {
-        return buffer.size();
+        return size;
+    }
+    
+    public int getCapacity() {
+        return maxSize;
+    }
+    
+    public int getStateSize() {
+        return stateSize;
     }
     
     /**
      * Prüft ob genug Experiences für Training vorhanden sind.
      */
     public boolean canSample(int batchSize) {
-        return buffer.size() >= batchSize;
+        return size >= batchSize;
     }
     
     /**
      * Löscht alle Experiences (für neues Training).
      */
     public void clear() {
-        buffer.clear();
+        size = 0;
+        next = 0;
     }
     
     /**
@@ -124,6 +279,6 @@ public class ExperienceReplay {
     @Override
     public String toString() {
         return String.format("ExperienceReplay [%d / %d experiences]", 
-                           buffer.size(), maxSize);
+                           size, maxSize);
     }
 }
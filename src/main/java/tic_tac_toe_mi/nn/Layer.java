@@ -1,10 +1,16 @@
 package tic_tac_toe_mi.nn;
 
+import java.util.Arrays;
 import java.util.Random;
 
 /**
  * Fully Connected Layer (Dense Layer) für Neural Network.
  * Implementiert Forward und Backward Pass mit Bias.
+ * 
+ * Alle Zwischenergebnisse liegen in Workspace-Puffern, die der Layer besitzt:
+ * für einzelne Samples bei der Konstruktion angelegt, für Batches beim ersten
+ * größeren Batch vergrößert. Die InPlace-Varianten allokieren daher nichts und
+ * geben Layer-eigene Puffer zurück (gültig bis zum nächsten Aufruf).
  */
 public class Layer {
     
@@ -12,10 +18,25 @@ public class Layer {
     private final double[] bias;       // Bias (outputSize)
     private final ActivationFunction activation;
     
-    // Cache für Backpropagation
-    private double[] lastInput;        // Input vom Forward Pass
-    private double[] lastZ;            // Weighted Sum (vor Aktivierung)
-    private double[] lastOutput;       // Output (nach Aktivierung)
+    // Workspace für einzelne Samples (auch Cache für Backpropagation)
+    private final double[] lastInput;  // Input vom Forward Pass
+    private final double[] lastZ;      // Weighted Sum (vor Aktivierung)
+    private final double[] lastOutput; // Output (nach Aktivierung)
+    private final double[] gradZ;      // dL/dz
+    private final double[] gradInput;  // dL/dInput für vorherigen Layer
+    
+    // Workspace für Batches (flach, batchCapacity × Breite)
+    private int batchCapacity;
+    private double[] lastInputBatch;
+    private double[] lastZBatch;
+    private double[] lastOutputBatch;
+    private double[] gradZBatch;
+    private double[] gradInputBatch;
+    private int lastBatchSize;
+    
+    // Gradienten-Akkumulatoren für Mini-Batch Updates
+    private final Matrix gradWeights;
+    private final double[] gradBias;
     
     private final int inputSize;
     private final int outputSize;
@@ -31,6 +52,14 @@ public class Layer {
         // Xavier/He Initialization für bessere Konvergenz
         this.weights = Matrix.randomXavier(outputSize, inputSize, random);
         this.bias = new double[outputSize];
+        this.gradWeights = new Matrix(outputSize, inputSize);
+        this.gradBias = new double[outputSize];
+        
+        this.lastInput = new double[inputSize];
+        this.lastZ = new double[outputSize];
+        this.lastOutput = new double[outputSize];
+        this.gradZ = new double[outputSize];
+        this.gradInput = new double[inputSize];
         
         // Bias mit kleinen Werten initialisieren
         for (int i = 0; i < outputSize; i++) {
@@ -41,8 +70,19 @@ public class Layer {
     /**
      * Forward Pass: Berechnet Output aus Input.
      * output = activation(W * input + b)
+     * 
+     * @return Neues Array mit dem Output
      */
     public double[] forward(double[] input) {
+        return forwardInPlace(input).clone();
+    }
+    
+    /**
+     * Forward Pass ohne Allokation.
+     * 
+     * @return Layer-eigener Output-Puffer (gültig bis zum nächsten Forward Pass)
+     */
+    public double[] forwardInPlace(double[] input) {
         if (input.length != inputSize) {
             throw new IllegalArgumentException(
                 String.format("Expected input size %d, got %d", inputSize, input.length)
@@ -50,18 +90,18 @@ public class Layer {
         }
         
         // Cache für Backpropagation
-        this.lastInput = input.clone();
+        System.arraycopy(input, 0, lastInput, 0, inputSize);
         
         // z = W * input + b (Weighted Sum)
-        this.lastZ = weights.multiply(input);
+        weights.multiply(lastInput, lastZ);
         for (int i = 0; i < outputSize; i++) {
             lastZ[i] += bias[i];
         }
         
         // output = activation(z)
-        this.lastOutput = activation.activate(lastZ);
+        activation.activate(lastZ, lastOutput, outputSize);
         
-        return lastOutput.clone();
+        return lastOutput;
     }
     
     /**
@@ -69,20 +109,30 @@ public class Layer {
      * 
      * @param gradOutput Gradient vom nächsten Layer (∂L/∂output)
      * @param learningRate Learning Rate für Weight Update
-     * @return Gradient für vorherigen Layer (∂L/∂input)
+     * @return Gradient für vorherigen Layer (∂L/∂input) als neues Array
      */
     public double[] backward(double[] gradOutput, double learningRate) {
+        return backwardInPlace(gradOutput, learningRate).clone();
+    }
+    
+    /**
+     * Backward Pass ohne Allokation.
+     * 
+     * @param gradOutput Gradient vom nächsten Layer (∂L/∂output)
+     * @param learningRate Learning Rate für Weight Update
+     * @return Layer-eigener Puffer mit ∂L/∂input (gültig bis zum nächsten Backward Pass)
+     */
+    public double[] backwardInPlace(double[] gradOutput, double learningRate) {
         if (gradOutput.length != outputSize) {
             throw new IllegalArgumentException("gradOutput size mismatch");
         }
         
         // Gradient bzgl. z: dL/dz = dL/dOutput * dOutput/dz
-        double[] gradZ = new double[outputSize];
-        double[] activationDerivatives = activation.derivative(lastZ);
+        System.arraycopy(gradOutput, 0, gradZ, 0, outputSize);
+        activation.multiplyDerivative(lastZ, gradZ, outputSize);
         
-        for (int i = 0; i < outputSize; i++) {
-            gradZ[i] = gradOutput[i] * activationDerivatives[i];
-        }
+        // Gradient für vorherigen Layer mit den Gewichten vor dem Update: dL/dInput = W^T * gradZ
+        weights.multiplyTranspose(gradZ, gradInput);
         
         // Update Weights: W -= learningRate * (gradZ ⊗ input^T)
         weights.updateWeights(lastInput, gradZ, learningRate);
@@ -92,8 +142,97 @@ public class Layer {
             bias[i] -= learningRate * gradZ[i];
         }
         
-        // Gradient für vorherigen Layer: dL/dInput = W^T * gradZ
-        return weights.multiplyTranspose(gradZ);
+        return gradInput;
+    }
+    
+    /**
+     * Batch Forward Pass: output = activation(input * W^T + b) für alle Samples.
+     * 
+     * @param input Flacher Batch (batchSize × inputSize, Row-Major)
+     * @param batchSize Anzahl Samples
+     * @return Layer-eigener flacher Output (batchSize × outputSize, gültig bis zum nächsten Aufruf)
+     */
+    public double[] forwardBatch(double[] input, int batchSize) {
+        if (input.length < batchSize * inputSize) {
+            throw new IllegalArgumentException(
+                String.format("Expected %d × %d inputs, got %d", batchSize, inputSize, input.length)
+            );
+        }
+        ensureBatchCapacity(batchSize);
+        
+        // Cache für Backpropagation
+        System.arraycopy(input, 0, lastInputBatch, 0, batchSize * inputSize);
+        this.lastBatchSize = batchSize;
+        
+        // Z = X * W^T + b
+        weights.multiplyBatch(lastInputBatch, batchSize, lastZBatch);
+        for (int b = 0; b < batchSize; b++) {
+            int offset = b * outputSize;
+            for (int i = 0; i < outputSize; i++) {
+                lastZBatch[offset + i] += bias[i];
+            }
+        }
+        
+        activation.activate(lastZBatch, lastOutputBatch, batchSize * outputSize);
+        return lastOutputBatch;
+    }
+    
+    /**
+     * Batch Backward Pass: Akkumuliert die Gradienten über den ganzen Batch
+     * und aktualisiert Gewichte und Bias einmal.
+     * 
+     * @param gradOutput Gradient vom nächsten Layer (batchSize × outputSize),
+     *                   bereits über den Batch gemittelt
+     * @param learningRate Learning Rate für Weight Update
+     * @return Layer-eigener Gradient für vorherigen Layer (batchSize × inputSize)
+     */
+    public double[] backwardBatch(double[] gradOutput, double learningRate) {
+        int batchSize = lastBatchSize;
+        int n = batchSize * outputSize;
+        if (gradOutput.length < n) {
+            throw new IllegalArgumentException("gradOutput size mismatch");
+        }
+        
+        // dL/dZ = dL/dOutput * f'(Z)
+        System.arraycopy(gradOutput, 0, gradZBatch, 0, n);
+        activation.multiplyDerivative(lastZBatch, gradZBatch, n);
+        
+        // Gradienten akkumulieren: dW = dZ^T * X, db = Summe über dZ
+        gradWeights.clear();
+        gradWeights.addOuterProducts(gradZBatch, lastInputBatch, batchSize);
+        Arrays.fill(gradBias, 0.0);
+        for (int b = 0; b < batchSize; b++) {
+            int offset = b * outputSize;
+            for (int i = 0; i < outputSize; i++) {
+                gradBias[i] += gradZBatch[offset + i];
+            }
+        }
+        
+        // Gradient für vorherigen Layer mit den Gewichten vor dem Update: dX = dZ * W
+        weights.multiplyTransposeBatch(gradZBatch, batchSize, gradInputBatch);
+        
+        // Ein Update pro Batch
+        weights.updateWeights(gradWeights, learningRate);
+        for (int i = 0; i < outputSize; i++) {
+            bias[i] -= learningRate * gradBias[i];
+        }
+        
+        return gradInputBatch;
+    }
+    
+    /**
+     * Vergrößert die Batch-Puffer, falls nötig (danach keine Allokation mehr für diese Größe).
+     */
+    private void ensureBatchCapacity(int batchSize) {
+        if (batchSize <= batchCapacity) {
+            return;
+        }
+        batchCapacity = batchSize;
+        lastInputBatch = new double[batchSize * inputSize];
+        lastZBatch = new double[batchSize * outputSize];
+        lastOutputBatch = new double[batchSize * outputSize];
+        gradZBatch = new double[batchSize * outputSize];
+        gradInputBatch = new double[batchSize * inputSize];
     }
     
     /**
@@ -104,11 +243,21 @@ public class Layer {
             throw new IllegalArgumentException("Layer dimensions must match");
         }
         
+        this.weights.copyFrom(other.weights);
+        System.arraycopy(other.bias, 0, this.bias, 0, outputSize);
+    }
+    
+    /**
+     * Polyak-Averaging: Gewichte und Bias um den Anteil tau zu other ziehen.
+     */
+    public void blendWeightsFrom(Layer other, double tau) {
+        if (this.inputSize != other.inputSize || this.outputSize != other.outputSize) {
+            throw new IllegalArgumentException("Layer dimensions must match");
+        }
+        
+        this.weights.blendFrom(other.weights, tau);
         for (int i = 0; i < outputSize; i++) {
-            for (int j = 0; j < inputSize; j++) {
-                this.weights.set(i, j, other.weights.get(i, j));
-            }
-            this.bias[i] = other.bias[i];
+            bias[i] += tau * (other.bias[i] - bias[i]);
         }
     }
     
@@ -128,6 +277,13 @@ public class Layer {
         return bias.clone();
     }
     
+    /**
+     * Überschreibt den Bias (Kopie, z.B. beim Laden gespeicherter Gewichte).
+     */
+    public void setBias(double[] values) {
+        System.arraycopy(values, 0, bias, 0, outputSize);
+    }
+    
     /**
      * Debugging: Layer-Info.
      */
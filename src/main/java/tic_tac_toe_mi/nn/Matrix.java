@@ -1,14 +1,21 @@
 package tic_tac_toe_mi.nn;
 
+import java.util.Arrays;
 import java.util.Random;
 
 /**
  * Einfache Matrix-Klasse für Neural Network Operationen.
  * Minimalistisch: Nur was für Forward/Backward Pass nötig ist.
+ * 
+ * Speicherung flach in Row-Major Reihenfolge: Element (i, j) liegt bei data[i * cols + j].
+ * Batches werden ebenso flach übergeben: Sample b, Element j liegt bei batch[b * breite + j].
  */
 public class Matrix {
     
-    private final double[][] data;
+    // Rechenkerne (Scalar oder Vector API), einmal beim Start gewählt
+    static final MatrixKernels KERNELS = MatrixKernels.select();
+    
+    private final double[] data;
     private final int rows;
     private final int cols;
     
@@ -18,7 +25,7 @@ public class Matrix {
     public Matrix(int rows, int cols) {
         this.rows = rows;
         this.cols = cols;
-        this.data = new double[rows][cols];
+        this.data = new double[rows * cols];
     }
     
     /**
@@ -27,9 +34,9 @@ public class Matrix {
     public Matrix(double[][] data) {
         this.rows = data.length;
         this.cols = data[0].length;
-        this.data = new double[rows][cols];
+        this.data = new double[rows * cols];
         for (int i = 0; i < rows; i++) {
-            System.arraycopy(data[i], 0, this.data[i], 0, cols);
+            System.arraycopy(data[i], 0, this.data, i * cols, cols);
         }
     }
     
@@ -40,10 +47,8 @@ public class Matrix {
     public static Matrix randomXavier(int rows, int cols, Random random) {
         Matrix m = new Matrix(rows, cols);
         double scale = Math.sqrt(2.0 / (rows + cols)); // Xavier Init
-        for (int i = 0; i < rows; i++) {
-            for (int j = 0; j < cols; j++) {
-                m.data[i][j] = (random.nextDouble() * 2 - 1) * scale;
-            }
+        for (int i = 0; i < m.data.length; i++) {
+            m.data[i] = (random.nextDouble() * 2 - 1) * scale;
         }
         return m;
     }
@@ -58,16 +63,21 @@ public class Matrix {
         }
         
         double[] result = new double[rows];
-        for (int i = 0; i < rows; i++) {
-            double sum = 0;
-            for (int j = 0; j < cols; j++) {
-                sum += data[i][j] * vector[j];
-            }
-            result[i] = sum;
-        }
+        multiply(vector, result);
         return result;
     }
     
+    /**
+     * Matrix-Vektor Multiplikation in einen vorhandenen Puffer (ohne Allokation).
+     * result muss mindestens rows Elemente haben.
+     */
+    public void multiply(double[] vector, double[] result) {
+        if (vector.length < cols || result.length < rows) {
+            throw new IllegalArgumentException("Vector size must match matrix cols");
+        }
+        KERNELS.multiply(data, rows, cols, vector, result);
+    }
+    
     /**
      * Transponierte Matrix-Vektor Multiplikation: M^T * v = result
      * Nötig für Backpropagation!
@@ -78,41 +88,99 @@ public class Matrix {
         }
         
         double[] result = new double[cols];
-        for (int j = 0; j < cols; j++) {
-            double sum = 0;
-            for (int i = 0; i < rows; i++) {
-                sum += data[i][j] * vector[i];
-            }
-            result[j] = sum;
-        }
+        multiplyTranspose(vector, result);
         return result;
     }
     
+    /**
+     * Transponierte Matrix-Vektor Multiplikation in einen vorhandenen Puffer (ohne Allokation).
+     * result muss mindestens cols Elemente haben.
+     */
+    public void multiplyTranspose(double[] vector, double[] result) {
+        if (vector.length < rows || result.length < cols) {
+            throw new IllegalArgumentException("Vector size must match matrix rows");
+        }
+        KERNELS.multiplyTranspose(data, rows, cols, vector, result);
+    }
+    
     /**
      * Aktualisiert Gewichte basierend auf Gradienten.
      * weight -= learningRate * gradient
      */
     public void updateWeights(double[] input, double[] gradient, double learningRate) {
         // Outer product: gradient (rows) × input^T (cols)
-        for (int i = 0; i < rows; i++) {
-            for (int j = 0; j < cols; j++) {
-                data[i][j] -= learningRate * gradient[i] * input[j];
-            }
+        KERNELS.rank1Update(data, rows, cols, gradient, input, learningRate);
+    }
+    
+    /**
+     * Aktualisiert Gewichte mit einer Gradienten-Matrix gleicher Größe.
+     * weight -= learningRate * gradient
+     */
+    public void updateWeights(Matrix gradient, double learningRate) {
+        checkSameShape(gradient);
+        KERNELS.subtractScaled(data, gradient.data, learningRate, data.length);
+    }
+    
+    // ========================================================================
+    // Batch-Operationen (GEMM)
+    // ========================================================================
+    
+    /**
+     * Batch-Forward: output = input * M^T
+     * input ist (batchSize × cols), output ist (batchSize × rows).
+     */
+    public void multiplyBatch(double[] input, int batchSize, double[] output) {
+        checkBatch(input, batchSize, cols, output, rows);
+        KERNELS.multiplyBatch(data, rows, cols, input, batchSize, output);
+    }
+    
+    /**
+     * Batch-Backward: output = gradient * M
+     * gradient ist (batchSize × rows), output ist (batchSize × cols).
+     */
+    public void multiplyTransposeBatch(double[] gradient, int batchSize, double[] output) {
+        checkBatch(gradient, batchSize, rows, output, cols);
+        KERNELS.multiplyTransposeBatch(data, rows, cols, gradient, batchSize, output);
+    }
+    
+    /**
+     * Akkumuliert die Summe der äußeren Produkte über einen Batch: M += gradient^T * input
+     * gradient ist (batchSize × rows), input ist (batchSize × cols).
+     * Wird für Gewichts-Gradienten genutzt (M ist dann eine Gradienten-Matrix).
+     */
+    public void addOuterProducts(double[] gradient, double[] input, int batchSize) {
+        if (gradient.length < batchSize * rows || input.length < batchSize * cols) {
+            throw new IllegalArgumentException("Batch size mismatch");
         }
+        KERNELS.addOuterProducts(data, rows, cols, gradient, input, batchSize);
+    }
+    
+    /**
+     * Setzt alle Elemente auf 0.
+     */
+    public void clear() {
+        Arrays.fill(data, 0.0);
     }
     
     /**
      * Zugriff auf einzelnes Element.
      */
     public double get(int i, int j) {
-        return data[i][j];
+        return data[i * cols + j];
     }
     
     /**
      * Setzen einzelnes Element.
      */
     public void set(int i, int j, double value) {
-        data[i][j] = value;
+        data[i * cols + j] = value;
+    }
+    
+    /**
+     * Name der aktiven Rechenkerne ("scalar" oder "vector (n × double)").
+     */
+    public static String getKernelName() {
+        return KERNELS.name();
     }
     
     public int getRows() {
@@ -128,12 +196,42 @@ public class Matrix {
      */
     public Matrix copy() {
         Matrix m = new Matrix(rows, cols);
-        for (int i = 0; i < rows; i++) {
-            System.arraycopy(this.data[i], 0, m.data[i], 0, cols);
-        }
+        System.arraycopy(this.data, 0, m.data, 0, data.length);
         return m;
     }
     
+    /**
+     * Übernimmt alle Werte einer gleich großen Matrix.
+     */
+    public void copyFrom(Matrix other) {
+        checkSameShape(other);
+        System.arraycopy(other.data, 0, this.data, 0, data.length);
+    }
+    
+    /**
+     * Zieht alle Werte um den Anteil tau zu einer gleich großen Matrix:
+     * this = (1 - tau) · this + tau · other (Polyak-Averaging).
+     */
+    public void blendFrom(Matrix other, double tau) {
+        checkSameShape(other);
+        for (int i = 0; i < data.length; i++) {
+            data[i] += tau * (other.data[i] - data[i]);
+        }
+    }
+    
+    private void checkSameShape(Matrix other) {
+        if (other.rows != rows || other.cols != cols) {
+            throw new IllegalArgumentException("Matrix dimensions must match");
+        }
+    }
+    
+    private static void checkBatch(double[] input, int batchSize, int inputWidth,
+                                   double[] output, int outputWidth) {
+        if (input.length < batchSize * inputWidth || output.length < batchSize * outputWidth) {
+            throw new IllegalArgumentException("Batch size mismatch");
+        }
+    }
+    
     /**
      * Debugging: Matrix als String.
      */
@@ -144,7 +242,7 @@ public class Matrix {
         for (int i = 0; i < Math.min(rows, 3); i++) {
             sb.append("  [");
             for (int j = 0; j < Math.min(cols, 5); j++) {
-                sb.append(String.format("%8.4f", data[i][j]));
+                sb.append(String.format("%8.4f", get(i, j)));
             }
             if (cols > 5) sb.append(" ...");
             sb.append("]\n");
@@ -0,0 +1,73 @@
+package tic_tac_toe_mi.nn;
+
+/**
+ * Rechenkerne für Matrix und ActivationFunction auf flachen Row-Major Arrays.
+ * 
+ * Zwei Implementierungen: ScalarKernels (reines Java) und VectorKernels
+ * (jdk.incubator.vector, SIMD). Welche verwendet wird, entscheidet select()
+ * einmal beim Start.
+ */
+interface MatrixKernels {
+    
+    /** y = A * x (A ist rows × cols) */
+    void multiply(double[] a, int rows, int cols, double[] x, double[] y);
+    
+    /** y = A^T * v */
+    void multiplyTranspose(double[] a, int rows, int cols, double[] v, double[] y);
+    
+    /** A -= learningRate * (g ⊗ x^T) */
+    void rank1Update(double[] a, int rows, int cols, double[] g, double[] x, double learningRate);
+    
+    /** a[i] -= factor * b[i] für die ersten n Elemente */
+    void subtractScaled(double[] a, double[] b, double factor, int n);
+    
+    /** Y = X * A^T (X ist batch × cols, Y ist batch × rows) */
+    void multiplyBatch(double[] a, int rows, int cols, double[] x, int batch, double[] y);
+    
+    /** Y = G * A (G ist batch × rows, Y ist batch × cols) */
+    void multiplyTransposeBatch(double[] a, int rows, int cols, double[] g, int batch, double[] y);
+    
+    /** A += G^T * X (G ist batch × rows, X ist batch × cols) */
+    void addOuterProducts(double[] a, int rows, int cols, double[] g, double[] x, int batch);
+    
+    /** out[i] = max(0, in[i]) */
+    void relu(double[] in, double[] out, int n);
+    
+    /** gradient[i] = 0 wo z[i] <= 0 */
+    void reluDerivative(double[] z, double[] gradient, int n);
+    
+    /** Name für Ausgaben und Benchmarks */
+    String name();
+    
+    /** true wenn die Implementierung auf dieser CPU schneller als Scalar sein kann */
+    default boolean isAccelerated() {
+        return false;
+    }
+    
+    /**
+     * Wählt die Kernel-Implementierung beim Start.
+     * 
+     * Vector-Kernels werden genutzt, wenn das Modul jdk.incubator.vector geladen ist
+     * (JVM-Option --add-modules jdk.incubator.vector) und die CPU mindestens
+     * 2 doubles pro Register verarbeitet. Mit -Dnn.kernels=scalar bzw. =vector
+     * lässt sich die Wahl erzwingen.
+     */
+    static MatrixKernels select() {
+        String wunsch = System.getProperty("nn.kernels", "auto");
+        if (!wunsch.equals("scalar")
+                && ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                // Per Reflection, damit ohne Modul keine Vector-Klasse gelinkt wird
+                MatrixKernels vector = (MatrixKernels) Class.forName("tic_tac_toe_mi.nn.VectorKernels")
+                                                            .getDeclaredConstructor()
+                                                            .newInstance();
+                if (wunsch.equals("vector") || vector.isAccelerated()) {
+                    return vector;
+                }
+            } catch (ReflectiveOperationException | LinkageError e) {
+                // Fallback auf Scalar
+            }
+        }
+        return new ScalarKernels();
+    }
+}
@@ -31,18 +31,41 @@ public class NNDemo {
         private final double gamma = 0.99;
         private double epsilon = 0.40;
         private final double epsilonDecay = 0.995;
-        private final double learningRate = 0.001;
+        // Mini-Batch: gemittelter Gradient, daher Batch-Größe × bisherige Sample-Rate
+        private static final int BATCH_SIZE = 32;
+        private final double learningRate = 0.032;
+        
+        // Wiederverwendete Puffer für die Zugauswahl
+        private final double[] stateBuffer = new double[9];
+        private final double[] qBuffer = new double[9];
+        
+        // Batch-Training mit Target Network
+        private final DQNTrainer dqn;
         
         public SimpleNNTrainer() {
+            this(new ExperienceReplay(10000, 43));
+        }
+        
+        /**
+         * Trainer mit eigenem Replay Buffer (z.B. PrioritizedExperienceReplay).
+         */
+        public SimpleNNTrainer(ExperienceReplay replay) {
             this.nn = new NeuralNetwork(42);
-            this.replay = new ExperienceReplay(10000, 43);
+            this.replay = replay;
+            this.dqn = new DQNTrainer(nn, replay, BATCH_SIZE, learningRate, gamma);
         }
         
         /**
          * Konvertiert Spielfeld zu NN-Input.
          */
         public double[] toState(Spielfeld feld, Farbe meineFarbe) {
-            double[] state = new double[9];
+            return toState(feld, meineFarbe, new double[9]);
+        }
+        
+        /**
+         * Konvertiert Spielfeld zu NN-Input in einen vorhandenen Puffer.
+         */
+        public double[] toState(Spielfeld feld, Farbe meineFarbe, double[] state) {
             for (int z = 0; z < 3; z++) {
                 for (int s = 0; s < 3; s++) {
                     int idx = z * 3 + s;
@@ -59,14 +82,14 @@ public class NNDemo {
          * Wählt beste Aktion (ε-greedy).
          */
         public Zug selectAction(Spielfeld feld, Farbe farbe, boolean explore) {
-            double[] state = toState(feld, farbe);
             List<Zug> legal = getLegalMoves(feld);
             
             if (explore && RANDOM.nextDouble() < epsilon) {
                 return legal.get(RANDOM.nextInt(legal.size()));
             }
             
-            double[] qValues = nn.predict(state);
+            double[] qValues = qBuffer;
+            nn.predict(toState(feld, farbe, stateBuffer), qValues);
             Zug best = legal.get(0);
             double bestQ = qValues[zugToAction(best)];
             
@@ -81,30 +104,19 @@ public class NNDemo {
             return best;
         }
         
+        /**
+         * Trainiertes Network (z.B. für NetworkStrategy im Turnier).
+         */
+        public NeuralNetwork getNetwork() {
+            return nn;
+        }
+        
         /**
          * Trainiert NN auf einem Batch.
+         * Targets kommen aus dem Target Network (Double-DQN, nur legale Folgezüge).
          */
         public void trainBatch() {
-            if (!replay.canSample(32)) return;
-            
-            ExperienceReplay.Experience[] batch = replay.sample(32);
-            
-            for (ExperienceReplay.Experience exp : batch) {
-                double[] target = nn.predict(exp.state).clone();
-                
-                if (exp.terminal) {
-                    target[exp.action] = exp.reward;
-                } else {
-                    double[] futureQ = nn.predict(exp.nextState);
-                    double maxQ = Double.NEGATIVE_INFINITY;
-                    for (double q : futureQ) {
-                        if (q > maxQ) maxQ = q;
-                    }
-                    target[exp.action] = exp.reward + gamma * maxQ;
-                }
-                
-                nn.train(exp.state, target, learningRate);
-            }
+            dqn.trainStep();
         }
         
         /**
@@ -148,6 +160,11 @@ public class NNDemo {
                 // Decay epsilon
                 epsilon = Math.max(0.01, epsilon * epsilonDecay);
                 
+                // IS-Korrektur gegen Trainingsende vollständig (β → 1)
+                if (replay instanceof PrioritizedExperienceReplay per) {
+                    per.setBeta(0.4 + 0.6 * (ep + 1) / episodes);
+                }
+                
                 if ((ep + 1) % 10000 == 0) {
                     System.out.printf("Episode %,6d | ε=%.4f | Buffer=%,d\n", 
                                     ep + 1, epsilon, replay.size());
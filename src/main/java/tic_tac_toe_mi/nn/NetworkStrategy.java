@@ -0,0 +1,68 @@
+package tic_tac_toe_mi.nn;
+
+import java.util.Random;
+
+import tic_tac_toe_mi.BitSpielfeld;
+import tic_tac_toe_mi.Strategie;
+
+/**
+ * Greedy-Zugwahl eines trainierten Networks auf dem BitSpielfeld.
+ * 
+ * Der Forward Pass arbeitet in Puffern der Layer und ist daher nicht
+ * thread-sicher. Jeder Thread bekommt beim ersten Zug eine eigene Kopie
+ * des Networks (ca. 10k Parameter), das Original wird nur gelesen.
+ * 
+ * Input-Kodierung wie im NNDemo: 1 = eigener Stein, -1 = Gegner, 0 = leer.
+ */
+public final class NetworkStrategy implements Strategie {
+    
+    private final NeuralNetwork network;
+    private final ThreadLocal<Worker> workers;
+    
+    /**
+     * Thread-lokale Kopie mit Puffern
+     */
+    private static final class Worker {
+        final NeuralNetwork network;
+        final double[] state = new double[NeuralNetwork.INPUT_SIZE];
+        final double[] qValues = new double[NeuralNetwork.OUTPUT_SIZE];
+        
+        Worker(NeuralNetwork network) {
+            this.network = network;
+        }
+    }
+    
+    /**
+     * @param network Trainiertes Network (wird nicht verändert)
+     */
+    public NetworkStrategy(NeuralNetwork network) {
+        this.network = network;
+        this.workers = ThreadLocal.withInitial(() -> new Worker(network.copy()));
+    }
+    
+    @Override
+    public int waehleAktion(BitSpielfeld brett, Random random) {
+        Worker worker = workers.get();
+        int own = brett.getEigene();
+        int opponent = brett.getGegner();
+        for (int i = 0; i < NeuralNetwork.INPUT_SIZE; i++) {
+            int bit = 1 << i;
+            worker.state[i] = (own & bit) != 0 ? 1.0 : (opponent & bit) != 0 ? -1.0 : 0.0;
+        }
+        worker.network.predict(worker.state, worker.qValues);
+        
+        // Nur freie Felder (Legal-Move Masking)
+        int[] moves = brett.getMoeglicheAktionen();
+        int best = moves[0];
+        for (int i = 1; i < moves.length; i++) {
+            if (worker.qValues[moves[i]] > worker.qValues[best]) {
+                best = moves[i];
+            }
+        }
+        return best;
+    }
+    
+    public NeuralNetwork getNetwork() {
+        return network;
+    }
+}
@@ -3,6 +3,10 @@ package tic_tac_toe_mi.nn;
 import java.util.Random;
 import java.io.*;
 
+import tic_tac_toe_mi.metriken.Histogramm;
+import tic_tac_toe_mi.metriken.MetrikRegistry;
+import tic_tac_toe_mi.metriken.Zaehler;
+
 /**
  * Multi-Layer Perceptron (MLP) Neural Network.
  * Implementiert Deep Q-Network (DQN) für Tic-Tac-Toe.
@@ -11,17 +15,34 @@ import java.io.*;
  * - Input: 9 Felder (Boardstate: -1=O, 0=Leer, 1=X)
  * - Hidden Layers: 128 → 64 Neuronen (ReLU)
  * - Output: 9 Q-Values für jede mögliche Aktion (Linear)
+ * 
+ * Für größere Bretter (m,n,k-Spiele) werden Input- und Output-Größe
+ * aus der Anzahl der Felder abgeleitet, siehe MnkSpiel#erstelleNetzwerk.
  */
 public class NeuralNetwork {
     
     private final Layer[] layers;
     private final Random random;
+    private final int inputSize;
+    private final int outputSize;
+    
+    // Workspace für den Loss-Gradienten (Batch-Puffer wächst bei Bedarf)
+    private final double[] gradOutput;
+    private double[] gradOutputBatch = new double[0];
     
-    // Netzwerk-Konfiguration
+    // Netzwerk-Konfiguration (3x3 Tic-Tac-Toe)
     public static final int INPUT_SIZE = 9;
     public static final int OUTPUT_SIZE = 9;
     private static final int[] DEFAULT_HIDDEN = {128, 64};
     
+    // Metriken: ein Training Step dauert Mikrosekunden, hier wird jeder Aufruf gemessen
+    private static final Histogramm TRAIN_LATENCY = MetrikRegistry.STANDARD.histogramm(
+        "ttt_nn_train_sekunden", "art=\"einzeln\"", "Dauer eines Training Steps (Forward + Backward)");
+    private static final Histogramm TRAIN_BATCH_LATENCY = MetrikRegistry.STANDARD.histogramm(
+        "ttt_nn_train_sekunden", "art=\"batch\"", "Dauer eines Training Steps (Forward + Backward)");
+    private static final Zaehler TRAIN_SAMPLES = MetrikRegistry.STANDARD.zaehler(
+        "ttt_nn_samples_total", "Trainierte Samples (Batch zählt batchSize)");
+    
     /**
      * Erstellt Neural Network mit Default-Architektur (9-128-64-9).
      */
@@ -36,14 +57,29 @@ public class NeuralNetwork {
      * @param seed Random Seed für reproducibility
      */
     public NeuralNetwork(int[] hiddenSizes, long seed) {
+        this(INPUT_SIZE, hiddenSizes, OUTPUT_SIZE, seed);
+    }
+    
+    /**
+     * Erstellt Neural Network mit beliebiger Input- und Output-Größe.
+     * 
+     * @param inputSize Anzahl Inputs (ein Wert pro Feld)
+     * @param hiddenSizes Array mit Größen der Hidden Layers
+     * @param outputSize Anzahl Q-Values (eine pro Aktion)
+     * @param seed Random Seed für reproducibility
+     */
+    public NeuralNetwork(int inputSize, int[] hiddenSizes, int outputSize, long seed) {
         this.random = new Random(seed);
+        this.inputSize = inputSize;
+        this.outputSize = outputSize;
+        this.gradOutput = new double[outputSize];
         
         // Berechne Layer-Struktur: Input → Hidden[0] → ... → Hidden[n] → Output
         int totalLayers = hiddenSizes.length + 1; // Hidden + Output Layer
         this.layers = new Layer[totalLayers];
         
         // Input → Hidden[0]
-        layers[0] = new Layer(INPUT_SIZE, hiddenSizes[0], ActivationFunction.RELU, random);
+        layers[0] = new Layer(inputSize, hiddenSizes[0], ActivationFunction.RELU, random);
         
         // Hidden[i] → Hidden[i+1]
         for (int i = 1; i < hiddenSizes.length; i++) {
@@ -52,30 +88,47 @@ public class NeuralNetwork {
         
         // Hidden[last] → Output (LINEAR für Q-Values!)
         int lastHiddenSize = hiddenSizes[hiddenSizes.length - 1];
-        layers[totalLayers - 1] = new Layer(lastHiddenSize, OUTPUT_SIZE, ActivationFunction.LINEAR, random);
+        layers[totalLayers - 1] = new Layer(lastHiddenSize, outputSize, ActivationFunction.LINEAR, random);
     }
     
     /**
      * Forward Pass: Berechnet Q-Values für gegebenen State.
      * 
      * @param state Board State als double[] (9 Elemente: -1, 0, 1)
-     * @return Q-Values für alle 9 Aktionen
+     * @return Q-Values für alle 9 Aktionen (neues Array)
      */
     public double[] predict(double[] state) {
-        if (state.length != INPUT_SIZE) {
-            throw new IllegalArgumentException("State must have " + INPUT_SIZE + " elements");
+        return forward(state).clone();
+    }
+    
+    /**
+     * Forward Pass ohne Allokation: schreibt die Q-Values in einen vorhandenen Puffer.
+     * 
+     * @param state Board State (9 Elemente)
+     * @param qValues Ziel-Puffer mit mindestens 9 Elementen
+     */
+    public void predict(double[] state, double[] qValues) {
+        System.arraycopy(forward(state), 0, qValues, 0, outputSize);
+    }
+    
+    /**
+     * Forward Pass durch alle Layer, Ergebnis im Puffer des letzten Layers.
+     */
+    private double[] forward(double[] state) {
+        if (state.length != inputSize) {
+            throw new IllegalArgumentException("State must have " + inputSize + " elements");
         }
         
         double[] output = state;
         for (Layer layer : layers) {
-            output = layer.forward(output);
+            output = layer.forwardInPlace(output);
         }
         return output;
     }
     
     /**
      * Training Step: Aktualisiert Gewichte basierend auf Loss.
-     * Verwendet Mean Squared Error (MSE) Loss.
+     * Verwendet Mean Squared Error (MSE) Loss. Allokiert nichts.
      * 
      * @param state Input State
      * @param targetQValues Ziel Q-Values (von Bellman Equation)
@@ -83,41 +136,145 @@ public class NeuralNetwork {
      * @return Loss (MSE) für Monitoring
      */
     public double train(double[] state, double[] targetQValues, double learningRate) {
+        long start = System.nanoTime();
+        
         // Forward Pass
-        double[] predictedQValues = predict(state);
+        double[] predictedQValues = forward(state);
         
         // Berechne Loss (MSE) und Gradienten
         double loss = 0;
-        double[] gradOutput = new double[OUTPUT_SIZE];
-        
-        for (int i = 0; i < OUTPUT_SIZE; i++) {
+        for (int i = 0; i < outputSize; i++) {
             double error = predictedQValues[i] - targetQValues[i];
             loss += error * error;
-            gradOutput[i] = 2.0 * error / OUTPUT_SIZE; // MSE Gradient
+            gradOutput[i] = 2.0 * error / outputSize; // MSE Gradient
         }
-        loss /= OUTPUT_SIZE;
+        loss /= outputSize;
         
         // Backward Pass (Backpropagation)
         double[] gradient = gradOutput;
         for (int i = layers.length - 1; i >= 0; i--) {
-            gradient = layers[i].backward(gradient, learningRate);
+            gradient = layers[i].backwardInPlace(gradient, learningRate);
         }
         
+        TRAIN_LATENCY.erfasseSeit(start);
+        TRAIN_SAMPLES.erhoehe();
         return loss;
     }
     
+    /**
+     * Batch Forward Pass: Q-Values für mehrere States auf einmal.
+     * 
+     * @param states Flacher Batch (batchSize × 9, Row-Major)
+     * @param batchSize Anzahl States
+     * @return Flache Q-Values (batchSize × 9, neues Array)
+     */
+    public double[] predictBatch(double[] states, int batchSize) {
+        double[] qValues = new double[batchSize * outputSize];
+        predictBatch(states, batchSize, qValues);
+        return qValues;
+    }
+    
+    /**
+     * Batch Forward Pass ohne Allokation.
+     * 
+     * @param states Flacher Batch (batchSize × 9)
+     * @param batchSize Anzahl States
+     * @param qValues Ziel-Puffer mit mindestens batchSize × 9 Elementen
+     */
+    public void predictBatch(double[] states, int batchSize, double[] qValues) {
+        System.arraycopy(forwardBatch(states, batchSize), 0, qValues, 0, batchSize * outputSize);
+    }
+    
+    private double[] forwardBatch(double[] states, int batchSize) {
+        double[] output = states;
+        for (Layer layer : layers) {
+            output = layer.forwardBatch(output, batchSize);
+        }
+        return output;
+    }
+    
     /**
      * Batch Training: Trainiert auf mehreren Samples gleichzeitig.
      * Verwendet Average Gradient über Batch (Mini-Batch Gradient Descent).
      */
     public double trainBatch(double[][] states, double[][] targets, double learningRate) {
-        double totalLoss = 0;
+        int batchSize = states.length;
+        double[] flatStates = new double[batchSize * inputSize];
+        double[] flatTargets = new double[batchSize * outputSize];
+        for (int b = 0; b < batchSize; b++) {
+            System.arraycopy(states[b], 0, flatStates, b * inputSize, inputSize);
+            System.arraycopy(targets[b], 0, flatTargets, b * outputSize, outputSize);
+        }
+        return trainBatch(flatStates, flatTargets, batchSize, learningRate);
+    }
+    
+    /**
+     * Batch Training auf flachen Arrays: ein Forward Pass, ein Backward Pass
+     * und ein Gewichts-Update pro Layer für den ganzen Batch.
+     * 
+     * @param states Flacher Batch (batchSize × 9)
+     * @param targets Ziel Q-Values (batchSize × 9)
+     * @param batchSize Anzahl Samples
+     * @param learningRate Learning Rate für Gradient Descent
+     * @return Durchschnittlicher Loss (MSE) über den Batch
+     */
+    public double trainBatch(double[] states, double[] targets, int batchSize, double learningRate) {
+        return trainBatch(states, targets, null, batchSize, learningRate);
+    }
+    
+    /**
+     * Gewichtetes Batch Training: der Gradient jedes Samples wird mit seinem
+     * Gewicht skaliert (Importance-Sampling Gewichte bei Prioritized Replay).
+     * 
+     * @param states Flacher Batch (batchSize × 9)
+     * @param targets Ziel Q-Values (batchSize × 9)
+     * @param weights Gewicht pro Sample (batchSize) oder null für gleichgewichtet
+     * @param batchSize Anzahl Samples
+     * @param learningRate Learning Rate für Gradient Descent
+     * @return Durchschnittlicher gewichteter Loss (MSE) über den Batch
+     */
+    public double trainBatch(double[] states, double[] targets, double[] weights,
+                             int batchSize, double learningRate) {
+        if (states.length < batchSize * inputSize || targets.length < batchSize * outputSize) {
+            throw new IllegalArgumentException("States and targets must have " + batchSize + " samples");
+        }
+        long start = System.nanoTime();
         
-        for (int i = 0; i < states.length; i++) {
-            totalLoss += train(states[i], targets[i], learningRate);
+        // Forward Pass
+        double[] predicted = forwardBatch(states, batchSize);
+        
+        // MSE über Outputs und Batch gemittelt
+        double loss = 0;
+        int n = batchSize * outputSize;
+        if (gradOutputBatch.length < n) {
+            gradOutputBatch = new double[n];
+        }
+        if (weights == null) {
+            for (int i = 0; i < n; i++) {
+                double error = predicted[i] - targets[i];
+                loss += error * error;
+                gradOutputBatch[i] = 2.0 * error / n;
+            }
+        } else {
+            for (int b = 0; b < batchSize; b++) {
+                double w = weights[b];
+                for (int i = b * outputSize; i < (b + 1) * outputSize; i++) {
+                    double error = predicted[i] - targets[i];
+                    loss += w * error * error;
+                    gradOutputBatch[i] = 2.0 * w * error / n;
+                }
+            }
         }
         
-        return totalLoss / states.length;
+        // Backward Pass (Backpropagation)
+        double[] gradient = gradOutputBatch;
+        for (int i = layers.length - 1; i >= 0; i--) {
+            gradient = layers[i].backwardBatch(gradient, learningRate);
+        }
+        
+        TRAIN_BATCH_LATENCY.erfasseSeit(start);
+        TRAIN_SAMPLES.erhoehe(batchSize);
+        return loss / n;
     }
     
     /**
@@ -133,6 +290,45 @@ public class NeuralNetwork {
         }
     }
     
+    /**
+     * Soft Update für Target Networks (Polyak-Averaging):
+     * θ = (1 - tau) · θ + tau · θ_other
+     */
+    public void blendWeightsFrom(NeuralNetwork other, double tau) {
+        if (this.layers.length != other.layers.length) {
+            throw new IllegalArgumentException("Networks must have same architecture");
+        }
+        
+        for (int i = 0; i < layers.length; i++) {
+            this.layers[i].blendWeightsFrom(other.layers[i], tau);
+        }
+    }
+    
+    /**
+     * Erstellt ein Network mit gleicher Architektur und gleichen Gewichten.
+     */
+    public NeuralNetwork copy() {
+        NeuralNetwork copy = new NeuralNetwork(inputSize, getHiddenSizes(), outputSize, 0);
+        copy.copyWeightsFrom(this);
+        return copy;
+    }
+    
+    public int getInputSize() {
+        return inputSize;
+    }
+    
+    public int getOutputSize() {
+        return outputSize;
+    }
+    
+    private int[] getHiddenSizes() {
+        int[] hiddenSizes = new int[layers.length - 1];
+        for (int i = 0; i < hiddenSizes.length; i++) {
+            hiddenSizes[i] = layers[i].getOutputSize();
+        }
+        return hiddenSizes;
+    }
+    
     /**
      * Speichert Network-Weights in Datei.
      */
@@ -140,12 +336,12 @@ public class NeuralNetwork {
         try (ObjectOutputStream oos = new ObjectOutputStream(
                 new FileOutputStream(filename))) {
             
-            // Speichere Architektur
-            int[] hiddenSizes = new int[layers.length - 1];
-            for (int i = 0; i < hiddenSizes.length; i++) {
-                hiddenSizes[i] = layers[i].getOutputSize();
+            // Speichere Architektur (3x3-Netze im bisherigen Format)
+            if (inputSize == INPUT_SIZE && outputSize == OUTPUT_SIZE) {
+                oos.writeObject(getHiddenSizes());
+            } else {
+                oos.writeObject(new int[][] {{inputSize, outputSize}, getHiddenSizes()});
             }
-            oos.writeObject(hiddenSizes);
             
             // Speichere Weights & Bias für jeden Layer
             for (Layer layer : layers) {
@@ -171,9 +367,14 @@ public class NeuralNetwork {
         try (ObjectInputStream ois = new ObjectInputStream(
                 new FileInputStream(filename))) {
             
-            // Lade Architektur
-            int[] hiddenSizes = (int[]) ois.readObject();
-            NeuralNetwork nn = new NeuralNetwork(hiddenSizes, seed);
+            // Lade Architektur (int[] = 3x3, int[][] = {{Input, Output}, Hidden})
+            Object architektur = ois.readObject();
+            NeuralNetwork nn;
+            if (architektur instanceof int[][] groessen) {
+                nn = new NeuralNetwork(groessen[0][0], groessen[1], groessen[0][1], seed);
+            } else {
+                nn = new NeuralNetwork((int[]) architektur, seed);
+            }
             
             // Lade Weights & Bias für jeden Layer
             for (Layer layer : nn.layers) {
@@ -184,10 +385,12 @@ public class NeuralNetwork {
                     }
                 }
                 
+                // getBias() liefert eine Kopie, daher explizit zurückschreiben
                 double[] bias = layer.getBias();
                 for (int i = 0; i < bias.length; i++) {
                     bias[i] = ois.readDouble();
                 }
+                layer.setBias(bias);
             }
             
             return nn;
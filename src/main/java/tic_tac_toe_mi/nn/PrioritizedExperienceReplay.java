@@ -0,0 +1,137 @@
+package tic_tac_toe_mi.nn;
+
+/**
+ * Prioritized Experience Replay (Schaul et al.).
+ * 
+ * Statt uniform wird proportional zur Priorität p_i = (|TD-Fehler| + ε)^α
+ * gezogen. Seltene, überraschende Transitionen (z.B. verlorene End-States)
+ * werden dadurch häufiger wiederholt. Den entstehenden Bias gleichen
+ * Importance-Sampling Gewichte w_i = (N · P(i))^-β aus, die im Batch
+ * landen und an NeuralNetwork.trainBatch übergeben werden.
+ * 
+ * Gleiche Oberfläche wie ExperienceReplay (add/sample/canSample);
+ * nach jedem Trainingsschritt meldet der Trainer die TD-Fehler über
+ * updatePriorities() zurück. Die Prioritäten liegen in einem SumTree,
+ * Einfügen, Update und Ziehen kosten je O(log n).
+ */
+public class PrioritizedExperienceReplay extends ExperienceReplay {
+    
+    private static final double PRIORITY_EPSILON = 0.01;
+    
+    private final SumTree tree;
+    private final double alpha;
+    private double beta;
+    
+    // Neue Experiences erhalten die bisher größte Priorität (werden mindestens einmal gezogen)
+    private double maxPriority = 1.0;
+    
+    /**
+     * Erstellt Prioritized Replay mit Standardwerten α = 0.6, β = 0.4.
+     * 
+     * @param maxSize Maximale Anzahl gespeicherter Experiences
+     * @param seed Random Seed für Sampling
+     */
+    public PrioritizedExperienceReplay(int maxSize, long seed) {
+        this(maxSize, NeuralNetwork.INPUT_SIZE, 0.6, 0.4, seed);
+    }
+    
+    /**
+     * @param maxSize Maximale Anzahl gespeicherter Experiences
+     * @param stateSize Anzahl Werte pro State
+     * @param alpha Stärke der Priorisierung (0 = uniform)
+     * @param beta Stärke der IS-Korrektur (1 = vollständig)
+     * @param seed Random Seed für Sampling
+     */
+    public PrioritizedExperienceReplay(int maxSize, int stateSize, double alpha, double beta, long seed) {
+        super(maxSize, stateSize, seed);
+        this.tree = new SumTree(maxSize);
+        this.alpha = alpha;
+        this.beta = beta;
+    }
+    
+    @Override
+    public int add(double[] state, int action, double reward, 
+                   double[] nextState, boolean terminal) {
+        int slot = super.add(state, action, reward, nextState, terminal);
+        tree.set(slot, maxPriority);
+        return slot;
+    }
+    
+    /**
+     * Stratifiziertes Ziehen proportional zur Priorität (mit Zurücklegen):
+     * [0, total) wird in batchSize gleich große Segmente geteilt, aus jedem
+     * wird ein Wert gezogen. Schreibt Slots und IS-Gewichte in den Batch.
+     * Die Gewichte werden auf das größte Gewicht im Batch normiert (≤ 1).
+     */
+    @Override
+    public int sample(int batchSize, Batch batch) {
+        checkBatch(batchSize, batch);
+        int n = Math.min(batchSize, size());
+        if (n == 0) {
+            batch.size = 0;
+            return 0;
+        }
+        
+        double total = tree.total();
+        double segment = total / n;
+        double maxWeight = 0;
+        for (int b = 0; b < n; b++) {
+            double prefix = Math.min((b + random.nextDouble()) * segment, total);
+            int slot = tree.find(prefix);
+            copyInto(slot, batch, b);
+            
+            double probability = tree.get(slot) / total;
+            double weight = Math.pow(size() * probability, -beta);
+            batch.weights[b] = weight;
+            maxWeight = Math.max(maxWeight, weight);
+        }
+        for (int b = 0; b < n; b++) {
+            batch.weights[b] /= maxWeight;
+        }
+        batch.size = n;
+        return n;
+    }
+    
+    /**
+     * Setzt neue Prioritäten p = (|δ| + ε)^α für die Slots des Batches.
+     */
+    @Override
+    public void updatePriorities(Batch batch, double[] tdErrors) {
+        for (int b = 0; b < batch.size(); b++) {
+            double priority = Math.pow(Math.abs(tdErrors[b]) + PRIORITY_EPSILON, alpha);
+            tree.set(batch.indices[b], priority);
+            maxPriority = Math.max(maxPriority, priority);
+        }
+    }
+    
+    /**
+     * Priorität eines Buffer-Slots (für Debugging und Tests).
+     */
+    public double getPriority(int slot) {
+        return tree.get(slot);
+    }
+    
+    public double getBeta() {
+        return beta;
+    }
+    
+    /**
+     * Setzt β, üblicherweise im Training von ~0.4 gegen 1 erhöht.
+     */
+    public void setBeta(double beta) {
+        this.beta = beta;
+    }
+    
+    @Override
+    public void clear() {
+        super.clear();
+        tree.clear();
+        maxPriority = 1.0;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("PrioritizedExperienceReplay [%d / %d experiences, β=%.2f]", 
+                           size(), getCapacity(), beta);
+    }
+}
@@ -2,6 +2,7 @@ package tic_tac_toe_mi.nn;
 
 /**
  * Quick NN Test - Reduzierte Version für schnellen Test.
+ * Mit Argument "--prioritized" wird Prioritized Experience Replay verwendet.
  */
 public class QuickNNTest {
     public static void main(String[] args) throws Exception {
@@ -9,7 +10,10 @@ public class QuickNNTest {
         System.out.println("  QUICK NN TEST (10k episodes)");
         System.out.println("═══════════════════════════════════════════════════\n");
         
-        NNDemo.SimpleNNTrainer trainer = new NNDemo.SimpleNNTrainer();
+        boolean prioritized = args.length > 0 && args[0].equals("--prioritized");
+        NNDemo.SimpleNNTrainer trainer = prioritized
+            ? new NNDemo.SimpleNNTrainer(new PrioritizedExperienceReplay(10000, 43))
+            : new NNDemo.SimpleNNTrainer();
         
         // Training
         long start = System.currentTimeMillis();
@@ -0,0 +1,185 @@
+package tic_tac_toe_mi.nn;
+
+import java.util.Arrays;
+
+/**
+ * Scalar-Kernels in reinem Java (Fallback ohne jdk.incubator.vector).
+ * Gekachelt über Batch und innere Dimension; jeweils vier Zeilen pro Durchlauf,
+ * damit jeder geladene Wert mehrfach verwendet wird.
+ */
+final class ScalarKernels implements MatrixKernels {
+    
+    // Kachelgrößen für die Batch-Multiplikationen (passen zusammen in den L1/L2-Cache)
+    private static final int BLOCK_BATCH = 32;
+    private static final int BLOCK_INNER = 256;
+    
+    @Override
+    public void multiply(double[] a, int rows, int cols, double[] x, double[] y) {
+        for (int i = 0; i < rows; i++) {
+            int offset = i * cols;
+            double sum = 0;
+            for (int j = 0; j < cols; j++) {
+                sum += a[offset + j] * x[j];
+            }
+            y[i] = sum;
+        }
+    }
+    
+    @Override
+    public void multiplyTranspose(double[] a, int rows, int cols, double[] v, double[] y) {
+        // Zeilenweise (v[i] * Zeile i aufaddieren) statt spaltenweise: sequentieller Speicherzugriff
+        Arrays.fill(y, 0, cols, 0.0);
+        for (int i = 0; i < rows; i++) {
+            int offset = i * cols;
+            double vi = v[i];
+            for (int j = 0; j < cols; j++) {
+                y[j] += a[offset + j] * vi;
+            }
+        }
+    }
+    
+    @Override
+    public void rank1Update(double[] a, int rows, int cols, double[] g, double[] x, double learningRate) {
+        for (int i = 0; i < rows; i++) {
+            int offset = i * cols;
+            double gi = learningRate * g[i];
+            for (int j = 0; j < cols; j++) {
+                a[offset + j] -= gi * x[j];
+            }
+        }
+    }
+    
+    @Override
+    public void subtractScaled(double[] a, double[] b, double factor, int n) {
+        for (int i = 0; i < n; i++) {
+            a[i] -= factor * b[i];
+        }
+    }
+    
+    @Override
+    public void multiplyBatch(double[] a, int rows, int cols, double[] x, int batch, double[] y) {
+        Arrays.fill(y, 0, batch * rows, 0.0);
+        
+        for (int b0 = 0; b0 < batch; b0 += BLOCK_BATCH) {
+            int b1 = Math.min(b0 + BLOCK_BATCH, batch);
+            for (int k0 = 0; k0 < cols; k0 += BLOCK_INNER) {
+                int k1 = Math.min(k0 + BLOCK_INNER, cols);
+                for (int i = 0; i < rows; i++) {
+                    int w = i * cols;
+                    int b = b0;
+                    for (; b + 3 < b1; b += 4) {
+                        int x0 = b * cols;
+                        int x1 = x0 + cols;
+                        int x2 = x1 + cols;
+                        int x3 = x2 + cols;
+                        double s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+                        for (int k = k0; k < k1; k++) {
+                            double wk = a[w + k];
+                            s0 += wk * x[x0 + k];
+                            s1 += wk * x[x1 + k];
+                            s2 += wk * x[x2 + k];
+                            s3 += wk * x[x3 + k];
+                        }
+                        y[b * rows + i] += s0;
+                        y[(b + 1) * rows + i] += s1;
+                        y[(b + 2) * rows + i] += s2;
+                        y[(b + 3) * rows + i] += s3;
+                    }
+                    for (; b < b1; b++) {
+                        int xb = b * cols;
+                        double s = 0;
+                        for (int k = k0; k < k1; k++) {
+                            s += a[w + k] * x[xb + k];
+                        }
+                        y[b * rows + i] += s;
+                    }
+                }
+            }
+        }
+    }
+    
+    @Override
+    public void multiplyTransposeBatch(double[] a, int rows, int cols, double[] g, int batch, double[] y) {
+        Arrays.fill(y, 0, batch * cols, 0.0);
+        
+        for (int b = 0; b < batch; b++) {
+            int gb = b * rows;
+            int o = b * cols;
+            int i = 0;
+            for (; i + 3 < rows; i += 4) {
+                double g0 = g[gb + i];
+                double g1 = g[gb + i + 1];
+                double g2 = g[gb + i + 2];
+                double g3 = g[gb + i + 3];
+                int w0 = i * cols;
+                int w1 = w0 + cols;
+                int w2 = w1 + cols;
+                int w3 = w2 + cols;
+                for (int j = 0; j < cols; j++) {
+                    y[o + j] += g0 * a[w0 + j] + g1 * a[w1 + j]
+                              + g2 * a[w2 + j] + g3 * a[w3 + j];
+                }
+            }
+            for (; i < rows; i++) {
+                double gi = g[gb + i];
+                int w = i * cols;
+                for (int j = 0; j < cols; j++) {
+                    y[o + j] += gi * a[w + j];
+                }
+            }
+        }
+    }
+    
+    @Override
+    public void addOuterProducts(double[] a, int rows, int cols, double[] g, double[] x, int batch) {
+        for (int b0 = 0; b0 < batch; b0 += BLOCK_BATCH) {
+            int b1 = Math.min(b0 + BLOCK_BATCH, batch);
+            for (int i = 0; i < rows; i++) {
+                int w = i * cols;
+                int b = b0;
+                for (; b + 3 < b1; b += 4) {
+                    double g0 = g[b * rows + i];
+                    double g1 = g[(b + 1) * rows + i];
+                    double g2 = g[(b + 2) * rows + i];
+                    double g3 = g[(b + 3) * rows + i];
+                    int x0 = b * cols;
+                    int x1 = x0 + cols;
+                    int x2 = x1 + cols;
+                    int x3 = x2 + cols;
+                    for (int j = 0; j < cols; j++) {
+                        a[w + j] += g0 * x[x0 + j] + g1 * x[x1 + j]
+                                  + g2 * x[x2 + j] + g3 * x[x3 + j];
+                    }
+                }
+                for (; b < b1; b++) {
+                    double gb = g[b * rows + i];
+                    int xb = b * cols;
+                    for (int j = 0; j < cols; j++) {
+                        a[w + j] += gb * x[xb + j];
+                    }
+                }
+            }
+        }
+    }
+    
+    @Override
+    public void relu(double[] in, double[] out, int n) {
+        for (int i = 0; i < n; i++) {
+            out[i] = Math.max(0, in[i]);
+        }
+    }
+    
+    @Override
+    public void reluDerivative(double[] z, double[] gradient, int n) {
+        for (int i = 0; i < n; i++) {
+            if (z[i] <= 0) {
+                gradient[i] = 0.0;
+            }
+        }
+    }
+    
+    @Override
+    public String name() {
+        return "scalar";
+    }
+}
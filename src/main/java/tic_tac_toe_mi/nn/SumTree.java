@@ -0,0 +1,77 @@
+package tic_tac_toe_mi.nn;
+
+import java.util.Arrays;
+
+/**
+ * Array-basierter Sum-Tree für Prioritized Experience Replay.
+ * 
+ * Die Blätter halten die Priorität pro Buffer-Slot, jeder innere Knoten
+ * die Summe seiner Kinder. Dadurch sind Update und proportionales Ziehen
+ * (Präfixsumme → Slot) jeweils O(log n).
+ * 
+ * Layout: tree[1] ist die Wurzel, Kinder von k liegen bei 2k und 2k+1,
+ * Blatt i bei leaves + i (leaves = nächste Zweierpotenz ≥ Kapazität).
+ */
+final class SumTree {
+    
+    private final int leaves;
+    private final double[] tree;
+    
+    SumTree(int capacity) {
+        int n = 1;
+        while (n < capacity) {
+            n <<= 1;
+        }
+        this.leaves = n;
+        this.tree = new double[2 * n];
+    }
+    
+    /**
+     * Setzt Priorität eines Slots und aktualisiert alle Vorfahren.
+     */
+    void set(int index, double priority) {
+        int node = leaves + index;
+        tree[node] = priority;
+        // Summen neu bilden statt Deltas aufaddieren (kein Rundungsdrift)
+        for (node >>= 1; node >= 1; node >>= 1) {
+            tree[node] = tree[2 * node] + tree[2 * node + 1];
+        }
+    }
+    
+    double get(int index) {
+        return tree[leaves + index];
+    }
+    
+    /**
+     * Summe aller Prioritäten.
+     */
+    double total() {
+        return tree[1];
+    }
+    
+    /**
+     * Findet den Slot, in dessen Intervall die Präfixsumme fällt.
+     * Steigt nur in Teilbäume mit positiver Summe ab, daher liefert auch
+     * ein durch Rundung zu großer Wert nie einen leeren Slot.
+     * 
+     * @param prefix Wert in [0, total())
+     * @return Slot-Index
+     */
+    int find(double prefix) {
+        int node = 1;
+        while (node < leaves) {
+            int left = 2 * node;
+            if (prefix < tree[left] || tree[left + 1] <= 0) {
+                node = left;
+            } else {
+                prefix -= tree[left];
+                node = left + 1;
+            }
+        }
+        return node - leaves;
+    }
+    
+    void clear() {
+        Arrays.fill(tree, 0);
+    }
+}
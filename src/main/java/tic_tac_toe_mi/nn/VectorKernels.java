@@ -0,0 +1,273 @@
+package tic_tac_toe_mi.nn;
+
+import java.util.Arrays;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * SIMD-Kernels mit der Vector API (jdk.incubator.vector).
+ * Nutzt die breiteste Registergröße der CPU (AVX2: 4 doubles, AVX-512: 8 doubles)
+ * und FMA; Reste am Zeilenende werden scalar berechnet.
+ * 
+ * Wird nur über MatrixKernels.select() per Reflection geladen, damit die
+ * Anwendung ohne --add-modules jdk.incubator.vector lauffähig bleibt.
+ */
+final class VectorKernels implements MatrixKernels {
+    
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+    private static final int LANES = SPECIES.length();
+    
+    // Batch-Kachel: so viele Input-Zeilen bleiben im Cache, während alle Gewichtszeilen durchlaufen
+    private static final int BLOCK_BATCH = 32;
+    
+    @Override
+    public void multiply(double[] a, int rows, int cols, double[] x, double[] y) {
+        int bound = SPECIES.loopBound(cols);
+        for (int i = 0; i < rows; i++) {
+            int offset = i * cols;
+            DoubleVector acc = DoubleVector.zero(SPECIES);
+            int j = 0;
+            for (; j < bound; j += LANES) {
+                acc = DoubleVector.fromArray(SPECIES, a, offset + j)
+                                  .fma(DoubleVector.fromArray(SPECIES, x, j), acc);
+            }
+            double sum = acc.reduceLanes(VectorOperators.ADD);
+            for (; j < cols; j++) {
+                sum += a[offset + j] * x[j];
+            }
+            y[i] = sum;
+        }
+    }
+    
+    @Override
+    public void multiplyTranspose(double[] a, int rows, int cols, double[] v, double[] y) {
+        Arrays.fill(y, 0, cols, 0.0);
+        int i = 0;
+        for (; i + 3 < rows; i += 4) {
+            axpy4(v[i], v[i + 1], v[i + 2], v[i + 3], a, i * cols, cols, y, 0);
+        }
+        for (; i < rows; i++) {
+            axpy(v[i], a, i * cols, y, 0, cols);
+        }
+    }
+    
+    @Override
+    public void rank1Update(double[] a, int rows, int cols, double[] g, double[] x, double learningRate) {
+        for (int i = 0; i < rows; i++) {
+            axpy(-learningRate * g[i], x, 0, a, i * cols, cols);
+        }
+    }
+    
+    @Override
+    public void subtractScaled(double[] a, double[] b, double factor, int n) {
+        axpy(-factor, b, 0, a, 0, n);
+    }
+    
+    @Override
+    public void multiplyBatch(double[] a, int rows, int cols, double[] x, int batch, double[] y) {
+        int bound = SPECIES.loopBound(cols);
+        for (int b0 = 0; b0 < batch; b0 += BLOCK_BATCH) {
+            int b1 = Math.min(b0 + BLOCK_BATCH, batch);
+            for (int i = 0; i < rows; i++) {
+                int w = i * cols;
+                int b = b0;
+                // Vier Samples pro Gewichtszeile: jeder Gewichts-Vektor wird viermal genutzt
+                for (; b + 3 < b1; b += 4) {
+                    int x0 = b * cols;
+                    int x1 = x0 + cols;
+                    int x2 = x1 + cols;
+                    int x3 = x2 + cols;
+                    DoubleVector s0 = DoubleVector.zero(SPECIES);
+                    DoubleVector s1 = DoubleVector.zero(SPECIES);
+                    DoubleVector s2 = DoubleVector.zero(SPECIES);
+                    DoubleVector s3 = DoubleVector.zero(SPECIES);
+                    int k = 0;
+                    for (; k < bound; k += LANES) {
+                        DoubleVector wk = DoubleVector.fromArray(SPECIES, a, w + k);
+                        s0 = wk.fma(DoubleVector.fromArray(SPECIES, x, x0 + k), s0);
+                        s1 = wk.fma(DoubleVector.fromArray(SPECIES, x, x1 + k), s1);
+                        s2 = wk.fma(DoubleVector.fromArray(SPECIES, x, x2 + k), s2);
+                        s3 = wk.fma(DoubleVector.fromArray(SPECIES, x, x3 + k), s3);
+                    }
+                    double r0 = s0.reduceLanes(VectorOperators.ADD);
+                    double r1 = s1.reduceLanes(VectorOperators.ADD);
+                    double r2 = s2.reduceLanes(VectorOperators.ADD);
+                    double r3 = s3.reduceLanes(VectorOperators.ADD);
+                    for (; k < cols; k++) {
+                        double wk = a[w + k];
+                        r0 += wk * x[x0 + k];
+                        r1 += wk * x[x1 + k];
+                        r2 += wk * x[x2 + k];
+                        r3 += wk * x[x3 + k];
+                    }
+                    y[b * rows + i] = r0;
+                    y[(b + 1) * rows + i] = r1;
+                    y[(b + 2) * rows + i] = r2;
+                    y[(b + 3) * rows + i] = r3;
+                }
+                for (; b < b1; b++) {
+                    int xb = b * cols;
+                    DoubleVector s = DoubleVector.zero(SPECIES);
+                    int k = 0;
+                    for (; k < bound; k += LANES) {
+                        s = DoubleVector.fromArray(SPECIES, a, w + k)
+                                        .fma(DoubleVector.fromArray(SPECIES, x, xb + k), s);
+                    }
+                    double r = s.reduceLanes(VectorOperators.ADD);
+                    for (; k < cols; k++) {
+                        r += a[w + k] * x[xb + k];
+                    }
+                    y[b * rows + i] = r;
+                }
+            }
+        }
+    }
+    
+    @Override
+    public void multiplyTransposeBatch(double[] a, int rows, int cols, double[] g, int batch, double[] y) {
+        Arrays.fill(y, 0, batch * cols, 0.0);
+        for (int b = 0; b < batch; b++) {
+            int gb = b * rows;
+            int o = b * cols;
+            int i = 0;
+            for (; i + 3 < rows; i += 4) {
+                axpy4(g[gb + i], g[gb + i + 1], g[gb + i + 2], g[gb + i + 3], a, i * cols, cols, y, o);
+            }
+            for (; i < rows; i++) {
+                axpy(g[gb + i], a, i * cols, y, o, cols);
+            }
+        }
+    }
+    
+    @Override
+    public void addOuterProducts(double[] a, int rows, int cols, double[] g, double[] x, int batch) {
+        int bound = SPECIES.loopBound(cols);
+        for (int b0 = 0; b0 < batch; b0 += BLOCK_BATCH) {
+            int b1 = Math.min(b0 + BLOCK_BATCH, batch);
+            for (int i = 0; i < rows; i++) {
+                int w = i * cols;
+                int b = b0;
+                for (; b + 3 < b1; b += 4) {
+                    double g0 = g[b * rows + i];
+                    double g1 = g[(b + 1) * rows + i];
+                    double g2 = g[(b + 2) * rows + i];
+                    double g3 = g[(b + 3) * rows + i];
+                    DoubleVector v0 = DoubleVector.broadcast(SPECIES, g0);
+                    DoubleVector v1 = DoubleVector.broadcast(SPECIES, g1);
+                    DoubleVector v2 = DoubleVector.broadcast(SPECIES, g2);
+                    DoubleVector v3 = DoubleVector.broadcast(SPECIES, g3);
+                    int x0 = b * cols;
+                    int x1 = x0 + cols;
+                    int x2 = x1 + cols;
+                    int x3 = x2 + cols;
+                    int j = 0;
+                    for (; j < bound; j += LANES) {
+                        DoubleVector acc = DoubleVector.fromArray(SPECIES, a, w + j);
+                        acc = DoubleVector.fromArray(SPECIES, x, x0 + j).fma(v0, acc);
+                        acc = DoubleVector.fromArray(SPECIES, x, x1 + j).fma(v1, acc);
+                        acc = DoubleVector.fromArray(SPECIES, x, x2 + j).fma(v2, acc);
+                        acc = DoubleVector.fromArray(SPECIES, x, x3 + j).fma(v3, acc);
+                        acc.intoArray(a, w + j);
+                    }
+                    for (; j < cols; j++) {
+                        a[w + j] += g0 * x[x0 + j] + g1 * x[x1 + j]
+                                  + g2 * x[x2 + j] + g3 * x[x3 + j];
+                    }
+                }
+                for (; b < b1; b++) {
+                    axpy(g[b * rows + i], x, b * cols, a, w, cols);
+                }
+            }
+        }
+    }
+    
+    @Override
+    public void relu(double[] in, double[] out, int n) {
+        int bound = SPECIES.loopBound(n);
+        int i = 0;
+        for (; i < bound; i += LANES) {
+            DoubleVector.fromArray(SPECIES, in, i).max(0.0).intoArray(out, i);
+        }
+        for (; i < n; i++) {
+            out[i] = Math.max(0, in[i]);
+        }
+    }
+    
+    @Override
+    public void reluDerivative(double[] z, double[] gradient, int n) {
+        int bound = SPECIES.loopBound(n);
+        int i = 0;
+        for (; i < bound; i += LANES) {
+            VectorMask<Double> inaktiv = DoubleVector.fromArray(SPECIES, z, i)
+                                                     .compare(VectorOperators.LE, 0.0);
+            DoubleVector.fromArray(SPECIES, gradient, i).blend(0.0, inaktiv).intoArray(gradient, i);
+        }
+        for (; i < n; i++) {
+            if (z[i] <= 0) {
+                gradient[i] = 0.0;
+            }
+        }
+    }
+    
+    @Override
+    public String name() {
+        return "vector (" + LANES + " × double)";
+    }
+    
+    @Override
+    public boolean isAccelerated() {
+        return LANES >= 2;
+    }
+    
+    // ========================================================================
+    // Hilfsmethoden
+    // ========================================================================
+    
+    /**
+     * y[yOff..] += alpha * x[xOff..] für n Elemente
+     */
+    private static void axpy(double alpha, double[] x, int xOff, double[] y, int yOff, int n) {
+        DoubleVector va = DoubleVector.broadcast(SPECIES, alpha);
+        int bound = SPECIES.loopBound(n);
+        int j = 0;
+        for (; j < bound; j += LANES) {
+            DoubleVector.fromArray(SPECIES, x, xOff + j)
+                        .fma(va, DoubleVector.fromArray(SPECIES, y, yOff + j))
+                        .intoArray(y, yOff + j);
+        }
+        for (; j < n; j++) {
+            y[yOff + j] += alpha * x[xOff + j];
+        }
+    }
+    
+    /**
+     * y[yOff..] += c0 * a[Zeile 0] + c1 * a[Zeile 1] + c2 * a[Zeile 2] + c3 * a[Zeile 3],
+     * Zeilen ab aOff mit Länge n (ein Lade-/Speichervorgang für y statt vier)
+     */
+    private static void axpy4(double c0, double c1, double c2, double c3,
+                              double[] a, int aOff, int n, double[] y, int yOff) {
+        int r1 = aOff + n;
+        int r2 = r1 + n;
+        int r3 = r2 + n;
+        DoubleVector v0 = DoubleVector.broadcast(SPECIES, c0);
+        DoubleVector v1 = DoubleVector.broadcast(SPECIES, c1);
+        DoubleVector v2 = DoubleVector.broadcast(SPECIES, c2);
+        DoubleVector v3 = DoubleVector.broadcast(SPECIES, c3);
+        int bound = SPECIES.loopBound(n);
+        int j = 0;
+        for (; j < bound; j += LANES) {
+            DoubleVector acc = DoubleVector.fromArray(SPECIES, y, yOff + j);
+            acc = DoubleVector.fromArray(SPECIES, a, aOff + j).fma(v0, acc);
+            acc = DoubleVector.fromArray(SPECIES, a, r1 + j).fma(v1, acc);
+            acc = DoubleVector.fromArray(SPECIES, a, r2 + j).fma(v2, acc);
+            acc = DoubleVector.fromArray(SPECIES, a, r3 + j).fma(v3, acc);
+            acc.intoArray(y, yOff + j);
+        }
+        for (; j < n; j++) {
+            y[yOff + j] += c0 * a[aOff + j] + c1 * a[r1 + j] + c2 * a[r2 + j] + c3 * a[r3 + j];
+        }
+    }
+}
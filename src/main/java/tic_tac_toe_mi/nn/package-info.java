@@ -5,12 +5,19 @@
  * 
  * Komponenten:
  * - Matrix.java: Einfache Matrix-Operationen
+ * - MatrixKernels.java: Rechenkerne (ScalarKernels bzw. VectorKernels mit SIMD)
  * - ActivationFunction.java: ReLU, Sigmoid, Tanh, Linear
  * - Layer.java: Fully Connected Layer mit Forward/Backward Pass
  * - NeuralNetwork.java: Multi-Layer Perceptron (MLP)
  * - ExperienceReplay.java: Experience Replay Buffer für stabiles Training
+ * - PrioritizedExperienceReplay.java: Replay nach TD-Fehler (SumTree)
+ * - DQNTrainer.java: Trainingsschritt mit Target Network und Double-DQN
+ * - NetworkStrategy.java: Greedy-Zugwahl für SchnellBewertung und Turnier
  * - NNSpieler.java: ILernenderSpieler Implementation mit DQN
  * 
+ * Die SIMD-Kernels (jdk.incubator.vector) werden automatisch genutzt, wenn die JVM
+ * mit --add-modules jdk.incubator.vector gestartet wird; sonst läuft die Scalar-Variante.
+ * 
  * @author johanneshaick
  */
 package tic_tac_toe_mi.nn;
@@ -1,7 +1,43 @@
 package tic_tac_toe_mi;
 
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import tic_tac_toe_mi.nn.DQNTrainer;
+import tic_tac_toe_mi.nn.ExperienceReplay;
+import tic_tac_toe_mi.nn.NeuralNetwork;
+import tic_tac_toe_mi.nn.PrioritizedExperienceReplay;
+import tic_tac_toe_mi.metriken.Histogramm;
+import tic_tac_toe_mi.metriken.Messwert;
+import tic_tac_toe_mi.metriken.Metrik;
+import tic_tac_toe_mi.metriken.MetrikCsvExport;
+import tic_tac_toe_mi.metriken.MetrikRegistry;
+import tic_tac_toe_mi.metriken.MetrikServer;
+import tic_tac_toe_mi.metriken.Zaehler;
 import tictactoe.Farbe;
 import tictactoe.Spielfeld;
+import tictactoe.spieler.AbbruchNachIterationen;
 
 /**
  * Unit Tests für alle Komponenten
@@ -24,6 +60,20 @@ public class AllTests {
         testSpielzustandAnalyzer();
         testSpielzustandKonverter();
         testQLearningAgent();
+        testTrainingsEvents();
+        testExakterLoeser();
+        testBitSpielfeld();
+        testParallelesTraining();
+        testSchnellBewertung();
+        testTurnier();
+        testSpielSitzung();
+        testZugTabelle();
+        testMnk();
+        testAlphaBeta();
+        testMcts();
+        testParameterSuche();
+        testNeuralNetwork();
+        testMetriken();
         
         System.out.println();
         System.out.println("═══════════════════════════════════════════════════════");
@@ -150,6 +200,32 @@ public class AllTests {
         kopie.setFarbe(0, 0, Farbe.Kreis);
         assertNotEquals(konverter.zuString(original), konverter.zuString(kopie), "Kopie unabhängig");
         System.out.println();
+        
+        System.out.println("Test-Gruppe: State-Codes");
+        assertEquals(0, SpielzustandKonverter.stringZuCode("_________"), "Leeres Feld = Code 0");
+        assertEquals(19682, SpielzustandKonverter.stringZuCode("OOOOOOOOO"), "Maximaler Code = 3^9-1");
+        assertEquals(norm1, SpielzustandKonverter.codeZuString(konverter.zuCodeNormalisiert(s1, Farbe.Kreuz)),
+                     "Code ↔ String konsistent (Kreuz)");
+        assertEquals(norm2, SpielzustandKonverter.codeZuString(konverter.zuCodeNormalisiert(s1, Farbe.Kreis)),
+                     "Code ↔ String konsistent (Kreis)");
+        System.out.println();
+        
+        System.out.println("Test-Gruppe: Kanonische Form");
+        String[] ecken = {"X________", "__X______", "______X__", "________X"};
+        boolean gleicheForm = true;
+        for (String ecke : ecken) {
+            gleicheForm &= SpielzustandKonverter.kanonischerCode(SpielzustandKonverter.stringZuCode(ecke))
+                        == SpielzustandKonverter.stringZuCode("________X");
+        }
+        assertTrue(gleicheForm, "Alle Ecken haben dieselbe kanonische Form");
+        int code = SpielzustandKonverter.stringZuCode("XO_______");
+        int t = SpielzustandKonverter.kanonischeTransformation(code);
+        String kanonischerString = SpielzustandKonverter.codeZuString(SpielzustandKonverter.kanonischerCode(code));
+        assertEquals('X', kanonischerString.charAt(SpielzustandKonverter.transformiereAktion(t, 0)),
+                     "Transformation bildet Feld 0 auf eigenen Stein ab");
+        assertEquals(5, SpielzustandKonverter.ruecktransformiereAktion(t, SpielzustandKonverter.transformiereAktion(t, 5)),
+                     "Rücktransformation ist invers");
+        System.out.println();
     }
     
     // ========================================================================
@@ -181,7 +257,74 @@ public class AllTests {
         System.out.println("Test-Gruppe: Q-Werte");
         double[] qWerte = agent.getQWerte("_________");
         assertEquals(9, qWerte.length, "Q-Array hat 9 Einträge");
-        assertEquals(1, agent.getAnzahlStates(), "1 State in Tabelle");
+        assertEquals(0, agent.getAnzahlStates(), "Lesen registriert keinen State");
+        System.out.println();
+        
+        System.out.println("Test-Gruppe: Q-Update");
+        agent.lernen("X________", 4, 1.0, null, true);
+        assertEquals(0.2, agent.getQWerte("X________")[4], "Terminal-Update: α · Reward");
+        int kanonisch = SpielzustandKonverter.kanonischerCode(SpielzustandKonverter.stringZuCode("X________"));
+        assertEquals(0.2, agent.getQTabelle().getQWert(kanonisch, 4),
+                     "String- und Code-API teilen die Tabelle");
+        System.out.println();
+        
+        System.out.println("Test-Gruppe: Symmetrie-Reduktion");
+        assertTrue(agent.istSymmetrieReduktion(), "Standardmäßig aktiv");
+        agent.lernen("XO_______", 8, 1.0, null, true);
+        assertEquals(0.2, agent.getQWerte("X__O_____")[8], "Spiegelbild teilt Q-Wert");
+        assertEquals(0.2, agent.getQWerte("__X__O___")[6], "Rotation bildet Aktion mit ab");
+        assertEquals(0.0, agent.getQWerte("__X__O___")[8], "Andere Aktion unberührt");
+        System.out.println();
+        
+        System.out.println("Test-Gruppe: Binärformat");
+        try {
+            File datei = File.createTempFile("modell", ".qbin");
+            datei.deleteOnExit();
+            agent.speichereBinaer(datei.getPath(), 42, true);
+            QLearningAgent geladen = new QLearningAgent();
+            BinaeresModell.Kopf kopf = geladen.ladeBinaer(datei.getPath());
+            assertEquals(42, kopf.getTrainingSpiele(), "Metadaten übernommen");
+            assertEquals(agent.getAnzahlStates(), geladen.getAnzahlStates(), "Gleiche Anzahl States");
+            assertEquals(0.2, geladen.getQWerte("X__O_____")[8], "Q-Werte identisch (double)");
+            assertTrue(!new File(datei.getPath() + ".tmp").exists(), "Atomar geschrieben (keine Temp-Datei übrig)");
+            
+            // Ungültiger Code im letzten Record: Ziel-Tabelle bleibt unverändert
+            byte[] bytes = Files.readAllBytes(datei.toPath());
+            int letzterRecord = bytes.length - (2 + QTabelle.ANZAHL_AKTIONEN * 8);
+            bytes[letzterRecord] = (byte) 0xFF;
+            bytes[letzterRecord + 1] = (byte) 0xFF;
+            Files.write(datei.toPath(), bytes);
+            int statesVorher = geladen.getAnzahlStates();
+            boolean abgelehnt = false;
+            try {
+                BinaeresModell.laden(datei.getPath(), geladen.getQTabelle());
+            } catch (IOException e) {
+                abgelehnt = true;
+            }
+            assertTrue(abgelehnt, "Ungültiger State-Code abgelehnt");
+            assertEquals(statesVorher, geladen.getAnzahlStates(), "Tabelle nach Ladefehler unverändert");
+            assertEquals(0.2, geladen.getQWerte("X__O_____")[8], "Q-Werte nach Ladefehler erhalten");
+        } catch (IOException e) {
+            assertTrue(false, "Binärformat: " + e.getMessage());
+        }
+        System.out.println();
+        
+        System.out.println("Test-Gruppe: JSON-Format");
+        Map<String, double[]> tabelle = new HashMap<>();
+        tabelle.put("X___O____", new double[] {0.5, -0.25, 0, 0, 0, 0, 0, 0, 1e-7});
+        QLearningModel modell = new QLearningModel(tabelle, 7, 0.1, 0.9, 0.3, true);
+        for (boolean compact : new boolean[] {true, false}) {
+            QLearningModel gelesen = QLearningModel.fromJSON(modell.toJSON(compact));
+            String format = compact ? "kompakt" : "pretty";
+            assertEquals(7, gelesen.getTrainingSpiele(), "Metadaten gelesen (" + format + ")");
+            assertTrue(gelesen.istKanonisch(), "Kanonisch-Flag gelesen (" + format + ")");
+            assertEquals(-0.25, gelesen.getQTabelle().get("X___O____")[1], "Q-Wert gelesen (" + format + ")");
+        }
+        QLearningModel einzeilig = QLearningModel.fromJSON(
+            "{\"qTable\":{\"_________\":[1.5e-1,2]},\"extra\":[null,{\"a\":true}],"
+            + "\"metadata\":{\"trainingGames\":3}}");
+        assertEquals(0.15, einzeilig.getQTabelle().get("_________")[0], "Beliebige Reihenfolge und Layout");
+        assertEquals(3, einzeilig.getTrainingSpiele(), "Metadaten nach der Tabelle");
         System.out.println();
         
         System.out.println("Test-Gruppe: Aktion-Konvertierung");
@@ -193,10 +336,1237 @@ public class AllTests {
         System.out.println();
     }
     
+    // ========================================================================
+    // TrainingsEvents Tests
+    // ========================================================================
+    
+    private static void testTrainingsEvents() {
+        System.out.println("╔═══════════════════════════════════════════════╗");
+        System.out.println("║  TrainingsEvents Tests                       ║");
+        System.out.println("╚═══════════════════════════════════════════════╝");
+        System.out.println();
+        
+        System.out.println("Test-Gruppe: JFR-Events");
+        try (Recording aufnahme = new Recording()) {
+            for (String event : new String[] {"TrainingStart", "TrainingEnde", "ModellIO", "ZugBerechnung"}) {
+                aufnahme.enable("tic_tac_toe_mi." + event).withoutThreshold();
+            }
+            aufnahme.start();
+            Spieler jfrSpieler = new Spieler("JFR", 0.1, 0.9, 0.3);
+            jfrSpieler.setAusgabe(false);
+            int[] jfrSpiele = {0};
+            jfrSpieler.trainieren(() -> jfrSpiele[0]++ >= 500);
+            File jfrModell = File.createTempFile("jfr", ".dat");
+            jfrModell.deleteOnExit();
+            jfrSpieler.speichereModell(jfrModell.getPath(), 500);
+            jfrSpieler.getQLearningAgent().ladeModell(jfrModell.getPath());
+            for (int i = 0; i < 8; i++) {
+                new tictactoe.TicTacToe().neuesSpiel(jfrSpieler, new Spieler("JFR2", 0.1, 0.9, 0.0), 150, false);
+            }
+            aufnahme.stop();
+            Path jfrDatei = Files.createTempFile("training", ".jfr");
+            aufnahme.dump(jfrDatei);
+            Map<String, List<RecordedEvent>> jfrEvents = new HashMap<>();
+            for (RecordedEvent event : RecordingFile.readAllEvents(jfrDatei)) {
+                jfrEvents.computeIfAbsent(event.getEventType().getName(), n -> new ArrayList<>()).add(event);
+            }
+            Files.delete(jfrDatei);
+            RecordedEvent ende = jfrEvents.get("tic_tac_toe_mi.TrainingEnde").get(0);
+            assertEquals(1, jfrEvents.get("tic_tac_toe_mi.TrainingStart").size(), "Ein Start-Event pro Lauf");
+            assertEquals(500L, ende.getLong("spiele"), "Ende-Event zählt alle Spiele");
+            assertTrue(ende.getDouble("spieleProSekunde") > 0 && ende.getInt("states") > 0, "Durchsatz und States");
+            List<RecordedEvent> io = jfrEvents.get("tic_tac_toe_mi.ModellIO");
+            assertEquals(2, io.size(), "Speichern und Laden gemessen");
+            assertEquals(jfrModell.length(), io.get(1).getLong("bytes"), "Dateigröße im Lade-Event");
+            assertTrue(io.get(0).getBoolean("erfolgreich") && io.get(1).getBoolean("erfolgreich"), "I/O erfolgreich");
+            // "JFR" zieht 3-5 Mal pro Partie: 24-40 Aufrufe, davon wird jeder 16. gemessen
+            int zugEvents = jfrEvents.getOrDefault("tic_tac_toe_mi.ZugBerechnung", List.of()).size();
+            assertTrue(zugEvents >= 24 / TrainingsEvents.ZUG_ABTASTRATE && zugEvents <= 40 / TrainingsEvents.ZUG_ABTASTRATE,
+                       "berechneZug nur als Stichprobe (" + zugEvents + " Events)");
+        } catch (IOException | ClassNotFoundException e) {
+            assertTrue(false, "JFR-Events: " + e.getMessage());
+        }
+        System.out.println();
+    }
+    
+    // ========================================================================
+    // ExakterLoeser Tests
+    // ========================================================================
+    
+    private static void testExakterLoeser() {
+        System.out.println("╔═══════════════════════════════════════════════╗");
+        System.out.println("║  ExakterLoeser Tests                         ║");
+        System.out.println("╚═══════════════════════════════════════════════╝");
+        System.out.println();
+        
+        System.out.println("Test-Gruppe: Exakter Löser");
+        ExakterLoeser loeser = new ExakterLoeser(0.9);
+        assertEquals(4520, loeser.getAnzahlStates(), "Alle erreichbaren Stellungen mit Spieler am Zug");
+        assertEquals(0.0, loeser.getWert(0), "Leeres Brett ist Unentschieden");
+        int drohung = SpielzustandKonverter.stringZuCode("OO_X_____");
+        assertTrue(loeser.istOptimal(drohung, 2) && !loeser.istOptimal(drohung, 4), "Nur Blocken ist optimal");
+        assertEquals(1.0, loeser.getQWert(SpielzustandKonverter.stringZuCode("XX_OO____"), 2), "Sofortiger Sieg = 1");
+        assertEquals(1.0, loeser.optimaleZugRate(loeser.erstelleAgent(0.1, 0.0)), "Exakter Agent spielt überall optimal");
+        System.out.println();
+    }
+    
+    // ========================================================================
+    // BitSpielfeld Tests
+    // ========================================================================
+    
+    private static void testBitSpielfeld() {
+        System.out.println("╔═══════════════════════════════════════════════╗");
+        System.out.println("║  BitSpielfeld Tests                          ║");
+        System.out.println("╚═══════════════════════════════════════════════╝");
+        System.out.println();
+        
+        SpielzustandKonverter konverter = new SpielzustandKonverter();
+        
+        System.out.println("Test-Gruppe: Inkrementelle State-Codes");
+        BitSpielfeld brett = new BitSpielfeld();
+        Spielfeld feld = new Spielfeld();
+        int[] zuege = {4, 0, 8, 2, 1};
+        Farbe farbe = Farbe.Kreuz;
+        boolean konsistent = true;
+        for (int zug : zuege) {
+            brett.ziehe(zug);
+            feld.setFarbe(zug / 3, zug % 3, farbe);
+            konsistent &= brett.getCodeNichtAmZug() == konverter.zuCodeNormalisiert(feld, farbe);
+            konsistent &= brett.getCodeAmZug() == konverter.zuCodeNormalisiert(feld, farbe.opposite());
+            farbe = farbe.opposite();
+        }
+        assertTrue(konsistent, "Codes stimmen mit SpielzustandKonverter überein");
+        assertEquals(4, brett.getMoeglicheAktionen().length, "4 freie Felder nach 5 Zügen");
+        System.out.println();
+        
+        System.out.println("Test-Gruppe: Sieg-Erkennung");
+        assertTrue(!brett.letzterZugGewinnt(), "Kein Sieg ohne vollständige Linie");
+        brett.reset();
+        for (int zug : new int[] {0, 3, 4, 5, 8}) {
+            brett.ziehe(zug);
+        }
+        assertTrue(brett.letzterZugGewinnt(), "Diagonale 0-4-8 erkannt");
+        assertTrue(BitSpielfeld.istSieg(0b000_111_000), "Mittlere Zeile erkannt");
+        System.out.println();
+    }
+    
+    // ========================================================================
+    // Paralleles Training Tests
+    // ========================================================================
+    
+    private static void testParallelesTraining() {
+        System.out.println("╔═══════════════════════════════════════════════╗");
+        System.out.println("║  Paralleles Training Tests                   ║");
+        System.out.println("╚═══════════════════════════════════════════════╝");
+        System.out.println();
+        
+        System.out.println("Test-Gruppe: AtomicQTabelle unter Konkurrenz");
+        AtomicQTabelle geteilt = new AtomicQTabelle();
+        int code = SpielzustandKonverter.stringZuCode("X___O____");
+        int updatesProThread = 50000;
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int versatz = t;
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < updatesProThread; i++) {
+                    geteilt.aktualisiere(code, 4, 1.0, 1e-5);
+                    geteilt.registriere((i * 4 + versatz) % 1000);
+                }
+            }));
+        }
+        try {
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        } catch (InterruptedException e) {
+            assertTrue(false, "Worker unterbrochen");
+        }
+        // Alle Updates sind dieselbe Abbildung q -> q + α(1 - q): die Reihenfolge
+        // spielt keine Rolle, nur ein verlorenes Update ändert das Ergebnis
+        double erwartet = 0.0;
+        for (int i = 0; i < 4 * updatesProThread; i++) {
+            erwartet += 1e-5 * (1.0 - erwartet);
+        }
+        assertEquals(erwartet, geteilt.getQWert(code, 4), "Kein Update geht verloren (4 Threads, CAS)");
+        assertTrue(geteilt.enthaelt(code), "Aktualisierter State ist registriert");
+        assertEquals(1001, geteilt.getAnzahlStates(), "Gleichzeitiges Registrieren zählt jeden State einmal");
+        System.out.println();
+        
+        System.out.println("Test-Gruppe: ParallelerTrainer");
+        AtomicQTabelle seriell = new AtomicQTabelle();
+        new ParallelerTrainer(seriell, 0.1, 0.9, 0.3, 1, false, true).trainieren(new AbbruchNachIterationen(20001));
+        for (int anzahlThreads : new int[] {2, 4}) {
+            AtomicQTabelle tabelle = new AtomicQTabelle();
+            ParallelerTrainer.Ergebnis ergebnis = new ParallelerTrainer(tabelle, 0.1, 0.9, 0.3, anzahlThreads, false, true)
+                .trainieren(new AbbruchNachIterationen(20001));
+            assertEquals(20000L, ergebnis.getSpiele(), anzahlThreads + " Threads: Jedes Spiel genau einmal");
+            assertEquals(ergebnis.getSpiele(), ergebnis.getSiegeAnziehender() + ergebnis.getSiegeNachziehender()
+                         + ergebnis.getUnentschieden(), anzahlThreads + " Threads: Ergebnisse summieren sich");
+            assertTrue(tabelle.getAnzahlStates() >= seriell.getAnzahlStates() * 0.97,
+                       anzahlThreads + " Threads: States wie seriell (" + tabelle.getAnzahlStates() + " / "
+                       + seriell.getAnzahlStates() + ")");
+        }
+        
+        // Unterbrochen: Worker spielen ihren Block zu Ende, das Flag bleibt gesetzt
+        Thread.currentThread().interrupt();
+        ParallelerTrainer.Ergebnis unterbrochen = new ParallelerTrainer(new AtomicQTabelle(), 0.1, 0.9, 0.3, 2, false, true)
+            .trainieren(() -> false);
+        assertTrue(Thread.interrupted(), "Interrupt-Flag wiederhergestellt");
+        assertTrue(unterbrochen.getSpiele() % 64 == 0, "Nur vollständige Blöcke gespielt (" + unterbrochen.getSpiele() + ")");
+        System.out.println();
+        
+        System.out.println("Test-Gruppe: Spieler.trainierenParallel");
+        Spieler parallelSpieler = new Spieler("Parallel", 0.1, 0.9, 0.3);
+        parallelSpieler.setAusgabe(false);
+        PrintStream konsole = System.out;
+        ByteArrayOutputStream mitschnitt = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(mitschnitt));
+        try {
+            parallelSpieler.trainierenParallel(new AbbruchNachIterationen(20001), 2);
+        } finally {
+            System.setOut(konsole);
+        }
+        assertEquals(0, mitschnitt.size(), "Keine Konsolenausgabe mit setAusgabe(false)");
+        assertTrue(parallelSpieler.getQLearningAgent().getAnzahlStates() >= seriell.getAnzahlStates() * 0.97,
+                   "Geteilte Tabelle in den Agenten übernommen");
+        
+        // Ohne Symmetrie-Reduktion müssen auch die Worker auf den rohen Codes lernen
+        Spieler rohSpieler = new Spieler("Roh", 0.1, 0.9, 0.3);
+        rohSpieler.setAusgabe(false);
+        rohSpieler.getQLearningAgent().setSymmetrieReduktion(false);
+        rohSpieler.trainierenParallel(new AbbruchNachIterationen(20001), 2);
+        int nichtKanonisch = 0;
+        int kanonischeVerletzt = 0;
+        QTabelle rohTabelle = rohSpieler.getQLearningAgent().getQTabelle();
+        QTabelle kanonischeTabelle = parallelSpieler.getQLearningAgent().getQTabelle();
+        for (int stateCode = 0; stateCode < QTabelle.ANZAHL_CODES; stateCode++) {
+            nichtKanonisch += rohTabelle.enthaelt(stateCode) && !SpielzustandKonverter.istKanonisch(stateCode) ? 1 : 0;
+            kanonischeVerletzt += kanonischeTabelle.enthaelt(stateCode) && !SpielzustandKonverter.istKanonisch(stateCode) ? 1 : 0;
+        }
+        assertTrue(nichtKanonisch > 0, "Ohne Symmetrie-Reduktion bleiben rohe Codes erhalten (" + nichtKanonisch + ")");
+        assertEquals(0, kanonischeVerletzt, "Mit Symmetrie-Reduktion nur kanonische Codes");
+        assertTrue(rohTabelle.getAnzahlStates() > kanonischeTabelle.getAnzahlStates() * 3,
+                   "Rohe Tabelle deutlich größer als die kanonische");
+        System.out.println();
+    }
+    
+    // ========================================================================
+    // SchnellBewertung Tests
+    // ========================================================================
+    
+    private static void testSchnellBewertung() {
+        System.out.println("╔═══════════════════════════════════════════════╗");
+        System.out.println("║  SchnellBewertung Tests                      ║");
+        System.out.println("╚═══════════════════════════════════════════════╝");
+        System.out.println();
+        
+        System.out.println("Test-Gruppe: Schnelle Auswertung");
+        Strategie perfekt = Strategie.perfekt(new ExakterLoeser(0.9));
+        SchnellBewertung bewertung = new SchnellBewertung(2);
+        SchnellBewertung.Bilanz bilanz = bewertung.bewerte(perfekt, Strategie.zufall(), 20000, true, 7);
+        assertEquals(20000L, bilanz.getSpiele(), "Alle Spiele auf die Threads verteilt");
+        assertEquals(0L, bilanz.getNiederlagen(), "Perfekter Spieler verliert nie");
+        double[] intervall = bilanz.getSiegrateIntervall();
+        assertTrue(intervall[0] < bilanz.getSiegrate() && bilanz.getSiegrate() < intervall[1], "Siegrate im Konfidenzintervall");
+        assertEquals(bilanz.getSiege(), bewertung.bewerte(perfekt, Strategie.zufall(), 20000, true, 7).getSiege(),
+                     "Gleicher Seed, gleiches Ergebnis");
+        assertEquals(20L, bewertung.bewerte(perfekt, perfekt, 20, true, 7).getUnentschieden(), "Perfekt gegen perfekt: Remis");
+        assertEquals(0, SchnellBewertung.pruefeGegenReferee(perfekt, Strategie.zufall(), 200, 7),
+                     "Bitboard und TicTacToe-Referee stimmen überein");
+        System.out.println();
+    }
+    
+    // ========================================================================
+    // Turnier Tests
+    // ========================================================================
+    
+    private static void testTurnier() {
+        System.out.println("╔═══════════════════════════════════════════════╗");
+        System.out.println("║  Turnier Tests                               ║");
+        System.out.println("╚═══════════════════════════════════════════════╝");
+        System.out.println();
+        
+        Strategie perfekt = Strategie.perfekt(new ExakterLoeser(0.9));
+        
+        System.out.println("Test-Gruppe: Turnier-Ratings");
+        double[] elo = Turnier.elo(new double[][] {{0, 750}, {250, 0}}, new long[][] {{0, 1000}, {1000, 0}});
+        assertTrue(Math.abs(elo[0] - elo[1] - 400 * Math.log10(750.5 / 250.5)) < 0.01, "75% Punkte ≈ 190 Elo Abstand");
+        assertEquals(Turnier.START_RATING, (elo[0] + elo[1]) / 2, "Elo-Mittel liegt beim Startwert");
+        List<Turnier.Platzierung> rangliste = new Turnier(2, 500, 2, 7).spielen(List.of(
+            new Turnier.Teilnehmer("Zufall", Strategie.zufall()), new Turnier.Teilnehmer("Perfekt", perfekt)));
+        assertEquals("Perfekt", rangliste.get(0).getTeilnehmer().getName(), "Perfekter Spieler führt die Rangliste");
+        assertTrue(rangliste.get(0).getGlicko() > Turnier.START_RATING && rangliste.get(0).getGlickoRd() < Turnier.START_RD,
+                   "Glicko steigt, RD sinkt nach zwei Perioden");
+        assertEquals(1000L, rangliste.get(1).getSpiele(), "Jede Runde spielt jede Paarung");
+        System.out.println();
+    }
+    
+    // ========================================================================
+    // EingefrorenePolicy / SpielSitzung Tests
+    // ========================================================================
+    
+    private static void testSpielSitzung() {
+        System.out.println("╔═══════════════════════════════════════════════╗");
+        System.out.println("║  SpielSitzung Tests                          ║");
+        System.out.println("╚═══════════════════════════════════════════════╝");
+        System.out.println();
+        
+        System.out.println("Test-Gruppe: Eingefrorene Policy");
+        QLearningAgent exakt = new ExakterLoeser(0.9).erstelleAgent(0.1, 0.0);
+        EingefrorenePolicy policy = EingefrorenePolicy.aus(exakt);
+        int statesVorher = exakt.getAnzahlStates();
+        exakt.getQTabelle().leeren();
+        assertEquals(0L, new SchnellBewertung(2).bewerte(policy, Strategie.zufall(), 2000, true, 3).getNiederlagen(),
+                     "Kopie unabhängig von der Quell-Tabelle");
+        assertEquals(statesVorher, policy.getAnzahlStates(), "Policy wächst nicht");
+        SpielSitzung sitzung = policy.neueSitzung("Sitzung");
+        tictactoe.spieler.ISpieler gegner = new tictactoe.spieler.beispiel.Zufallsspieler("Zufall");
+        int sitzungVerloren = 0;
+        for (int i = 0; i < 200; i++) {
+            tictactoe.spieler.ISpieler gewinner = new tictactoe.TicTacToe()
+                .neuesSpiel(i % 2 == 0 ? sitzung : gegner, i % 2 == 0 ? gegner : sitzung, 150, false);
+            sitzungVerloren += gewinner == gegner ? 1 : 0;
+        }
+        assertEquals(0, sitzungVerloren, "Sitzung als ISpieler über den Referee, wiederverwendbar");
+        
+        // Sitzung zieht als Zweite: Füllt der Gegner das Brett, kommt KEIN_ZUG zurück
+        Random random = new Random(3);
+        int antwort = 0;
+        while (antwort != SpielSitzung.KEIN_ZUG) {
+            sitzung.zuruecksetzen();
+            antwort = 0;
+            while (antwort != SpielSitzung.KEIN_ZUG && !sitzung.istBeendet()) {
+                int[] frei = BitSpielfeld.felder(sitzung.getFreieFelder());
+                antwort = sitzung.ziehe(frei[random.nextInt(frei.length)]);
+            }
+        }
+        assertTrue(sitzung.getFreieFelder() == 0, "Kein Zug nach Spielende (volles Brett)");
+        boolean abgelehnt = false;
+        try {
+            sitzung.zuruecksetzen();
+            sitzung.ziehe(sitzung.ziehe(SpielSitzung.KEIN_ZUG));
+        } catch (IllegalStateException e) {
+            abgelehnt = true;
+        }
+        assertTrue(abgelehnt, "Besetztes Feld wird abgelehnt");
+        
+        // Gewonnene Partie mit freien Feldern: Weitere Züge sind ein Fehler, kein KEIN_ZUG
+        do {
+            sitzung.zuruecksetzen();
+            antwort = 0;
+            while (antwort != SpielSitzung.KEIN_ZUG && !sitzung.istBeendet()) {
+                int[] frei = BitSpielfeld.felder(sitzung.getFreieFelder());
+                antwort = sitzung.ziehe(frei[random.nextInt(frei.length)]);
+            }
+        } while (sitzung.getFreieFelder() == 0);
+        abgelehnt = false;
+        try {
+            sitzung.ziehe(BitSpielfeld.felder(sitzung.getFreieFelder())[0]);
+        } catch (IllegalStateException e) {
+            abgelehnt = true;
+        }
+        assertTrue(abgelehnt, "Zug nach entschiedener Partie wird abgelehnt");
+        
+        sitzung.zuruecksetzen();
+        sitzung.ziehe(4);
+        abgelehnt = false;
+        try {
+            sitzung.ziehe(SpielSitzung.KEIN_ZUG);
+        } catch (IllegalStateException e) {
+            abgelehnt = true;
+        }
+        assertTrue(abgelehnt, "KEIN_ZUG mitten in der Partie wird abgelehnt");
+        assertEquals(2, Integer.bitCount(BitSpielfeld.VOLL & ~sitzung.getFreieFelder()), "Abgelehnter Zug ändert nichts");
+        System.out.println();
+    }
+    
+    // ========================================================================
+    // ZugTabelle Tests
+    // ========================================================================
+    
+    private static void testZugTabelle() {
+        System.out.println("╔═══════════════════════════════════════════════╗");
+        System.out.println("║  ZugTabelle Tests                            ║");
+        System.out.println("╚═══════════════════════════════════════════════╝");
+        System.out.println();
+        
+        EingefrorenePolicy policy = EingefrorenePolicy.aus(new ExakterLoeser(0.9).erstelleAgent(0.1, 0.0));
+        BitSpielfeld brett = new BitSpielfeld();
+        Random random = new Random(3);
+        tictactoe.spieler.ISpieler gegner = new tictactoe.spieler.beispiel.Zufallsspieler("Zufall");
+        
+        System.out.println("Test-Gruppe: Zugtabelle");
+        ZugTabelle zugTabelle = ZugTabelle.kompiliere(policy);
+        int abweichungen = 0;
+        for (int i = 0; i < 500; i++) {
+            brett.reset();
+            while (!brett.letzterZugGewinnt() && !brett.istVoll()) {
+                int erwartet = policy.besteAktion(brett.getCodeAmZug(), brett.getFreieFelder());
+                abweichungen += zugTabelle.getZug(brett.getCodeAmZug()) == erwartet ? 0 : 1;
+                int[] frei = BitSpielfeld.felder(brett.getFreieFelder());
+                brett.ziehe(frei[random.nextInt(frei.length)]);
+            }
+        }
+        assertEquals(0, abweichungen, "Tabelle entspricht der Policy (inkl. Gleichstand)");
+        assertEquals((int) ZugTabelle.KEIN_ZUG,
+                     zugTabelle.getZug(SpielzustandKonverter.stringZuCode("OOOXX_X__")),
+                     "Gewonnene Stellung hat keinen Zug");
+        assertEquals("models/a.zuege", ZugTabelle.dateinameFuer("models/a.qbin"), "Dateiname neben dem Modell");
+        try {
+            Path datei = Files.createTempFile("zugtabelle", ZugTabelle.ENDUNG);
+            zugTabelle.speichern(datei.toString());
+            ZugTabelle geladen = ZugTabelle.laden(datei.toString());
+            boolean gleich = true;
+            for (int code = 0; code < QTabelle.ANZAHL_CODES; code++) {
+                gleich &= geladen.getZug(code) == zugTabelle.getZug(code);
+            }
+            assertTrue(gleich, "Speichern und Laden");
+            Files.delete(datei);
+        } catch (IOException e) {
+            assertTrue(false, "Zugtabelle speichern/laden: " + e.getMessage());
+        }
+        TabellenSpieler tabellenSpieler = new TabellenSpieler("Tabelle", zugTabelle);
+        int tabelleVerloren = 0;
+        for (int i = 0; i < 200; i++) {
+            tictactoe.spieler.ISpieler gewinner = new tictactoe.TicTacToe()
+                .neuesSpiel(i % 2 == 0 ? tabellenSpieler : gegner, i % 2 == 0 ? gegner : tabellenSpieler, 150, false);
+            tabelleVerloren += gewinner == gegner ? 1 : 0;
+        }
+        assertEquals(0, tabelleVerloren, "TabellenSpieler über den Referee");
+        System.out.println();
+    }
+    
+    // ========================================================================
+    // MnkSpielfeld Tests
+    // ========================================================================
+    
+    private static void testMnk() {
+        System.out.println("╔═══════════════════════════════════════════════╗");
+        System.out.println("║  MnkSpielfeld Tests                          ║");
+        System.out.println("╚═══════════════════════════════════════════════╝");
+        System.out.println();
+        
+        BitSpielfeld brett = new BitSpielfeld();
+        Random random = new Random(3);
+        
+        System.out.println("Test-Gruppe: m,n,k-Spielfeld");
+        MnkSpielfeld mnk = new MnkSpielfeld(MnkSpiel.TIC_TAC_TOE);
+        boolean gleicheCodes = true;
+        for (int i = 0; i < 500; i++) {
+            brett.reset();
+            mnk.reset();
+            while (!brett.letzterZugGewinnt() && !brett.istVoll()) {
+                int[] frei = BitSpielfeld.felder(brett.getFreieFelder());
+                int zufallsFeld = frei[random.nextInt(frei.length)];
+                brett.ziehe(zufallsFeld);
+                mnk.ziehe(zufallsFeld);
+                gleicheCodes &= mnk.getCodeAmZug() == brett.getCodeAmZug()
+                                && mnk.letzterZugGewinnt() == brett.letzterZugGewinnt();
+            }
+        }
+        assertTrue(gleicheCodes, "3,3,3 entspricht BitSpielfeld (Codes und Sieg)");
+        long codeVorher = mnk.getCodeAmZug();
+        int zuegeVorher = mnk.getAnzahlZuege();
+        boolean gewonnenVorher = mnk.letzterZugGewinnt();
+        mnk.ziehe(mnk.zuruecknehmen());
+        assertTrue(mnk.getCodeAmZug() == codeVorher && mnk.getAnzahlZuege() == zuegeVorher
+                   && mnk.letzterZugGewinnt() == gewonnenVorher,
+                   "Zurücknehmen stellt den Zustand wieder her");
+        
+        MnkSpiel vierGewinnt = new MnkSpiel(5, 5, 4);
+        assertEquals(28, vierGewinnt.getAnzahlLinien(), "5,5,4 hat 28 Gewinnlinien");
+        MnkSpielfeld gross = new MnkSpielfeld(vierGewinnt);
+        int[] diagonale = {vierGewinnt.aktion(1, 4), vierGewinnt.aktion(2, 3), vierGewinnt.aktion(3, 2)};
+        boolean vorzeitig = false;
+        for (int i = 0; i < 3; i++) {
+            gross.ziehe(diagonale[i]);
+            vorzeitig |= gross.letzterZugGewinnt();
+            gross.ziehe(i);
+        }
+        gross.ziehe(vierGewinnt.aktion(4, 1));
+        assertTrue(!vorzeitig && gross.letzterZugGewinnt(), "Vier auf der Diagonale / gewinnt");
+        
+        // k = 16: 15 Kreuze gegen 14 Kreise auf einer Reihe, 4^15 darf weder überlaufen noch als Sieg gelten
+        MnkSpielfeld lang = new MnkSpielfeld(new MnkSpiel(1, 39, 16));
+        for (int i = 0; i < 15; i++) {
+            lang.ziehe(i);
+            if (i < 14) {
+                lang.ziehe(38 - i);
+            }
+        }
+        int bewertung = lang.bewerteLinien();
+        assertTrue(bewertung < 0 && bewertung >= -MnkSpielfeld.MAX_BEWERTUNG,
+                   "Linienbewertung bei großem k begrenzt statt übergelaufen");
+        
+        MnkTrainer mnkTrainer = new MnkTrainer(new MnkSpiel(4, 4, 3), 0.1, 0.9, 0.3, 7);
+        mnkTrainer.trainieren(2000);
+        MnkQTabelle mnkTabelle = mnkTrainer.getQTabelle();
+        assertTrue(mnkTabelle.getAnzahlStates() > 5478, "4x4-Tabelle größer als alle 3x3-Stellungen");
+        assertEquals(16, mnkTabelle.getAnzahlAktionen(), "Aktionen aus der Brettgröße");
+        System.out.println();
+    }
+    
+    // ========================================================================
+    // AlphaBetaSuche Tests
+    // ========================================================================
+    
+    private static void testAlphaBeta() {
+        System.out.println("╔═══════════════════════════════════════════════╗");
+        System.out.println("║  AlphaBetaSuche Tests                        ║");
+        System.out.println("╚═══════════════════════════════════════════════╝");
+        System.out.println();
+        
+        MnkSpielfeld mnk = new MnkSpielfeld(MnkSpiel.TIC_TAC_TOE);
+        tictactoe.spieler.ISpieler gegner = new tictactoe.spieler.beispiel.Zufallsspieler("Zufall");
+        SpielSitzung sitzung = EingefrorenePolicy.aus(new ExakterLoeser(0.9).erstelleAgent(0.1, 0.0)).neueSitzung("Sitzung");
+        
+        System.out.println("Test-Gruppe: Alpha-Beta Suche");
+        AlphaBetaSuche alphaBeta = new AlphaBetaSuche(MnkSpiel.TIC_TAC_TOE, 12);
+        mnk.reset();
+        int eroeffnung = alphaBeta.suche(mnk, 9, AlphaBetaSuche.UNBEGRENZT);
+        assertEquals(0, alphaBeta.getLetzterWert(), "3x3 ist Remis");
+        assertEquals(9, alphaBeta.getErreichteTiefe(), "Vollständig gelöst");
+        assertTrue(eroeffnung >= 0 && mnk.getAnzahlZuege() == 0, "Brett nach der Suche unverändert");
+        for (int zugFeld : new int[] {0, 3, 1, 4}) {
+            mnk.ziehe(zugFeld);
+        }
+        assertEquals(2, alphaBeta.suche(mnk, 9, AlphaBetaSuche.UNBEGRENZT), "Sofortiger Sieg wird gefunden");
+        assertEquals(AlphaBetaSuche.GEWINN - 1, alphaBeta.getLetzterWert(), "Sieg im nächsten Halbzug");
+        mnk.zuruecknehmen();
+        assertEquals(2, alphaBeta.suche(mnk, 9, AlphaBetaSuche.UNBEGRENZT), "Drohung wird blockiert");
+        assertTrue(alphaBeta.getTrefferQuote() > 0 && alphaBeta.getKnotenProSekunde() > 0, "Statistik wird erfasst");
+        
+        AlphaBetaSuche suche443 = new AlphaBetaSuche(new MnkSpiel(4, 4, 3), 16);
+        MnkSpielfeld brett443 = new MnkSpielfeld(suche443.getSpiel());
+        brett443.reset();
+        suche443.suche(brett443, 16, AlphaBetaSuche.UNBEGRENZT);
+        assertTrue(suche443.getLetzterWert() > AlphaBetaSuche.GEWINN - 16, "4,4,3: Anziehender gewinnt");
+        
+        AlphaBetaSpieler alphaBetaSpieler = new AlphaBetaSpieler("Alpha-Beta");
+        int alphaBetaVerloren = 0;
+        int remisGegenPolicy = 0;
+        for (int i = 0; i < 100; i++) {
+            tictactoe.spieler.ISpieler gewinner = new tictactoe.TicTacToe()
+                .neuesSpiel(i % 2 == 0 ? alphaBetaSpieler : gegner, i % 2 == 0 ? gegner : alphaBetaSpieler, 150, false);
+            alphaBetaVerloren += gewinner == gegner ? 1 : 0;
+            remisGegenPolicy += new tictactoe.TicTacToe()
+                .neuesSpiel(i % 2 == 0 ? alphaBetaSpieler : sitzung, i % 2 == 0 ? sitzung : alphaBetaSpieler, 150, false) == null ? 1 : 0;
+        }
+        assertEquals(0, alphaBetaVerloren, "Alpha-Beta verliert nie gegen Zufall");
+        assertEquals(100, remisGegenPolicy, "Remis gegen die exakte Policy");
+        System.out.println();
+    }
+    
+    // ========================================================================
+    // MctsSuche Tests
+    // ========================================================================
+    
+    private static void testMcts() {
+        System.out.println("╔═══════════════════════════════════════════════╗");
+        System.out.println("║  MctsSuche Tests                             ║");
+        System.out.println("╚═══════════════════════════════════════════════╝");
+        System.out.println();
+        
+        tictactoe.spieler.ISpieler gegner = new tictactoe.spieler.beispiel.Zufallsspieler("Zufall");
+        
+        System.out.println("Test-Gruppe: Parallele MCTS");
+        MctsSuche mcts = new MctsSuche(MnkSpiel.TIC_TAC_TOE, 2, 1 << 16, 1);
+        for (int zugFeld : new int[] {0, 3, 1, 4}) {
+            mcts.ziehe(zugFeld);
+        }
+        assertEquals(2, mcts.suche(AlphaBetaSuche.UNBEGRENZT, 2000), "MCTS findet den sofortigen Sieg");
+        assertEquals(2000L, mcts.getLetztePlayouts(), "Playout-Grenze über alle Threads");
+        mcts.beenden();
+        
+        boolean ohneThreads = false;
+        try {
+            new MctsSuche(MnkSpiel.TIC_TAC_TOE, 0, 16, 1);
+        } catch (IllegalArgumentException e) {
+            ohneThreads = true;
+        }
+        assertTrue(ohneThreads, "Weniger als ein Thread wird abgelehnt");
+        boolean poolZuKlein = false;
+        try {
+            new MctsSuche(MnkSpiel.TIC_TAC_TOE, 1, 9, 1);
+        } catch (IllegalArgumentException e) {
+            poolZuKlein = true;
+        }
+        assertTrue(poolZuKlein, "Pool ohne Platz für Wurzel und Kinder wird abgelehnt");
+        
+        // Unterbrochen: Worker hören auf und werden abgewartet, das Flag bleibt gesetzt
+        try (MctsSuche unterbrochen = new MctsSuche(MnkSpiel.TIC_TAC_TOE, 2, 1 << 16, 1)) {
+            Thread.currentThread().interrupt();
+            unterbrochen.suche(AlphaBetaSuche.UNBEGRENZT, Long.MAX_VALUE);
+            assertTrue(Thread.interrupted(), "Interrupt-Flag wiederhergestellt");
+            int besucheNachAbbruch = unterbrochen.getWurzelBesuche();
+            Thread.sleep(50);
+            assertEquals(besucheNachAbbruch, unterbrochen.getWurzelBesuche(), "Kein Worker sucht nach der Rückkehr weiter");
+        } catch (InterruptedException e) {
+            assertTrue(false, "MCTS-Abbruch: " + e.getMessage());
+        }
+        
+        // Ein fehlschlagender Worker: die übrigen werden gestoppt und abgewartet, bevor der Fehler kommt
+        try (MctsSuche fehlerhaft = new MctsSuche(MnkSpiel.TIC_TAC_TOE, 2, 1 << 16, 1)) {
+            java.lang.reflect.Field workerFeld = MctsSuche.class.getDeclaredField("worker");
+            workerFeld.setAccessible(true);
+            Object defekterWorker = ((Object[]) workerFeld.get(fehlerhaft))[1];
+            java.lang.reflect.Field pfadFeld = defekterWorker.getClass().getDeclaredField("pfad");
+            pfadFeld.setAccessible(true);
+            pfadFeld.set(defekterWorker, new int[0]);
+            boolean gemeldet = false;
+            try {
+                fehlerhaft.suche(AlphaBetaSuche.UNBEGRENZT, Long.MAX_VALUE);
+            } catch (IllegalStateException e) {
+                gemeldet = e.getCause() instanceof ArrayIndexOutOfBoundsException;
+            }
+            assertTrue(gemeldet, "Fehler eines Workers wird gemeldet");
+            int besucheNachFehler = fehlerhaft.getWurzelBesuche();
+            Thread.sleep(50);
+            assertEquals(besucheNachFehler, fehlerhaft.getWurzelBesuche(), "Übrige Worker vor dem Fehler beendet");
+        } catch (ReflectiveOperationException | InterruptedException e) {
+            assertTrue(false, "MCTS-Workerfehler: " + e.getMessage());
+        }
+        
+        MctsSuche wiederverwendet = new MctsSuche(MnkSpiel.TIC_TAC_TOE, 1, 3000, 1);
+        int mctsZug = wiederverwendet.suche(AlphaBetaSuche.UNBEGRENZT, 5000);
+        assertTrue(wiederverwendet.getBelegteKnoten() > 1500, "Pool mehr als halb voll");
+        wiederverwendet.ziehe(mctsZug);
+        assertTrue(wiederverwendet.getWurzelBesuche() > 0 && wiederverwendet.getBelegteKnoten() < 1500,
+                   "Teilbaum bleibt erhalten und wird kompaktiert");
+        int besucheVorher = wiederverwendet.getWurzelBesuche();
+        wiederverwendet.suche(AlphaBetaSuche.UNBEGRENZT, 1000);
+        assertEquals(besucheVorher, wiederverwendet.getWiederverwendeteBesuche(), "Suche setzt auf dem Teilbaum auf");
+        
+        MctsSuche mitPriors = new MctsSuche(MnkSpiel.TIC_TAC_TOE, 1, 1 << 12, 1);
+        mitPriors.setPriors(EingefrorenePolicy.aus(new ExakterLoeser(0.9).erstelleAgent(0.1, 0.0)));
+        for (int zugFeld : new int[] {0, 4, 1}) {
+            mitPriors.ziehe(zugFeld);
+        }
+        assertEquals(2, mitPriors.suche(AlphaBetaSuche.UNBEGRENZT, 100), "Priors lenken auf den Block");
+        
+        MctsSpieler mctsSpieler = new MctsSpieler("MCTS", 1, 1000);
+        mctsSpieler.neuesSpiel(Farbe.Kreuz, 150);
+        assertEquals(100_000_000L, mctsSpieler.zugBudget(149_400), "Restzeit nach gemeldetem Verbrauch wird verteilt");
+        assertEquals(1_000_000_000L, mctsSpieler.zugBudget(0), "Ohne Meldung: eigene Uhr, begrenzt durch Zugzeit");
+        assertEquals(0L, mctsSpieler.zugBudget(200_000), "Überzogene Bedenkzeit ergibt kein negatives Budget");
+        MctsSpieler schnellerMcts = new MctsSpieler("MCTS", 1, 10);
+        int mctsVerloren = 0;
+        for (int i = 0; i < 20; i++) {
+            tictactoe.spieler.ISpieler gewinner = new tictactoe.TicTacToe()
+                .neuesSpiel(i % 2 == 0 ? schnellerMcts : gegner, i % 2 == 0 ? gegner : schnellerMcts, 150, false);
+            mctsVerloren += gewinner == gegner ? 1 : 0;
+        }
+        assertEquals(0, mctsVerloren, "MCTS über den Referee gegen Zufall");
+        MctsSpieler kleinerPool = new MctsSpieler("MCTS", 1, 10, null, 64);
+        new tictactoe.TicTacToe().neuesSpiel(kleinerPool, gegner, 150, false);
+        assertTrue(kleinerPool.getSuche().getBelegteKnoten() <= 64, "Voller Pool begrenzt den Baum, Partie läuft weiter");
+        
+        MctsSpieler parallelerMcts = new MctsSpieler("MCTS", 2, 10);
+        new tictactoe.TicTacToe().neuesSpiel(parallelerMcts, gegner, 150, false);
+        parallelerMcts.close();
+        boolean threadsBeendet = false;
+        try {
+            for (int i = 0; i < 100 && !threadsBeendet; i++) {
+                threadsBeendet = Thread.getAllStackTraces().keySet().stream().noneMatch(t -> t.getName().equals("mcts"));
+                Thread.sleep(10);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        assertTrue(threadsBeendet, "close() beendet die Such-Threads");
+        System.out.println();
+    }
+    
+    // ========================================================================
+    // ParameterSuche Tests
+    // ========================================================================
+    
+    private static void testParameterSuche() {
+        System.out.println("╔═══════════════════════════════════════════════╗");
+        System.out.println("║  ParameterSuche Tests                        ║");
+        System.out.println("╚═══════════════════════════════════════════════╝");
+        System.out.println();
+        
+        System.out.println("Test-Gruppe: Fortsetzung aus CSV");
+        try {
+            Path csv = Files.createTempFile("parameter", ".csv");
+            Files.delete(csv);
+            List<ParameterSuche.Konfiguration> grid =
+                ParameterSuche.grid(new double[] {0.1, 0.2}, new double[] {0.9}, new double[] {0.3});
+            List<ParameterSuche.Ergebnis> erster = new ParameterSuche(100, 10, 2, csv).ausfuehren(grid);
+            assertEquals(3, Files.readAllLines(csv).size(), "Header plus eine Zeile pro Konfiguration");
+            
+            // Zweiter Lauf: nichts mehr offen, Ergebnisse kommen aus der CSV
+            List<ParameterSuche.Ergebnis> zweiter = new ParameterSuche(100, 10, 2, csv).ausfuehren(grid);
+            assertEquals(3, Files.readAllLines(csv).size(), "Keine doppelten Zeilen nach Fortsetzung");
+            assertEquals(erster.get(0).getSiege() + erster.get(1).getSiege(),
+                         zweiter.get(0).getSiege() + zweiter.get(1).getSiege(), "Ergebnisse aus CSV übernommen");
+            assertTrue(!Files.exists(csv.resolveSibling(csv.getFileName() + ".tmp")),
+                       "Bereinigte CSV atomar ersetzt (keine Temp-Datei übrig)");
+            Files.delete(csv);
+        } catch (IOException e) {
+            assertTrue(false, "Parameter-Suche: " + e.getMessage());
+        }
+        System.out.println();
+        
+        System.out.println("Test-Gruppe: Successive Halving");
+        try {
+            Path verzeichnis = Files.createTempDirectory("halving");
+            List<ParameterSuche.Konfiguration> grid = ParameterSuche.grid(
+                new double[] {0.1, 0.2}, new double[] {0.8, 0.9}, new double[] {0.3});
+            AdaptiveParameterSuche suche = new AdaptiveParameterSuche(400, 10, 2, 2, verzeichnis);
+            AdaptiveParameterSuche.Bericht bericht = suche.successiveHalving(grid, 100, verzeichnis);
+            
+            // 4 × 100 + 2 × (200 - 100) + 1 × (400 - 200): nur Differenzen werden nachtrainiert
+            assertEquals(3, bericht.getRunden(), "Drei Runden bis ein Kandidat übrig ist");
+            assertEquals(800L, bericht.getTrainingsSpiele(), "Checkpoints sparen bereits trainierte Spiele");
+            String datei = bericht.getBeste().getKonfiguration().schluessel().replace(',', '_') + ".qbin";
+            assertEquals(400, BinaeresModell.laden(verzeichnis.resolve(datei).toString(), new ArrayQTabelle())
+                             .getTrainingSpiele(), "Checkpoint des Siegers hat volles Budget");
+            
+            // Erneuter Lauf setzt bei den Checkpoints auf
+            AdaptiveParameterSuche.Bericht erneut = suche.successiveHalving(grid, 100, verzeichnis);
+            assertTrue(erneut.getTrainingsSpiele() < bericht.getTrainingsSpiele(), "Fortsetzung aus Checkpoints");
+            
+            try (Stream<Path> pfade = Files.list(verzeichnis)) {
+                for (Path pfad : pfade.toList()) {
+                    Files.delete(pfad);
+                }
+            }
+            Files.delete(verzeichnis);
+        } catch (IOException e) {
+            assertTrue(false, "Successive Halving: " + e.getMessage());
+        }
+        System.out.println();
+    }
+    
+    // ========================================================================
+    // Neural Network Tests
+    // ========================================================================
+    
+    private static void testNeuralNetwork() {
+        System.out.println("╔═══════════════════════════════════════════════╗");
+        System.out.println("║  Neural Network Tests                        ║");
+        System.out.println("╚═══════════════════════════════════════════════╝");
+        System.out.println();
+        
+        System.out.println("Test-Gruppe: Batch Forward Pass");
+        NeuralNetwork nn = new NeuralNetwork(42);
+        double[][] states = {
+            {1, 0, -1, 0, 1, 0, -1, 0, 0},
+            {0, 0, 0, 0, 0, 0, 0, 0, 0},
+            {-1, 1, 0, 0, 1, 0, 0, -1, 1}
+        };
+        double[] flach = new double[states.length * 9];
+        for (int b = 0; b < states.length; b++) {
+            System.arraycopy(states[b], 0, flach, b * 9, 9);
+        }
+        double[] batch = nn.predictBatch(flach, states.length);
+        double abweichung = 0;
+        for (int b = 0; b < states.length; b++) {
+            double[] einzeln = nn.predict(states[b]);
+            for (int a = 0; a < 9; a++) {
+                abweichung = Math.max(abweichung, Math.abs(einzeln[a] - batch[b * 9 + a]));
+            }
+        }
+        assertTrue(abweichung < 1e-12, "predictBatch entspricht predict pro Sample");
+        System.out.println();
+        
+        System.out.println("Test-Gruppe: Layer-Puffer");
+        NeuralNetwork gepuffert = new NeuralNetwork(42);
+        NeuralNetwork referenz = new NeuralNetwork(42);
+        double[] ziel = new double[9];
+        ziel[4] = 1.0;
+        double[] ersteVorhersage = gepuffert.predict(states[0]);
+        double[] kopie = ersteVorhersage.clone();
+        double[] zweiteVorhersage = gepuffert.predict(states[2]);
+        assertTrue(ersteVorhersage != zweiteVorhersage && Arrays.equals(kopie, ersteVorhersage),
+                   "predict liefert eigene Arrays (kein Aliasing auf Layer-Puffer)");
+        double[] ziel2 = new double[9];
+        gepuffert.predict(states[0], ziel2);
+        gepuffert.train(states[2], ziel, 0.0);
+        assertTrue(Arrays.equals(kopie, ziel2) && Arrays.equals(kopie, gepuffert.predict(states[0])),
+                   "train mit α = 0 lässt Vorhersagen und Ziel-Puffer unverändert");
+        gepuffert.train(states[2], ziel, 0.05);
+        referenz.train(states[2], ziel, 0.05);
+        assertTrue(Arrays.equals(referenz.predict(states[0]), gepuffert.predict(states[0]))
+                   && Arrays.equals(kopie, ersteVorhersage),
+                   "Zwischengeschaltete predict-Aufrufe ändern das Training nicht");
+        System.out.println();
+        
+        System.out.println("Test-Gruppe: Vector- gegen Scalar-Kernels");
+        try {
+            Object scalarKernels = erzeugeKernels("tic_tac_toe_mi.nn.ScalarKernels");
+            Object vectorKernels = erzeugeKernels("tic_tac_toe_mi.nn.VectorKernels");
+            Random kernelZufall = new Random(5);
+            double kernelAbweichung = 0;
+            // Ungerade Längen: keine ist ein Vielfaches der Lanes, jede Reste-Schleife läuft
+            for (int rows : new int[] {1, 3, 7, 13}) {
+                for (int cols : new int[] {1, 5, 9, 17, 33}) {
+                    for (int batchGroesse : new int[] {1, 3, 5, 35}) {
+                        kernelAbweichung = Math.max(kernelAbweichung, vergleicheKernels(
+                            scalarKernels, vectorKernels, rows, cols, batchGroesse, kernelZufall));
+                    }
+                }
+            }
+            assertTrue(kernelAbweichung < 1e-12, "Alle Kernels stimmen überein (max. Abweichung " + kernelAbweichung + ")");
+        } catch (LinkageError e) {
+            System.out.println("  (übersprungen: jdk.incubator.vector nicht geladen)");
+        } catch (ReflectiveOperationException e) {
+            assertTrue(false, "Kernel-Vergleich: " + e);
+        }
+        System.out.println();
+        
+        System.out.println("Test-Gruppe: Mini-Batch Training");
+        double[][] targets = new double[states.length][9];
+        for (double[] target : targets) {
+            target[4] = 1.0;
+        }
+        double ersterLoss = nn.trainBatch(states, targets, 0.05);
+        double loss = ersterLoss;
+        for (int i = 0; i < 200; i++) {
+            loss = nn.trainBatch(states, targets, 0.05);
+        }
+        assertTrue(loss < ersterLoss / 10, "Loss sinkt durch trainBatch");
+        System.out.println();
+        
+        System.out.println("Test-Gruppe: Experience Replay");
+        ExperienceReplay replay = new ExperienceReplay(4, 7);
+        for (int i = 0; i < 6; i++) {
+            double[] s = new double[9];
+            s[0] = i;
+            replay.add(s, i, i, s, false);
+        }
+        assertEquals(4, replay.size(), "Ringpuffer bleibt bei Kapazität");
+        ExperienceReplay.Batch replayBatch = new ExperienceReplay.Batch(4);
+        replay.sample(4, replayBatch);
+        boolean[] gesehen = new boolean[6];
+        boolean passend = true;
+        for (int b = 0; b < replayBatch.size(); b++) {
+            gesehen[replayBatch.actions[b]] = true;
+            passend &= replayBatch.states[b * 9] == replayBatch.actions[b];
+        }
+        assertTrue(passend, "Batch-Arrays gehören zur selben Experience");
+        assertTrue(!gesehen[0] && !gesehen[1] && gesehen[2] && gesehen[3] && gesehen[4] && gesehen[5],
+                   "FIFO: älteste Experiences überschrieben, Sampling ohne Zurücklegen");
+        System.out.println();
+        
+        System.out.println("Test-Gruppe: Prioritized Replay");
+        PrioritizedExperienceReplay prioritized = new PrioritizedExperienceReplay(100, 11);
+        for (int i = 0; i < 100; i++) {
+            double[] s = new double[9];
+            prioritized.add(s, i % 9, 0, s, false);
+        }
+        ExperienceReplay.Batch prioBatch = new ExperienceReplay.Batch(100);
+        prioritized.sample(100, prioBatch);
+        double[] tdErrors = new double[100];
+        for (int b = 0; b < prioBatch.size(); b++) {
+            tdErrors[b] = prioBatch.indices[b] == 42 ? 100.0 : 0.0;
+        }
+        prioritized.updatePriorities(prioBatch, tdErrors);
+        prioritized.sample(100, prioBatch);
+        int treffer = 0;
+        double gewichtSlot42 = 1.0;
+        double gewichtAndere = 1.0;
+        for (int b = 0; b < prioBatch.size(); b++) {
+            if (prioBatch.indices[b] == 42) {
+                treffer++;
+                gewichtSlot42 = prioBatch.weights[b];
+            } else {
+                gewichtAndere = Math.min(gewichtAndere, prioBatch.weights[b]);
+            }
+        }
+        assertTrue(treffer > 50, "Slot mit großem TD-Fehler wird bevorzugt gezogen");
+        assertTrue(gewichtSlot42 < gewichtAndere, "IS-Gewicht gleicht hohe Ziehwahrscheinlichkeit aus");
+        System.out.println();
+        
+        System.out.println("Test-Gruppe: DQN Target Network");
+        NeuralNetwork online = new NeuralNetwork(new int[] {16}, 5);
+        ExperienceReplay dqnReplay = new ExperienceReplay(64, 5);
+        for (int i = 0; i < 64; i++) {
+            double[] s = new double[9];
+            double[] next = new double[9];
+            s[i % 9] = 1;
+            next[i % 9] = 1;
+            next[(i + 1) % 9] = -1;
+            dqnReplay.add(s, i % 9, i % 2 == 0 ? 1.0 : -1.0, next, i % 3 == 0);
+        }
+        DQNTrainer dqn = new DQNTrainer(online, dqnReplay, 16, 0.05, 0.9);
+        dqn.setTargetUpdateInterval(10);
+        double[] leer = new double[9];
+        double vorher = dqn.getTargetNetwork().predict(leer)[0];
+        for (int i = 0; i < 9; i++) {
+            dqn.trainStep();
+        }
+        assertEquals(vorher, dqn.getTargetNetwork().predict(leer)[0], "Target Network bleibt bis zur Synchronisation fest");
+        dqn.trainStep();
+        assertEquals(online.predict(leer)[0], dqn.getTargetNetwork().predict(leer)[0], "Target Network nach Intervall synchronisiert");
+        System.out.println();
+        
+        System.out.println("Test-Gruppe: Double-DQN, Masking und Polyak");
+        // Ein Sample, Learning Rate 0: Online bleibt fest, der Loss ist td² / 9
+        NeuralNetwork ddqnOnline = new NeuralNetwork(new int[] {16}, 21);
+        ExperienceReplay einSample = new ExperienceReplay(1, 3);
+        double[] zustand = new double[9];
+        zustand[4] = 1;
+        double[] folge = zustand.clone();
+        folge[0] = -1;
+        einSample.add(zustand, 0, 0.5, folge, false);
+        DQNTrainer ddqn = new DQNTrainer(ddqnOnline, einSample, 1, 0.0, 0.9);
+        
+        // Online so trainieren, dass es die schlechteste legale Target-Aktion und
+        // das besetzte Feld 0 bevorzugt - argmax und Bewertung fallen auseinander
+        double[] qTarget = ddqn.getTargetNetwork().predict(folge);
+        int schlechteste = -1;
+        for (int a = 1; a < 9; a++) {
+            if (folge[a] == 0 && (schlechteste < 0 || qTarget[a] < qTarget[schlechteste])) {
+                schlechteste = a;
+            }
+        }
+        double[] vorliebe = new double[9];
+        vorliebe[0] = 3.0;
+        vorliebe[schlechteste] = 2.0;
+        for (int i = 0; i < 300; i++) {
+            ddqnOnline.train(folge, vorliebe, 0.05);
+        }
+        double[] qOnline = ddqnOnline.predict(folge);
+        int onlineWahl = -1;
+        double maxTarget = Double.NEGATIVE_INFINITY;
+        for (int a = 0; a < 9; a++) {
+            if (folge[a] == 0) {
+                onlineWahl = onlineWahl < 0 || qOnline[a] > qOnline[onlineWahl] ? a : onlineWahl;
+                maxTarget = Math.max(maxTarget, qTarget[a]);
+            }
+        }
+        double qSa = ddqnOnline.predict(zustand)[0];
+        double tdDouble = Math.abs(0.5 + 0.9 * qTarget[onlineWahl] - qSa);
+        double tdOhneMaske = Math.abs(0.5 + 0.9 * qTarget[0] - qSa);
+        double tdDqn = Math.abs(0.5 + 0.9 * maxTarget - qSa);
+        assertTrue(onlineWahl == schlechteste && qOnline[0] > qOnline[onlineWahl] && tdDouble != tdDqn,
+                   "Online und Target bevorzugen verschiedene Aktionen");
+        double tdGemessen = Math.sqrt(ddqn.trainStep() * 9);
+        assertTrue(Math.abs(tdGemessen - tdDouble) < 1e-9,
+                   "Double-DQN: argmax aus dem Online-, Wert aus dem Target Network");
+        assertTrue(Math.abs(tdGemessen - tdOhneMaske) > 1e-6, "Besetztes Feld fällt aus dem max heraus");
+        ddqn.setDoubleDqn(false);
+        assertTrue(Math.abs(Math.sqrt(ddqn.trainStep() * 9) - tdDqn) < 1e-9, "DQN: max über legale Target-Werte");
+        
+        ddqn.setPolyakTau(0.25);
+        NeuralNetwork erwartet = ddqn.getTargetNetwork().copy();
+        NeuralNetwork zweiSchritte = erwartet.copy();
+        erwartet.blendWeightsFrom(ddqnOnline, 0.25);
+        ddqn.trainStep();
+        assertTrue(Arrays.equals(erwartet.predict(folge), ddqn.getTargetNetwork().predict(folge)),
+                   "Polyak: Target wird pro Schritt um tau nachgeführt");
+        ddqn.trainStep();
+        zweiSchritte.blendWeightsFrom(ddqnOnline, 1 - 0.75 * 0.75);
+        double polyakAbweichung = 0;
+        for (int a = 0; a < 9; a++) {
+            polyakAbweichung = Math.max(polyakAbweichung, Math.abs(zweiSchritte.predict(folge)[a]
+                                                                   - ddqn.getTargetNetwork().predict(folge)[a]));
+        }
+        assertTrue(polyakAbweichung < 1e-12, "Polyak: θ = (1 - τ)·θ + τ·θ_online, zwei Schritte = 1 - (1 - τ)²");
+        System.out.println();
+        
+        System.out.println("Test-Gruppe: Network-Größe aus dem Brett");
+        MnkSpiel brett4x4 = new MnkSpiel(4, 4, 4);
+        NeuralNetwork gross = brett4x4.erstelleNetzwerk(new int[] {32}, 11);
+        assertEquals(16, gross.predict(new double[16]).length, "16 Inputs, 16 Q-Values");
+        ExperienceReplay grossReplay = new ExperienceReplay(64, 16, 5);
+        for (int i = 0; i < 64; i++) {
+            double[] s = new double[16];
+            double[] next = new double[16];
+            s[i % 16] = 1;
+            next[i % 16] = 1;
+            next[(i + 1) % 16] = -1;
+            grossReplay.add(s, i % 16, i % 2 == 0 ? 1.0 : -1.0, next, i % 3 == 0);
+        }
+        assertTrue(!Double.isNaN(new DQNTrainer(gross, grossReplay, 16, 0.05, 0.9).trainStep()),
+                   "DQN-Schritt auf 4x4");
+        try {
+            File datei = File.createTempFile("mnk", ".nn");
+            gross.save(datei.getPath());
+            NeuralNetwork geladen = NeuralNetwork.load(datei.getPath(), 0);
+            double[] eingabe = new double[16];
+            eingabe[5] = 1;
+            assertEquals(gross.predict(eingabe)[3], geladen.predict(eingabe)[3], "Speichern/Laden mit Brettgröße");
+            datei.delete();
+        } catch (Exception e) {
+            assertTrue(false, "Speichern/Laden mit Brettgröße: " + e.getMessage());
+        }
+        System.out.println();
+    }
+    
+    // ========================================================================
+    // Metriken Tests
+    // ========================================================================
+    
+    private static void testMetriken() {
+        System.out.println("╔═══════════════════════════════════════════════╗");
+        System.out.println("║  Metriken Tests                              ║");
+        System.out.println("╚═══════════════════════════════════════════════╝");
+        System.out.println();
+        
+        System.out.println("Test-Gruppe: Zähler und Histogramm");
+        MetrikRegistry registry = new MetrikRegistry();
+        Zaehler zaehler = registry.zaehler("test_total", "art=\"a\"", "Test");
+        assertTrue(zaehler == registry.zaehler("test_total", "art=\"a\"", "Test"), "Gleicher Schlüssel, gleiche Metrik");
+        Thread[] schreiber = new Thread[4];
+        for (int t = 0; t < schreiber.length; t++) {
+            schreiber[t] = new Thread(() -> {
+                for (int i = 0; i < 100_000; i++) {
+                    zaehler.erhoehe();
+                }
+            });
+            schreiber[t].start();
+        }
+        for (Thread t : schreiber) {
+            try {
+                t.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        assertEquals(400_000L, zaehler.getWert(), "Keine verlorenen Inkremente über 4 Threads");
+        
+        Zaehler.Puffer puffer = registry.zaehler("test_total", "art=\"b\"", "Test").puffer(4);
+        for (int i = 0; i < 10; i++) {
+            puffer.erhoehe();
+        }
+        assertEquals(8L, ((Zaehler) registry.get("test_total{art=\"b\"}")).getWert(), "Puffer meldet blockweise");
+        puffer.leeren();
+        assertEquals(10L, ((Zaehler) registry.get("test_total{art=\"b\"}")).getWert(), "Rest nach leeren()");
+        
+        Histogramm latenz = registry.histogramm("test_sekunden", "Test");
+        for (int i = 0; i < 99; i++) {
+            latenz.erfasse(1000);
+        }
+        latenz.erfasse(1_000_000);
+        assertEquals(100L, latenz.getAnzahl(), "Alle Messungen gezählt");
+        assertEquals(99 * 1000L + 1_000_000L, latenz.getSummeNanos(), "Summe in ns");
+        assertEquals(1024 / 1e9, latenz.quantil(0.5), "p50 = Bucket bis 1024 ns");
+        assertEquals((1 << 20) / 1e9, latenz.quantil(1.0), "Maximum = Bucket bis 2^20 ns");
+        boolean typKonflikt = false;
+        try {
+            registry.histogramm("test_total", "art=\"a\"", "Test");
+        } catch (IllegalArgumentException e) {
+            typKonflikt = true;
+        }
+        assertTrue(typKonflikt, "Gleicher Schlüssel mit anderem Typ wird abgelehnt");
+        System.out.println();
+        
+        System.out.println("Test-Gruppe: Prometheus-Format");
+        String text = registry.alsPrometheus();
+        assertEquals(text.indexOf("# TYPE test_total counter"), text.lastIndexOf("# TYPE test_total"),
+                     "HELP/TYPE einmal pro Familie");
+        assertTrue(text.contains("test_total{art=\"a\"} 400000\n") && text.contains("test_total{art=\"b\"} 10\n"),
+                   "Samples mit Labels");
+        assertTrue(text.contains("test_sekunden_bucket{le=\"+Inf\"} 100\n") && text.contains("test_sekunden_count 100\n"),
+                   "Histogramm mit +Inf-Bucket und Count");
+        System.out.println();
+        
+        System.out.println("Test-Gruppe: Endpunkt und CSV-Export");
+        try (MetrikServer server = MetrikServer.starte(registry, 0)) {
+            HttpClient client = HttpClient.newHttpClient();
+            URI uri = URI.create("http://localhost:" + server.getPort() + "/metrics");
+            HttpResponse<String> antwort = client.send(HttpRequest.newBuilder(uri).build(),
+                HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, antwort.statusCode(), "GET /metrics");
+            assertEquals(MetrikServer.CONTENT_TYPE, antwort.headers().firstValue("Content-Type").orElse(""),
+                         "Prometheus Content-Type");
+            assertEquals(registry.alsPrometheus(), antwort.body(), "Body ist die Registry-Ausgabe");
+            HttpResponse<String> post = client.send(HttpRequest.newBuilder(uri)
+                .POST(HttpRequest.BodyPublishers.noBody()).build(),
+                HttpResponse.BodyHandlers.ofString());
+            assertEquals(405, post.statusCode(), "Nur GET und HEAD");
+            assertTrue(Thread.getAllStackTraces().keySet().stream()
+                           .filter(t -> t.getName().startsWith("HTTP-Dispatcher")).allMatch(Thread::isDaemon),
+                       "Endpunkt hält die JVM nicht am Leben (Dispatcher ist Daemon)");
+        } catch (IOException e) {
+            assertTrue(false, "Endpunkt: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            Path csv = Files.createTempDirectory("metriken").resolve("results/metriken.csv");
+            MetrikCsvExport export = MetrikCsvExport.starte(registry, csv, 60_000);
+            export.close();
+            List<String> zeilen = Files.readAllLines(csv);
+            assertEquals("zeitstempel,metrik,wert", zeilen.get(0), "CSV-Header");
+            assertTrue(zeilen.stream().anyMatch(z -> z.endsWith(",\"test_total{art=\"\"a\"\"}\",400000")),
+                       "Labels CSV-maskiert, Wert als Ganzzahl");
+            assertTrue(zeilen.stream().anyMatch(z -> z.contains("test_sekunden:p99_sekunden")), "Histogramm als Quantile");
+            Files.delete(csv);
+            Files.delete(csv.getParent());
+            Files.delete(csv.getParent().getParent());
+        } catch (IOException e) {
+            assertTrue(false, "CSV-Export: " + e.getMessage());
+        }
+        System.out.println();
+        
+        System.out.println("Test-Gruppe: Instrumentierung");
+        MetrikRegistry standard = MetrikRegistry.STANDARD;
+        long spieleVorher = 0;
+        for (String ergebnis : new String[] {"spieler1", "spieler2", "unentschieden"}) {
+            Zaehler z = (Zaehler) standard.get("ttt_training_spiele_total{ergebnis=\"" + ergebnis + "\"}");
+            spieleVorher += z.getWert();
+        }
+        long updatesVorher = ((Zaehler) standard.get("ttt_q_updates_total")).getWert();
+        Spieler metrikSpieler = new Spieler("Metriken", 0.1, 0.9, 0.3);
+        metrikSpieler.setAusgabe(false);
+        int[] metrikSpiele = {0};
+        double[] statesWaehrend = {-1};
+        metrikSpieler.trainieren(() -> {
+            if (metrikSpiele[0] == 500) {
+                Messwert states = sucheMesswert(standard, "ttt_qtabelle_states", "spieler=\"Metriken\"");
+                statesWaehrend[0] = states == null ? -1
+                        : states.getWert() - metrikSpieler.getQLearningAgent().getAnzahlStates();
+            }
+            return metrikSpiele[0]++ >= 1000;
+        });
+        long spieleNachher = 0;
+        for (String ergebnis : new String[] {"spieler1", "spieler2", "unentschieden"}) {
+            Zaehler z = (Zaehler) standard.get("ttt_training_spiele_total{ergebnis=\"" + ergebnis + "\"}");
+            spieleNachher += z.getWert();
+        }
+        assertEquals(1000L, spieleNachher - spieleVorher, "Trainingsspiele nach Ergebnis gezählt");
+        assertTrue(((Zaehler) standard.get("ttt_q_updates_total")).getWert() - updatesVorher >= 5000,
+                   "Q-Updates nach Trainingsende vollständig gemeldet");
+        assertEquals(0.0, statesWaehrend[0], "States-Messwert mit Spieler-Label zeigt während des Trainings auf den Spieler");
+        assertTrue(sucheMesswert(standard, "ttt_qtabelle_states", "spieler=\"Metriken\"") == null
+                   && sucheMesswert(standard, "ttt_exploration_rate", "spieler=\"Metriken\"") == null,
+                   "Messwerte nach Trainingsende abgemeldet");
+        Spieler spielerA = new Spieler("Gleich", 0.1, 0.9, 0.3);
+        Spieler spielerB = new Spieler("Gleich", 0.1, 0.9, 0.3);
+        spielerA.setAusgabe(false);
+        spielerB.setAusgabe(false);
+        int[] verschachtelt = {0};
+        int[] innereMesswerte = {0};
+        spielerA.trainieren(() -> {
+            if (verschachtelt[0]++ == 10) {
+                int[] innen = {0};
+                spielerB.trainieren(() -> {
+                    if (innen[0] == 5) {
+                        innereMesswerte[0] = zaehleMesswerte(standard, "ttt_qtabelle_states", "spieler=\"Gleich\"");
+                    }
+                    return innen[0]++ >= 10;
+                });
+                return false;
+            }
+            return verschachtelt[0] >= 20;
+        });
+        assertEquals(2, innereMesswerte[0], "Gleichnamige Spieler melden getrennte Messwerte");
+        assertEquals(0, zaehleMesswerte(standard, "ttt_qtabelle_states", "spieler=\"Gleich\""),
+                     "Kein Messwert bleibt nach verschachteltem Training übrig");
+        assertEquals("spieler=\"a\\\\b\\\"c\"", Metrik.label("spieler", "a\\b\"c"), "Label-Werte werden maskiert");
+        Histogramm nnLatenz = (Histogramm) standard.get("ttt_nn_train_sekunden{art=\"einzeln\"}");
+        long nnVorher = nnLatenz.getAnzahl();
+        new NeuralNetwork(7).train(new double[9], new double[9], 0.01);
+        assertEquals(nnVorher + 1, nnLatenz.getAnzahl(), "NeuralNetwork.train wird gemessen");
+        System.out.println();
+    }
+    
     // ========================================================================
     // Test-Hilfsmethoden
     // ========================================================================
     
+    /**
+     * Sucht einen Messwert anhand von Name und einem Teil seiner Labels
+     */
+    private static Messwert sucheMesswert(MetrikRegistry registry, String name, String label) {
+        for (Metrik metrik : registry.getMetriken()) {
+            if (metrik instanceof Messwert messwert && metrik.getName().equals(name)
+                    && metrik.getLabels().contains(label)) {
+                return messwert;
+            }
+        }
+        return null;
+    }
+    
+    private static int zaehleMesswerte(MetrikRegistry registry, String name, String label) {
+        int anzahl = 0;
+        for (Metrik metrik : registry.getMetriken()) {
+            if (metrik.getName().equals(name) && metrik.getLabels().contains(label)) {
+                anzahl++;
+            }
+        }
+        return anzahl;
+    }
+    
+    /**
+     * Instanziert eine (paketinterne) MatrixKernels-Implementierung
+     */
+    private static Object erzeugeKernels(String klasse) throws ReflectiveOperationException {
+        Constructor<?> konstruktor = Class.forName(klasse).getDeclaredConstructor();
+        konstruktor.setAccessible(true);
+        return konstruktor.newInstance();
+    }
+    
+    private static void rufeKernel(Object kernels, String methode, Object... argumente)
+            throws ReflectiveOperationException {
+        for (Method kandidat : Class.forName("tic_tac_toe_mi.nn.MatrixKernels").getDeclaredMethods()) {
+            if (kandidat.getName().equals(methode)) {
+                kandidat.setAccessible(true);
+                kandidat.invoke(kernels, argumente);
+                return;
+            }
+        }
+        throw new NoSuchMethodException(methode);
+    }
+    
+    /**
+     * Führt alle Kernel-Operationen mit beiden Implementierungen auf denselben
+     * Zufallsdaten aus
+     * 
+     * @return Größte absolute Abweichung über alle Ergebnisse
+     */
+    private static double vergleicheKernels(Object scalar, Object vector, int rows, int cols, int batch, Random zufall)
+            throws ReflectiveOperationException {
+        double[] a = zufallsWerte(zufall, rows * cols);
+        double[] b = zufallsWerte(zufall, rows * cols);
+        double[] x = zufallsWerte(zufall, batch * cols);
+        double[] g = zufallsWerte(zufall, batch * rows);
+        double[][][] ergebnisse = new double[2][][];
+        Object[] implementierungen = {scalar, vector};
+        for (int k = 0; k < 2; k++) {
+            Object kernels = implementierungen[k];
+            double[] y = new double[rows];
+            rufeKernel(kernels, "multiply", a, rows, cols, x, y);
+            double[] yT = new double[cols];
+            rufeKernel(kernels, "multiplyTranspose", a, rows, cols, g, yT);
+            double[] rank1 = a.clone();
+            rufeKernel(kernels, "rank1Update", rank1, rows, cols, g, x, 0.1);
+            double[] differenz = a.clone();
+            rufeKernel(kernels, "subtractScaled", differenz, b, 0.3, rows * cols);
+            double[] yBatch = new double[batch * rows];
+            rufeKernel(kernels, "multiplyBatch", a, rows, cols, x, batch, yBatch);
+            double[] yTBatch = new double[batch * cols];
+            rufeKernel(kernels, "multiplyTransposeBatch", a, rows, cols, g, batch, yTBatch);
+            double[] aeussere = a.clone();
+            rufeKernel(kernels, "addOuterProducts", aeussere, rows, cols, g, x, batch);
+            double[] relu = new double[batch * cols];
+            rufeKernel(kernels, "relu", x, relu, batch * cols);
+            double[] gradient = b.clone();
+            rufeKernel(kernels, "reluDerivative", a, gradient, rows * cols);
+            ergebnisse[k] = new double[][] {y, yT, rank1, differenz, yBatch, yTBatch, aeussere, relu, gradient};
+        }
+        double abweichung = 0;
+        for (int e = 0; e < ergebnisse[0].length; e++) {
+            for (int i = 0; i < ergebnisse[0][e].length; i++) {
+                abweichung = Math.max(abweichung, Math.abs(ergebnisse[0][e][i] - ergebnisse[1][e][i]));
+            }
+        }
+        return abweichung;
+    }
+    
+    private static double[] zufallsWerte(Random zufall, int anzahl) {
+        double[] werte = new double[anzahl];
+        for (int i = 0; i < anzahl; i++) {
+            werte[i] = zufall.nextDouble() * 2 - 1;
+        }
+        return werte;
+    }
+    
     private static void assertTrue(boolean condition, String message) {
         testsGesamt++;
         if (condition) {